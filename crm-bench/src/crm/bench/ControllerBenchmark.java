@@ -0,0 +1,102 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.bench;
+
+import crm.controller.CRMController;
+import crm.controller.command.CommandResult;
+import crm.controller.command.MakeSaleCommand;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.observer.CRMObserver;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.Interaction;
+import customer.RegularCustomer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Event dispatch to observers and a full headless command (sale) through the
+ * controller. dispatchUninterestedEvent publishes an event none of the
+ * observers subscribed to, which should cost the same for any observer count. Commands keep undo history, so the controller is rebuilt every
+ * iteration to stop that history from skewing later iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+    @Param({"0", "1", "8"})
+    private int observerCount;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private CRMController controller;
+    private CRMController salesOnlyController;
+    private CRMEvent event;
+    private CRMEvent uninterestedEvent;
+    private int cursor;
+
+    private static class ConsumingObserver implements CRMObserver {
+        private final Blackhole blackhole;
+
+        ConsumingObserver(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onEvent(EventType eventType) {
+            blackhole.consume(eventType);
+        }
+
+        @Override
+        public void onEvent(CRMEvent crmEvent) {
+            blackhole.consume(crmEvent);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp(Blackhole blackhole) {
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        for (int i = 0; i < size; i++) {
+            repository.createCustomer(new RegularCustomer(i + 1, "Customer " + i, "c" + i + "@example.com", "555-" + i));
+        }
+        controller = new CRMController();
+        controller.addCommand(new MakeSaleCommand(repository));
+        salesOnlyController = new CRMController();
+        for (int i = 0; i < observerCount; i++) {
+            controller.addObserver(new ConsumingObserver(blackhole));
+            salesOnlyController.addObserver(new ConsumingObserver(blackhole), EnumSet.of(EventType.SALE_MADE));
+        }
+        event = new CRMEvent(EventType.SALE_MADE, 1, "Sale completed");
+        uninterestedEvent = new CRMEvent(EventType.VIEW_HISTORY, 1);
+    }
+
+    @Benchmark
+    public void dispatchEvent() {
+        controller.notifyObservers(event);
+    }
+
+    @Benchmark
+    public void dispatchUninterestedEvent() {
+        salesOnlyController.notifyObservers(uninterestedEvent);
+    }
+
+    @Benchmark
+    public CommandResult<Interaction> executeSale() {
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        return controller.execute(new MakeSaleRequest(cursor + 1));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.bench;
+
+import crm.observer.AsyncObserver;
+import crm.observer.CRMObserver;
+import crm.observer.FileLogger;
+import crm.observer.LogFileWriter;
+import crm.observer.LogFormat;
+import crm.observer.RotationPolicy;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * Cost of FileLogger.onEvent as seen by the thread that publishes the event,
+ * for each way the logger can be set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileLoggerBenchmark {
+    @Param({"WRITE_THROUGH", "OS_MANAGED", "PERIODIC", "ASYNC", "BINARY"})
+    private String mode;
+
+    private Path directory;
+    private CRMObserver observer;
+    private CRMEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("crm-bench");
+        String logPath = directory.resolve("crm_activity.log").toString();
+        switch (mode) {
+            case "WRITE_THROUGH":
+                observer = new FileLogger(logPath);
+                break;
+            case "OS_MANAGED":
+                observer = new FileLogger(logPath, LogFileWriter.Durability.OS_MANAGED, 100);
+                break;
+            case "PERIODIC":
+                observer = new FileLogger(logPath, LogFileWriter.Durability.PERIODIC, 100);
+                break;
+            case "ASYNC":
+                observer = new AsyncObserver(new FileLogger(logPath, LogFileWriter.Durability.OS_MANAGED, 100));
+                break;
+            case "BINARY":
+                observer = new FileLogger(logPath, LogFileWriter.Durability.OS_MANAGED, 100, RotationPolicy.NONE,
+                        LogFormat.BINARY);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        event = new CRMEvent(EventType.SALE_MADE, 64001, "Sale completed");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        observer.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void onEvent() {
+        observer.onEvent(event);
+    }
+}
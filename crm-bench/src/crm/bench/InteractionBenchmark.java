@@ -0,0 +1,60 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.bench;
+
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.Interaction;
+import customer.RegularCustomer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Appending to and reading back a customer's interaction history, starting
+ * from histories of different lengths. The customer is rebuilt every
+ * iteration so appends do not keep lengthening the history being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InteractionBenchmark {
+    @Param({"0", "1000", "100000"})
+    private int historySize;
+
+    private Customer customer;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        customer = new RegularCustomer(1, "Customer", "c@example.com", "555-0000");
+        for (int i = 0; i < historySize; i++) {
+            customer.addInteraction(EventType.SALE_MADE, "Sale " + i);
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        customer.addInteraction(EventType.NOTIFICATION_SENT, "Contacted via SMS");
+    }
+
+    @Benchmark
+    public List<Interaction> readHistory() {
+        return customer.getInteractionHistory();
+    }
+
+    @Benchmark
+    public void iterateHistory(Blackhole blackhole) {
+        for (Interaction interaction : customer.getInteractions()) {
+            blackhole.consume(interaction);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.bench;
+
+import customer.Customer;
+import customer.RegularCustomer;
+import org.openjdk.jmh.annotations.*;
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+import repository.InMemoryCustomerRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Single-customer repository operations at several dataset sizes. Customers
+ * are visited in a scattered order so lookups are not served from a warm
+ * run of neighbouring entries. Create and delete are measured as pairs so
+ * the dataset keeps its size for the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+    private static final int STRIDE = 7919;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"InMemory", "Concurrent"})
+    private String implementation;
+
+    private CustomerRepository repository;
+    private Customer[] customers;
+    private Customer[] spares;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = "InMemory".equals(implementation)
+                ? new InMemoryCustomerRepository()
+                : new ConcurrentCustomerRepository();
+        customers = new Customer[size];
+        for (int i = 0; i < size; i++) {
+            customers[i] = new RegularCustomer(i + 1, "Customer " + i, "c" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customers[i]);
+        }
+        spares = new Customer[1024];
+        for (int i = 0; i < spares.length; i++) {
+            spares[i] = new RegularCustomer(size + i + 1, "Spare " + i, "s" + i + "@example.com", "555-" + i);
+        }
+    }
+
+    @Benchmark
+    public Customer lookup() {
+        return repository.getCustomerFromId(next().getId());
+    }
+
+    @Benchmark
+    public void update() {
+        Customer customer = next();
+        customer.setPhone(customer.getPhone());
+        repository.updateCustomer(customer);
+    }
+
+    @Benchmark
+    public void createThenDelete() {
+        Customer spare = spares[cursor & (spares.length - 1)];
+        cursor++;
+        repository.createCustomer(spare);
+        repository.deleteCustomer(spare);
+    }
+
+    @Benchmark
+    public void deleteThenRecreate() {
+        Customer customer = next();
+        repository.deleteCustomer(customer);
+        repository.createCustomer(customer);
+    }
+
+    private Customer next() {
+        cursor = (cursor + STRIDE) % size;
+        return customers[cursor];
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+public class Campaign {
+    private final String name;
+    private final Segment segment;
+    private final MessageTemplate template;
+
+    public Campaign(String name, Segment segment, MessageTemplate template) {
+        this.name = name;
+        this.segment = segment;
+        this.template = template;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Segment getSegment() {
+        return segment;
+    }
+
+    public MessageTemplate getTemplate() {
+        return template;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+/*
+ * Told after every chunk of customers a campaign finishes. Calls are made one
+ * at a time, though not always from the same thread.
+ */
+public interface CampaignProgressListener {
+    public static final CampaignProgressListener NONE = (processed, total, sent, failed) -> { };
+
+    public void onProgress(long processed, long total, long sent, long failed);
+}
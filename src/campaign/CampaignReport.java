@@ -0,0 +1,63 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+public class CampaignReport {
+    private final String campaignName;
+    private final long customersScanned;
+    private final long matched;
+    private final long sent;
+    private final long failed;
+    private final long elapsedMillis;
+    private final int[] recipientIds;
+
+    public CampaignReport(String campaignName, long customersScanned, long matched, long sent, long failed,
+                          long elapsedMillis, int[] recipientIds) {
+        this.campaignName = campaignName;
+        this.customersScanned = customersScanned;
+        this.matched = matched;
+        this.sent = sent;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.recipientIds = recipientIds;
+    }
+
+    public String getCampaignName() {
+        return campaignName;
+    }
+
+    public long getCustomersScanned() {
+        return customersScanned;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // The customers the message reached, in no particular order
+    public int[] getRecipientIds() {
+        return recipientIds.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Campaign '%s': %d of %d customers matched, %d sent, %d failed in %.1f s",
+                campaignName, matched, customersScanned, sent, failed, elapsedMillis / 1000.0);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.Interaction;
+import notification.NotificationDispatcher;
+import repository.CustomerRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Sends a campaign to every customer in its segment. Customers are split
+ * into chunks that worker threads process in parallel. Each matching
+ * customer is messaged through their own preferred contact method, through
+ * the NotificationDispatcher when one is given. Once a chunk's messages are
+ * out, its NOTIFICATION_SENT interactions and last-contact dates are written
+ * in one bulk repository update, so a chunk costs one log sync rather than
+ * one per customer.
+ */
+public class CampaignRunner {
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final CustomerRepository repository;
+    private final NotificationDispatcher dispatcher;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public CampaignRunner(CustomerRepository repository) {
+        this(repository, null, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    // A null dispatcher sends on the worker threads through Customer.contact
+    public CampaignRunner(CustomerRepository repository, NotificationDispatcher dispatcher, int parallelism,
+                          int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    public CampaignReport run(Campaign campaign) {
+        return run(campaign, CampaignProgressListener.NONE);
+    }
+
+    public CampaignReport run(Campaign campaign, CampaignProgressListener listener) {
+        long start = System.nanoTime();
+        List<Customer> customers = repository.getAllCustomers();
+        Progress progress = new Progress(customers.size(), listener);
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "crm-campaign-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < customers.size(); from += chunkSize) {
+                List<Customer> chunk = customers.subList(from, Math.min(from + chunkSize, customers.size()));
+                chunks.add(workers.submit(() -> runChunk(campaign, chunk, progress)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Campaign interrupted: " + campaign.getName(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Campaign failed: " + campaign.getName(), e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return progress.report(campaign.getName(), elapsedMillis);
+    }
+
+    private void runChunk(Campaign campaign, List<Customer> chunk, Progress progress) {
+        List<Customer> recipients = new ArrayList<>();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        int matched = 0;
+        int failed = 0;
+
+        for (Customer customer : chunk) {
+            if (!campaign.getSegment().matches(customer)) {
+                continue;
+            }
+            matched++;
+            String message = campaign.getTemplate().render(customer);
+            if (dispatcher != null) {
+                recipients.add(customer);
+                deliveries.add(dispatcher.dispatch(customer, message));
+                continue;
+            }
+            try {
+                customer.contact(message);
+                recipients.add(customer);
+            } catch (RuntimeException e) {
+                failed++;
+            }
+        }
+
+        // Only customers whose message actually went out get an interaction
+        if (dispatcher != null) {
+            List<Customer> delivered = new ArrayList<>(recipients.size());
+            for (int i = 0; i < recipients.size(); i++) {
+                try {
+                    deliveries.get(i).join();
+                    delivered.add(recipients.get(i));
+                } catch (CompletionException e) {
+                    failed++;
+                }
+            }
+            recipients = delivered;
+        }
+
+        record(campaign, recipients);
+        progress.chunkDone(chunk.size(), matched, recipients, failed);
+    }
+
+    private void record(Campaign campaign, List<Customer> recipients) {
+        // Interactions are immutable, so every customer reached on the same channel shares one
+        Map<String, Interaction> interactionsByChannel = new HashMap<>();
+        Date now = new Date();
+        repository.updateInBulk(() -> {
+            for (Customer customer : recipients) {
+                String channel = customer.getPreferredContactMethod().toString();
+                Interaction interaction = interactionsByChannel.computeIfAbsent(channel,
+                        name -> new Interaction(EventType.NOTIFICATION_SENT,
+                                "Campaign '" + campaign.getName() + "' sent via " + name));
+                customer.addInteraction(interaction);
+                customer.setLastContact(now);
+            }
+        });
+    }
+
+    // Totals shared by the workers; the lock also keeps listener calls one at a time
+    private static class Progress {
+        private final long total;
+        private final CampaignProgressListener listener;
+        private long processed;
+        private long matched;
+        private long sent;
+        private long failed;
+        private int[] recipientIds = new int[16];
+
+        Progress(long total, CampaignProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+
+        synchronized void chunkDone(int chunkProcessed, int chunkMatched, List<Customer> chunkRecipients,
+                                    int chunkFailed) {
+            if (sent + chunkRecipients.size() > recipientIds.length) {
+                recipientIds = Arrays.copyOf(recipientIds,
+                        (int) Math.max(sent + chunkRecipients.size(), recipientIds.length * 2L));
+            }
+            for (Customer customer : chunkRecipients) {
+                recipientIds[(int) sent++] = customer.getId();
+            }
+            processed += chunkProcessed;
+            matched += chunkMatched;
+            failed += chunkFailed;
+            listener.onProgress(processed, total, sent, failed);
+        }
+
+        synchronized CampaignReport report(String campaignName, long elapsedMillis) {
+            return new CampaignReport(campaignName, processed, matched, sent, failed, elapsedMillis,
+                    Arrays.copyOf(recipientIds, (int) sent));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+import customer.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Campaign message with placeholders filled in per customer: {name},
+ * {email}, {phone} and {id}. The text is split into parts once, so
+ * rendering for a million customers is only appends.
+ */
+public class MessageTemplate {
+    private enum Placeholder {
+        NAME("{name}"),
+        EMAIL("{email}"),
+        PHONE("{phone}"),
+        ID("{id}");
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+    }
+
+    private final String text;
+    // Each part is either a literal String or a Placeholder
+    private final Object[] parts;
+
+    public MessageTemplate(String text) {
+        this.text = text;
+        this.parts = parse(text);
+    }
+
+    public String render(Customer customer) {
+        StringBuilder message = new StringBuilder(text.length() + 32);
+        for (Object part : parts) {
+            if (part instanceof Placeholder) {
+                appendValue(message, (Placeholder) part, customer);
+            } else {
+                message.append((String) part);
+            }
+        }
+        return message.toString();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    private static void appendValue(StringBuilder message, Placeholder placeholder, Customer customer) {
+        switch (placeholder) {
+            case NAME:
+                message.append(customer.getName());
+                break;
+            case EMAIL:
+                message.append(customer.getEmail());
+                break;
+            case PHONE:
+                message.append(customer.getPhone());
+                break;
+            case ID:
+                message.append(customer.getId());
+                break;
+            default:
+                throw new IllegalStateException("Unexpected placeholder: " + placeholder);
+        }
+    }
+
+    private static Object[] parse(String text) {
+        List<Object> parts = new ArrayList<>();
+        int literalStart = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = text.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            Placeholder placeholder = placeholderFor(text.substring(open, close + 1));
+            if (placeholder != null) {
+                if (open > literalStart) {
+                    parts.add(text.substring(literalStart, open));
+                }
+                parts.add(placeholder);
+                literalStart = close + 1;
+            }
+            open = text.indexOf('{', placeholder != null ? close + 1 : open + 1);
+        }
+        if (literalStart < text.length()) {
+            parts.add(text.substring(literalStart));
+        }
+        return parts.toArray();
+    }
+
+    // Unknown tokens like {discount} are kept as literal text
+    private static Placeholder placeholderFor(String token) {
+        for (Placeholder placeholder : Placeholder.values()) {
+            if (placeholder.token.equals(token)) {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+}
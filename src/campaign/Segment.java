@@ -0,0 +1,60 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package campaign;
+
+import customer.Customer;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Decides which customers a campaign reaches. Segments combine with and, or
+ * and negate.
+ */
+public interface Segment {
+    public boolean matches(Customer customer);
+
+    public default Segment and(Segment other) {
+        return customer -> matches(customer) && other.matches(customer);
+    }
+
+    public default Segment or(Segment other) {
+        return customer -> matches(customer) || other.matches(customer);
+    }
+
+    public default Segment negate() {
+        return customer -> !matches(customer);
+    }
+
+    public static Segment all() {
+        return customer -> true;
+    }
+
+    // Matches the given class and its subclasses, e.g. VIPCustomer.class
+    public static Segment ofType(Class<? extends Customer> type) {
+        return type::isInstance;
+    }
+
+    // Exactly the customers with these ids, e.g. the recipients of a journaled campaign
+    public static Segment ofIds(int... ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        return customer -> Arrays.binarySearch(sorted, customer.getId()) >= 0;
+    }
+
+    // Customers never contacted, or last contacted before the cutoff
+    public static Segment lastContactBefore(Date cutoff) {
+        long cutoffMillis = cutoff.getTime();
+        return customer -> customer.getLastContact() == null || customer.getLastContact().getTime() < cutoffMillis;
+    }
+
+    // The cutoff is fixed when the segment is created, not when it is evaluated
+    public static Segment notContactedFor(long days) {
+        return lastContactBefore(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)));
+    }
+}
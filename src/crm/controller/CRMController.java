@@ -7,21 +7,81 @@
 package crm.controller;
 
 import crm.controller.command.CRMCommand;
+import crm.controller.command.CommandResult;
+import crm.controller.command.ParameterizedCommand;
+import crm.controller.command.UndoEntry;
+import crm.controller.command.UndoLog;
+import crm.controller.command.request.CommandRequest;
 import crm.observer.CRMObserver;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
+import repository.CustomerRepository;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class CRMController {
-    private final Stack<CRMCommand> commandHistory = new Stack<>();
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final CRMObserver[] NO_OBSERVERS = new CRMObserver[0];
+
+    // One entry per execution that changed something, oldest evicted once the depth is reached.
+    // Parameterized commands push their own entries here.
+    private final UndoLog commandHistory;
+    // Null when commands are not journaled
+    private final CommandJournal journal;
+    // The repository the commands use; null when the controller was not told
+    private final CustomerRepository repository;
     private final List<CRMObserver> observers = new ArrayList<>();
-    private final List<CRMCommand> commands = new ArrayList<>();
+    private final List<Set<EventType>> observerInterests = new ArrayList<>();
+    // Observers to notify for each event type by ordinal, rebuilt whenever an observer is added or removed.
+    // The extra last slot holds every observer, for events that carry no type.
+    private volatile CRMObserver[][] observersByType = emptyRoutes();
+    // Copy-on-write so commands can be registered while other threads execute requests
+    private final List<CRMCommand> commands = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, ParameterizedCommand<?, ?>> commandsByRequest = new ConcurrentHashMap<>();
+
+    public CRMController() {
+        this(UndoLog.DEFAULT_DEPTH);
+    }
+
+    public CRMController(int undoDepth) {
+        this(undoDepth, null);
+    }
+
+    // Every command that changes something is on disk in the journal before its result is returned
+    public CRMController(int undoDepth, CommandJournal journal) {
+        this(undoDepth, journal, null);
+    }
+
+    // repository is the one the registered commands use, for executeBatch and CommandExecutor
+    public CRMController(int undoDepth, CommandJournal journal, CustomerRepository repository) {
+        this.commandHistory = new UndoLog(undoDepth);
+        this.journal = journal;
+        this.repository = repository;
+    }
+
+    // Null when the controller was built without one
+    public CustomerRepository getRepository() {
+        return repository;
+    }
 
     public void addCommand(CRMCommand command) {
         commands.add(command);
+        if (command instanceof ParameterizedCommand) {
+            ParameterizedCommand<?, ?> parameterized = (ParameterizedCommand<?, ?>) command;
+            // The command records its undo entries straight into the controller's history
+            parameterized.setUndoLog(commandHistory);
+            commandsByRequest.put(parameterized.getRequestType(), parameterized);
+        }
     }
 
     public List<String> getCommandListing() {
@@ -37,29 +97,217 @@ public class CRMController {
     public void executeCommand(int slot) {
         CRMCommand command = commands.get(slot);
 
-        commandHistory.push(command);
-        notifyObservers(command.execute());
+        if (command instanceof ParameterizedCommand) {
+            executeFromConsole((ParameterizedCommand<?, ?>) command);
+        } else {
+            // A plain command keeps its own history, so undoing it means undoing its latest execution
+            commandHistory.push(UndoEntry.of(command::undo));
+            notifyObservers(command.execute());
+        }
     }
 
-    public void undoCommand() {
-        if (commandHistory.isEmpty()) { return; }
+    // Headless entry point: runs the command registered for the request's type without touching the console
+    public <R> CommandResult<R> execute(CommandRequest<R> request) {
+        return complete(request, run(request));
+    }
 
-        commandHistory.pop().undo();
-        notifyObservers(new CRMEvent(EventType.COMMAND_UNDONE));
+    // The console prompts become a request like any other, so it is journaled and undone the same way
+    private <Q extends CommandRequest<R>, R> void executeFromConsole(ParameterizedCommand<Q, R> command) {
+        Scanner scanner = new Scanner(System.in);
+        Q request = command.readRequest(scanner);
+        if (request == null) {
+            notifyObservers(new CRMEvent(command.getEventType()));
+            return;
+        }
+        command.report(scanner, request, complete(request, command.execute(request)));
     }
 
+    private <R> CommandResult<R> complete(CommandRequest<R> request, CommandResult<R> result) {
+        // The earlier execution was journaled and published already
+        if (result.isRepeat()) {
+            return result;
+        }
+        // A command that found nothing to act on, or only read, has nothing to undo or journal;
+        // one that changed something has already put its undo entry in commandHistory
+        if (result.getUndo() != null && journal != null) {
+            long seq = journal.record(request, result);
+            // An undo that raced ahead of the record could not name it, so it is journaled here
+            if (seq != 0 && result.getUndo().setJournalSeq(seq)) {
+                journal.recordUndo(seq);
+            }
+        }
+        notifyObservers(result.getEvent());
+        return result;
+    }
+
+    // Runs the batch in the write section of the repository the controller was built with
+    public List<CommandResult<?>> executeBatch(List<? extends CommandRequest<?>> requests) {
+        if (repository == null) {
+            throw new IllegalStateException("Controller has no repository; pass the one its commands use");
+        }
+        return executeBatch(requests, repository);
+    }
+
+    // Runs the requests in order as one group inside repository.updateInBulk, which must be the repository
+    // the commands use. A ConcurrentCustomerRepository keeps every other writer out until the group ends and
+    // a FileCustomerRepository commits the group with one fsync; a repository without a write section of its
+    // own just runs them. The journal syncs once, and each observer gets the batch's events in a single
+    // onEvents call. If a command throws, the commands before it still count and the exception is rethrown
+    // once their events are published.
+    public List<CommandResult<?>> executeBatch(List<? extends CommandRequest<?>> requests,
+                                               CustomerRepository repository) {
+        Objects.requireNonNull(repository, "repository");
+        List<CommandResult<?>> results = new ArrayList<>(requests.size());
+        long lastSeq = 0;
+        try {
+            repository.updateInBulk(() -> {
+                for (CommandRequest<?> request : requests) {
+                    results.add(run(request));
+                }
+            });
+        } finally {
+            List<CRMEvent> events = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                CommandResult<?> result = results.get(i);
+                if (result.isRepeat()) {
+                    continue;
+                }
+                if (result.getUndo() != null && journal != null) {
+                    long seq = journal.append(requests.get(i), result);
+                    if (seq != 0 && result.getUndo().setJournalSeq(seq)) {
+                        seq = journal.appendUndo(seq);
+                    }
+                    lastSeq = Math.max(lastSeq, seq);
+                }
+                events.add(result.getEvent());
+            }
+            if (journal != null) {
+                journal.awaitDurable(lastSeq);
+            }
+            notifyObservers(events);
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> CommandResult<R> run(CommandRequest<R> request) {
+        ParameterizedCommand<CommandRequest<R>, R> command =
+                (ParameterizedCommand<CommandRequest<R>, R>) commandsByRequest.get(request.getClass());
+        if (command == null) {
+            throw new IllegalArgumentException("No command registered for " + request.getClass().getSimpleName());
+        }
+        return command.execute(request);
+    }
+
+    // A journaled undo is on disk before it is announced, so a replay leaves the undone command out
+    public void undoCommand() {
+        UndoEntry entry;
+        // Entries already undone directly through their command are skipped
+        while ((entry = commandHistory.pop()) != null) {
+            if (entry.undo()) {
+                long seq = entry.getJournalSeq();
+                if (journal != null && seq != 0) {
+                    journal.recordUndo(seq);
+                }
+                notifyObservers(new CRMEvent(EventType.COMMAND_UNDONE));
+                return;
+            }
+        }
+    }
+
+    // Subscribes the observer to the event types it declares in getInterests
     public void addObserver(CRMObserver observer) {
+        addObserver(observer, observer.getInterests());
+    }
+
+    public synchronized void addObserver(CRMObserver observer, Collection<EventType> interests) {
+        Set<EventType> mask = EnumSet.noneOf(EventType.class);
+        mask.addAll(interests);
         observers.add(observer);
+        observerInterests.add(mask);
+        rebuildRoutes();
     }
 
-    public void removeObserver(CRMObserver observer) {
-        observers.remove(observer);
+    public synchronized void removeObserver(CRMObserver observer) {
+        int index = observers.indexOf(observer);
+        if (index < 0) {
+            return;
+        }
+        observers.remove(index);
+        observerInterests.remove(index);
+        rebuildRoutes();
     }
 
     public void notifyObservers(CRMEvent eventType) {
-        for (CRMObserver observer : observers) {
+        CRMObserver[][] routes = observersByType;
+        CRMObserver[] targets = eventType.getEventType() == null
+                ? routes[EVENT_TYPES.length]
+                : routes[eventType.getEventType().ordinal()];
+        for (CRMObserver observer : targets) {
             observer.onEvent(eventType);
         }
     }
 
+    // Each observer is called once with the events it is interested in, in their original order
+    public void notifyObservers(List<CRMEvent> events) {
+        CRMObserver[][] routes = observersByType;
+        CRMObserver[] everyone = routes[EVENT_TYPES.length];
+        if (everyone.length == 0 || events.isEmpty()) {
+            return;
+        }
+        Map<CRMObserver, List<CRMEvent>> batches = new IdentityHashMap<>();
+        for (CRMEvent event : events) {
+            CRMObserver[] targets = event.getEventType() == null
+                    ? everyone
+                    : routes[event.getEventType().ordinal()];
+            for (CRMObserver observer : targets) {
+                batches.computeIfAbsent(observer, key -> new ArrayList<>(events.size())).add(event);
+            }
+        }
+        for (CRMObserver observer : everyone) {
+            // An observer added twice already has every event twice in its batch
+            List<CRMEvent> batch = batches.remove(observer);
+            if (batch != null) {
+                observer.onEvents(batch);
+            }
+        }
+    }
+
+    // Waits for asynchronous observers to finish handling every event published so far
+    public void flush() {
+        for (CRMObserver observer : observersByType[EVENT_TYPES.length]) {
+            observer.flush();
+        }
+    }
+
+    public void close() {
+        for (CRMObserver observer : observersByType[EVENT_TYPES.length]) {
+            observer.close();
+        }
+    }
+
+    // Caller holds the controller's lock
+    private void rebuildRoutes() {
+        CRMObserver[][] routes = new CRMObserver[EVENT_TYPES.length + 1][];
+        for (EventType type : EVENT_TYPES) {
+            List<CRMObserver> interested = new ArrayList<>();
+            for (int i = 0; i < observers.size(); i++) {
+                if (observerInterests.get(i).contains(type)) {
+                    interested.add(observers.get(i));
+                }
+            }
+            routes[type.ordinal()] = interested.toArray(NO_OBSERVERS);
+        }
+        routes[EVENT_TYPES.length] = observers.toArray(NO_OBSERVERS);
+        observersByType = routes;
+    }
+
+    private static CRMObserver[][] emptyRoutes() {
+        CRMObserver[][] routes = new CRMObserver[EVENT_TYPES.length + 1][];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = NO_OBSERVERS;
+        }
+        return routes;
+    }
+
 }
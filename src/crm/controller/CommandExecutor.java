@@ -0,0 +1,122 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller;
+
+import crm.controller.command.CommandResult;
+import crm.controller.command.request.CommandRequest;
+import crm.controller.command.request.CustomerRequest;
+import repository.CustomerRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Runs headless commands through a CRMController on a fixed set of lanes,
+ * each a single thread with its own queue. A CustomerRequest always goes to
+ * the lane its customer id hashes to, so commands for one customer run one
+ * at a time in submission order while commands for different customers run
+ * in parallel. Requests that are not tied to an existing customer (creating
+ * one, sending a campaign) are spread over the lanes in turn.
+ *
+ * Lanes call the controller's commands concurrently, so with more than one
+ * lane the controller must have been built with the repository its commands
+ * use, and that repository's isThreadSafe must be true, such as
+ * ConcurrentCustomerRepository or one of the durable repositories. The
+ * constructor rejects anything else, since concurrent creates and edits
+ * would corrupt an InMemoryCustomerRepository's maps. With a single lane
+ * every command runs on one thread and any repository will do.
+ *
+ * Undo history is still the controller's single log, so undo reverses
+ * commands in the order they finished, which across customers may differ
+ * from the order they were submitted.
+ */
+public class CommandExecutor {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final CRMController controller;
+    private final ExecutorService[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private volatile boolean closed;
+
+    // One lane per core, or a single lane when the controller's repository is not known to be thread-safe
+    public CommandExecutor(CRMController controller) {
+        this(controller, hasThreadSafeRepository(controller) ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    // More than one lane needs the controller's repository to be thread-safe
+    public CommandExecutor(CRMController controller, int laneCount) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("Lane count must be positive: " + laneCount);
+        }
+        if (laneCount > 1 && !hasThreadSafeRepository(controller)) {
+            throw new IllegalArgumentException("Running on " + laneCount
+                    + " lanes needs a controller built with a thread-safe repository");
+        }
+        this.controller = controller;
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "crm-lane-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Completes with the command's result, or exceptionally if the command threw
+    public <R> CompletableFuture<CommandResult<R>> submit(CommandRequest<R> request) {
+        if (closed) {
+            throw new IllegalStateException("Executor has been closed");
+        }
+        int lane = request instanceof CustomerRequest
+                ? laneOf(((CustomerRequest<R>) request).getCustomerId())
+                : Math.floorMod(nextLane.getAndIncrement(), lanes.length);
+        return CompletableFuture.supplyAsync(() -> controller.execute(request), lanes[lane]);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    // Waits until every command submitted so far has finished
+    public void flush() {
+        CompletableFuture<?>[] markers = new CompletableFuture<?>[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            markers[i] = CompletableFuture.runAsync(() -> { }, lanes[i]);
+        }
+        CompletableFuture.allOf(markers).join();
+    }
+
+    // Finishes the commands already submitted, then stops the lanes
+    public void close() {
+        closed = true;
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean hasThreadSafeRepository(CRMController controller) {
+        CustomerRepository repository = controller.getRepository();
+        return repository != null && repository.isThreadSafe();
+    }
+
+    int laneOf(int customerId) {
+        // Sequential ids are mixed so neighbouring customers land on different lanes
+        int hash = customerId * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller;
+
+import campaign.Campaign;
+import campaign.CampaignReport;
+import campaign.MessageTemplate;
+import campaign.Segment;
+import crm.controller.command.CommandResult;
+import crm.controller.command.request.CommandRequest;
+import crm.controller.command.request.ContactCustomerRequest;
+import crm.controller.command.request.CreateCustomerRequest;
+import crm.controller.command.request.DeleteCustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.controller.command.request.SendCampaignRequest;
+import crm.controller.command.request.UpdateCustomerRequest;
+import customer.Customer;
+import customer.CustomerField;
+import customer.CustomerType;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+ * Durable record of every command that changed something, with its typed
+ * parameters, so the day's work can be replayed by CommandReplayer. The
+ * controller appends a command once it has run and waits for the record to
+ * reach the disk before handing back the result, so every result a caller
+ * has seen is in the journal. Concurrent commands share fsyncs: whichever
+ * caller forces the file covers everything appended before it.
+ *
+ * Records are CRC-framed like the outbox and the customer log; a torn tail
+ * is cut off on open. A create is journaled with the id it was given, so a
+ * replay can recreate the customer under the same id. A campaign's segment
+ * is arbitrary code, so a campaign is journaled as its name, its template
+ * and the ids of the customers it reached, written sorted as varint gaps.
+ * History views change nothing and are not journaled.
+ *
+ * An undo is journaled as a record of its own that names the sequence number
+ * of the record it reverses, where records count from 1 in file order. The
+ * controller waits for it to reach the disk before announcing the undo, and
+ * CommandReplayer leaves undone commands out.
+ */
+public class CommandJournal implements Closeable {
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private static final byte CREATE = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final byte SALE = 4;
+    private static final byte CONTACT = 5;
+    private static final byte CAMPAIGN = 6;
+    private static final byte UNDO = 7;
+
+    private static final CustomerField[] CUSTOMER_FIELDS = CustomerField.values();
+
+    private final Path path;
+    private final Object lock = new Object();
+    // Held while forcing the journal, so appends share one fsync; taken before lock
+    private final Object syncLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private final FileChannel channel;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean closed;
+
+    public CommandJournal(Path path) throws IOException {
+        this.path = path;
+        // A torn record at the end was never acknowledged, so it is dropped
+        long validBytes = read(path, entry -> appendedSeq++);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        durableSeq = appendedSeq;
+    }
+
+    public static boolean isJournaled(CommandRequest<?> request) {
+        return kindOf(request) != 0;
+    }
+
+    // Appends the command and returns its sequence number once it is on disk; commands that are not
+    // journaled are ignored and give 0
+    public long record(CommandRequest<?> request, CommandResult<?> result) {
+        long seq = append(request, result);
+        awaitDurable(seq);
+        return seq;
+    }
+
+    // Appends an undo of the record with sequence number undoneSeq and returns once it is on disk
+    public void recordUndo(long undoneSeq) {
+        if (undoneSeq <= 0) {
+            throw new IllegalArgumentException("Journal sequence numbers start at 1: " + undoneSeq);
+        }
+        awaitDurable(append(undoBytes(undoneSeq)));
+    }
+
+    // Returns the record's sequence number for awaitDurable, or 0 if the command is not journaled
+    long append(CommandRequest<?> request, CommandResult<?> result) {
+        byte kind = kindOf(request);
+        if (kind == 0) {
+            return 0;
+        }
+        byte[] record = recordBytes(kind, request, result);
+        // A longer record would read back as corruption and cut off everything after it
+        if (record.length - 8 > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Journal record too large: " + (record.length - 8) + " bytes");
+        }
+        return append(record);
+    }
+
+    long appendUndo(long undoneSeq) {
+        return append(undoBytes(undoneSeq));
+    }
+
+    private long append(byte[] record) {
+        long seq;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal has been closed");
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to append to journal: " + path, e);
+            }
+            seq = ++appendedSeq;
+        }
+        return seq;
+    }
+
+    public long getRecordCount() {
+        synchronized (lock) {
+            return appendedSeq;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    // Hands every intact record to action in order and returns the length of the intact prefix of the file
+    public static long read(Path path, Consumer<JournalEntry> action) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long validBytes = 0;
+        CRC32 checksum = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), 64 * 1024))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte[] body;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != expectedCrc) {
+                    break;
+                }
+                action.accept(readEntry(new DataInputStream(new ByteArrayInputStream(body))));
+                validBytes += 8 + length;
+            }
+        }
+        return validBytes;
+    }
+
+    void awaitDurable(long seq) {
+        if (seq == 0) {
+            return;
+        }
+        synchronized (syncLock) {
+            long target;
+            synchronized (lock) {
+                if (durableSeq >= seq) {
+                    return;
+                }
+                target = appendedSeq;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to sync journal: " + path, e);
+            }
+            synchronized (lock) {
+                durableSeq = Math.max(durableSeq, target);
+            }
+        }
+    }
+
+    private static byte kindOf(CommandRequest<?> request) {
+        if (request instanceof CreateCustomerRequest) {
+            return CREATE;
+        } else if (request instanceof UpdateCustomerRequest) {
+            return UPDATE;
+        } else if (request instanceof DeleteCustomerRequest) {
+            return DELETE;
+        } else if (request instanceof MakeSaleRequest) {
+            return SALE;
+        } else if (request instanceof ContactCustomerRequest) {
+            return CONTACT;
+        } else if (request instanceof SendCampaignRequest) {
+            return CAMPAIGN;
+        }
+        return 0;
+    }
+
+    private byte[] recordBytes(byte kind, CommandRequest<?> request, CommandResult<?> result) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(kind);
+            out.writeLong(System.currentTimeMillis());
+            switch (kind) {
+                case CREATE:
+                    CreateCustomerRequest create = (CreateCustomerRequest) request;
+                    out.writeInt(((Customer) result.getValue()).getId());
+                    out.writeByte(create.getCustomerType().getCode());
+                    writeString(out, create.getName());
+                    writeString(out, create.getEmail());
+                    writeString(out, create.getPhone());
+                    break;
+                case UPDATE:
+                    UpdateCustomerRequest update = (UpdateCustomerRequest) request;
+                    out.writeInt(update.getCustomerId());
+                    out.writeByte(update.getField().ordinal());
+                    writeString(out, update.getValue());
+                    break;
+                case DELETE:
+                    out.writeInt(((DeleteCustomerRequest) request).getCustomerId());
+                    break;
+                case SALE:
+                    out.writeInt(((MakeSaleRequest) request).getCustomerId());
+                    break;
+                case CONTACT:
+                    ContactCustomerRequest contact = (ContactCustomerRequest) request;
+                    out.writeInt(contact.getCustomerId());
+                    writeString(out, contact.getMessage());
+                    writeString(out, contact.getIdempotencyKey());
+                    break;
+                case CAMPAIGN:
+                    Campaign campaign = ((SendCampaignRequest) request).getCampaign();
+                    int[] recipientIds = ((CampaignReport) result.getValue()).getRecipientIds();
+                    Arrays.sort(recipientIds);
+                    out.writeInt(0);
+                    writeString(out, campaign.getName());
+                    writeString(out, campaign.getTemplate().getText());
+                    writeVarInt(out, recipientIds.length);
+                    int previous = 0;
+                    for (int id : recipientIds) {
+                        writeVarInt(out, id - previous);
+                        previous = id;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected journal record kind: " + kind);
+            }
+            return frame(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode journal record", e);
+        }
+    }
+
+    private byte[] undoBytes(long undoneSeq) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(UNDO);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(0);
+            out.writeLong(undoneSeq);
+            return frame(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode journal record", e);
+        }
+    }
+
+    // Fills in the length and CRC left blank at the front of the record
+    private byte[] frame(byte[] record) {
+        ByteBuffer header = ByteBuffer.wrap(record, 0, 8);
+        header.putInt(record.length - 8);
+        synchronized (crc) {
+            crc.reset();
+            crc.update(record, 8, record.length - 8);
+            header.putInt((int) crc.getValue());
+        }
+        return record;
+    }
+
+    private static JournalEntry readEntry(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        long timestampMillis = in.readLong();
+        int customerId = in.readInt();
+        CommandRequest<?> request;
+        int[] recipientIds = null;
+        switch (kind) {
+            case CREATE:
+                CustomerType type = CustomerType.fromCode(in.readUnsignedByte());
+                request = new CreateCustomerRequest(customerId, type, readString(in), readString(in), readString(in));
+                break;
+            case UPDATE:
+                CustomerField field = CUSTOMER_FIELDS[in.readUnsignedByte()];
+                request = new UpdateCustomerRequest(customerId, field, readString(in));
+                break;
+            case DELETE:
+                request = new DeleteCustomerRequest(customerId);
+                break;
+            case SALE:
+                request = new MakeSaleRequest(customerId);
+                break;
+            case CONTACT:
+                request = new ContactCustomerRequest(customerId, readString(in), readString(in));
+                break;
+            case CAMPAIGN:
+                String name = readString(in);
+                MessageTemplate template = new MessageTemplate(readString(in));
+                recipientIds = new int[readVarInt(in)];
+                int previous = 0;
+                for (int i = 0; i < recipientIds.length; i++) {
+                    previous += readVarInt(in);
+                    recipientIds[i] = previous;
+                }
+                request = new SendCampaignRequest(new Campaign(name, Segment.ofIds(recipientIds), template));
+                break;
+            case UNDO:
+                return JournalEntry.undo(timestampMillis, in.readLong());
+            default:
+                throw new IOException("Unknown journal record kind: " + kind);
+        }
+        return new JournalEntry(timestampMillis, customerId, request, recipientIds);
+    }
+
+    // Null is kept apart from the empty string with a length of -1
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in journal record");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
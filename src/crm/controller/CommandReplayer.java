@@ -0,0 +1,135 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller;
+
+import campaign.Campaign;
+import campaign.Segment;
+import crm.controller.command.CommandResult;
+import crm.controller.command.request.CommandRequest;
+import crm.controller.command.request.ContactCustomerRequest;
+import crm.controller.command.request.CreateCustomerRequest;
+import crm.controller.command.request.DeleteCustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.controller.command.request.SendCampaignRequest;
+import crm.controller.command.request.UpdateCustomerRequest;
+import customer.Customer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Runs the commands in a CommandJournal back through a CRMController as
+ * fast as they can go, to rebuild state after a crash or to put a recorded
+ * day of traffic through a test build. The controller decides what the
+ * commands touch, so a test build can replay against its own repository and
+ * notification channels.
+ *
+ * Replayed creates recreate their customers under the journaled ids, so the
+ * rebuilt state matches what callers saw; a create whose id is already taken
+ * counts as missed. A replay against a repository whose ids have moved on,
+ * such as another build's, can instead give creates fresh ids and send later
+ * commands for those customers to the new ids. Either way, customers that
+ * existed before the journal started must already be in the target
+ * repository.
+ *
+ * Commands that were later undone are left out rather than run and undone,
+ * so the journal is read twice: once for its undo records, then to replay.
+ */
+public class CommandReplayer {
+    private final CRMController controller;
+    private final boolean remapIds;
+
+    public CommandReplayer(CRMController controller) {
+        this(controller, false);
+    }
+
+    public CommandReplayer(CRMController controller, boolean remapIds) {
+        this.controller = controller;
+        this.remapIds = remapIds;
+    }
+
+    public ReplayReport replay(Path journal) throws IOException {
+        return replay(journal, null, null);
+    }
+
+    // Replays only the commands recorded from from (inclusive) to to (exclusive); null leaves that end open
+    public ReplayReport replay(Path journal, Date from, Date to) throws IOException {
+        long fromMillis = from == null ? Long.MIN_VALUE : from.getTime();
+        long toMillis = to == null ? Long.MAX_VALUE : to.getTime();
+        Map<Integer, Integer> replayedIds = new HashMap<>();
+        long[] counts = new long[2];
+
+        long start = System.nanoTime();
+        Set<Long> undoneSeqs = new HashSet<>();
+        CommandJournal.read(journal, entry -> {
+            if (entry.isUndo()) {
+                undoneSeqs.add(entry.getUndoneSeq());
+            }
+        });
+        long[] seq = {0};
+        CommandJournal.read(journal, entry -> {
+            seq[0]++;
+            if (entry.isUndo() || undoneSeqs.contains(seq[0])) {
+                return;
+            }
+            if (entry.getTimestampMillis() < fromMillis || entry.getTimestampMillis() >= toMillis) {
+                return;
+            }
+            CommandRequest<?> request = remapIds ? remap(entry, replayedIds) : entry.getRequest();
+            CommandResult<?> result = controller.execute(request);
+            if (!result.hasValue()) {
+                counts[1]++;
+                return;
+            }
+            counts[0]++;
+            if (remapIds && entry.getRequest() instanceof CreateCustomerRequest) {
+                replayedIds.put(entry.getCustomerId(), ((Customer) result.getValue()).getId());
+            }
+        });
+        return new ReplayReport(counts[0], counts[1], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static CommandRequest<?> remap(JournalEntry entry, Map<Integer, Integer> replayedIds) {
+        CommandRequest<?> request = entry.getRequest();
+        if (request instanceof CreateCustomerRequest) {
+            CreateCustomerRequest create = (CreateCustomerRequest) request;
+            return new CreateCustomerRequest(create.getCustomerType(), create.getName(), create.getEmail(),
+                    create.getPhone());
+        } else if (request instanceof SendCampaignRequest) {
+            int[] recipientIds = entry.getRecipientIds().clone();
+            for (int i = 0; i < recipientIds.length; i++) {
+                recipientIds[i] = replayedIds.getOrDefault(recipientIds[i], recipientIds[i]);
+            }
+            Campaign campaign = ((SendCampaignRequest) request).getCampaign();
+            return new SendCampaignRequest(new Campaign(campaign.getName(), Segment.ofIds(recipientIds),
+                    campaign.getTemplate()));
+        }
+        int customerId = entry.getCustomerId();
+        customerId = replayedIds.getOrDefault(customerId, customerId);
+        if (request instanceof UpdateCustomerRequest) {
+            UpdateCustomerRequest update = (UpdateCustomerRequest) request;
+            return update.getCustomerId() == customerId
+                    ? update
+                    : new UpdateCustomerRequest(customerId, update.getField(), update.getValue());
+        } else if (request instanceof DeleteCustomerRequest) {
+            return new DeleteCustomerRequest(customerId);
+        } else if (request instanceof MakeSaleRequest) {
+            return new MakeSaleRequest(customerId);
+        } else if (request instanceof ContactCustomerRequest) {
+            ContactCustomerRequest contact = (ContactCustomerRequest) request;
+            return contact.getCustomerId() == customerId
+                    ? contact
+                    : new ContactCustomerRequest(customerId, contact.getMessage(), contact.getIdempotencyKey());
+        }
+        return request;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller;
+
+import crm.controller.command.request.CommandRequest;
+
+/*
+ * One command read back from a CommandJournal. customerId is the customer
+ * the command acted on, or for a create the id the new customer was given.
+ * A campaign acts on many customers, so it carries the ids it reached in
+ * recipientIds instead and its customerId is 0.
+ *
+ * An undo is an entry of its own with no request: undoneSeq names the
+ * record it reverses, counting the journal's records from 1 in file order.
+ */
+public class JournalEntry {
+    private final long timestampMillis;
+    private final int customerId;
+    private final CommandRequest<?> request;
+    private final int[] recipientIds;
+    private final long undoneSeq;
+
+    public JournalEntry(long timestampMillis, int customerId, CommandRequest<?> request) {
+        this(timestampMillis, customerId, request, null);
+    }
+
+    public JournalEntry(long timestampMillis, int customerId, CommandRequest<?> request, int[] recipientIds) {
+        this.timestampMillis = timestampMillis;
+        this.customerId = customerId;
+        this.request = request;
+        this.recipientIds = recipientIds;
+        this.undoneSeq = 0;
+    }
+
+    private JournalEntry(long timestampMillis, long undoneSeq) {
+        this.timestampMillis = timestampMillis;
+        this.customerId = 0;
+        this.request = null;
+        this.recipientIds = null;
+        this.undoneSeq = undoneSeq;
+    }
+
+    public static JournalEntry undo(long timestampMillis, long undoneSeq) {
+        return new JournalEntry(timestampMillis, undoneSeq);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    // Null for an undo
+    public CommandRequest<?> getRequest() {
+        return request;
+    }
+
+    public boolean isUndo() {
+        return undoneSeq != 0;
+    }
+
+    // Sequence number of the record an undo reverses; 0 for a command
+    public long getUndoneSeq() {
+        return undoneSeq;
+    }
+
+    // Null unless the entry is a campaign
+    public int[] getRecipientIds() {
+        return recipientIds;
+    }
+}
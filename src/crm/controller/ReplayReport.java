@@ -0,0 +1,39 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller;
+
+public class ReplayReport {
+    private final long replayed;
+    private final long missed;
+    private final long elapsedMillis;
+
+    public ReplayReport(long replayed, long missed, long elapsedMillis) {
+        this.replayed = replayed;
+        this.missed = missed;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    // Commands that found no customer to act on, usually because the target was not restored to the right state
+    public long getMissed() {
+        return missed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        return String.format("Replayed %d commands (%d found no customer) in %.1f s, %.0f commands/s",
+                replayed, missed, elapsedMillis / 1000.0, (replayed + missed) / seconds);
+    }
+}
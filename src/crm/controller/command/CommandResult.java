@@ -0,0 +1,65 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command;
+
+import crm.observer.event.CRMEvent;
+
+/*
+ * What a ParameterizedCommand produced: a typed value (null when the command
+ * found nothing to act on, e.g. an unknown customer id) and the event that
+ * CRMController publishes to its observers, plus the entry that reverses it
+ * when the command changed something. A retried request may be answered
+ * with a repeat of its first result, which the controller neither journals
+ * nor publishes again.
+ */
+public class CommandResult<R> {
+    private final R value;
+    private final CRMEvent event;
+    private final UndoEntry undo;
+    private final boolean repeat;
+
+    public CommandResult(R value, CRMEvent event) {
+        this(value, event, null);
+    }
+
+    public CommandResult(R value, CRMEvent event, UndoEntry undo) {
+        this(value, event, undo, false);
+    }
+
+    private CommandResult(R value, CRMEvent event, UndoEntry undo, boolean repeat) {
+        this.value = value;
+        this.event = event;
+        this.undo = undo;
+        this.repeat = repeat;
+    }
+
+    public static <R> CommandResult<R> repeatOf(CommandResult<R> earlier) {
+        return new CommandResult<>(earlier.value, earlier.event, earlier.undo, true);
+    }
+
+    public R getValue() {
+        return value;
+    }
+
+    public boolean hasValue() {
+        return value != null;
+    }
+
+    public CRMEvent getEvent() {
+        return event;
+    }
+
+    // Null when there is nothing to undo
+    public UndoEntry getUndo() {
+        return undo;
+    }
+
+    // True when this hands back the result of an earlier execution that already took effect
+    public boolean isRepeat() {
+        return repeat;
+    }
+}
@@ -6,28 +6,62 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.ContactCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.CustomerEvents;
+import customer.Interaction;
+import notification.NotificationDispatcher;
+import notification.NotificationOutbox;
 import repository.CustomerRepository;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+
+public class ContactCustomerCommand implements ParameterizedCommand<ContactCustomerRequest, Interaction> {
+    private static final int REMEMBERED_RESULTS = 10_000;
 
-public class ContactCustomerCommand implements CRMCommand {
     private final EventType eventType = EventType.NOTIFICATION_SENT;
 
     private final CustomerRepository customerRepository;
-    private final Stack<Integer> contactedCustomerIds = new Stack<>();
+    private final NotificationDispatcher dispatcher;
+    private final NotificationOutbox outbox;
+    private volatile UndoLog undoLog = new UndoLog();
+    // With an outbox, the first result for each recent idempotency key, so a retry gets it back unchanged
+    private final Map<String, CompletableFuture<CommandResult<Interaction>>> resultsByKey =
+            new LinkedHashMap<String, CompletableFuture<CommandResult<Interaction>>>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<CommandResult<Interaction>>> eldest) {
+                    return size() > REMEMBERED_RESULTS;
+                }
+            };
 
     public ContactCustomerCommand(CustomerRepository customerRepository) {
+        this(customerRepository, null, null);
+    }
+
+    // With a dispatcher the message is queued and the command returns without waiting for the channel
+    public ContactCustomerCommand(CustomerRepository customerRepository, NotificationDispatcher dispatcher) {
+        this(customerRepository, dispatcher, null);
+    }
+
+    // With an outbox the message is on disk before the command returns and is retried until delivered
+    public ContactCustomerCommand(CustomerRepository customerRepository, NotificationOutbox outbox) {
+        this(customerRepository, null, outbox);
+    }
+
+    private ContactCustomerCommand(CustomerRepository customerRepository, NotificationDispatcher dispatcher,
+                                   NotificationOutbox outbox) {
         this.customerRepository = customerRepository;
+        this.dispatcher = dispatcher;
+        this.outbox = outbox;
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
-
+    public ContactCustomerRequest readRequest(Scanner scanner) {
         System.out.print("Enter Customer Id: ");
         int customerId = Integer.parseInt(scanner.nextLine());
 
@@ -35,7 +69,7 @@ public class ContactCustomerCommand implements CRMCommand {
 
         if (customer == null) {
             System.out.println("Customer not found!");
-            return new CRMEvent(eventType);
+            return null;
         }
 
         System.out.println("Contacting: " + customer.getName());
@@ -45,27 +79,111 @@ public class ContactCustomerCommand implements CRMCommand {
         System.out.print("Enter message to send: ");
         String message = scanner.nextLine();
 
-        customer.contact(message);
+        return new ContactCustomerRequest(customerId, message);
+    }
 
-        customer.addInteraction(EventType.NOTIFICATION_SENT,"Contacted via " + customer.getPreferredContactMethod() + " with message: " + message);
+    @Override
+    public void report(Scanner scanner, ContactCustomerRequest request, CommandResult<Interaction> result) {
+        boolean queued = dispatcher != null || outbox != null;
+        System.out.println(queued ? "\nNotification queued for delivery!" : "\nNotification sent successfully!");
+    }
 
-        contactedCustomerIds.push(customerId);
+    // A request retried with the same idempotency key sends nothing and records nothing; it gets a repeat
+    // of the first result, which the controller does not journal or publish again
+    @Override
+    public CommandResult<Interaction> execute(ContactCustomerRequest request) {
+        if (outbox == null) {
+            return contact(request);
+        }
+        String key = request.getIdempotencyKey();
+        CompletableFuture<CommandResult<Interaction>> first = new CompletableFuture<>();
+        CompletableFuture<CommandResult<Interaction>> earlier;
+        synchronized (resultsByKey) {
+            earlier = resultsByKey.putIfAbsent(key, first);
+        }
+        if (earlier != null) {
+            return CommandResult.repeatOf(earlier.join());
+        }
 
-        System.out.println("\nNotification sent successfully!");
+        CommandResult<Interaction> result;
+        try {
+            result = contact(request);
+        } catch (RuntimeException e) {
+            forget(key, first);
+            first.completeExceptionally(e);
+            throw e;
+        }
+        // Nothing was sent for an unknown customer, so a retry may still go ahead
+        if (!result.hasValue()) {
+            forget(key, first);
+        }
+        first.complete(result);
+        return result;
+    }
 
+    private void forget(String key, CompletableFuture<CommandResult<Interaction>> result) {
+        synchronized (resultsByKey) {
+            resultsByKey.remove(key, result);
+        }
+    }
+
+    private CommandResult<Interaction> contact(ContactCustomerRequest request) {
+        int customerId = request.getCustomerId();
+        Customer customer = customerRepository.getCustomerFromId(customerId);
+        if (customer == null) {
+            return new CommandResult<>(null, new CRMEvent(eventType));
+        }
+
+        String message = request.getMessage();
+        String details = "Contacted via " + customer.getPreferredContactMethod() + " with message: " + message;
         String contactMethod = customer.getPreferredContactMethod().getClass().getSimpleName();
-        return new CRMEvent(eventType, customerId, "Contact Method: " + contactMethod);
+        if (outbox != null && outbox.isEnqueued(request.getIdempotencyKey())) {
+            // Accepted before a restart, so the earlier result is rebuilt from the customer's history
+            Interaction earlier = customer.getInteractions().descendingStream()
+                    .filter(interaction -> interaction.getEventType() == eventType
+                            && interaction.getDetails().equals(details))
+                    .findFirst()
+                    .orElse(null);
+            return CommandResult.repeatOf(new CommandResult<>(earlier,
+                    new CRMEvent(eventType, customerId, "Contact Method: " + contactMethod)));
+        }
+        if (outbox != null) {
+            outbox.enqueue(customer, message, request.getIdempotencyKey()).exceptionally(e -> reportFailure(customerId, e));
+        } else if (dispatcher != null) {
+            dispatcher.dispatch(customer, message).exceptionally(e -> reportFailure(customerId, e));
+        } else {
+            customer.contact(message);
+        }
+
+        Interaction contact = new Interaction(eventType, details);
+        customer.addInteraction(contact);
+
+        // A message cannot be recalled, so undoing it only says so
+        UndoEntry undo = UndoEntry.of(() -> System.out.println("Note: Notification already sent - cannot be undone"));
+        undoLog.push(this, undo);
+
+        return new CommandResult<>(contact, new CRMEvent(eventType, customerId, "Contact Method: " + contactMethod,
+                CustomerEvents.payloadOf(contact)), undo);
+    }
+
+    private static Void reportFailure(int customerId, Throwable e) {
+        System.out.println("Unable to send notification to customer " + customerId + ": " + e.getMessage());
+        return null;
     }
 
     @Override
     public void undo() {
-        if (contactedCustomerIds.isEmpty()) {
+        UndoEntry entry = undoLog.newest(this);
+        if (entry == null) {
             System.out.println("No notifications to undo");
             return;
         }
+        entry.undo();
+    }
 
-        contactedCustomerIds.pop();
-        System.out.println("Note: Notification already sent - cannot be undone");
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
     }
 
     @Override
@@ -77,4 +195,9 @@ public class ContactCustomerCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<ContactCustomerRequest> getRequestType() {
+        return ContactCustomerRequest.class;
+    }
 }
@@ -6,74 +6,33 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.CreateCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
-import customer.LeadCustomer;
-import customer.RegularCustomer;
-import customer.VIPCustomer;
+import customer.CustomerEvents;
+import customer.CustomerType;
 import repository.CustomerRepository;
 
 import java.util.Scanner;
-import java.util.Stack;
-
-public class CreateCustomerCommand implements CRMCommand {
-    enum CustomerType {
-        LEAD("1", "Lead"),
-        REGULAR("2", "Regular"),
-        VIP("3", "VIP");
-
-        private final String code;
-        private final String displayName;
-
-        CustomerType(String code, String displayName) {
-            this.code = code;
-            this.displayName = displayName;
-        }
-
-        static CustomerType fromCode(String code) {
-            for (CustomerType type : values()) {
-                if (type.code.equals(code)) {
-                    return type;
-                }
-            }
-            throw new IllegalArgumentException("Invalid Customer Type: " + code);
-        }
-
-        Customer create(String name, String email, String phone) {
-            switch (this) {
-                case LEAD:
-                    return new LeadCustomer(name, email, phone);
-                case REGULAR:
-                    return new RegularCustomer(name, email, phone);
-                case VIP:
-                    return new VIPCustomer(name, email, phone);
-                default:
-                    throw new IllegalStateException("Unexpected customer type: " + this);
-            }
-        }
-
-        String getDisplayName() {
-            return displayName;
-        }
-    }
 
+public class CreateCustomerCommand implements ParameterizedCommand<CreateCustomerRequest, Customer> {
     private final EventType eventType = EventType.CUSTOMER_CREATED;
 
     private final CustomerRepository customerRepository;
-    private final Stack<Customer> createdCustomers = new Stack<>();
+    private volatile UndoLog undoLog = new UndoLog();
 
     public CreateCustomerCommand(CustomerRepository customerRepository) {
         this.customerRepository = customerRepository;
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
+    public CreateCustomerRequest readRequest(Scanner scanner) {
         System.out.println("Customer Type: ");
         System.out.println("1. Lead Customer");
         System.out.println("2. Regular Customer");
         System.out.println("3. VIP Customer");
+        System.out.println("4. Lost Customer");
         System.out.print("Your Choice: ");
         String customerTypeCode = scanner.nextLine();
 
@@ -89,22 +48,61 @@ public class CreateCustomerCommand implements CRMCommand {
         String phone = scanner.nextLine();
 
         CustomerType type = CustomerType.fromCode(customerTypeCode);
-        Customer newCustomer = type.create(fullName, email, phone);
+        return new CreateCustomerRequest(type, fullName, email, phone);
+    }
+
+    @Override
+    public void report(Scanner scanner, CreateCustomerRequest request, CommandResult<Customer> result) {
+        System.out.printf("Customer %d created successfully!\n", result.getValue().getId());
+    }
+
+    @Override
+    public CommandResult<Customer> execute(CreateCustomerRequest request) {
+        CustomerType type = request.getCustomerType();
+        Customer newCustomer;
+        if (request.getCustomerId() == 0) {
+            newCustomer = type.create(request.getName(), request.getEmail(), request.getPhone());
+        } else {
+            // A known id is only reused while it is free, and is never handed out again afterwards
+            if (customerRepository.getCustomerFromId(request.getCustomerId()) != null) {
+                return new CommandResult<>(null, new CRMEvent(eventType));
+            }
+            Customer.getIdGenerator().advancePast(request.getCustomerId());
+            newCustomer = type.create(request.getCustomerId(), request.getName(), request.getEmail(),
+                    request.getPhone());
+        }
 
         newCustomer.addInteraction(EventType.CUSTOMER_CREATED, "Customer record created");
-        createdCustomers.push(newCustomer);
         customerRepository.createCustomer(newCustomer);
 
-        System.out.printf("Customer %d created successfully!\n", newCustomer.getId());
+        int customerId = newCustomer.getId();
+        UndoEntry undo = UndoEntry.of(() -> {
+            Customer customer = customerRepository.getCustomerFromId(customerId);
+            if (customer != null) {
+                customerRepository.deleteCustomer(customer);
+            }
+            System.out.printf("Customer %d creation successfully undone!\n", customerId);
+        });
+        undoLog.push(this, undo);
 
-        return new CRMEvent(eventType, newCustomer.getId(), "Type: " + type.getDisplayName());
+        return new CommandResult<>(newCustomer,
+                new CRMEvent(eventType, customerId, "Type: " + type.getDisplayName(),
+                        CustomerEvents.stateOf(newCustomer)), undo);
     }
 
     @Override
     public void undo() {
-        Customer customer = createdCustomers.pop();
-        customerRepository.deleteCustomer(customer);
-        System.out.printf("Customer %d creation successfully undone!\n", customer.getId());
+        UndoEntry entry = undoLog.newest(this);
+        if (entry == null) {
+            System.out.println("No customer creation to undo");
+            return;
+        }
+        entry.undo();
+    }
+
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
     }
 
     @Override
@@ -116,4 +114,9 @@ public class CreateCustomerCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<CreateCustomerRequest> getRequestType() {
+        return CreateCustomerRequest.class;
+    }
 }
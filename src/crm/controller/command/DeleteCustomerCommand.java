@@ -6,45 +6,74 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.DeleteCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import repository.CustomerMemento;
 import repository.CustomerRepository;
 
 import java.util.Scanner;
-import java.util.Stack;
 
-public class DeleteCustomerCommand implements CRMCommand {
+public class DeleteCustomerCommand implements ParameterizedCommand<DeleteCustomerRequest, Customer> {
     private final EventType eventType = EventType.CUSTOMER_DELETED;
 
     private final CustomerRepository customerRepository;
-    private final Stack<Customer> deletedCustomers = new Stack<>();
+    private volatile UndoLog undoLog = new UndoLog();
 
     public DeleteCustomerCommand(CustomerRepository customerRepository) {
         this.customerRepository = customerRepository;
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
+    public DeleteCustomerRequest readRequest(Scanner scanner) {
         System.out.println("Enter Customer Id: ");
-        int customerId = Integer.parseInt(scanner.nextLine());
+        return new DeleteCustomerRequest(Integer.parseInt(scanner.nextLine()));
+    }
+
+    @Override
+    public void report(Scanner scanner, DeleteCustomerRequest request, CommandResult<Customer> result) {
+        if (!result.hasValue()) {
+            System.out.println("Customer not found!");
+            return;
+        }
+        System.out.printf("Customer %d deleted successfully!\n", request.getCustomerId());
+    }
 
+    @Override
+    public CommandResult<Customer> execute(DeleteCustomerRequest request) {
+        int customerId = request.getCustomerId();
         Customer customerToDelete = customerRepository.getCustomerFromId(customerId);
+        if (customerToDelete == null) {
+            return new CommandResult<>(null, new CRMEvent(eventType));
+        }
 
-        deletedCustomers.push(customerToDelete);
         customerRepository.deleteCustomer(customerToDelete);
 
-        System.out.printf("Customer %d deleted successfully!\n", customerId);
+        // The repository no longer holds the customer, so the entry keeps its fields and a handle to its history
+        CustomerMemento memento = CustomerMemento.of(customerToDelete);
+        UndoEntry undo = UndoEntry.of(() -> {
+            customerRepository.createCustomer(memento.restore());
+            System.out.printf("Customer %d deletion successfully undone!\n", customerId);
+        }, memento.getSizeInBytes());
+        undoLog.push(this, undo);
 
-        return new CRMEvent(eventType, customerId, "Customer deleted");
+        return new CommandResult<>(customerToDelete, new CRMEvent(eventType, customerId, "Customer deleted"), undo);
     }
 
     @Override
     public void undo() {
-        Customer deletedCustomer = deletedCustomers.pop();
-        customerRepository.createCustomer(deletedCustomer);
-        System.out.printf("Customer %d deletion successfully undone!\n", deletedCustomer.getId());
+        UndoEntry entry = undoLog.newest(this);
+        if (entry == null) {
+            System.out.println("No customer deletion to undo");
+            return;
+        }
+        entry.undo();
+    }
+
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
     }
 
     @Override
@@ -56,4 +85,9 @@ public class DeleteCustomerCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<DeleteCustomerRequest> getRequestType() {
+        return DeleteCustomerRequest.class;
+    }
 }
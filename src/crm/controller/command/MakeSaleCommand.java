@@ -6,42 +6,80 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.MakeSaleRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.CustomerEvents;
+import customer.Interaction;
 import repository.CustomerRepository;
 
 import java.util.Scanner;
-import java.util.Stack;
 
-public class MakeSaleCommand implements CRMCommand {
+public class MakeSaleCommand implements ParameterizedCommand<MakeSaleRequest, Interaction> {
     private final EventType eventType = EventType.SALE_MADE;
 
     private final CustomerRepository customerRepository;
-    private final Stack<Customer> customerSales = new Stack<>();
+    private volatile UndoLog undoLog = new UndoLog();
 
     public MakeSaleCommand(CustomerRepository customerRepository) {
         this.customerRepository = customerRepository;
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
+    public MakeSaleRequest readRequest(Scanner scanner) {
         System.out.println("Enter Customer Id: ");
-        int customerId = Integer.parseInt(scanner.nextLine());
+        return new MakeSaleRequest(Integer.parseInt(scanner.nextLine()));
+    }
+
+    @Override
+    public void report(Scanner scanner, MakeSaleRequest request, CommandResult<Interaction> result) {
+        if (!result.hasValue()) {
+            System.out.println("Customer not found!");
+            return;
+        }
+        System.out.printf("Sale with %s made!\n", customerRepository.getCustomerFromId(request.getCustomerId()).getName());
+    }
 
+    @Override
+    public CommandResult<Interaction> execute(MakeSaleRequest request) {
+        int customerId = request.getCustomerId();
         Customer saleCustomer = customerRepository.getCustomerFromId(customerId);
-        saleCustomer.addInteraction(EventType.SALE_MADE, "Sale completed");
-        customerSales.push(saleCustomer);
-        System.out.printf("Sale with %s made!\n", saleCustomer.getName());
+        if (saleCustomer == null) {
+            return new CommandResult<>(null, new CRMEvent(eventType));
+        }
+
+        Interaction sale = new Interaction(EventType.SALE_MADE, "Sale completed");
+        saleCustomer.addInteraction(sale);
+
+        // History is append-only, so the sale is reversed by recording that it was undone
+        UndoEntry undo = UndoEntry.of(() -> {
+            Customer customer = customerRepository.getCustomerFromId(customerId);
+            if (customer != null) {
+                customer.addInteraction(EventType.COMMAND_UNDONE, "Sale undone");
+            }
+            System.out.printf("Sale with %s successfully undone!\n",
+                    customer != null ? customer.getName() : "customer " + customerId);
+        });
+        undoLog.push(this, undo);
 
-        return new CRMEvent(eventType, customerId, "Sale completed");
+        return new CommandResult<>(sale, new CRMEvent(eventType, customerId, "Sale completed",
+                CustomerEvents.payloadOf(sale)), undo);
     }
 
     @Override
     public void undo() {
-        Customer saleCustomer = customerSales.pop();
-        System.out.printf("Sale with %s successfully undone!\n", saleCustomer.getName());
+        UndoEntry entry = undoLog.newest(this);
+        if (entry == null) {
+            System.out.println("No sale to undo");
+            return;
+        }
+        entry.undo();
+    }
+
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
     }
 
     @Override
@@ -53,4 +91,9 @@ public class MakeSaleCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<MakeSaleRequest> getRequestType() {
+        return MakeSaleRequest.class;
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command;
+
+import crm.controller.command.request.CommandRequest;
+import crm.observer.event.CRMEvent;
+
+import java.util.Scanner;
+
+/*
+ * A command that can run without the console. execute(request) takes all of
+ * its input from the request and never prompts or prints, so it can be called
+ * from services, batch jobs and tests. Several threads may call it at once
+ * only when the repository behind the command is thread-safe.
+ * The console adapter is split in two around execute(request): readRequest
+ * prompts for the same fields and builds a request, and report prints the
+ * result. CRMController runs console requests through its own execute, so
+ * they are journaled and undone like any other request.
+ *
+ * A command that changes something returns an UndoEntry with its result
+ * that reverses that one execution, and pushes the same entry, tagged with
+ * itself, onto its undo log. CRMController hands every command it is given
+ * its own log, so each entry is held once and the controller's depth
+ * applies; a command used on its own keeps a log of the default depth.
+ */
+public interface ParameterizedCommand<Q extends CommandRequest<R>, R> extends CRMCommand {
+    public CommandResult<R> execute(Q request);
+    public Class<Q> getRequestType();
+
+    // Null when there is nothing to run, after telling the user why
+    public Q readRequest(Scanner scanner);
+    public void report(Scanner scanner, Q request, CommandResult<R> result);
+
+    @Override
+    public default CRMEvent execute() {
+        Scanner scanner = new Scanner(System.in);
+        Q request = readRequest(scanner);
+        if (request == null) {
+            return new CRMEvent(getEventType());
+        }
+        CommandResult<R> result = execute(request);
+        report(scanner, request, result);
+        return result.getEvent();
+    }
+
+    // Commands that never change anything have nothing to record and can ignore the log
+    public default void setUndoLog(UndoLog undoLog) {
+    }
+}
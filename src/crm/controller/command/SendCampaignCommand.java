@@ -0,0 +1,117 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command;
+
+import campaign.Campaign;
+import campaign.CampaignReport;
+import campaign.CampaignRunner;
+import campaign.MessageTemplate;
+import campaign.Segment;
+import crm.controller.command.request.SendCampaignRequest;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import customer.LeadCustomer;
+import customer.LostCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+
+import java.util.Scanner;
+
+public class SendCampaignCommand implements ParameterizedCommand<SendCampaignRequest, CampaignReport> {
+    private final EventType eventType = EventType.NOTIFICATION_SENT;
+
+    private final CampaignRunner campaignRunner;
+    private volatile UndoLog undoLog = new UndoLog();
+
+    public SendCampaignCommand(CampaignRunner campaignRunner) {
+        this.campaignRunner = campaignRunner;
+    }
+
+    @Override
+    public SendCampaignRequest readRequest(Scanner scanner) {
+        System.out.print("Enter campaign name: ");
+        String name = scanner.nextLine();
+
+        System.out.println("Send to which customers?");
+        System.out.println("0. All");
+        System.out.println("1. Lead");
+        System.out.println("2. Regular");
+        System.out.println("3. VIP");
+        System.out.println("4. Lost");
+        System.out.print("Your choice: ");
+        Segment segment = segmentFor(scanner.nextLine().trim());
+
+        System.out.print("Only customers not contacted for how many days? (enter for any): ");
+        String days = scanner.nextLine().trim();
+        if (!days.isEmpty()) {
+            segment = segment.and(Segment.notContactedFor(Integer.parseInt(days)));
+        }
+
+        System.out.print("Enter message ({name}, {email}, {phone} and {id} are filled in): ");
+        MessageTemplate template = new MessageTemplate(scanner.nextLine());
+
+        return new SendCampaignRequest(new Campaign(name, segment, template),
+                (processed, total, sent, failed) -> System.out.printf("Progress: %d / %d customers, %d sent, %d failed%n",
+                        processed, total, sent, failed));
+    }
+
+    @Override
+    public void report(Scanner scanner, SendCampaignRequest request, CommandResult<CampaignReport> result) {
+        System.out.println("\n" + result.getValue());
+    }
+
+    @Override
+    public CommandResult<CampaignReport> execute(SendCampaignRequest request) {
+        CampaignReport report = campaignRunner.run(request.getCampaign(), request.getProgressListener());
+        UndoEntry undo = UndoEntry.of(this::undo);
+        undoLog.push(this, undo);
+        return new CommandResult<>(report, new CRMEvent(eventType, null,
+                "Campaign: " + report.getCampaignName() + ", Sent: " + report.getSent()), undo);
+    }
+
+    private static Segment segmentFor(String choice) {
+        switch (choice) {
+            case "0":
+                return Segment.all();
+            case "1":
+                return Segment.ofType(LeadCustomer.class);
+            case "2":
+                return Segment.ofType(RegularCustomer.class);
+            case "3":
+                return Segment.ofType(VIPCustomer.class);
+            case "4":
+                return Segment.ofType(LostCustomer.class);
+            default:
+                throw new IllegalArgumentException("Invalid segment: " + choice);
+        }
+    }
+
+    @Override
+    public void undo() {
+        System.out.println("Note: Campaign already sent - cannot be undone");
+    }
+
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    @Override
+    public String getName() {
+        return "Send Campaign";
+    }
+
+    @Override
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public Class<SendCampaignRequest> getRequestType() {
+        return SendCampaignRequest.class;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command;
+
+/*
+ * What one execution of a command changed, kept so that execution alone can
+ * be reversed. Entries hold ids and old values rather than copies of the
+ * customer. The one that must bring back a deleted customer holds its scalar
+ * fields and a handle to its history kept elsewhere (see CustomerMemento),
+ * so no entry grows with the length of a customer's history. An entry is
+ * undone at most once; later calls do nothing.
+ */
+public abstract class UndoEntry {
+    private boolean undone;
+    // Sequence number of the journal record of the execution this reverses; 0 while not journaled
+    private long journalSeq;
+
+    public static UndoEntry of(Runnable revert) {
+        return of(revert, 0);
+    }
+
+    public static UndoEntry of(Runnable revert, int sizeInBytes) {
+        return new UndoEntry() {
+            @Override
+            protected void revert() {
+                revert.run();
+            }
+
+            @Override
+            public int getSizeInBytes() {
+                return sizeInBytes;
+            }
+        };
+    }
+
+    // Returns false if the entry was already undone, from this log or another one holding it
+    public boolean undo() {
+        synchronized (this) {
+            if (undone) {
+                return false;
+            }
+            undone = true;
+        }
+        revert();
+        return true;
+    }
+
+    public synchronized boolean isUndone() {
+        return undone;
+    }
+
+    // Returns true if the entry was undone before its execution was journaled, so the undo still has to be
+    public synchronized boolean setJournalSeq(long seq) {
+        journalSeq = seq;
+        return undone;
+    }
+
+    public synchronized long getJournalSeq() {
+        return journalSeq;
+    }
+
+    // Bytes of customer state the entry holds beyond its own fields
+    public int getSizeInBytes() {
+        return 0;
+    }
+
+    protected abstract void revert();
+}
@@ -0,0 +1,100 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command;
+
+/*
+ * Fixed-size history of UndoEntries, newest last. Entries live in a ring
+ * allocated up front, so pushing never allocates and memory stays at depth
+ * entries however many commands run; once the ring is full each push evicts
+ * the oldest entry, which can then no longer be undone through this log.
+ *
+ * An entry may be pushed with the command that recorded it, so several
+ * commands can share one log and each still undo its own latest execution.
+ */
+public class UndoLog {
+    public static final int DEFAULT_DEPTH = 100;
+
+    private final UndoEntry[] entries;
+    private final Object[] owners;
+    // Index of the oldest entry
+    private int head;
+    private int size;
+    private long evictedCount;
+
+    public UndoLog() {
+        this(DEFAULT_DEPTH);
+    }
+
+    public UndoLog(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Undo depth must be positive: " + depth);
+        }
+        this.entries = new UndoEntry[depth];
+        this.owners = new Object[depth];
+    }
+
+    public void push(UndoEntry entry) {
+        push(null, entry);
+    }
+
+    public synchronized void push(Object owner, UndoEntry entry) {
+        int slot;
+        if (size == entries.length) {
+            slot = head;
+            head = (head + 1) % entries.length;
+            evictedCount++;
+        } else {
+            slot = (head + size) % entries.length;
+            size++;
+        }
+        entries[slot] = entry;
+        owners[slot] = owner;
+    }
+
+    // Removes and returns the newest entry that has not been undone yet, or null if there is none
+    public synchronized UndoEntry pop() {
+        while (size > 0) {
+            int newest = (head + size - 1) % entries.length;
+            UndoEntry entry = entries[newest];
+            entries[newest] = null;
+            owners[newest] = null;
+            size--;
+            if (!entry.isUndone()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // The newest entry pushed by owner that has not been undone yet, or null; it stays in the log, and
+    // once undone it is skipped here and dropped by pop
+    public synchronized UndoEntry newest(Object owner) {
+        for (int i = size - 1; i >= 0; i--) {
+            int slot = (head + i) % entries.length;
+            if (owners[slot] == owner && !entries[slot].isUndone()) {
+                return entries[slot];
+            }
+        }
+        return null;
+    }
+
+    public synchronized UndoEntry peek() {
+        return size == 0 ? null : entries[(head + size - 1) % entries.length];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getDepth() {
+        return entries.length;
+    }
+
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+}
@@ -6,31 +6,36 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.UpdateCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
+import crm.observer.event.FieldChangePayload;
 import customer.Customer;
+import customer.CustomerField;
 import repository.CustomerRepository;
 
 import java.util.Scanner;
-import java.util.Stack;
 
-public class UpdateCustomerCommand implements CRMCommand {
+public class UpdateCustomerCommand implements ParameterizedCommand<UpdateCustomerRequest, Customer> {
     private final EventType eventType = EventType.CUSTOMER_UPDATED;
 
     private final CustomerRepository customerRepository;
-    private final Stack<Customer> updatedCustomers = new Stack<>();
+    private volatile UndoLog undoLog = new UndoLog();
 
     public UpdateCustomerCommand(CustomerRepository customerRepository) {
         this.customerRepository = customerRepository;
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
+    public UpdateCustomerRequest readRequest(Scanner scanner) {
         System.out.println("Enter Customer Id: ");
         int customerId = Integer.parseInt(scanner.nextLine());
 
         Customer customerToUpdate = customerRepository.getCustomerFromId(customerId);
+        if (customerToUpdate == null) {
+            System.out.println("Customer not found!");
+            return null;
+        }
         System.out.println(customerToUpdate);
 
         System.out.println("What do you want to change?: ");
@@ -40,42 +45,95 @@ public class UpdateCustomerCommand implements CRMCommand {
         System.out.print("Your Choice: ");
         String toChange = scanner.nextLine();
 
-        String updateInfo;
+        CustomerField field;
         switch (toChange) {
             case "1":
                 System.out.print("Full Name: ");
-                String fullName = scanner.nextLine();
-                customerToUpdate.setName(fullName);
-                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Name updated to: " + fullName);
-                updateInfo = "Name updated";
+                field = CustomerField.NAME;
                 break;
             default:
             case "2":
                 System.out.print("Email Address: ");
-                String email = scanner.nextLine();
-                customerToUpdate.setEmail(email);
-                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Email updated to: " + email);
-                updateInfo = "Email updated";
+                field = CustomerField.EMAIL;
                 break;
             case "3":
                 System.out.print("Phone Number: ");
-                String phone = scanner.nextLine();
-                customerToUpdate.setPhone(phone);
-                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Phone updated to: " + phone);
+                field = CustomerField.PHONE;
+                break;
+        }
+        String value = scanner.nextLine();
+
+        return new UpdateCustomerRequest(customerId, field, value);
+    }
+
+    @Override
+    public void report(Scanner scanner, UpdateCustomerRequest request, CommandResult<Customer> result) {
+        System.out.printf("Customer %d successfully updated!\n", request.getCustomerId());
+    }
+
+    @Override
+    public CommandResult<Customer> execute(UpdateCustomerRequest request) {
+        int customerId = request.getCustomerId();
+        Customer customerToUpdate = customerRepository.getCustomerFromId(customerId);
+        if (customerToUpdate == null) {
+            return new CommandResult<>(null, new CRMEvent(eventType));
+        }
+
+        String value = request.getValue();
+        String oldValue = customerToUpdate.getField(request.getField());
+        String updateInfo;
+        switch (request.getField()) {
+            case NAME:
+                customerToUpdate.setName(value);
+                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Name updated to: " + value);
+                updateInfo = "Name updated";
+                break;
+            case EMAIL:
+                customerToUpdate.setEmail(value);
+                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Email updated to: " + value);
+                updateInfo = "Email updated";
+                break;
+            case PHONE:
+                customerToUpdate.setPhone(value);
+                customerToUpdate.addInteraction(EventType.CUSTOMER_UPDATED, "Phone updated to: " + value);
                 updateInfo = "Phone updated";
                 break;
+            default:
+                throw new IllegalArgumentException("Unsupported customer field: " + request.getField());
         }
 
-        updatedCustomers.push(customerToUpdate);
         customerRepository.updateCustomer(customerToUpdate);
-        System.out.printf("Customer %d successfully updated!\n", customerToUpdate.getId());
 
-        return new CRMEvent(eventType, customerId, updateInfo);
+        // Only the changed field and its previous value are kept
+        CustomerField field = request.getField();
+        UndoEntry undo = UndoEntry.of(() -> {
+            Customer customer = customerRepository.getCustomerFromId(customerId);
+            if (customer != null) {
+                customer.setField(field, oldValue);
+                customer.addInteraction(EventType.COMMAND_UNDONE, field + " restored to: " + oldValue);
+                customerRepository.updateCustomer(customer);
+            }
+            System.out.printf("Customer %d update successfully undone!\n", customerId);
+        });
+        undoLog.push(this, undo);
+
+        return new CommandResult<>(customerToUpdate, new CRMEvent(eventType, customerId, updateInfo,
+                new FieldChangePayload(field.name(), oldValue, value)), undo);
     }
 
     @Override
     public void undo() {
-        Customer updatedCustomer = updatedCustomers.pop();
+        UndoEntry entry = undoLog.newest(this);
+        if (entry == null) {
+            System.out.println("No customer update to undo");
+            return;
+        }
+        entry.undo();
+    }
+
+    @Override
+    public void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
     }
 
     @Override
@@ -87,4 +145,9 @@ public class UpdateCustomerCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<UpdateCustomerRequest> getRequestType() {
+        return UpdateCustomerRequest.class;
+    }
 }
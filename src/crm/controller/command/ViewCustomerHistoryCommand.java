@@ -6,16 +6,25 @@
 
 package crm.controller.command;
 
+import crm.controller.command.request.ViewCustomerHistoryRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.HistoryQuery;
 import customer.Interaction;
+import customer.InteractionHistory;
 import repository.CustomerRepository;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.Scanner;
+import java.util.Set;
+
+public class ViewCustomerHistoryCommand implements ParameterizedCommand<ViewCustomerHistoryRequest, InteractionHistory> {
+    private static final int PAGE_SIZE = 20;
 
-public class ViewCustomerHistoryCommand implements CRMCommand {
     private final EventType eventType = EventType.VIEW_HISTORY;
 
     private final CustomerRepository customerRepository;
@@ -25,30 +34,35 @@ public class ViewCustomerHistoryCommand implements CRMCommand {
     }
 
     @Override
-    public CRMEvent execute() {
-        Scanner scanner = new Scanner(System.in);
+    public ViewCustomerHistoryRequest readRequest(Scanner scanner) {
         System.out.println("Enter Customer Id: ");
-        int customerId = Integer.parseInt(scanner.nextLine());
-
-        Customer customer = customerRepository.getCustomerFromId(customerId);
+        return new ViewCustomerHistoryRequest(Integer.parseInt(scanner.nextLine()));
+    }
 
-        if (customer == null) {
+    @Override
+    public void report(Scanner scanner, ViewCustomerHistoryRequest request,
+                       CommandResult<InteractionHistory> result) {
+        if (!result.hasValue()) {
             System.out.println("Customer not found!");
-            return new CRMEvent(eventType);
+            return;
         }
+        Customer customer = customerRepository.getCustomerFromId(request.getCustomerId());
 
         System.out.println("\n========================================");
         System.out.println("Interaction History for: " + customer.getName());
         System.out.println("Customer ID: " + customer.getId());
         System.out.println("========================================\n");
 
-        List<Interaction> history = customer.getInteractionHistory();
+        InteractionHistory history = result.getValue();
 
         if (history.isEmpty()) {
             System.out.println("No interactions recorded for this customer.");
         } else {
-            for (Interaction interaction : history) {
-                System.out.println(interaction);
+            // Short histories are shown whole; longer ones can be narrowed down first
+            HistoryQuery query = history.size() > PAGE_SIZE ? readQuery(scanner, history.size()) : HistoryQuery.ALL;
+            int shown = showPages(scanner, query.apply(history).iterator());
+            if (query.isFiltered()) {
+                System.out.println(shown == 0 ? "No interactions match the filter." : "Matching interactions shown: " + shown);
             }
         }
 
@@ -58,8 +72,63 @@ public class ViewCustomerHistoryCommand implements CRMCommand {
 
         System.out.println("\nPress enter to continue...");
         scanner.nextLine();
+    }
+
+    @Override
+    public CommandResult<InteractionHistory> execute(ViewCustomerHistoryRequest request) {
+        Customer customer = customerRepository.getCustomerFromId(request.getCustomerId());
+        if (customer == null) {
+            return new CommandResult<>(null, new CRMEvent(eventType));
+        }
+        return new CommandResult<>(customer.getInteractions(), new CRMEvent(eventType, customer.getId()));
+    }
+
+    private static HistoryQuery readQuery(Scanner scanner, int size) {
+        System.out.println("This customer has " + size + " interactions.");
+        System.out.println("Event types to show (comma separated, e.g. SALE_MADE), or enter for all: ");
+        Set<EventType> eventTypes = EnumSet.noneOf(EventType.class);
+        for (String name : scanner.nextLine().split(",")) {
+            if (!name.isBlank()) {
+                eventTypes.add(EventType.valueOf(name.trim().toUpperCase().replace(' ', '_')));
+            }
+        }
+
+        System.out.println("From date (yyyy-MM-dd), or enter for the first interaction: ");
+        LocalDateTime from = readDate(scanner.nextLine());
+        System.out.println("To date (yyyy-MM-dd), or enter for the latest interaction: ");
+        LocalDateTime to = readDate(scanner.nextLine());
+        System.out.println("Newest first? (y/n): ");
+        boolean newestFirst = scanner.nextLine().trim().equalsIgnoreCase("y");
+
+        // The to date is inclusive for the user, so the range runs to the start of the next day
+        return new HistoryQuery(eventTypes, from, to == null ? null : to.plusDays(1), newestFirst);
+    }
 
-        return new CRMEvent(eventType, customerId);
+    private static LocalDateTime readDate(String input) {
+        return input.isBlank() ? null : LocalDate.parse(input.trim()).atStartOfDay();
+    }
+
+    // Each page is built in one buffer and printed at once; returns how many interactions were shown
+    private static int showPages(Scanner scanner, Iterator<Interaction> interactions) {
+        StringBuilder page = new StringBuilder(PAGE_SIZE * 80);
+        int shown = 0;
+        while (interactions.hasNext()) {
+            page.setLength(0);
+            for (int i = 0; i < PAGE_SIZE && interactions.hasNext(); i++) {
+                interactions.next().appendTo(page);
+                page.append(System.lineSeparator());
+                shown++;
+            }
+            System.out.print(page);
+
+            if (interactions.hasNext()) {
+                System.out.println("-- " + shown + " shown. Press enter for more, or q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+            }
+        }
+        return shown;
     }
 
     @Override
@@ -76,4 +145,9 @@ public class ViewCustomerHistoryCommand implements CRMCommand {
     public EventType getEventType() {
         return eventType;
     }
+
+    @Override
+    public Class<ViewCustomerHistoryRequest> getRequestType() {
+        return ViewCustomerHistoryRequest.class;
+    }
 }
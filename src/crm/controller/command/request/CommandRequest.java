@@ -0,0 +1,14 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+/*
+ * Typed input for a ParameterizedCommand. R is the result type the command
+ * hands back, so CRMController.execute can return a correctly typed result.
+ */
+public interface CommandRequest<R> {
+}
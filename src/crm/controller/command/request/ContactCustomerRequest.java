@@ -0,0 +1,41 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import customer.Interaction;
+
+import java.util.UUID;
+
+public class ContactCustomerRequest implements CustomerRequest<Interaction> {
+    private final int customerId;
+    private final String message;
+    private final String idempotencyKey;
+
+    public ContactCustomerRequest(int customerId, String message) {
+        this(customerId, message, UUID.randomUUID().toString());
+    }
+
+    // Callers that may retry a request pass the same key each time so the message is only sent once
+    public ContactCustomerRequest(int customerId, String message, String idempotencyKey) {
+        this.customerId = customerId;
+        this.message = message;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @Override
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
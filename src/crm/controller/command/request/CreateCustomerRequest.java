@@ -0,0 +1,52 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import customer.Customer;
+import customer.CustomerType;
+
+public class CreateCustomerRequest implements CommandRequest<Customer> {
+    private final int customerId;
+    private final CustomerType customerType;
+    private final String name;
+    private final String email;
+    private final String phone;
+
+    public CreateCustomerRequest(CustomerType customerType, String name, String email, String phone) {
+        this(0, customerType, name, email, phone);
+    }
+
+    // Recreates a customer under a known id, e.g. when a journal is replayed; 0 takes the next free id
+    public CreateCustomerRequest(int customerId, CustomerType customerType, String name, String email,
+                                 String phone) {
+        this.customerId = customerId;
+        this.customerType = customerType;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+/*
+ * A request that acts on one existing customer. CommandExecutor runs requests
+ * for the same customer id one after another, in the order they were submitted.
+ */
+public interface CustomerRequest<R> extends CommandRequest<R> {
+    public int getCustomerId();
+}
@@ -0,0 +1,22 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import customer.Interaction;
+
+public class MakeSaleRequest implements CustomerRequest<Interaction> {
+    private final int customerId;
+
+    public MakeSaleRequest(int customerId) {
+        this.customerId = customerId;
+    }
+
+    @Override
+    public int getCustomerId() {
+        return customerId;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import campaign.Campaign;
+import campaign.CampaignProgressListener;
+import campaign.CampaignReport;
+
+public class SendCampaignRequest implements CommandRequest<CampaignReport> {
+    private final Campaign campaign;
+    private final CampaignProgressListener progressListener;
+
+    public SendCampaignRequest(Campaign campaign) {
+        this(campaign, CampaignProgressListener.NONE);
+    }
+
+    public SendCampaignRequest(Campaign campaign, CampaignProgressListener progressListener) {
+        this.campaign = campaign;
+        this.progressListener = progressListener;
+    }
+
+    public Campaign getCampaign() {
+        return campaign;
+    }
+
+    public CampaignProgressListener getProgressListener() {
+        return progressListener;
+    }
+}
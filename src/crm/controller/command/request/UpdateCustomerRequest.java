@@ -0,0 +1,35 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import customer.Customer;
+import customer.CustomerField;
+
+public class UpdateCustomerRequest implements CustomerRequest<Customer> {
+    private final int customerId;
+    private final CustomerField field;
+    private final String value;
+
+    public UpdateCustomerRequest(int customerId, CustomerField field, String value) {
+        this.customerId = customerId;
+        this.field = field;
+        this.value = value;
+    }
+
+    @Override
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public CustomerField getField() {
+        return field;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.controller.command.request;
+
+import customer.InteractionHistory;
+
+public class ViewCustomerHistoryRequest implements CustomerRequest<InteractionHistory> {
+    private final int customerId;
+
+    public ViewCustomerHistoryRequest(int customerId) {
+        this.customerId = customerId;
+    }
+
+    @Override
+    public int getCustomerId() {
+        return customerId;
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer;
+
+import crm.observer.event.CRMEvent;
+import crm.observer.event.CRMEventCodec;
+import crm.observer.event.EventType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Decorator that hands events to another observer on a dedicated consumer
+ * thread. onEvent only copies the event into a bounded ring buffer, so the
+ * publishing thread never waits on the wrapped observer's I/O. Events are
+ * delivered in the order they were published; when the buffer is full the
+ * BackpressurePolicy decides whether to wait, drop or spill to disk.
+ *
+ * The consumer takes everything waiting in the ring at once, up to
+ * MAX_BATCH events, and hands the CRMEvents among them to the wrapped
+ * observer's onEvents, so a backlog is written in batches.
+ *
+ * Failures never stop the consumer. Anything the wrapped observer throws,
+ * Errors included, is counted and kept as getLastFailure() (an Error wrapped
+ * in an IllegalStateException), and the events behind it are still
+ * delivered. If the spill file cannot be read back, the events still in it
+ * are counted as dropped, so flush and close still return.
+ */
+public class AsyncObserver implements CRMObserver {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final CRMObserver delegate;
+    private final BackpressurePolicy policy;
+    private final Path spillPath;
+    private final boolean deleteSpillOnClose;
+    private final Thread consumer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition delivered = lock.newCondition();
+
+    // Ring buffer holding either an EventType or a CRMEvent, depending on which onEvent was called
+    private final Object[] ring;
+    private int head;
+    private int count;
+
+    private long publishedCount;
+    private long deliveredCount;
+    private long droppedCount;
+    private long failedCount;
+    private Exception lastFailure;
+    private boolean closed;
+
+    private DataOutputStream spillOut;
+    private DataInputStream spillIn;
+    private long spilledCount;
+    // Spilled CRMEvents are written as CRMEventCodec frames so their payloads survive the trip to disk
+    private ByteBuffer spillFrame = ByteBuffer.allocate(256);
+
+    public AsyncObserver(CRMObserver delegate) {
+        this(delegate, DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+
+    public AsyncObserver(CRMObserver delegate, int capacity, BackpressurePolicy policy) {
+        this(delegate, capacity, policy, null);
+    }
+
+    public AsyncObserver(CRMObserver delegate, int capacity, BackpressurePolicy policy, Path spillPath) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.policy = policy;
+        this.ring = new Object[capacity];
+
+        if (policy == BackpressurePolicy.SPILL_TO_DISK && spillPath == null) {
+            try {
+                this.spillPath = Files.createTempFile("crm-events", ".spill");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create spill file", e);
+            }
+            this.deleteSpillOnClose = true;
+        } else {
+            this.spillPath = spillPath;
+            this.deleteSpillOnClose = false;
+        }
+
+        this.consumer = new Thread(this::consume, "crm-observer-" + delegate.getClass().getSimpleName());
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void onEvent(EventType eventType) {
+        publish(eventType);
+    }
+
+    @Override
+    public void onEvent(CRMEvent crmEvent) {
+        publish(crmEvent);
+    }
+
+    // The batch is queued under one lock acquisition
+    @Override
+    public void onEvents(List<CRMEvent> crmEvents) {
+        lock.lock();
+        try {
+            for (CRMEvent crmEvent : crmEvents) {
+                publishLocked(crmEvent);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<EventType> getInterests() {
+        return delegate.getInterests();
+    }
+
+    // Waits until everything published before this call has reached the wrapped observer
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = publishedCount;
+            while (deliveredCount < target) {
+                delivered.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (consumer.isAlive()) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        closeSpill();
+        delegate.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deliveries the wrapped observer threw on, plus spill file errors
+    public long getFailedCount() {
+        lock.lock();
+        try {
+            return failedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Exception getLastFailure() {
+        lock.lock();
+        try {
+            return lastFailure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSpilledCount() {
+        lock.lock();
+        try {
+            return spilledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(Object event) {
+        lock.lock();
+        try {
+            publishLocked(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock
+    private void publishLocked(Object event) {
+        if (closed) {
+            throw new IllegalStateException("Observer has been closed");
+        }
+
+        // Once anything is spilled, later events follow it to disk so delivery order is kept
+        if (count == ring.length || spilledCount > 0) {
+            switch (policy) {
+                case BLOCK:
+                    while (count == ring.length && !closed) {
+                        notFull.awaitUninterruptibly();
+                    }
+                    if (closed) {
+                        throw new IllegalStateException("Observer has been closed");
+                    }
+                    break;
+                case DROP_OLDEST:
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    count--;
+                    droppedCount++;
+                    // The dropped event will never be delivered, so flush must not wait for it
+                    deliveredCount++;
+                    break;
+                case SPILL_TO_DISK:
+                    spill(event);
+                    publishedCount++;
+                    notEmpty.signal();
+                    return;
+                default:
+                    throw new IllegalStateException("Unexpected backpressure policy: " + policy);
+            }
+        }
+
+        ring[(head + count) % ring.length] = event;
+        count++;
+        publishedCount++;
+        notEmpty.signal();
+    }
+
+    private void consume() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            lock.lock();
+            try {
+                while (count == 0 && spilledCount == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (count > 0) {
+                    while (count > 0 && batch.size() < MAX_BATCH) {
+                        batch.add(ring[head]);
+                        ring[head] = null;
+                        head = (head + 1) % ring.length;
+                        count--;
+                    }
+                    notFull.signalAll();
+                } else if (spilledCount > 0) {
+                    try {
+                        batch.add(unspill());
+                    } catch (RuntimeException e) {
+                        // Unreadable or undecodable spill file
+                        loseSpill(e);
+                        continue;
+                    }
+                } else {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                deliver(batch);
+            } finally {
+                lock.lock();
+                try {
+                    deliveredCount += batch.size();
+                    delivered.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    // Runs of CRMEvents go to the wrapped observer together; bare EventTypes go one at a time
+    private void deliver(List<Object> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            int end = start;
+            while (end < batch.size() && batch.get(end) instanceof CRMEvent) {
+                end++;
+            }
+            boolean eventType = end == start;
+            if (eventType) {
+                end++;
+            }
+            try {
+                if (eventType) {
+                    delegate.onEvent((EventType) batch.get(start));
+                } else if (end - start == 1) {
+                    delegate.onEvent((CRMEvent) batch.get(start));
+                } else {
+                    List<CRMEvent> events = new ArrayList<>(end - start);
+                    for (int i = start; i < end; i++) {
+                        events.add((CRMEvent) batch.get(i));
+                    }
+                    delegate.onEvents(events);
+                }
+            } catch (Throwable e) {
+                // A failing observer must not stop delivery of the events behind it
+                recordFailure(e instanceof Exception
+                        ? (Exception) e
+                        : new IllegalStateException("Observer failed with " + e, e));
+            }
+            start = end;
+        }
+    }
+
+    private void recordFailure(Exception e) {
+        lock.lock();
+        try {
+            failedCount++;
+            lastFailure = e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock; whatever is left in an unreadable spill file is given up as dropped
+    private void loseSpill(RuntimeException e) {
+        droppedCount += spilledCount;
+        deliveredCount += spilledCount;
+        spilledCount = 0;
+        failedCount++;
+        lastFailure = e;
+        closeSpill();
+        delivered.signalAll();
+    }
+
+    // Caller holds lock
+    private void spill(Object event) {
+        try {
+            if (spillOut == null) {
+                spillOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+                spillIn = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillPath)));
+            }
+            if (event instanceof CRMEvent) {
+                CRMEvent crmEvent = (CRMEvent) event;
+                int size = CRMEventCodec.encodedSize(crmEvent);
+                if (spillFrame.capacity() < size) {
+                    spillFrame = ByteBuffer.allocate(Math.max(size, spillFrame.capacity() * 2));
+                }
+                spillFrame.clear();
+                CRMEventCodec.encode(crmEvent, spillFrame);
+                spillOut.writeBoolean(true);
+                spillOut.writeInt(size);
+                spillOut.write(spillFrame.array(), 0, size);
+            } else {
+                spillOut.writeBoolean(false);
+                spillOut.writeByte(((EventType) event).ordinal());
+            }
+            spilledCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spill event to " + spillPath, e);
+        }
+    }
+
+    // Caller holds lock
+    private Object unspill() {
+        try {
+            // Only the consumer reads, so it is enough to push buffered writes out once it catches up
+            spillOut.flush();
+            Object event;
+            if (spillIn.readBoolean()) {
+                int size = spillIn.readInt();
+                if (spillFrame.capacity() < size) {
+                    spillFrame = ByteBuffer.allocate(size);
+                }
+                spillIn.readFully(spillFrame.array(), 0, size);
+                spillFrame.clear().limit(size);
+                event = CRMEventCodec.decode(spillFrame);
+            } else {
+                event = EVENT_TYPES[spillIn.readUnsignedByte()];
+            }
+
+            // The file is started over once it has been read back completely
+            if (--spilledCount == 0) {
+                closeSpill();
+            }
+            return event;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read spilled event from " + spillPath, e);
+        }
+    }
+
+    private void closeSpill() {
+        DataOutputStream out = spillOut;
+        DataInputStream in = spillIn;
+        spillOut = null;
+        spillIn = null;
+        try {
+            if (out != null) {
+                try {
+                    out.close();
+                } finally {
+                    in.close();
+                }
+            }
+            if (deleteSpillOnClose && closed) {
+                Files.deleteIfExists(spillPath);
+            }
+        } catch (IOException e) {
+            recordFailure(new UncheckedIOException("Unable to close spill file: " + spillPath, e));
+        }
+    }
+}
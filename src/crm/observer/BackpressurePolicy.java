@@ -0,0 +1,19 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer;
+
+/*
+ * What an AsyncObserver does with a new event when its buffer is full.
+ */
+public enum BackpressurePolicy {
+    // The publishing thread waits for the consumer to free a slot
+    BLOCK,
+    // The oldest buffered event is discarded to make room
+    DROP_OLDEST,
+    // Overflowing events are appended to a spill file and delivered after the buffer drains
+    SPILL_TO_DISK
+}
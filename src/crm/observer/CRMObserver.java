@@ -9,7 +9,32 @@ package crm.observer;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 public interface CRMObserver {
     public void onEvent(EventType eventType);
     public void onEvent(CRMEvent crmEvent);
+
+    // Events from one CRMController.executeBatch, in order; observers that can write them together override this
+    public default void onEvents(List<CRMEvent> crmEvents) {
+        for (CRMEvent crmEvent : crmEvents) {
+            onEvent(crmEvent);
+        }
+    }
+
+    // Event types CRMController hands to this observer; events of any other type never reach it
+    public default Set<EventType> getInterests() {
+        return EnumSet.allOf(EventType.class);
+    }
+
+    // Blocks until every event handed to this observer so far has been fully handled
+    public default void flush() {
+    }
+
+    // Flushes and releases any threads or files the observer holds
+    public default void close() {
+        flush();
+    }
 }
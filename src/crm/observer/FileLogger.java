@@ -7,33 +7,126 @@
 package crm.observer;
 
 import crm.observer.event.CRMEvent;
+import crm.observer.event.CRMEventCodec;
 import crm.observer.event.EventType;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 public class FileLogger implements CRMObserver {
     private final String filePath;
+    private final LogFileWriter writer;
+    private final LogFormat format;
+    // Reused for every binary frame; grown when an event does not fit
+    private ByteBuffer frame = ByteBuffer.allocate(256);
 
     public FileLogger(String filePath) {
+        this(filePath, LogFileWriter.Durability.OS_MANAGED, 0);
+    }
+
+    public FileLogger(String filePath, LogFileWriter.Durability durability, long flushIntervalMillis) {
+        this(filePath, durability, flushIntervalMillis, RotationPolicy.NONE);
+    }
+
+    public FileLogger(String filePath, LogFileWriter.Durability durability, long flushIntervalMillis,
+                      RotationPolicy rotationPolicy) {
+        this(filePath, durability, flushIntervalMillis, rotationPolicy, LogFormat.TEXT);
+    }
+
+    public FileLogger(String filePath, LogFileWriter.Durability durability, long flushIntervalMillis,
+                      RotationPolicy rotationPolicy, LogFormat format) {
         this.filePath = filePath;
+        this.writer = new LogFileWriter(filePath, durability, flushIntervalMillis, rotationPolicy);
+        this.format = format;
     }
 
     @Override
     public void onEvent(EventType eventType) {
-        writeToFile(eventType.toString());
+        if (format == LogFormat.BINARY) {
+            writeEvent(new CRMEvent(eventType));
+        } else {
+            writeToFile(eventType.toString());
+        }
     }
 
     @Override
     public void onEvent(CRMEvent crmEvent) {
-        writeToFile(crmEvent.toString());
+        if (format == LogFormat.BINARY) {
+            writeEvent(crmEvent);
+        } else {
+            writeToFile(crmEvent.toString());
+        }
+    }
+
+    // The whole batch goes to the writer in one call, so it is flushed or forced once
+    @Override
+    public void onEvents(List<CRMEvent> crmEvents) {
+        if (format == LogFormat.BINARY) {
+            writeEvents(crmEvents);
+            return;
+        }
+        List<String> lines = new ArrayList<>(crmEvents.size());
+        for (CRMEvent crmEvent : crmEvents) {
+            lines.add(crmEvent.toString());
+        }
+        try {
+            writer.writeLines(lines);
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    public LogFormat getFormat() {
+        return format;
     }
 
     public void writeToFile(String contents) {
         try {
-            FileWriter logFileWriter = new FileWriter(this.filePath, true);
-            logFileWriter.write(contents + "\n");
-            logFileWriter.close();
+            writer.writeLine(contents);
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    private synchronized void writeEvent(CRMEvent crmEvent) {
+        writeEvents(List.of(crmEvent));
+    }
+
+    private synchronized void writeEvents(List<CRMEvent> crmEvents) {
+        int size = 0;
+        for (CRMEvent crmEvent : crmEvents) {
+            size += CRMEventCodec.encodedSize(crmEvent);
+        }
+        if (size > frame.capacity()) {
+            frame = ByteBuffer.allocate(Math.max(size, frame.capacity() * 2));
+        }
+        frame.clear();
+        for (CRMEvent crmEvent : crmEvents) {
+            CRMEventCodec.encode(crmEvent, frame);
+        }
+        frame.flip();
+        try {
+            writer.write(frame);
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
         } catch (IOException e) {
             System.out.println("Unable to write to log file: " + this.filePath);
         }
@@ -0,0 +1,344 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Appends lines to a log file through a single FileChannel that stays open
+ * between writes. Lines are collected in a direct ByteBuffer and written out
+ * when the buffer fills, when flushIntervalMillis has passed, or when flush()
+ * or sync() is called. A flush interval of 0 writes every line straight
+ * through, so readers see it as soon as writeLine returns.
+ *
+ * The channel is opened on first use and reopened after close(), so a bad
+ * path is reported on write rather than when the logger is constructed.
+ *
+ * With a RotationPolicy the live file is renamed to <name>.<timestamp> once
+ * it is big or old enough and a fresh file is started. The rename is the only
+ * work done on the writing thread; compressing the old segment and applying
+ * retention happen on a background thread. The time the live segment was
+ * started is kept in <name>.start, so a segment's age survives restarts on
+ * filesystems that do not record when a file was created.
+ */
+public class LogFileWriter {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    // One daemon thread drives the periodic flush of every writer
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "crm-log-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Gzip and retention run here so they never hold up a writer
+    private static final ExecutorService MAINTENANCE = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "crm-log-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public enum Durability {
+        // Each line is forced to disk before writeLine returns
+        EVERY_EVENT,
+        // Buffered lines are written and forced to disk every flush interval
+        PERIODIC,
+        // Buffered lines are handed to the OS, which decides when they reach the disk
+        OS_MANAGED
+    }
+
+    private final Path path;
+    private final Path startPath;
+    private final Durability durability;
+    private final long flushIntervalMillis;
+    private final RotationPolicy rotationPolicy;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    private FileChannel channel;
+    private ScheduledFuture<?> flushTask;
+    private long segmentBytes;
+    private long segmentStartMillis;
+    private Future<?> maintenance;
+
+    public LogFileWriter(String filePath) {
+        this(filePath, Durability.OS_MANAGED, 0);
+    }
+
+    public LogFileWriter(String filePath, Durability durability, long flushIntervalMillis) {
+        this(filePath, durability, flushIntervalMillis, RotationPolicy.NONE);
+    }
+
+    public LogFileWriter(String filePath, Durability durability, long flushIntervalMillis,
+                         RotationPolicy rotationPolicy) {
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Flush interval must not be negative: " + flushIntervalMillis);
+        }
+        this.path = Paths.get(filePath);
+        this.durability = durability;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.rotationPolicy = rotationPolicy;
+        this.startPath = path.resolveSibling(path.getFileName() + ".start");
+    }
+
+    public synchronized void writeLine(String line) throws IOException {
+        write(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Appends every line, then applies the durability setting once for the whole group
+    public synchronized void writeLines(List<String> lines) throws IOException {
+        for (String line : lines) {
+            append(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+        }
+        commit();
+    }
+
+    // Appends the bytes remaining in record as they are, with the same buffering and durability as writeLine
+    public synchronized void write(ByteBuffer record) throws IOException {
+        append(record);
+        commit();
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        ensureOpen();
+        int length = record.remaining();
+
+        if (length > buffer.remaining()) {
+            drain();
+        }
+        if (length > buffer.capacity()) {
+            writeFully(record);
+        } else {
+            buffer.put(record);
+        }
+
+        segmentBytes += length;
+
+        if (rotationPolicy.shouldRotate(segmentBytes, System.currentTimeMillis() - segmentStartMillis)) {
+            rotate();
+        }
+    }
+
+    private void commit() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (durability == Durability.EVERY_EVENT) {
+            drain();
+            channel.force(false);
+        } else if (flushIntervalMillis == 0) {
+            drain();
+        }
+    }
+
+    // Hands buffered lines to the OS, and forces them to disk unless durability is OS_MANAGED
+    public synchronized void flush() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        drain();
+        if (durability != Durability.OS_MANAGED) {
+            channel.force(false);
+        }
+    }
+
+    // Forces every line written so far to disk whatever the durability setting
+    public synchronized void sync() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        drain();
+        channel.force(false);
+    }
+
+    // Also waits for any compression or retention work still running for this log
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            try {
+                flush();
+            } finally {
+                if (flushTask != null) {
+                    flushTask.cancel(false);
+                    flushTask = null;
+                }
+                channel.close();
+                channel = null;
+            }
+        }
+        awaitMaintenance();
+    }
+
+    // Starts a new segment now, whatever the rotation policy says
+    public synchronized void rotate() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        flush();
+        channel.close();
+        channel = null;
+
+        Path segment = segmentPath();
+        Files.move(path, segment);
+        ensureOpen();
+        maintenance = MAINTENANCE.submit(() -> maintain(segment));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = channel.size();
+        segmentStartMillis = segmentBytes == 0 ? recordSegmentStart(System.currentTimeMillis()) : readSegmentStart();
+        if (flushIntervalMillis > 0 && flushTask == null) {
+            flushTask = FLUSHER.scheduleWithFixedDelay(this::timedFlush,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long recordSegmentStart(long startMillis) throws IOException {
+        Files.write(startPath, Long.toString(startMillis).getBytes(StandardCharsets.UTF_8));
+        return startMillis;
+    }
+
+    private long readSegmentStart() throws IOException {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(startPath), StandardCharsets.UTF_8).trim());
+        } catch (NoSuchFileException | NumberFormatException e) {
+            // A segment from before start times were recorded: take the file's own time once and keep it
+            return recordSegmentStart(Files.readAttributes(path, BasicFileAttributes.class).creationTime().toMillis());
+        }
+    }
+
+    private synchronized void timedFlush() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + path);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private Path segmentPath() {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        // The counter separates segments rotated within the same millisecond and keeps names sortable
+        Path segment;
+        int n = 0;
+        do {
+            segment = path.resolveSibling(String.format("%s.%s-%03d", path.getFileName(), stamp, n++));
+        } while (Files.exists(segment) || Files.exists(compressedPath(segment)));
+        return segment;
+    }
+
+    private static Path compressedPath(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + ".gz");
+    }
+
+    private void maintain(Path segment) {
+        try {
+            if (rotationPolicy.isCompress()) {
+                compress(segment);
+            }
+            applyRetention();
+        } catch (IOException e) {
+            System.out.println("Unable to maintain log segment: " + segment);
+        }
+    }
+
+    private static void compress(Path segment) throws IOException {
+        Path compressed = compressedPath(segment);
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_BYTES)) {
+            in.transferTo(out);
+        }
+        Files.delete(segment);
+    }
+
+    private void applyRetention() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        // Rotated segment names continue with their timestamp; <name>.start is not a segment
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path.toAbsolutePath().getParent(),
+                path.getFileName() + ".[0-9]*")) {
+            stream.forEach(segments::add);
+        }
+        // Segment names carry their rotation time, so name order is age order
+        Collections.sort(segments);
+
+        int excess = rotationPolicy.getMaxRetainedSegments() > 0
+                ? segments.size() - rotationPolicy.getMaxRetainedSegments()
+                : 0;
+        long cutoff = System.currentTimeMillis() - rotationPolicy.getMaxRetainedAgeMillis();
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean tooOld = rotationPolicy.getMaxRetainedAgeMillis() > 0
+                    && Files.getLastModifiedTime(segment).toMillis() < cutoff;
+            if (i < excess || tooOld) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    private void awaitMaintenance() throws IOException {
+        if (maintenance == null) {
+            return;
+        }
+        try {
+            maintenance.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Log maintenance failed for " + path, e.getCause());
+        }
+        maintenance = null;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer;
+
+/*
+ * How a FileLogger writes events to its log.
+ */
+public enum LogFormat {
+    // One human-readable line per event, as CRMEvent.toString prints it
+    TEXT,
+    // CRMEventCodec frames, read back with CRMEventCodec.decodeAll
+    BINARY
+}
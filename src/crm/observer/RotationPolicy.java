@@ -0,0 +1,62 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer;
+
+/*
+ * When a LogFileWriter starts a new segment and which old segments it keeps.
+ * A limit of 0 means that limit is not applied.
+ */
+public class RotationPolicy {
+    public static final RotationPolicy NONE = new RotationPolicy(0, 0, 0, 0, false);
+
+    private final long maxSegmentBytes;
+    private final long maxSegmentAgeMillis;
+    private final int maxRetainedSegments;
+    private final long maxRetainedAgeMillis;
+    private final boolean compress;
+
+    public RotationPolicy(long maxSegmentBytes, long maxSegmentAgeMillis, int maxRetainedSegments,
+                          long maxRetainedAgeMillis, boolean compress) {
+        if (maxSegmentBytes < 0 || maxSegmentAgeMillis < 0 || maxRetainedSegments < 0 || maxRetainedAgeMillis < 0) {
+            throw new IllegalArgumentException("Rotation limits must not be negative");
+        }
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegmentAgeMillis = maxSegmentAgeMillis;
+        this.maxRetainedSegments = maxRetainedSegments;
+        this.maxRetainedAgeMillis = maxRetainedAgeMillis;
+        this.compress = compress;
+    }
+
+    public boolean shouldRotate(long segmentBytes, long segmentAgeMillis) {
+        return (maxSegmentBytes > 0 && segmentBytes >= maxSegmentBytes)
+                || (maxSegmentAgeMillis > 0 && segmentAgeMillis >= maxSegmentAgeMillis);
+    }
+
+    public boolean isEnabled() {
+        return maxSegmentBytes > 0 || maxSegmentAgeMillis > 0;
+    }
+
+    public long getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    public long getMaxSegmentAgeMillis() {
+        return maxSegmentAgeMillis;
+    }
+
+    public int getMaxRetainedSegments() {
+        return maxRetainedSegments;
+    }
+
+    public long getMaxRetainedAgeMillis() {
+        return maxRetainedAgeMillis;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+}
@@ -9,14 +9,28 @@ package crm.observer;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class SalesLogger implements CRMObserver {
     private final String filePath;
+    private final LogFileWriter writer;
 
     public SalesLogger(String filePath) {
+        this(filePath, LogFileWriter.Durability.OS_MANAGED, 0);
+    }
+
+    public SalesLogger(String filePath, LogFileWriter.Durability durability, long flushIntervalMillis) {
+        this(filePath, durability, flushIntervalMillis, RotationPolicy.NONE);
+    }
+
+    public SalesLogger(String filePath, LogFileWriter.Durability durability, long flushIntervalMillis,
+                       RotationPolicy rotationPolicy) {
         this.filePath = filePath;
+        this.writer = new LogFileWriter(filePath, durability, flushIntervalMillis, rotationPolicy);
     }
 
     @Override
@@ -33,11 +47,46 @@ public class SalesLogger implements CRMObserver {
         writeToFile(crmEvent.toString());
     }
 
+    @Override
+    public void onEvents(List<CRMEvent> crmEvents) {
+        List<String> lines = new ArrayList<>(crmEvents.size());
+        for (CRMEvent crmEvent : crmEvents) {
+            lines.add(crmEvent.toString());
+        }
+        try {
+            writer.writeLines(lines);
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    // Only sales reach the sales log through the controller; a direct onEvent(CRMEvent) is still written as is
+    @Override
+    public Set<EventType> getInterests() {
+        return EnumSet.of(EventType.SALE_MADE);
+    }
+
     public void writeToFile(String contents) {
         try {
-            FileWriter logFileWriter = new FileWriter(this.filePath, true);
-            logFileWriter.write(contents + "\n");
-            logFileWriter.close();
+            writer.writeLine(contents);
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.out.println("Unable to write to log file: " + this.filePath);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
         } catch (IOException e) {
             System.out.println("Unable to write to log file: " + this.filePath);
         }
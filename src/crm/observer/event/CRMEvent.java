@@ -13,6 +13,7 @@ public class CRMEvent {
     private final Date timestamp;
     private final Integer customerId;
     private final String additionalInfo;
+    private final EventPayload payload;
 
     public CRMEvent(EventType eventType) {
         this(eventType, null, null);
@@ -23,26 +24,63 @@ public class CRMEvent {
     }
 
     public CRMEvent(EventType eventType, Integer customerId, String additionalInfo) {
+        this(eventType, new Date(), customerId, additionalInfo);
+    }
+
+    public CRMEvent(EventType eventType, Integer customerId, String additionalInfo, EventPayload payload) {
+        this(eventType, new Date(), customerId, additionalInfo, payload);
+    }
+
+    // Rebuilds an event that was recorded earlier, keeping its original timestamp
+    public CRMEvent(EventType eventType, Date timestamp, Integer customerId, String additionalInfo) {
+        this(eventType, timestamp, customerId, additionalInfo, null);
+    }
+
+    public CRMEvent(EventType eventType, Date timestamp, Integer customerId, String additionalInfo,
+                    EventPayload payload) {
         this.eventType = eventType;
-        this.timestamp = new Date();
+        this.timestamp = new Date(timestamp.getTime());
         this.customerId = customerId;
         this.additionalInfo = additionalInfo;
+        this.payload = payload;
     }
 
     public EventType getEventType() {
         return eventType;
     }
 
+    public Date getTimestamp() {
+        return new Date(timestamp.getTime());
+    }
+
+    // Same instant as getTimestamp without copying the Date
+    public long getTimestampMillis() {
+        return timestamp.getTime();
+    }
+
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    public String getAdditionalInfo() {
+        return additionalInfo;
+    }
+
+    // Null for events that only describe what happened in words
+    public EventPayload getPayload() {
+        return payload;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Type: %s, Time: %s", eventType.toString(), timestamp.toString()));
+        sb.append("Type: ").append(eventType).append(", Time: ").append(timestamp);
 
         if (customerId != null) {
-            sb.append(String.format(", ID: %d", customerId));
+            sb.append(", ID: ").append(customerId.intValue());
         }
 
         if (additionalInfo != null && !additionalInfo.isEmpty()) {
-            sb.append(String.format(", Info: %s", additionalInfo));
+            sb.append(", Info: ").append(additionalInfo);
         }
 
         return sb.toString();
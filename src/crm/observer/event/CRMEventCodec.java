@@ -0,0 +1,349 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer.event;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/*
+ * Compact binary form of a CRMEvent. Each event is one frame:
+ *
+ *   varint  length of the rest of the frame
+ *   byte    event type ordinal
+ *   byte    flags: 1 = customer id present, 2 = additional info present
+ *   long    timestamp in epoch milliseconds
+ *   int     customer id (if present)
+ *   varint  info length in bytes, then the info as UTF-8 (if present)
+ *   byte    payload kind, then the payload's fields (if present)
+ *
+ * Payload strings are written as a varint of the UTF-8 length plus one, 0
+ * standing for null, followed by the bytes.
+ *
+ * encode writes straight into the caller's buffer, so logging an event needs
+ * no intermediate Strings or byte arrays. Frames can be read back one at a
+ * time with decode, which leaves a partly written frame at the end of the
+ * buffer unread.
+ */
+public final class CRMEventCodec {
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final int HAS_CUSTOMER_ID = 1;
+    private static final int HAS_INFO = 2;
+    private static final int HAS_PAYLOAD = 4;
+
+    private static final int CUSTOMER_STATE = 1;
+    private static final int FIELD_CHANGE = 2;
+    private static final int INTERACTION = 3;
+    // Type, flags and timestamp
+    private static final int FIXED_BYTES = 2 + Long.BYTES;
+
+    private CRMEventCodec() {
+    }
+
+    // Number of bytes encode will write for the event, including the length prefix
+    public static int encodedSize(CRMEvent event) {
+        String info = event.getAdditionalInfo();
+        int body = bodySize(event, info == null ? 0 : utf8Length(info));
+        return varIntSize(body) + body;
+    }
+
+    // Throws BufferOverflowException, leaving the buffer's position unchanged, if the frame does not fit
+    public static void encode(CRMEvent event, ByteBuffer buffer) {
+        String info = event.getAdditionalInfo();
+        int infoBytes = info == null ? 0 : utf8Length(info);
+        int body = bodySize(event, infoBytes);
+        if (buffer.remaining() < varIntSize(body) + body) {
+            throw new BufferOverflowException();
+        }
+
+        putVarInt(buffer, body);
+        buffer.put((byte) event.getEventType().ordinal());
+        buffer.put((byte) ((event.getCustomerId() == null ? 0 : HAS_CUSTOMER_ID)
+                | (info == null ? 0 : HAS_INFO)
+                | (event.getPayload() == null ? 0 : HAS_PAYLOAD)));
+        buffer.putLong(event.getTimestampMillis());
+        if (event.getCustomerId() != null) {
+            buffer.putInt(event.getCustomerId());
+        }
+        if (info != null) {
+            putVarInt(buffer, infoBytes);
+            putUtf8(buffer, info);
+        }
+        if (event.getPayload() != null) {
+            putPayload(buffer, event.getPayload());
+        }
+    }
+
+    // Reads the next frame, or returns null without consuming anything if the buffer holds only part of one
+    public static CRMEvent decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        int body = getVarInt(buffer);
+        if (body < 0 || buffer.remaining() < body) {
+            buffer.position(start);
+            return null;
+        }
+        int end = buffer.position() + body;
+
+        int typeCode = buffer.get() & 0xFF;
+        if (typeCode >= EVENT_TYPES.length) {
+            throw new IllegalArgumentException("Invalid event type code: " + typeCode);
+        }
+        int flags = buffer.get();
+        long timestamp = buffer.getLong();
+        Integer customerId = (flags & HAS_CUSTOMER_ID) != 0 ? buffer.getInt() : null;
+        String info = null;
+        if ((flags & HAS_INFO) != 0) {
+            int infoBytes = getVarInt(buffer);
+            info = getUtf8(buffer, infoBytes);
+        }
+        EventPayload payload = (flags & HAS_PAYLOAD) != 0 ? getPayload(buffer) : null;
+        if (buffer.position() != end) {
+            throw new IllegalArgumentException("Corrupt event frame at offset " + start);
+        }
+        return new CRMEvent(EVENT_TYPES[typeCode], new Date(timestamp), customerId, info, payload);
+    }
+
+    // Length of the complete frame at the buffer's position, or -1 if only part of it is there; nothing is consumed
+    public static int frameLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        int body = getVarInt(buffer);
+        int prefix = buffer.position() - start;
+        boolean complete = body >= 0 && buffer.remaining() >= body;
+        buffer.position(start);
+        return complete ? prefix + body : -1;
+    }
+
+    // Timestamp of the complete frame at the buffer's position, read without decoding the rest of it
+    public static long timestampOf(ByteBuffer buffer) {
+        int start = buffer.position();
+        getVarInt(buffer);
+        long timestamp = buffer.getLong(buffer.position() + 2);
+        buffer.position(start);
+        return timestamp;
+    }
+
+    // Decodes every complete frame left in the buffer
+    public static List<CRMEvent> decodeAll(ByteBuffer buffer) {
+        List<CRMEvent> events = new ArrayList<>();
+        CRMEvent event;
+        while ((event = decode(buffer)) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static int bodySize(CRMEvent event, int infoBytes) {
+        int size = FIXED_BYTES;
+        if (event.getCustomerId() != null) {
+            size += Integer.BYTES;
+        }
+        if (event.getAdditionalInfo() != null) {
+            size += varIntSize(infoBytes) + infoBytes;
+        }
+        if (event.getPayload() != null) {
+            size += payloadSize(event.getPayload());
+        }
+        return size;
+    }
+
+    private static int payloadSize(EventPayload payload) {
+        if (payload instanceof CustomerStatePayload) {
+            CustomerStatePayload state = (CustomerStatePayload) payload;
+            return 1 + stringSize(state.getCustomerType()) + stringSize(state.getName())
+                    + stringSize(state.getEmail()) + stringSize(state.getPhone())
+                    + stringSize(state.getContactMethod())
+                    + 1 + (state.getLastContactMillis() == null ? 0 : Long.BYTES);
+        } else if (payload instanceof FieldChangePayload) {
+            FieldChangePayload change = (FieldChangePayload) payload;
+            return 1 + stringSize(change.getField()) + stringSize(change.getOldValue())
+                    + stringSize(change.getNewValue());
+        } else if (payload instanceof InteractionPayload) {
+            InteractionPayload interaction = (InteractionPayload) payload;
+            return 1 + 1 + Long.BYTES + Integer.BYTES + stringSize(interaction.getDetails());
+        }
+        throw new IllegalArgumentException("Unsupported event payload: " + payload.getClass().getSimpleName());
+    }
+
+    private static void putPayload(ByteBuffer buffer, EventPayload payload) {
+        if (payload instanceof CustomerStatePayload) {
+            CustomerStatePayload state = (CustomerStatePayload) payload;
+            buffer.put((byte) CUSTOMER_STATE);
+            putString(buffer, state.getCustomerType());
+            putString(buffer, state.getName());
+            putString(buffer, state.getEmail());
+            putString(buffer, state.getPhone());
+            putString(buffer, state.getContactMethod());
+            buffer.put((byte) (state.getLastContactMillis() == null ? 0 : 1));
+            if (state.getLastContactMillis() != null) {
+                buffer.putLong(state.getLastContactMillis());
+            }
+        } else if (payload instanceof FieldChangePayload) {
+            FieldChangePayload change = (FieldChangePayload) payload;
+            buffer.put((byte) FIELD_CHANGE);
+            putString(buffer, change.getField());
+            putString(buffer, change.getOldValue());
+            putString(buffer, change.getNewValue());
+        } else {
+            InteractionPayload interaction = (InteractionPayload) payload;
+            buffer.put((byte) INTERACTION);
+            buffer.put((byte) interaction.getInteractionType().ordinal());
+            buffer.putLong(interaction.getEpochSecond());
+            buffer.putInt(interaction.getNano());
+            putString(buffer, interaction.getDetails());
+        }
+    }
+
+    private static EventPayload getPayload(ByteBuffer buffer) {
+        int kind = buffer.get();
+        switch (kind) {
+            case CUSTOMER_STATE: {
+                String customerType = getString(buffer);
+                String name = getString(buffer);
+                String email = getString(buffer);
+                String phone = getString(buffer);
+                String contactMethod = getString(buffer);
+                Long lastContact = buffer.get() != 0 ? buffer.getLong() : null;
+                return new CustomerStatePayload(customerType, name, email, phone, contactMethod, lastContact);
+            }
+            case FIELD_CHANGE:
+                return new FieldChangePayload(getString(buffer), getString(buffer), getString(buffer));
+            case INTERACTION: {
+                int typeCode = buffer.get() & 0xFF;
+                if (typeCode >= EVENT_TYPES.length) {
+                    throw new IllegalArgumentException("Invalid interaction type code: " + typeCode);
+                }
+                long epochSecond = buffer.getLong();
+                int nano = buffer.getInt();
+                return new InteractionPayload(EVENT_TYPES[typeCode], epochSecond, nano, getString(buffer));
+            }
+            default:
+                throw new IllegalArgumentException("Invalid event payload kind: " + kind);
+        }
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int bytes = utf8Length(value);
+        return varIntSize(bytes + 1) + bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        putVarInt(buffer, utf8Length(value) + 1);
+        putUtf8(buffer, value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        if (length < 0) {
+            throw new IllegalArgumentException("Truncated string in event frame");
+        }
+        return length == 0 ? null : getUtf8(buffer, length - 1);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // Returns -1, with the position somewhere inside the varint, if the buffer ends first
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed length in event frame");
+    }
+
+    private static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    // An unpaired surrogate is written as U+FFFD, the replacement character
+    private static void putUtf8(ByteBuffer buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    buffer.put((byte) 0xEF);
+                    buffer.put((byte) 0xBF);
+                    buffer.put((byte) 0xBD);
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static String getUtf8(ByteBuffer buffer, int length) {
+        if (buffer.hasArray()) {
+            String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return text;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
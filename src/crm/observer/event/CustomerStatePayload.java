@@ -0,0 +1,57 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer.event;
+
+/*
+ * A customer's type and details apart from its interaction history. Carried
+ * by CUSTOMER_CREATED, and by CUSTOMER_UPDATED when the contact method or last
+ * contact date changes. customerType is LEAD, REGULAR, VIP or LOST and
+ * contactMethod is SMS, EMAIL or PUSH.
+ */
+public class CustomerStatePayload implements EventPayload {
+    private final String customerType;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final String contactMethod;
+    private final Long lastContactMillis;
+
+    public CustomerStatePayload(String customerType, String name, String email, String phone,
+                                String contactMethod, Long lastContactMillis) {
+        this.customerType = customerType;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.contactMethod = contactMethod;
+        this.lastContactMillis = lastContactMillis;
+    }
+
+    public String getCustomerType() {
+        return customerType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getContactMethod() {
+        return contactMethod;
+    }
+
+    // Null when the customer has never been contacted
+    public Long getLastContactMillis() {
+        return lastContactMillis;
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer.event;
+
+/*
+ * Structured data a CRMEvent carries next to its free-text info, describing
+ * the change precisely enough to apply it again when the event stream is
+ * replayed. CRMEventCodec writes every implementation.
+ */
+public interface EventPayload {
+}
@@ -0,0 +1,35 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer.event;
+
+/*
+ * One customer field changing value. field is the name of a
+ * customer.CustomerField constant.
+ */
+public class FieldChangePayload implements EventPayload {
+    private final String field;
+    private final String oldValue;
+    private final String newValue;
+
+    public FieldChangePayload(String field, String oldValue, String newValue) {
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+}
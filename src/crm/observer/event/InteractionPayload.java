@@ -0,0 +1,41 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package crm.observer.event;
+
+/*
+ * An interaction added to a customer's history, with its timestamp as UTC
+ * epoch seconds plus nanoseconds so it replays exactly.
+ */
+public class InteractionPayload implements EventPayload {
+    private final EventType interactionType;
+    private final long epochSecond;
+    private final int nano;
+    private final String details;
+
+    public InteractionPayload(EventType interactionType, long epochSecond, int nano, String details) {
+        this.interactionType = interactionType;
+        this.epochSecond = epochSecond;
+        this.nano = nano;
+        this.details = details;
+    }
+
+    public EventType getInteractionType() {
+        return interactionType;
+    }
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public int getNano() {
+        return nano;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
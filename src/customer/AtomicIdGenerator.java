@@ -0,0 +1,36 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AtomicIdGenerator implements IdGenerator {
+    private final AtomicInteger nextId;
+
+    public AtomicIdGenerator(int firstId) {
+        this.nextId = new AtomicInteger(firstId);
+    }
+
+    @Override
+    public int nextId() {
+        // Handing out MAX_VALUE wraps the counter to MIN_VALUE, which marks the ID space as used up
+        return nextId.getAndUpdate(current -> {
+            if (current == Integer.MIN_VALUE) {
+                throw new IllegalStateException("Customer ID space exhausted");
+            }
+            return current + 1;
+        });
+    }
+
+    @Override
+    public void advancePast(int id) {
+        if (id == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Customer ID space exhausted");
+        }
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+}
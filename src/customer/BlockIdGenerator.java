@@ -0,0 +1,72 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Leases contiguous blocks of IDs from a shared counter so each thread hands
+ * out IDs from its own block without touching shared state. The high-water
+ * mark covers every leased ID; persisting it and passing it to advancePast on
+ * startup keeps IDs unique across restarts.
+ */
+public class BlockIdGenerator implements IdGenerator {
+    private static final long ID_LIMIT = Integer.MAX_VALUE + 1L;
+
+    private final int blockSize;
+    private final AtomicLong nextBlockStart;
+    private final ThreadLocal<IdBlock> currentBlock = ThreadLocal.withInitial(IdBlock::new);
+    private volatile int epoch;
+
+    private static class IdBlock {
+        private long next;
+        private long end;
+        private int epoch = -1;
+    }
+
+    public BlockIdGenerator(int firstId, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.nextBlockStart = new AtomicLong(firstId);
+    }
+
+    @Override
+    public int nextId() {
+        IdBlock block = currentBlock.get();
+        if (block.next == block.end || block.epoch != epoch) {
+            block.epoch = epoch;
+            block.next = leaseBlock();
+            block.end = Math.min(block.next + blockSize, ID_LIMIT);
+        }
+        return (int) block.next++;
+    }
+
+    public long leaseBlock() {
+        long start = nextBlockStart.getAndAdd(blockSize);
+        if (start >= ID_LIMIT) {
+            throw new IllegalStateException("Customer ID space exhausted");
+        }
+        return start;
+    }
+
+    @Override
+    public synchronized void advancePast(int id) {
+        nextBlockStart.accumulateAndGet(id + 1L, Math::max);
+        // Blocks leased before the jump may overlap recovered IDs, so every thread re-leases
+        epoch++;
+    }
+
+    public long getHighWaterMark() {
+        return nextBlockStart.get();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
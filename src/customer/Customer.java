@@ -13,9 +13,12 @@ import notification.SMSNotification;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class Customer {
-    public static int currentID = 64000;
+    private static volatile IdGenerator idGenerator = new BlockIdGenerator(64001, 1024);
+    private static volatile InteractionSpillStore historySpillStore;
+    private static volatile int historyWindowChunks;
 
     private final int id;
     private String name;
@@ -23,18 +26,23 @@ public abstract class Customer {
     private String phone;
     private Date lastContact;
     private NotificationStrategy preferredContactMethod;
-    private final List<Interaction> interactionHistory;
+    private final InteractionHistory interactionHistory;
+    private final List<CustomerChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public abstract String toString();
 
     public Customer(String name, String email, String phone) {
-        this.id = assignCustomerId();
+        this(idGenerator.nextId(), name, email, phone);
+    }
+
+    protected Customer(int id, String name, String email, String phone) {
+        this.id = id;
         this.name = name;
         this.email = email;
         this.phone = phone;
         this.lastContact = null;
         this.preferredContactMethod = new SMSNotification();
-        this.interactionHistory = new ArrayList<>();
+        this.interactionHistory = new InteractionHistory(historySpillStore, historyWindowChunks);
     }
 
     public void contact(String message) {
@@ -50,7 +58,9 @@ public abstract class Customer {
     }
 
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        fireChange(CustomerField.NAME, oldName, name);
     }
 
     public String getEmail() {
@@ -58,7 +68,9 @@ public abstract class Customer {
     }
 
     public void setEmail(String email) {
+        String oldEmail = this.email;
         this.email = email;
+        fireChange(CustomerField.EMAIL, oldEmail, email);
     }
 
     public String getPhone() {
@@ -66,7 +78,38 @@ public abstract class Customer {
     }
 
     public void setPhone(String phone) {
+        String oldPhone = this.phone;
         this.phone = phone;
+        fireChange(CustomerField.PHONE, oldPhone, phone);
+    }
+
+    public String getField(CustomerField field) {
+        switch (field) {
+            case NAME:
+                return name;
+            case EMAIL:
+                return email;
+            case PHONE:
+                return phone;
+            default:
+                throw new IllegalArgumentException("Unknown customer field: " + field);
+        }
+    }
+
+    public void setField(CustomerField field, String value) {
+        switch (field) {
+            case NAME:
+                setName(value);
+                break;
+            case EMAIL:
+                setEmail(value);
+                break;
+            case PHONE:
+                setPhone(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown customer field: " + field);
+        }
     }
 
     public Date getLastContact() {
@@ -75,6 +118,7 @@ public abstract class Customer {
 
     public void setLastContact(Date lastContact) {
         this.lastContact = lastContact;
+        fireContactChange();
     }
 
     public NotificationStrategy getPreferredContactMethod() {
@@ -83,18 +127,77 @@ public abstract class Customer {
 
     public void setPreferredContactMethod(NotificationStrategy preferredContactMethod) {
         this.preferredContactMethod = preferredContactMethod;
+        fireContactChange();
+    }
+
+    public void addChangeListener(CustomerChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(CustomerChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void fireChange(CustomerField field, String oldValue, String newValue) {
+        for (CustomerChangeListener listener : changeListeners) {
+            listener.onCustomerChanged(this, field, oldValue, newValue);
+        }
+    }
+
+    private void fireContactChange() {
+        for (CustomerChangeListener listener : changeListeners) {
+            listener.onContactDetailsChanged(this);
+        }
+    }
+
+    public static IdGenerator getIdGenerator() {
+        return idGenerator;
     }
 
-    private int assignCustomerId() {
-        currentID++;
-        return currentID;
+    public static void setIdGenerator(IdGenerator generator) {
+        idGenerator = generator;
+    }
+
+    public static InteractionSpillStore getHistorySpillStore() {
+        return historySpillStore;
+    }
+
+    public static int getHistoryWindowChunks() {
+        return historyWindowChunks;
+    }
+
+    // Applies to customers created afterwards; a null store keeps every interaction in memory
+    public static void setHistorySpillStore(InteractionSpillStore store, int windowChunks) {
+        if (windowChunks < 0) {
+            throw new IllegalArgumentException("Window must not be negative: " + windowChunks);
+        }
+        historyWindowChunks = windowChunks;
+        historySpillStore = store;
     }
 
     public void addInteraction(EventType eventType, String details) {
-        interactionHistory.add(new Interaction(eventType, details));
+        addInteraction(new Interaction(eventType, details));
+    }
+
+    public void addInteraction(Interaction interaction) {
+        interactionHistory.add(interaction);
+        for (CustomerChangeListener listener : changeListeners) {
+            listener.onInteractionAdded(this, interaction);
+        }
+    }
+
+    // Read-only view of the history that does not copy it
+    public InteractionHistory getInteractions() {
+        return interactionHistory;
+    }
+
+    public int getInteractionCount() {
+        return interactionHistory.size();
     }
 
     public List<Interaction> getInteractionHistory() {
-        return new ArrayList<>(interactionHistory);
+        List<Interaction> copy = new ArrayList<>(interactionHistory.size());
+        interactionHistory.forEach(copy::add);
+        return copy;
     }
 }
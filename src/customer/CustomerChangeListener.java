@@ -0,0 +1,17 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+public interface CustomerChangeListener {
+    public void onCustomerChanged(Customer customer, CustomerField field, String oldValue, String newValue);
+
+    public default void onContactDetailsChanged(Customer customer) {
+    }
+
+    public default void onInteractionAdded(Customer customer, Interaction interaction) {
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import crm.observer.event.CRMEvent;
+import crm.observer.event.CustomerStatePayload;
+import crm.observer.event.EventType;
+import crm.observer.event.FieldChangePayload;
+import crm.observer.event.InteractionPayload;
+import notification.EmailNotification;
+import notification.NotificationStrategy;
+import notification.PushNotification;
+import notification.SMSNotification;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Objects;
+
+/*
+ * Converts between customers and the structured payloads their events carry,
+ * so a customer can be described by events and rebuilt from them.
+ */
+public final class CustomerEvents {
+    private CustomerEvents() {
+    }
+
+    public static CRMEvent created(Customer customer) {
+        return new CRMEvent(EventType.CUSTOMER_CREATED, customer.getId(), null, stateOf(customer));
+    }
+
+    public static CRMEvent contactDetailsChanged(Customer customer) {
+        return new CRMEvent(EventType.CUSTOMER_UPDATED, customer.getId(), null, stateOf(customer));
+    }
+
+    public static CRMEvent fieldChanged(Customer customer, CustomerField field, String oldValue, String newValue) {
+        return new CRMEvent(EventType.CUSTOMER_UPDATED, customer.getId(), null,
+                new FieldChangePayload(field.name(), oldValue, newValue));
+    }
+
+    // The event takes the interaction's own type, so a sale is logged as SALE_MADE
+    public static CRMEvent interactionAdded(Customer customer, Interaction interaction) {
+        return new CRMEvent(interaction.getEventType(), customer.getId(), null, payloadOf(interaction));
+    }
+
+    public static CRMEvent deleted(int customerId) {
+        return new CRMEvent(EventType.CUSTOMER_DELETED, customerId);
+    }
+
+    public static CustomerStatePayload stateOf(Customer customer) {
+        Date lastContact = customer.getLastContact();
+        return new CustomerStatePayload(CustomerType.of(customer).name(), customer.getName(), customer.getEmail(),
+                customer.getPhone(), contactMethodOf(customer.getPreferredContactMethod()),
+                lastContact == null ? null : lastContact.getTime());
+    }
+
+    public static InteractionPayload payloadOf(Interaction interaction) {
+        LocalDateTime timestamp = interaction.getTimestamp();
+        return new InteractionPayload(interaction.getEventType(), timestamp.toEpochSecond(ZoneOffset.UTC),
+                timestamp.getNano(), interaction.getDetails());
+    }
+
+    public static Customer toCustomer(int id, CustomerStatePayload state) {
+        CustomerType type;
+        try {
+            type = CustomerType.valueOf(state.getCustomerType());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown customer type: " + state.getCustomerType());
+        }
+        Customer customer = type.create(id, state.getName(), state.getEmail(), state.getPhone());
+        applyContactDetails(customer, state);
+        return customer;
+    }
+
+    // Overwrites the customer's details with the state's, keeping its type and history
+    public static void applyState(Customer customer, CustomerStatePayload state) {
+        setIfChanged(customer, CustomerField.NAME, state.getName());
+        setIfChanged(customer, CustomerField.EMAIL, state.getEmail());
+        setIfChanged(customer, CustomerField.PHONE, state.getPhone());
+        applyContactDetails(customer, state);
+    }
+
+    public static Interaction toInteraction(InteractionPayload payload) {
+        return new Interaction(LocalDateTime.ofEpochSecond(payload.getEpochSecond(), payload.getNano(), ZoneOffset.UTC),
+                payload.getInteractionType(), payload.getDetails());
+    }
+
+    private static void setIfChanged(Customer customer, CustomerField field, String value) {
+        if (!Objects.equals(customer.getField(field), value)) {
+            customer.setField(field, value);
+        }
+    }
+
+    private static void applyContactDetails(Customer customer, CustomerStatePayload state) {
+        customer.setPreferredContactMethod(contactMethodFrom(state.getContactMethod()));
+        customer.setLastContact(state.getLastContactMillis() == null ? null : new Date(state.getLastContactMillis()));
+    }
+
+    private static String contactMethodOf(NotificationStrategy strategy) {
+        if (strategy instanceof EmailNotification) {
+            return "EMAIL";
+        } else if (strategy instanceof PushNotification) {
+            return "PUSH";
+        }
+        return "SMS";
+    }
+
+    private static NotificationStrategy contactMethodFrom(String contactMethod) {
+        if ("EMAIL".equals(contactMethod)) {
+            return new EmailNotification();
+        } else if ("PUSH".equals(contactMethod)) {
+            return new PushNotification();
+        }
+        return new SMSNotification();
+    }
+}
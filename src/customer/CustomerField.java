@@ -0,0 +1,23 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+public enum CustomerField {
+    NAME("Name"),
+    EMAIL("Email"),
+    PHONE("Phone");
+
+    private final String displayName;
+
+    CustomerField(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String toString() {
+        return displayName;
+    }
+}
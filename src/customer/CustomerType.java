@@ -0,0 +1,97 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+/*
+ * The kinds of customer. The code is both the number picked in the console
+ * menu and the type byte written by the repository and journal codecs, so
+ * existing codes must never change.
+ */
+public enum CustomerType {
+    LEAD(1, "Lead"),
+    REGULAR(2, "Regular"),
+    VIP(3, "VIP"),
+    LOST(4, "Lost");
+
+    private static final CustomerType[] TYPES = values();
+
+    private final int code;
+    private final String displayName;
+
+    CustomerType(int code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    public static CustomerType of(Customer customer) {
+        if (customer instanceof LeadCustomer) {
+            return LEAD;
+        } else if (customer instanceof VIPCustomer) {
+            return VIP;
+        } else if (customer instanceof LostCustomer) {
+            return LOST;
+        }
+        return REGULAR;
+    }
+
+    public static CustomerType fromCode(int code) {
+        for (CustomerType type : TYPES) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Customer Type: " + code);
+    }
+
+    // Maps the number picked in the console menu to a type
+    public static CustomerType fromCode(String code) {
+        try {
+            return fromCode(Integer.parseInt(code.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Customer Type: " + code);
+        }
+    }
+
+    public Customer create(String name, String email, String phone) {
+        switch (this) {
+            case LEAD:
+                return new LeadCustomer(name, email, phone);
+            case REGULAR:
+                return new RegularCustomer(name, email, phone);
+            case VIP:
+                return new VIPCustomer(name, email, phone);
+            case LOST:
+                return new LostCustomer(name, email, phone);
+            default:
+                throw new IllegalStateException("Unexpected customer type: " + this);
+        }
+    }
+
+    // Rebuilds a stored customer under the id it was saved with
+    public Customer create(int id, String name, String email, String phone) {
+        switch (this) {
+            case LEAD:
+                return new LeadCustomer(id, name, email, phone);
+            case REGULAR:
+                return new RegularCustomer(id, name, email, phone);
+            case VIP:
+                return new VIPCustomer(id, name, email, phone);
+            case LOST:
+                return new LostCustomer(id, name, email, phone);
+            default:
+                throw new IllegalStateException("Unexpected customer type: " + this);
+        }
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import crm.observer.event.EventType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/*
+ * Spill store backed by one append-only file shared by every customer. Each
+ * chunk is written as [int byte length][int count] followed by its
+ * interactions (epoch second, nanos, event type, details), and the handle is
+ * the chunk's offset in the file. The file is scratch space for this process
+ * only: it is truncated on open, since customers are rebuilt from the
+ * repository on the next start.
+ */
+public class FileInteractionSpillStore implements InteractionSpillStore, Closeable {
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final Path path;
+    private final FileChannel channel;
+    private long end;
+
+    public FileInteractionSpillStore(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public long write(Interaction[] chunk) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.length * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(chunk.length);
+            for (Interaction interaction : chunk) {
+                LocalDateTime timestamp = interaction.getTimestamp();
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+                out.writeByte(interaction.getEventType().ordinal());
+                writeString(out, interaction.getDetails());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - 4);
+        synchronized (this) {
+            long handle = end;
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record, end + record.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to spill interactions to " + path, e);
+            }
+            end += record.limit();
+            return handle;
+        }
+    }
+
+    @Override
+    public Interaction[] read(long handle) {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            readFully(header, handle);
+            ByteBuffer body = ByteBuffer.allocate(header.getInt(0));
+            readFully(body, handle + 4);
+            body.flip();
+
+            Interaction[] chunk = new Interaction[body.getInt()];
+            for (int i = 0; i < chunk.length; i++) {
+                long seconds = body.getLong();
+                int nanos = body.getInt();
+                EventType eventType = EVENT_TYPES[body.get() & 0xFF];
+                String details = readString(body);
+                chunk[i] = new Interaction(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), eventType, details);
+            }
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read spilled interactions from " + path, e);
+        }
+    }
+
+    public synchronized long size() {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated interaction chunk at " + position);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
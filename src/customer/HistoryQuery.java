@@ -0,0 +1,85 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import crm.observer.event.EventType;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*
+ * Which part of an InteractionHistory to show and in what order. An empty
+ * set of event types and null time bounds match everything; from is
+ * inclusive and to is exclusive. Results are streamed straight from the
+ * history, so the first page is ready without visiting the rest.
+ */
+public class HistoryQuery {
+    public static final HistoryQuery ALL = new HistoryQuery(Collections.emptySet(), null, null, false);
+
+    private final Set<EventType> eventTypes;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final boolean newestFirst;
+
+    public HistoryQuery(Set<EventType> eventTypes, LocalDateTime from, LocalDateTime to, boolean newestFirst) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Time range ends before it starts: " + from + " to " + to);
+        }
+        this.eventTypes = eventTypes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(eventTypes));
+        this.from = from;
+        this.to = to;
+        this.newestFirst = newestFirst;
+    }
+
+    public boolean matches(Interaction interaction) {
+        if (!eventTypes.isEmpty() && !eventTypes.contains(interaction.getEventType())) {
+            return false;
+        }
+        if (from != null && interaction.getTimestamp().isBefore(from)) {
+            return false;
+        }
+        return to == null || interaction.getTimestamp().isBefore(to);
+    }
+
+    public Stream<Interaction> apply(InteractionHistory history) {
+        Stream<Interaction> interactions = newestFirst ? history.descendingStream() : history.stream();
+        return isFiltered() ? interactions.filter(this::matches) : interactions;
+    }
+
+    // page is zero-based
+    public Stream<Interaction> page(InteractionHistory history, int page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + pageSize);
+        }
+        return apply(history).skip((long) page * pageSize).limit(pageSize);
+    }
+
+    public boolean isFiltered() {
+        return !eventTypes.isEmpty() || from != null || to != null;
+    }
+
+    public Set<EventType> getEventTypes() {
+        return eventTypes;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+}
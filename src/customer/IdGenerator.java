@@ -0,0 +1,12 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+public interface IdGenerator {
+    public int nextId();
+    public void advancePast(int id);
+}
@@ -11,12 +11,19 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class Interaction {
+    // DateTimeFormatter is immutable, so one instance serves every interaction
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final LocalDateTime timestamp;
     private final EventType eventType;
     private final String details;
 
     public Interaction(EventType eventType, String details) {
-        this.timestamp = LocalDateTime.now();
+        this(LocalDateTime.now(), eventType, details);
+    }
+
+    public Interaction(LocalDateTime timestamp, EventType eventType, String details) {
+        this.timestamp = timestamp;
         this.eventType = eventType;
         this.details = details;
     }
@@ -33,12 +40,17 @@ public class Interaction {
         return details;
     }
 
+    // Writes the same text as toString without building an intermediate string
+    public void appendTo(StringBuilder out) {
+        out.append('[');
+        TIMESTAMP_FORMAT.formatTo(timestamp, out);
+        out.append("] ").append(eventType).append(" - ").append(details);
+    }
+
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return String.format("[%s] %s - %s",
-            timestamp.format(formatter),
-            eventType.toString(),
-            details);
+        StringBuilder out = new StringBuilder(64);
+        appendTo(out);
+        return out.toString();
     }
 }
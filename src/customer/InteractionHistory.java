@@ -0,0 +1,214 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Append-only interaction history stored in fixed-size chunks. Only the last
+ * windowChunks full chunks and the chunk being filled stay in memory; older
+ * chunks are written to an InteractionSpillStore and read back on demand.
+ * Without a store every chunk stays in memory.
+ *
+ * Readers get a view rather than a copy. An iterator or stream covers the
+ * entries that existed when it was created, and appends made afterwards are
+ * not visible to it.
+ */
+public class InteractionHistory implements Iterable<Interaction> {
+    static final int CHUNK_SIZE = 1024;
+    // Most customers only have a handful of interactions, so the first chunk starts small
+    private static final int INITIAL_TAIL_SIZE = 8;
+
+    private final InteractionSpillStore spillStore;
+    private final int windowChunks;
+
+    private final List<Interaction[]> chunks = new ArrayList<>();
+    private long[] spillHandles = new long[0];
+    private int oldestResident;
+    private volatile int size;
+
+    // The last chunk read back from the store, so sequential reads load each chunk once
+    private int loadedIndex = -1;
+    private Interaction[] loadedChunk;
+
+    public InteractionHistory() {
+        this(null, 0);
+    }
+
+    public InteractionHistory(InteractionSpillStore spillStore, int windowChunks) {
+        if (windowChunks < 0) {
+            throw new IllegalArgumentException("Window must not be negative: " + windowChunks);
+        }
+        this.spillStore = spillStore;
+        this.windowChunks = windowChunks;
+    }
+
+    synchronized void add(Interaction interaction) {
+        int index = size / CHUNK_SIZE;
+        int offset = size % CHUNK_SIZE;
+        if (index == chunks.size()) {
+            chunks.add(new Interaction[index == 0 ? INITIAL_TAIL_SIZE : CHUNK_SIZE]);
+        }
+        Interaction[] tail = chunks.get(index);
+        if (offset == tail.length) {
+            tail = Arrays.copyOf(tail, Math.min(tail.length * 2, CHUNK_SIZE));
+            chunks.set(index, tail);
+        }
+        tail[offset] = interaction;
+        size++;
+
+        if (size % CHUNK_SIZE == 0) {
+            spillOutsideWindow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Interaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return chunk(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+    }
+
+    // Number of full chunks currently held in memory
+    public synchronized int getResidentChunkCount() {
+        return size / CHUNK_SIZE - oldestResident;
+    }
+
+    @Override
+    public Iterator<Interaction> iterator() {
+        return new ChunkIterator(size);
+    }
+
+    @Override
+    public Spliterator<Interaction> spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    public Stream<Interaction> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    // Newest entry first; only the chunks actually reached are loaded
+    public Iterator<Interaction> descendingIterator() {
+        return new DescendingChunkIterator(size);
+    }
+
+    public Stream<Interaction> descendingStream() {
+        int end = size;
+        return StreamSupport.stream(Spliterators.spliterator(new DescendingChunkIterator(end), end,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    private synchronized Interaction[] chunk(int index) {
+        Interaction[] chunk = chunks.get(index);
+        if (chunk != null) {
+            return chunk;
+        }
+        if (index != loadedIndex) {
+            loadedChunk = spillStore.read(spillHandles[index]);
+            loadedIndex = index;
+        }
+        return loadedChunk;
+    }
+
+    // Caller holds the lock
+    private void spillOutsideWindow() {
+        if (spillStore == null) {
+            return;
+        }
+        int fullChunks = size / CHUNK_SIZE;
+        while (fullChunks - oldestResident > windowChunks) {
+            if (spillHandles.length < fullChunks) {
+                spillHandles = Arrays.copyOf(spillHandles, Math.max(fullChunks, spillHandles.length * 2));
+            }
+            // The handle is recorded before the chunk is released so readers can always find it
+            spillHandles[oldestResident] = spillStore.write(chunks.get(oldestResident));
+            chunks.set(oldestResident, null);
+            oldestResident++;
+        }
+    }
+
+    private class ChunkIterator implements Iterator<Interaction> {
+        private final int end;
+        private int next;
+        private Interaction[] current;
+
+        ChunkIterator(int end) {
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Interaction next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            int offset = next % CHUNK_SIZE;
+            if (offset == 0 || current == null) {
+                current = chunk(next / CHUNK_SIZE);
+            }
+            next++;
+            return current[offset];
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Interaction> action) {
+            while (next < end) {
+                action.accept(next());
+            }
+        }
+    }
+
+    private class DescendingChunkIterator implements Iterator<Interaction> {
+        private int next;
+        private Interaction[] current;
+
+        DescendingChunkIterator(int end) {
+            this.next = end - 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public Interaction next() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int offset = next % CHUNK_SIZE;
+            if (offset == CHUNK_SIZE - 1 || current == null) {
+                current = chunk(next / CHUNK_SIZE);
+            }
+            next--;
+            return current[offset];
+        }
+    }
+}
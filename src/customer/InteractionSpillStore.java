@@ -0,0 +1,16 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package customer;
+
+/*
+ * Off-heap home for interaction chunks that have aged out of a customer's
+ * in-memory window. write returns a handle that read later accepts.
+ */
+public interface InteractionSpillStore {
+    public long write(Interaction[] chunk);
+    public Interaction[] read(long handle);
+}
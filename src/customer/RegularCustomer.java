@@ -11,6 +11,10 @@ public class RegularCustomer extends Customer {
         super(name, email, phone);
     }
 
+    public RegularCustomer(int id, String name, String email, String phone) {
+        super(id, name, email, phone);
+    }
+
     @Override
     public String toString() {
         return String.format("Name: %s, ID: %d, Email: %s, Phone: %s", getName(), getId(), getEmail(), getPhone());
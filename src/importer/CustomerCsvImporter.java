@@ -0,0 +1,311 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package importer;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.LostCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import repository.CustomerRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Loads customers from a CSV file with the columns type,name,email,phone,
+ * where type is LEAD, REGULAR, VIP or LOST in any case. A first line whose
+ * type column reads "type" is taken as a header. Fields may be quoted, with
+ * "" for a quote inside, but may not contain line breaks.
+ *
+ * The file is cut into chunks of about chunkBytes that end on line
+ * boundaries, and worker threads each read and parse one chunk at a time
+ * with positional reads, so the heap holds at most one chunk per worker
+ * however big the file is. Parsed customers go to the repository's
+ * createCustomers in batches. Workers insert their batches concurrently
+ * when the repository reports itself thread-safe; otherwise only one batch
+ * is inserted at a time.
+ *
+ * Rows with the wrong number of columns or an unknown type are skipped and
+ * counted; the first few are kept in the report.
+ */
+public class CustomerCsvImporter {
+    public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private static final int MAX_REJECTED_SAMPLES = 10;
+    private static final int COLUMNS = 4;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final CustomerRepository repository;
+    private final int parallelism;
+    private final int chunkBytes;
+    private final int batchSize;
+    private final Object insertLock = new Object();
+
+    public CustomerCsvImporter(CustomerRepository repository) {
+        this(repository, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE);
+    }
+
+    public CustomerCsvImporter(CustomerRepository repository, int parallelism, int chunkBytes, int batchSize) {
+        if (parallelism <= 0 || chunkBytes <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Parallelism, chunk size and batch size must be positive");
+        }
+        this.repository = repository;
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importFile(Path csv) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Long> starts = chunkStarts(channel, size);
+
+            ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "crm-import-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Each worker reuses its own read buffer from chunk to chunk, growing it to the largest chunk seen
+            ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[0]);
+            try {
+                List<Future<?>> chunks = new ArrayList<>();
+                for (int i = 0; i < starts.size(); i++) {
+                    long from = starts.get(i);
+                    long to = i + 1 < starts.size() ? starts.get(i + 1) : size;
+                    chunks.add(workers.submit(() -> importChunk(channel, from, to, buffers, progress)));
+                }
+                for (Future<?> chunk : chunks) {
+                    chunk.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted: " + csv, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw new IllegalStateException("Import failed: " + csv, e.getCause());
+            } finally {
+                workers.shutdownNow();
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return progress.report(size, elapsedMillis);
+        }
+    }
+
+    // Offsets where chunks begin: every chunkBytes, moved forward to just past the next line break
+    private List<Long> chunkStarts(FileChannel channel, long size) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(64 * 1024);
+        long position = chunkBytes;
+        while (position < size) {
+            long lineStart = -1;
+            long scan = position - 1;
+            while (lineStart < 0 && scan < size) {
+                probe.clear();
+                int read = channel.read(probe, scan);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        lineStart = scan + i + 1;
+                        break;
+                    }
+                }
+                scan += read;
+            }
+            if (lineStart < 0 || lineStart >= size) {
+                break;
+            }
+            // A line longer than a chunk would otherwise give the same start twice
+            if (lineStart > starts.get(starts.size() - 1)) {
+                starts.add(lineStart);
+            }
+            position = Math.max(position + chunkBytes, lineStart + 1);
+        }
+        return starts;
+    }
+
+    private void importChunk(FileChannel channel, long from, long to, ThreadLocal<byte[]> buffers,
+                             Progress progress) {
+        int length = (int) (to - from);
+        byte[] bytes = buffers.get();
+        if (bytes.length < length) {
+            bytes = new byte[length];
+            buffers.set(bytes);
+        }
+        try {
+            ByteBuffer target = ByteBuffer.wrap(bytes, 0, length);
+            while (target.hasRemaining()) {
+                if (channel.read(target, from + target.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Customer> batch = new ArrayList<>(batchSize);
+        String[] fields = new String[COLUMNS];
+        long rejected = 0;
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            boolean header = from == 0 && lineStart == 0 && isHeader(bytes, contentEnd);
+
+            if (contentEnd > lineStart && !header) {
+                Customer customer = parseFields(bytes, lineStart, contentEnd, fields) ? toCustomer(fields) : null;
+                if (customer == null) {
+                    rejected++;
+                    progress.rejectedSample(new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8));
+                } else {
+                    batch.add(customer);
+                    if (batch.size() == batchSize) {
+                        insert(batch, progress);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, progress);
+        }
+        progress.rejected(rejected);
+    }
+
+    private void insert(List<Customer> batch, Progress progress) {
+        if (repository.isThreadSafe()) {
+            repository.createCustomers(batch);
+        } else {
+            synchronized (insertLock) {
+                repository.createCustomers(batch);
+            }
+        }
+        progress.imported(batch.size());
+    }
+
+    // Splits one line into fields; false if it does not have exactly COLUMNS of them
+    private static boolean parseFields(byte[] bytes, int start, int end, String[] fields) {
+        int column = 0;
+        int position = start;
+        while (true) {
+            if (column == COLUMNS) {
+                return false;
+            }
+            int next;
+            if (position < end && bytes[position] == '"') {
+                StringBuilder value = new StringBuilder();
+                int segment = position + 1;
+                int i = segment;
+                while (true) {
+                    if (i >= end) {
+                        return false;
+                    }
+                    if (bytes[i] == '"') {
+                        value.append(new String(bytes, segment, i - segment, StandardCharsets.UTF_8));
+                        if (i + 1 < end && bytes[i + 1] == '"') {
+                            value.append('"');
+                            i += 2;
+                            segment = i;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                fields[column++] = value.toString();
+                next = i + 1;
+                if (next < end && bytes[next] != ',') {
+                    return false;
+                }
+            } else {
+                next = position;
+                while (next < end && bytes[next] != ',') {
+                    next++;
+                }
+                fields[column++] = new String(bytes, position, next - position, StandardCharsets.UTF_8);
+            }
+            if (next >= end) {
+                return column == COLUMNS;
+            }
+            position = next + 1;
+        }
+    }
+
+    private static Customer toCustomer(String[] fields) {
+        String type = fields[0].trim();
+        if (type.equalsIgnoreCase("REGULAR")) {
+            return new RegularCustomer(fields[1], fields[2], fields[3]);
+        } else if (type.equalsIgnoreCase("LEAD")) {
+            return new LeadCustomer(fields[1], fields[2], fields[3]);
+        } else if (type.equalsIgnoreCase("VIP")) {
+            return new VIPCustomer(fields[1], fields[2], fields[3]);
+        } else if (type.equalsIgnoreCase("LOST")) {
+            return new LostCustomer(fields[1], fields[2], fields[3]);
+        }
+        return null;
+    }
+
+    private static boolean isHeader(byte[] bytes, int end) {
+        int typeEnd = 0;
+        while (typeEnd < end && bytes[typeEnd] != ',') {
+            typeEnd++;
+        }
+        return new String(bytes, 0, typeEnd, StandardCharsets.UTF_8).trim().equalsIgnoreCase("type");
+    }
+
+    // Totals shared by the workers
+    private static class Progress {
+        private long imported;
+        private long rejected;
+        private final List<String> rejectedSamples = new ArrayList<>();
+
+        synchronized void imported(int count) {
+            imported += count;
+        }
+
+        synchronized void rejected(long count) {
+            rejected += count;
+        }
+
+        synchronized void rejectedSample(String line) {
+            if (rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                rejectedSamples.add(line);
+            }
+        }
+
+        synchronized ImportReport report(long bytes, long elapsedMillis) {
+            return new ImportReport(imported, rejected, bytes, elapsedMillis, new ArrayList<>(rejectedSamples));
+        }
+    }
+}
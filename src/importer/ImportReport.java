@@ -0,0 +1,54 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package importer;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ImportReport {
+    private final long imported;
+    private final long rejected;
+    private final long bytes;
+    private final long elapsedMillis;
+    private final List<String> rejectedSamples;
+
+    public ImportReport(long imported, long rejected, long bytes, long elapsedMillis, List<String> rejectedSamples) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+        this.rejectedSamples = Collections.unmodifiableList(rejectedSamples);
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // The first few rejected lines as they appear in the file
+    public List<String> getRejectedSamples() {
+        return rejectedSamples;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        return String.format("Imported %d customers (%d rows rejected) from %.1f MB in %.1f s, %.0f rows/s",
+                imported, rejected, bytes / (1024.0 * 1024.0), elapsedMillis / 1000.0, (imported + rejected) / seconds);
+    }
+}
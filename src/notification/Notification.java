@@ -0,0 +1,48 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import customer.Customer;
+
+/*
+ * One message waiting to go out through a channel. The idempotency key, when
+ * set, is the same on every retry of the message so a provider can drop
+ * duplicates.
+ */
+public class Notification {
+    private final Customer customer;
+    private final NotificationStrategy channel;
+    private final String message;
+    private final String idempotencyKey;
+
+    public Notification(Customer customer, NotificationStrategy channel, String message) {
+        this(customer, channel, message, null);
+    }
+
+    public Notification(Customer customer, NotificationStrategy channel, String message, String idempotencyKey) {
+        this.customer = customer;
+        this.channel = channel;
+        this.message = message;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public NotificationStrategy getChannel() {
+        return channel;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import customer.Customer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Sends notifications off the caller's thread. Each channel (one
+ * NotificationStrategy class) has its own queue and provider, and at most
+ * maxConcurrency batches in flight. While every sender of a channel is busy,
+ * new messages wait in the queue and go out together in the next batch, so a
+ * slow gateway gets fewer, larger requests instead of blocking commands.
+ *
+ * A channel that was never registered sends through the strategy itself,
+ * one sender at a time.
+ *
+ * Each channel queue has one lane per TrafficTier, and batches are filled
+ * from the VIP lane first. With a NotificationRateLimiter, a batch only takes
+ * messages the channel and tier buckets have tokens for. When nothing can be
+ * sent, the sender waits until the next token is due rather than calling a
+ * throttled provider.
+ */
+public class NotificationDispatcher {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final TrafficTier[] TIERS = TrafficTier.values();
+    // Upper bound on one wait for tokens, so a sender notices buckets another component refunded
+    private static final long MAX_THROTTLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // Falls back to each notification's own strategy
+    private static final NotificationProvider STRATEGY_PROVIDER = batch -> {
+        for (Notification notification : batch) {
+            notification.getChannel().send(notification.getCustomer(), notification.getMessage());
+        }
+    };
+
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "crm-notify-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Class<? extends NotificationStrategy>, Channel> channels = new ConcurrentHashMap<>();
+    private final NotificationRateLimiter rateLimiter;
+    private volatile boolean closed;
+
+    public NotificationDispatcher() {
+        this(new NotificationRateLimiter());
+    }
+
+    public NotificationDispatcher(NotificationRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    // Register channels before dispatching to them; a later registration replaces the queue
+    public void registerChannel(Class<? extends NotificationStrategy> channelType, NotificationProvider provider,
+                                int maxConcurrency, int maxBatchSize) {
+        if (maxConcurrency <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Concurrency and batch size must be positive");
+        }
+        channels.put(channelType, new Channel(channelType, provider, maxConcurrency, maxBatchSize));
+    }
+
+    // Sends through the customer's preferred contact method
+    public CompletableFuture<Void> dispatch(Customer customer, String message) {
+        return dispatch(new Notification(customer, customer.getPreferredContactMethod(), message));
+    }
+
+    public CompletableFuture<Void> dispatch(Notification notification) {
+        if (closed) {
+            throw new IllegalStateException("Dispatcher has been closed");
+        }
+        Channel channel = channels.computeIfAbsent(notification.getChannel().getClass(),
+                type -> new Channel(type, STRATEGY_PROVIDER, 1, DEFAULT_BATCH_SIZE));
+        return channel.enqueue(notification);
+    }
+
+    public int getPendingCount(Class<? extends NotificationStrategy> channelType) {
+        Channel channel = channels.get(channelType);
+        return channel == null ? 0 : channel.pendingCount();
+    }
+
+    public NotificationRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // Waits until everything dispatched so far has been sent or has failed
+    public void flush() {
+        boolean interrupted = false;
+        for (Channel channel : channels.values()) {
+            while (true) {
+                try {
+                    channel.awaitIdle();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        flush();
+        senders.shutdown();
+        try {
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Pending {
+        private final Notification notification;
+        private final TrafficTier tier;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        Pending(Notification notification) {
+            this.notification = notification;
+            this.tier = TrafficTier.of(notification.getCustomer());
+        }
+    }
+
+    private class Channel {
+        private final Class<? extends NotificationStrategy> channelType;
+        private final NotificationProvider provider;
+        private final int maxConcurrency;
+        private final int maxBatchSize;
+
+        // Guarded by this; one lane per tier, indexed by ordinal
+        private final List<ArrayDeque<Pending>> lanes;
+        private int queued;
+        private int activeSenders;
+
+        Channel(Class<? extends NotificationStrategy> channelType, NotificationProvider provider, int maxConcurrency,
+                int maxBatchSize) {
+            this.channelType = channelType;
+            this.lanes = new ArrayList<>(TIERS.length);
+            for (int i = 0; i < TIERS.length; i++) {
+                lanes.add(new ArrayDeque<>());
+            }
+            this.provider = provider;
+            this.maxConcurrency = maxConcurrency;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        CompletableFuture<Void> enqueue(Notification notification) {
+            Pending pending = new Pending(notification);
+            boolean startSender;
+            synchronized (this) {
+                lanes.get(pending.tier.ordinal()).add(pending);
+                queued++;
+                startSender = activeSenders < maxConcurrency;
+                if (startSender) {
+                    activeSenders++;
+                }
+            }
+            if (startSender) {
+                senders.execute(this::drain);
+            }
+            return pending.completion;
+        }
+
+        synchronized int pendingCount() {
+            return queued;
+        }
+
+        synchronized void awaitIdle() throws InterruptedException {
+            while (queued > 0 || activeSenders > 0) {
+                wait();
+            }
+        }
+
+        // Each sender keeps taking batches until every lane is empty
+        private void drain() {
+            boolean restart = false;
+            try {
+                while (true) {
+                    List<Pending> batch;
+                    long waitNanos = 0;
+                    synchronized (this) {
+                        if (queued == 0) {
+                            return;
+                        }
+                        batch = takeBatch();
+                        if (batch.isEmpty()) {
+                            waitNanos = nanosUntilSendable();
+                        }
+                    }
+                    if (batch.isEmpty()) {
+                        LockSupport.parkNanos(Math.min(Math.max(waitNanos, 1), MAX_THROTTLE_WAIT_NANOS));
+                        continue;
+                    }
+                    send(batch);
+                }
+            } finally {
+                synchronized (this) {
+                    activeSenders--;
+                    // A sender that died with work still queued hands it to a fresh one
+                    if (queued > 0 && activeSenders < maxConcurrency) {
+                        activeSenders++;
+                        restart = true;
+                    }
+                    notifyAll();
+                }
+                if (restart) {
+                    senders.execute(this::drain);
+                }
+            }
+        }
+
+        // Caller holds the lock
+        private List<Pending> takeBatch() {
+            List<Pending> batch = new ArrayList<>(Math.min(queued, maxBatchSize));
+            for (ArrayDeque<Pending> lane : lanes) {
+                while (batch.size() < maxBatchSize && !lane.isEmpty()) {
+                    NotificationRateLimiter.Permit permit = rateLimiter.tryAcquire(channelType, lane.peek().tier);
+                    if (permit == NotificationRateLimiter.Permit.CHANNEL_EXHAUSTED) {
+                        return batch;
+                    }
+                    if (permit == NotificationRateLimiter.Permit.TIER_EXHAUSTED) {
+                        break;
+                    }
+                    batch.add(lane.poll());
+                    queued--;
+                }
+            }
+            return batch;
+        }
+
+        // Caller holds the lock
+        private long nanosUntilSendable() {
+            long waitNanos = Long.MAX_VALUE;
+            for (ArrayDeque<Pending> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    waitNanos = Math.min(waitNanos, rateLimiter.nanosUntilAvailable(channelType, lane.peek().tier));
+                }
+            }
+            return waitNanos;
+        }
+
+        private void send(List<Pending> batch) {
+            List<Notification> notifications = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                notifications.add(pending.notification);
+            }
+            try {
+                provider.sendBatch(notifications);
+            } catch (Throwable e) {
+                for (Pending pending : batch) {
+                    pending.completion.completeExceptionally(e);
+                }
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+                return;
+            }
+            for (Pending pending : batch) {
+                pending.completion.complete(null);
+            }
+        }
+    }
+}
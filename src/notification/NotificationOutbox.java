@@ -0,0 +1,625 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import customer.Customer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/*
+ * Durable outbox in front of a NotificationDispatcher. enqueue appends the
+ * notification to outbox.log and waits for it to reach the disk before
+ * returning, so a notification that was accepted survives a crash. A pool of
+ * worker threads then hands entries to the dispatcher. Failed deliveries are
+ * retried with jittered exponential backoff, and an entry that runs out of
+ * attempts moves to outbox-dead.log.
+ *
+ * Delivery is at least once: a crash between a send and its DELIVERED record
+ * resends the entry on restart, with the same idempotency key so the provider
+ * can drop the duplicate. Keys of recently delivered entries are remembered,
+ * so enqueueing the same key twice sends once.
+ *
+ * Records are CRC-framed like the customer log; a torn tail is cut off on
+ * open. Concurrent enqueues share fsyncs, and the log is rewritten with only
+ * the pending entries on open and after every COMPACT_AFTER completions.
+ */
+public class NotificationOutbox implements Closeable {
+    private static final String LOG_FILE = "outbox.log";
+    private static final String DEAD_LETTER_FILE = "outbox-dead.log";
+    static final int COMPACT_AFTER = 100_000;
+    private static final int REMEMBERED_KEYS = 100_000;
+
+    private static final byte ENQUEUED = 1;
+    private static final byte ATTEMPT_FAILED = 2;
+    private static final byte DELIVERED = 3;
+    private static final byte DEAD = 4;
+    private static final byte DELIVERED_KEY = 5;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final Path logPath;
+    private final Path deadLetterPath;
+    private final IntFunction<Customer> customers;
+    private final NotificationDispatcher dispatcher;
+    private final RetryPolicy retryPolicy;
+    private final ScheduledExecutorService workers;
+    private final int compactAfter;
+
+    // Guards the log and every field below it
+    private final Object lock = new Object();
+    // Held while forcing the log, so enqueues share one fsync; taken before lock
+    private final Object syncLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private FileChannel log;
+    private final FileChannel deadLetters;
+    private final Map<Long, OutboxEntry> pending = new HashMap<>();
+    private final Map<String, OutboxEntry> pendingByKey = new HashMap<>();
+    private final Map<Long, CompletableFuture<Void>> completions = new HashMap<>();
+    private final Map<String, Boolean> deliveredKeys = new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > REMEMBERED_KEYS;
+        }
+    };
+    private long nextId = 1;
+    private long appendedSeq;
+    private long completedSinceCompaction;
+    private int inFlight;
+    private boolean closed;
+    private final AtomicLong durableSeq = new AtomicLong();
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+
+    public NotificationOutbox(Path directory, IntFunction<Customer> customers, NotificationDispatcher dispatcher)
+            throws IOException {
+        this(directory, customers, dispatcher, RetryPolicy.DEFAULT, 2);
+    }
+
+    public NotificationOutbox(Path directory, IntFunction<Customer> customers, NotificationDispatcher dispatcher,
+                              RetryPolicy retryPolicy, int workerThreads) throws IOException {
+        this(directory, customers, dispatcher, retryPolicy, workerThreads, COMPACT_AFTER);
+    }
+
+    NotificationOutbox(Path directory, IntFunction<Customer> customers, NotificationDispatcher dispatcher,
+                       RetryPolicy retryPolicy, int workerThreads, int compactAfter) throws IOException {
+        Files.createDirectories(directory);
+        this.compactAfter = compactAfter;
+        this.logPath = directory.resolve(LOG_FILE);
+        this.deadLetterPath = directory.resolve(DEAD_LETTER_FILE);
+        this.customers = customers;
+        this.dispatcher = dispatcher;
+        this.retryPolicy = retryPolicy;
+        this.workers = Executors.newScheduledThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "crm-outbox-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.deadLetters = FileChannel.open(deadLetterPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        recover();
+        synchronized (syncLock) {
+            synchronized (lock) {
+                compact();
+                for (OutboxEntry entry : pending.values()) {
+                    completions.put(entry.getId(), new CompletableFuture<>());
+                    workers.execute(() -> attempt(entry.getId()));
+                }
+            }
+        }
+    }
+
+    public CompletableFuture<Void> enqueue(Customer customer, String message) {
+        return enqueue(customer, message, UUID.randomUUID().toString());
+    }
+
+    // Returns once the notification is on disk; the future completes when it is delivered
+    public CompletableFuture<Void> enqueue(Customer customer, String message, String idempotencyKey) {
+        Objects.requireNonNull(idempotencyKey, "idempotencyKey");
+        OutboxEntry entry;
+        CompletableFuture<Void> completion;
+        long seq;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Outbox has been closed");
+            }
+            OutboxEntry existing = pendingByKey.get(idempotencyKey);
+            if (existing != null) {
+                return completions.get(existing.getId());
+            }
+            if (deliveredKeys.containsKey(idempotencyKey)) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            entry = new OutboxEntry(nextId++, idempotencyKey, customer.getId(), customer.getPreferredContactMethod(),
+                    message, System.currentTimeMillis());
+            seq = append(ENQUEUED, out -> writeEntry(out, entry));
+            pending.put(entry.getId(), entry);
+            pendingByKey.put(idempotencyKey, entry);
+            completion = new CompletableFuture<>();
+            completions.put(entry.getId(), completion);
+        }
+        awaitDurable(seq);
+        try {
+            workers.execute(() -> attempt(entry.getId()));
+        } catch (RejectedExecutionException e) {
+            // Closed since the entry was appended; it stays pending on disk and is sent after the next open
+        }
+        return completion;
+    }
+
+    // True when an entry with this key is pending or was recently delivered, so enqueue would not send it again
+    public boolean isEnqueued(String idempotencyKey) {
+        synchronized (lock) {
+            return pendingByKey.containsKey(idempotencyKey) || deliveredKeys.containsKey(idempotencyKey);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    public long getDeadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    // Entries that ran out of attempts, oldest first, with the last error recorded against each
+    public List<OutboxEntry> getDeadLetters() throws IOException {
+        List<OutboxEntry> entries = new ArrayList<>();
+        synchronized (lock) {
+            readRecords(deadLetterPath, in -> {
+                OutboxEntry entry = readEntry(in);
+                entry.recordFailure(in.readInt(), readString(in));
+                entries.add(entry);
+            });
+        }
+        return entries;
+    }
+
+    // Stops delivering; entries still pending are delivered after the next open
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        workers.shutdownNow();
+        synchronized (lock) {
+            // Let deliveries already handed to the dispatcher record their outcome
+            long deadline = System.currentTimeMillis() + 5000;
+            while (inFlight > 0 && System.currentTimeMillis() < deadline) {
+                try {
+                    lock.wait(deadline - System.currentTimeMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        synchronized (syncLock) {
+            synchronized (lock) {
+                compact();
+                log.close();
+                deadLetters.close();
+            }
+        }
+    }
+
+    private void attempt(long id) {
+        OutboxEntry entry;
+        synchronized (lock) {
+            entry = pending.get(id);
+            if (closed || entry == null) {
+                return;
+            }
+            inFlight++;
+        }
+
+        Customer customer = customers.apply(entry.getCustomerId());
+        if (customer == null) {
+            deadLetter(entry, "Customer " + entry.getCustomerId() + " not found");
+            finishAttempt();
+            return;
+        }
+
+        Notification notification = new Notification(customer, entry.getChannel(), entry.getMessage(),
+                entry.getIdempotencyKey());
+        try {
+            dispatcher.dispatch(notification).whenComplete((result, error) -> {
+                try {
+                    if (error == null) {
+                        delivered(entry);
+                    } else {
+                        failed(entry, error);
+                    }
+                } finally {
+                    finishAttempt();
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(entry, e);
+            finishAttempt();
+        }
+    }
+
+    private void finishAttempt() {
+        synchronized (lock) {
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+
+    private void delivered(OutboxEntry entry) {
+        CompletableFuture<Void> completion;
+        synchronized (lock) {
+            if (closed && !log.isOpen()) {
+                return;
+            }
+            append(DELIVERED, out -> out.writeLong(entry.getId()));
+            completion = complete(entry);
+            deliveredKeys.put(entry.getIdempotencyKey(), Boolean.TRUE);
+        }
+        compactIfDue();
+        deliveredCount.incrementAndGet();
+        completion.complete(null);
+    }
+
+    private void failed(OutboxEntry entry, Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        int attempts = entry.getFailedAttempts() + 1;
+        if (!retryPolicy.shouldRetry(attempts)) {
+            entry.recordFailure(attempts, String.valueOf(cause.getMessage()));
+            deadLetter(entry, String.valueOf(cause.getMessage()));
+            return;
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            append(ATTEMPT_FAILED, out -> {
+                out.writeLong(entry.getId());
+                out.writeInt(attempts);
+            });
+            entry.recordFailure(attempts, String.valueOf(cause.getMessage()));
+            retryCount.incrementAndGet();
+            workers.schedule(() -> attempt(entry.getId()), retryPolicy.backoffMillis(attempts), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void deadLetter(OutboxEntry entry, String reason) {
+        CompletableFuture<Void> completion;
+        synchronized (lock) {
+            if (closed && !log.isOpen()) {
+                return;
+            }
+            try {
+                writeRecord(deadLetters, recordBytes(out -> {
+                    writeEntry(out, entry);
+                    out.writeInt(entry.getFailedAttempts());
+                    writeString(out, reason);
+                }));
+                deadLetters.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write dead letter to " + deadLetterPath, e);
+            }
+            append(DEAD, out -> out.writeLong(entry.getId()));
+            completion = complete(entry);
+        }
+        compactIfDue();
+        deadLetterCount.incrementAndGet();
+        completion.completeExceptionally(new IllegalStateException(
+                "Notification " + entry.getIdempotencyKey() + " dead-lettered: " + reason));
+    }
+
+    // Caller holds lock
+    private CompletableFuture<Void> complete(OutboxEntry entry) {
+        pending.remove(entry.getId());
+        pendingByKey.remove(entry.getIdempotencyKey());
+        completedSinceCompaction++;
+        return completions.remove(entry.getId());
+    }
+
+    // Takes syncLock before lock, like close, so the log is never swapped while an enqueue is forcing it
+    private void compactIfDue() {
+        synchronized (syncLock) {
+            synchronized (lock) {
+                if (completedSinceCompaction >= compactAfter && !closed) {
+                    compact();
+                }
+            }
+        }
+    }
+
+    // Caller holds lock
+    private long append(byte type, RecordBody body) {
+        try {
+            writeRecord(log, recordBytes(out -> {
+                out.writeByte(type);
+                body.write(out);
+            }));
+            return ++appendedSeq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to outbox: " + logPath, e);
+        }
+    }
+
+    private void awaitDurable(long seq) {
+        if (durableSeq.get() >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSeq.get() >= seq) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (lock) {
+                target = appendedSeq;
+                channel = log;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to sync outbox: " + logPath, e);
+            }
+            durableSeq.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    // Caller holds syncLock and lock. Rewrites the log with only what is still needed and swaps it in atomically
+    private void compact() {
+        Path tempPath = logPath.resolveSibling(LOG_FILE + ".tmp");
+        try (FileChannel temp = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String key : deliveredKeys.keySet()) {
+                writeRecord(temp, recordBytes(out -> {
+                    out.writeByte(DELIVERED_KEY);
+                    writeString(out, key);
+                }));
+            }
+            for (OutboxEntry entry : pending.values()) {
+                writeRecord(temp, recordBytes(out -> {
+                    out.writeByte(ENQUEUED);
+                    writeEntry(out, entry);
+                }));
+                if (entry.getFailedAttempts() > 0) {
+                    writeRecord(temp, recordBytes(out -> {
+                        out.writeByte(ATTEMPT_FAILED);
+                        out.writeLong(entry.getId());
+                        out.writeInt(entry.getFailedAttempts());
+                    }));
+                }
+            }
+            temp.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compact outbox: " + logPath, e);
+        }
+
+        try {
+            if (log != null) {
+                log.close();
+            }
+            Files.move(tempPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log = FileChannel.open(logPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compact outbox: " + logPath, e);
+        }
+        // Everything in the new file was forced before the move
+        durableSeq.accumulateAndGet(appendedSeq, Math::max);
+        completedSinceCompaction = 0;
+    }
+
+    private void recover() throws IOException {
+        long validBytes = readRecords(logPath, in -> {
+            byte type = in.readByte();
+            switch (type) {
+                case ENQUEUED:
+                    OutboxEntry entry = readEntry(in);
+                    pending.put(entry.getId(), entry);
+                    pendingByKey.put(entry.getIdempotencyKey(), entry);
+                    nextId = Math.max(nextId, entry.getId() + 1);
+                    break;
+                case ATTEMPT_FAILED:
+                    OutboxEntry failed = pending.get(in.readLong());
+                    int attempts = in.readInt();
+                    if (failed != null) {
+                        failed.recordFailure(attempts, null);
+                    }
+                    break;
+                case DELIVERED:
+                    OutboxEntry delivered = pending.remove(in.readLong());
+                    if (delivered != null) {
+                        pendingByKey.remove(delivered.getIdempotencyKey());
+                        deliveredKeys.put(delivered.getIdempotencyKey(), Boolean.TRUE);
+                    }
+                    break;
+                case DEAD:
+                    OutboxEntry dead = pending.remove(in.readLong());
+                    if (dead != null) {
+                        pendingByKey.remove(dead.getIdempotencyKey());
+                    }
+                    break;
+                case DELIVERED_KEY:
+                    deliveredKeys.put(readString(in), Boolean.TRUE);
+                    break;
+                default:
+                    throw new IOException("Unknown outbox record type: " + type);
+            }
+        });
+        // A torn record at the end was never acknowledged, so it is dropped
+        if (Files.exists(logPath) && Files.size(logPath) > validBytes) {
+            try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+    }
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface RecordReader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    // Caller holds lock
+    private byte[] recordBytes(RecordBody body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(0);
+        body.write(out);
+        byte[] record = bytes.toByteArray();
+        crc.reset();
+        crc.update(record, 8, record.length - 8);
+        ByteBuffer header = ByteBuffer.wrap(record, 0, 8);
+        header.putInt(record.length - 8);
+        header.putInt((int) crc.getValue());
+        return record;
+    }
+
+    private static void writeRecord(FileChannel channel, byte[] record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Returns the length of the intact prefix of the file
+    private static long readRecords(Path path, RecordReader reader) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long validBytes = 0;
+        CRC32 checksum = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), 64 * 1024))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte[] body;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 0 || length > 16 * 1024 * 1024) {
+                        break;
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != expectedCrc) {
+                    break;
+                }
+                reader.read(new DataInputStream(new ByteArrayInputStream(body)));
+                validBytes += 8 + length;
+            }
+        }
+        return validBytes;
+    }
+
+    private static void writeEntry(DataOutputStream out, OutboxEntry entry) throws IOException {
+        out.writeLong(entry.getId());
+        writeString(out, entry.getIdempotencyKey());
+        out.writeInt(entry.getCustomerId());
+        out.writeByte(channelCode(entry.getChannel()));
+        writeString(out, entry.getMessage());
+        out.writeLong(entry.getCreatedMillis());
+    }
+
+    private static OutboxEntry readEntry(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        String key = readString(in);
+        int customerId = in.readInt();
+        NotificationStrategy channel = channelFor(in.readByte());
+        String message = readString(in);
+        long createdMillis = in.readLong();
+        return new OutboxEntry(id, key, customerId, channel, message, createdMillis);
+    }
+
+    private static int channelCode(NotificationStrategy channel) {
+        if (channel instanceof EmailNotification) {
+            return 1;
+        } else if (channel instanceof PushNotification) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private static NotificationStrategy channelFor(byte code) {
+        switch (code) {
+            case 1:
+                return new EmailNotification();
+            case 2:
+                return new PushNotification();
+            default:
+                return new SMSNotification();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
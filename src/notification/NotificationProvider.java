@@ -0,0 +1,17 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import java.util.List;
+
+/*
+ * Sends a batch of notifications for one channel. A provider that throws
+ * fails every notification in the batch.
+ */
+public interface NotificationProvider {
+    public void sendBatch(List<Notification> batch);
+}
@@ -0,0 +1,77 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Token buckets a notification must pass before it is sent: one for its
+ * channel, to stay under the provider's throttle, and one for its customer's
+ * tier. A channel or tier without a bucket is not limited.
+ */
+public class NotificationRateLimiter {
+    public enum Permit {
+        GRANTED,
+        // The channel is out of tokens, so nothing else can go out on it yet
+        CHANNEL_EXHAUSTED,
+        // Only this tier is out of tokens; other tiers may still be sent
+        TIER_EXHAUSTED
+    }
+
+    private final Map<Class<? extends NotificationStrategy>, TokenBucket> channelBuckets = new ConcurrentHashMap<>();
+    private final Map<TrafficTier, TokenBucket> tierBuckets = new EnumMap<>(TrafficTier.class);
+
+    public void setChannelLimit(Class<? extends NotificationStrategy> channelType, TokenBucket bucket) {
+        channelBuckets.put(channelType, bucket);
+    }
+
+    // Configure tier limits before the limiter is shared with a dispatcher
+    public void setTierLimit(TrafficTier tier, TokenBucket bucket) {
+        tierBuckets.put(tier, bucket);
+    }
+
+    public Permit tryAcquire(Class<? extends NotificationStrategy> channelType, TrafficTier tier) {
+        TokenBucket channelBucket = channelBuckets.get(channelType);
+        if (channelBucket != null && !channelBucket.tryAcquire()) {
+            return Permit.CHANNEL_EXHAUSTED;
+        }
+        TokenBucket tierBucket = tierBuckets.get(tier);
+        if (tierBucket != null && !tierBucket.tryAcquire()) {
+            if (channelBucket != null) {
+                channelBucket.refund(1);
+            }
+            return Permit.TIER_EXHAUSTED;
+        }
+        return Permit.GRANTED;
+    }
+
+    public long nanosUntilAvailable(Class<? extends NotificationStrategy> channelType, TrafficTier tier) {
+        TokenBucket channelBucket = channelBuckets.get(channelType);
+        TokenBucket tierBucket = tierBuckets.get(tier);
+        return Math.max(channelBucket == null ? 0 : channelBucket.nanosUntilAvailable(1),
+                tierBucket == null ? 0 : tierBucket.nanosUntilAvailable(1));
+    }
+
+    public TokenBucket getChannelBucket(Class<? extends NotificationStrategy> channelType) {
+        return channelBuckets.get(channelType);
+    }
+
+    public TokenBucket getTierBucket(TrafficTier tier) {
+        return tierBuckets.get(tier);
+    }
+
+    // Every configured bucket by name, e.g. "channel:SMSNotification" or "tier:VIP"
+    public Map<String, TokenBucket> getBuckets() {
+        Map<String, TokenBucket> buckets = new LinkedHashMap<>();
+        channelBuckets.forEach((type, bucket) -> buckets.put("channel:" + type.getSimpleName(), bucket));
+        tierBuckets.forEach((tier, bucket) -> buckets.put("tier:" + tier, bucket));
+        return buckets;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+/*
+ * A notification held by the outbox until it is delivered or dead-lettered.
+ */
+public class OutboxEntry {
+    private final long id;
+    private final String idempotencyKey;
+    private final int customerId;
+    private final NotificationStrategy channel;
+    private final String message;
+    private final long createdMillis;
+    private volatile int failedAttempts;
+    private volatile String lastError;
+
+    public OutboxEntry(long id, String idempotencyKey, int customerId, NotificationStrategy channel, String message,
+                       long createdMillis) {
+        this.id = id;
+        this.idempotencyKey = idempotencyKey;
+        this.customerId = customerId;
+        this.channel = channel;
+        this.message = message;
+        this.createdMillis = createdMillis;
+    }
+
+    void recordFailure(int failedAttempts, String error) {
+        this.failedAttempts = failedAttempts;
+        this.lastError = error;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public NotificationStrategy getChannel() {
+        return channel;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Provider that sends nothing and only waits as long as a real gateway
+ * might: a fixed round trip per batch plus a cost per message. Lets
+ * dispatcher throughput be measured without network access.
+ */
+public class SimulatedLatencyProvider implements NotificationProvider {
+    private final long batchLatencyMillis;
+    private final long messageLatencyMicros;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    public SimulatedLatencyProvider(long batchLatencyMillis, long messageLatencyMicros) {
+        this.batchLatencyMillis = batchLatencyMillis;
+        this.messageLatencyMicros = messageLatencyMicros;
+    }
+
+    @Override
+    public void sendBatch(List<Notification> batch) {
+        long latencyNanos = TimeUnit.MILLISECONDS.toNanos(batchLatencyMillis)
+                + TimeUnit.MICROSECONDS.toNanos(messageLatencyMicros * batch.size());
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending", e);
+        }
+        batchCount.incrementAndGet();
+        sentCount.addAndGet(batch.size());
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+}
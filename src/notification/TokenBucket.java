@@ -0,0 +1,134 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/*
+ * Token bucket that holds up to capacity tokens and refills at
+ * tokensPerSecond. Instead of a token count that a timer tops up, it keeps a
+ * single timestamp: the moment the bucket will be full again. Taking tokens
+ * pushes that moment forward, and a request is refused if it would push it
+ * more than one full bucket past now. Every operation is one compare-and-set
+ * on that timestamp, so the hot path never takes a lock.
+ */
+public class TokenBucket {
+    private final long capacity;
+    private final double tokensPerSecond;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier clock;
+
+    private final AtomicLong fullAt;
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        this(capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double tokensPerSecond, LongSupplier clock) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerSecond = tokensPerSecond;
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000L / tokensPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+        this.clock = clock;
+        // Starts full
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    public boolean tryAcquire(int permits) {
+        long cost = permits * nanosPerToken;
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                granted.add(permits);
+                return true;
+            }
+        }
+    }
+
+    // Reserves the tokens now and waits until they would have been available, so bursts leave at the refill rate
+    public void acquire(int permits) {
+        long cost = permits * nanosPerToken;
+        long waitNanos;
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            if (fullAt.compareAndSet(current, next)) {
+                waitNanos = next - now - burstNanos;
+                break;
+            }
+        }
+        granted.add(permits);
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    // Gives back tokens taken by a send that did not go ahead
+    public void refund(int permits) {
+        fullAt.addAndGet(-permits * nanosPerToken);
+        granted.add(-permits);
+    }
+
+    public long nanosUntilAvailable(int permits) {
+        long now = clock.getAsLong();
+        long next = Math.max(fullAt.get(), now) + permits * nanosPerToken;
+        return Math.max(0, next - now - burstNanos);
+    }
+
+    public double getAvailableTokens() {
+        long now = clock.getAsLong();
+        long owed = Math.max(0, fullAt.get() - now);
+        return Math.max(0, (double) (burstNanos - owed) / nanosPerToken);
+    }
+
+    // Share of the bucket currently used, from 0 (full) to 1 (empty)
+    public double getUtilization() {
+        return 1 - getAvailableTokens() / capacity;
+    }
+
+    public long getGrantedCount() {
+        return granted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f/%d tokens available (%.0f%% used), %d granted, %d rejected",
+                getAvailableTokens(), capacity, getUtilization() * 100, getGrantedCount(), getRejectedCount());
+    }
+}
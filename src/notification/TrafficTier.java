@@ -0,0 +1,33 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package notification;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.LostCustomer;
+import customer.VIPCustomer;
+
+/*
+ * Priority lane a customer's notifications travel in, highest first. When a
+ * channel is throttled, queued VIP messages are sent before standard ones,
+ * and standard ones before prospects (leads and lost customers).
+ */
+public enum TrafficTier {
+    VIP,
+    STANDARD,
+    PROSPECT;
+
+    public static TrafficTier of(Customer customer) {
+        if (customer instanceof VIPCustomer) {
+            return VIP;
+        }
+        if (customer instanceof LeadCustomer || customer instanceof LostCustomer) {
+            return PROSPECT;
+        }
+        return STANDARD;
+    }
+}
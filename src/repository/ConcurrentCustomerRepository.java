@@ -0,0 +1,296 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Thread-safe repository. Reads go straight to a ConcurrentHashMap and
+ * writers only serialize with other writers of the same lock stripe.
+ *
+ * getAllCustomers never takes a stripe lock. Each map slot holds a short
+ * chain of versions tagged with the epoch of the write. A snapshot moves the
+ * clock to an odd epoch, waits only for writes already in flight under the
+ * old one, and then keeps the newest version of every slot that is no newer
+ * than the old epoch. Writes that land during the copy are tagged with the
+ * odd epoch, so the copy skips them and stays linearizable. Writers only
+ * read the clock, and keep an older version only while a snapshot is
+ * running.
+ *
+ * Index updates from customer setters run under the customer's stripe lock.
+ * The current version records the values the customer is indexed under, so
+ * a delete unlinks exactly those, and a rename racing with a delete can
+ * neither re-index the deleted customer nor leave its old name behind.
+ *
+ * updateInBulk is a write section: it holds every stripe lock, taken in
+ * stripe order, for the whole group, so no other writer or setter can touch
+ * any customer until the group is done. Readers and snapshots are not held
+ * up.
+ */
+public class ConcurrentCustomerRepository implements CustomerRepository {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ConcurrentHashMap<Integer, Version> customers = new ConcurrentHashMap<>();
+    private final CustomerIndexes indexes = new CustomerIndexes();
+    private final CustomerChangeListener reindexer = new Reindexer();
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    // Even while no snapshot is being copied; written only under snapshotLock
+    private volatile long clock = 2;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // Ids deleted while a snapshot was being copied, whose tombstones the next snapshot clears
+    private final ConcurrentLinkedQueue<Integer> tombstones = new ConcurrentLinkedQueue<>();
+
+    public ConcurrentCustomerRepository() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ConcurrentCustomerRepository(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new Stripe[Math.max(size, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = stripes.length - 1;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void createCustomer(Customer customer) {
+        write(customer.getId(), customer);
+    }
+
+    @Override
+    public void updateCustomer(Customer customer) {
+        createCustomer(customer);
+    }
+
+    @Override
+    public void deleteCustomer(Customer customer) {
+        write(customer.getId(), null);
+    }
+
+    // New customers do not depend on each other, so unlike updateInBulk this only locks one stripe at a time
+    @Override
+    public void createCustomers(List<Customer> newCustomers) {
+        for (Customer customer : newCustomers) {
+            createCustomer(customer);
+        }
+    }
+
+    @Override
+    public void updateInBulk(Runnable edits) {
+        int locked = 0;
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                locked++;
+            }
+            edits.run();
+        } finally {
+            while (locked > 0) {
+                stripes[--locked].lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Customer getCustomerFromId(int customerId) {
+        Version version = customers.get(customerId);
+        return version == null ? null : version.customer;
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        snapshotLock.lock();
+        try {
+            long epoch = clock;
+            clock = epoch + 1;
+            for (Stripe stripe : stripes) {
+                long writing = stripe.writeEpoch;
+                while (writing != 0 && writing <= epoch) {
+                    Thread.onSpinWait();
+                    writing = stripe.writeEpoch;
+                }
+            }
+
+            List<Customer> snapshot = new ArrayList<>(customers.size());
+            for (Version version : customers.values()) {
+                while (version != null && version.epoch > epoch) {
+                    version = version.previous;
+                }
+                if (version != null && version.customer != null) {
+                    snapshot.add(version.customer);
+                }
+            }
+            clock = epoch + 2;
+
+            Integer customerId;
+            while ((customerId = tombstones.poll()) != null) {
+                customers.computeIfPresent(customerId, (id, version) -> version.customer == null ? null : version);
+            }
+            return snapshot;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Customer> findByEmail(String email) {
+        return indexes.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findByPhone(String phone) {
+        return indexes.findByPhone(phone);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix) {
+        return findByNamePrefix(namePrefix, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix, int limit) {
+        return indexes.findByNamePrefix(namePrefix, limit);
+    }
+
+    // Stores the customer under the id, or deletes the id when customer is null
+    private void write(int customerId, Customer customer) {
+        Stripe stripe = stripeFor(customerId);
+        stripe.lock.lock();
+        try {
+            long epoch = enterEpoch(stripe);
+            try {
+                Version current = customers.get(customerId);
+                Customer previous = current == null ? null : current.customer;
+                if (previous == null && customer == null) {
+                    return;
+                }
+                Version installed = install(customerId, current, customer, epoch);
+                if (previous != null) {
+                    previous.removeChangeListener(reindexer);
+                    for (CustomerField field : CustomerField.values()) {
+                        indexes.unlink(previous, field, current.indexed[field.ordinal()]);
+                    }
+                }
+                if (customer != null) {
+                    customer.addChangeListener(reindexer);
+                    for (CustomerField field : CustomerField.values()) {
+                        indexes.link(customer, field, installed.indexed[field.ordinal()]);
+                    }
+                }
+            } finally {
+                stripe.writeEpoch = 0;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Publishes the epoch this write belongs to before using it, so a snapshot either sees it or waits for it
+    private long enterEpoch(Stripe stripe) {
+        long epoch;
+        do {
+            epoch = clock;
+            stripe.writeEpoch = epoch;
+        } while (clock != epoch);
+        return epoch;
+    }
+
+    // Returns the new head version, or null when the slot was removed
+    private Version install(int customerId, Version current, Customer customer, long epoch) {
+        if ((epoch & 1) == 0) {
+            // No snapshot is copying, so nothing older has to be kept
+            if (customer == null) {
+                customers.remove(customerId);
+                return null;
+            }
+            Version installed = new Version(customer, epoch, null);
+            customers.put(customerId, installed);
+            return installed;
+        }
+
+        // Keep the newest version from before the running snapshot, and nothing older
+        Version kept = current == null || current.epoch < epoch ? current : current.previous;
+        if (kept != null) {
+            kept.previous = null;
+        }
+        if (customer == null && kept == null) {
+            customers.remove(customerId);
+            return null;
+        }
+        Version installed = new Version(customer, epoch, kept);
+        customers.put(customerId, installed);
+        if (customer == null) {
+            tombstones.add(customerId);
+        }
+        return installed;
+    }
+
+    private Stripe stripeFor(int customerId) {
+        int h = customerId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    // One write to a map slot; customer is null for a delete
+    private static final class Version {
+        final Customer customer;
+        final long epoch;
+        volatile Version previous;
+        // Index keys by CustomerField ordinal, guarded by the stripe lock
+        final String[] indexed;
+
+        Version(Customer customer, long epoch, Version previous) {
+            this.customer = customer;
+            this.epoch = epoch;
+            this.previous = previous;
+            this.indexed = customer == null
+                    ? null
+                    : new String[]{customer.getName(), customer.getEmail(), customer.getPhone()};
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        // Epoch of the write in progress under this lock, 0 when idle
+        volatile long writeEpoch;
+    }
+
+    // Applies setter changes to the indexes under the customer's stripe lock
+    private final class Reindexer implements CustomerChangeListener {
+        @Override
+        public void onCustomerChanged(Customer customer, CustomerField field, String oldValue, String newValue) {
+            ReentrantLock lock = stripeFor(customer.getId()).lock;
+            lock.lock();
+            try {
+                Version current = customers.get(customer.getId());
+                if (current != null && current.customer == customer) {
+                    indexes.unlink(customer, field, current.indexed[field.ordinal()]);
+                    indexes.link(customer, field, newValue);
+                    current.indexed[field.ordinal()] = newValue;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import crm.observer.event.EventType;
+import customer.*;
+import notification.EmailNotification;
+import notification.NotificationStrategy;
+import notification.PushNotification;
+import notification.SMSNotification;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+final class CustomerCodec {
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final CustomerField[] FIELDS = CustomerField.values();
+
+    private CustomerCodec() {
+    }
+
+    static void writeCustomer(DataOutput out, Customer customer) throws IOException {
+        writeHeader(out, customer);
+        InteractionHistory history = customer.getInteractions();
+        out.writeInt(history.size());
+        for (Interaction interaction : history) {
+            writeInteraction(out, interaction);
+        }
+    }
+
+    static Customer readCustomer(DataInput in) throws IOException {
+        Customer customer = readHeader(in);
+        int interactions = in.readInt();
+        for (int i = 0; i < interactions; i++) {
+            customer.addInteraction(readInteraction(in));
+        }
+        return customer;
+    }
+
+    static void writeContactDetails(DataOutput out, Customer customer) throws IOException {
+        Date lastContact = customer.getLastContact();
+        out.writeLong(lastContact == null ? NO_DATE : lastContact.getTime());
+        writeContactMethod(out, customer.getPreferredContactMethod());
+    }
+
+    static void readContactDetails(DataInput in, Customer customer) throws IOException {
+        long lastContact = in.readLong();
+        customer.setLastContact(lastContact == NO_DATE ? null : new Date(lastContact));
+        customer.setPreferredContactMethod(readContactMethod(in));
+    }
+
+    static void writeInteraction(DataOutput out, Interaction interaction) throws IOException {
+        LocalDateTime timestamp = interaction.getTimestamp();
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+        out.writeByte(interaction.getEventType().ordinal());
+        writeString(out, interaction.getDetails());
+    }
+
+    static Interaction readInteraction(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        EventType eventType = EVENT_TYPES[in.readUnsignedByte()];
+        String details = readString(in);
+        return new Interaction(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), eventType, details);
+    }
+
+    static void writeField(DataOutput out, CustomerField field, String value) throws IOException {
+        out.writeByte(field.ordinal());
+        writeString(out, value);
+    }
+
+    static void readField(DataInput in, Customer customer) throws IOException {
+        CustomerField field = FIELDS[in.readUnsignedByte()];
+        customer.setField(field, readString(in));
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Type, id, scalar fields and contact details, without the interaction history
+    static void writeHeader(DataOutput out, Customer customer) throws IOException {
+        out.writeByte(CustomerType.of(customer).getCode());
+        out.writeInt(customer.getId());
+        writeString(out, customer.getName());
+        writeString(out, customer.getEmail());
+        writeString(out, customer.getPhone());
+        writeContactDetails(out, customer);
+    }
+
+    static Customer readHeader(DataInput in) throws IOException {
+        CustomerType type = CustomerType.fromCode(in.readUnsignedByte());
+        int id = in.readInt();
+        String name = readString(in);
+        String email = readString(in);
+        String phone = readString(in);
+        Customer customer = type.create(id, name, email, phone);
+        readContactDetails(in, customer);
+        return customer;
+    }
+
+    private static void writeContactMethod(DataOutput out, NotificationStrategy strategy) throws IOException {
+        if (strategy instanceof EmailNotification) {
+            out.writeByte(1);
+        } else if (strategy instanceof PushNotification) {
+            out.writeByte(2);
+        } else {
+            out.writeByte(0);
+        }
+    }
+
+    private static NotificationStrategy readContactMethod(DataInput in) throws IOException {
+        switch (in.readUnsignedByte()) {
+            case 1:
+                return new EmailNotification();
+            case 2:
+                return new PushNotification();
+            default:
+                return new SMSNotification();
+        }
+    }
+}
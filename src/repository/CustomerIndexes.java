@@ -0,0 +1,173 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.Customer;
+import customer.CustomerChangeListener;
+import customer.CustomerField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*
+ * Secondary indexes on email, phone and name. Each key maps to a small
+ * immutable array of customers that is swapped atomically, so the indexes stay
+ * consistent when customers are mutated from several threads. Names are kept
+ * lower-cased in a sorted map for prefix (type-ahead) searches.
+ */
+final class CustomerIndexes implements CustomerChangeListener {
+    private static final Customer[] NONE = new Customer[0];
+
+    private final ConcurrentMap<String, Customer[]> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Customer[]> byPhone = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Customer[]> byName = new ConcurrentSkipListMap<>();
+
+    void add(Customer customer) {
+        customer.addChangeListener(this);
+        link(byEmail, customer.getEmail(), customer);
+        link(byPhone, customer.getPhone(), customer);
+        link(byName, nameKey(customer.getName()), customer);
+    }
+
+    void remove(Customer customer) {
+        customer.removeChangeListener(this);
+        unlink(byEmail, customer.getEmail(), customer);
+        unlink(byPhone, customer.getPhone(), customer);
+        unlink(byName, nameKey(customer.getName()), customer);
+    }
+
+    // For callers that track the indexed values themselves instead of having the indexes listen for changes
+    void link(Customer customer, CustomerField field, String value) {
+        switch (field) {
+            case NAME:
+                link(byName, nameKey(value), customer);
+                break;
+            case EMAIL:
+                link(byEmail, value, customer);
+                break;
+            case PHONE:
+                link(byPhone, value, customer);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected customer field: " + field);
+        }
+    }
+
+    void unlink(Customer customer, CustomerField field, String value) {
+        switch (field) {
+            case NAME:
+                unlink(byName, nameKey(value), customer);
+                break;
+            case EMAIL:
+                unlink(byEmail, value, customer);
+                break;
+            case PHONE:
+                unlink(byPhone, value, customer);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected customer field: " + field);
+        }
+    }
+
+    void clear() {
+        byEmail.clear();
+        byPhone.clear();
+        byName.clear();
+    }
+
+    List<Customer> findByEmail(String email) {
+        return lookup(byEmail, email);
+    }
+
+    List<Customer> findByPhone(String phone) {
+        return lookup(byPhone, phone);
+    }
+
+    List<Customer> findByNamePrefix(String namePrefix, int limit) {
+        String prefix = nameKey(namePrefix);
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Customer> matches = new ArrayList<>();
+        for (Map.Entry<String, Customer[]> entry : byName.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            for (Customer customer : entry.getValue()) {
+                matches.add(customer);
+                if (matches.size() == limit) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public void onCustomerChanged(Customer customer, CustomerField field, String oldValue, String newValue) {
+        unlink(customer, field, oldValue);
+        link(customer, field, newValue);
+    }
+
+    private static void link(ConcurrentMap<String, Customer[]> index, String key, Customer customer) {
+        if (key == null) {
+            return;
+        }
+        index.compute(key, (k, current) -> {
+            Customer[] customers = current == null ? NONE : current;
+            for (Customer existing : customers) {
+                if (existing == customer) {
+                    return customers;
+                }
+            }
+            Customer[] updated = Arrays.copyOf(customers, customers.length + 1);
+            updated[customers.length] = customer;
+            return updated;
+        });
+    }
+
+    private static void unlink(ConcurrentMap<String, Customer[]> index, String key, Customer customer) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, customers) -> {
+            for (int i = 0; i < customers.length; i++) {
+                if (customers[i] == customer) {
+                    if (customers.length == 1) {
+                        return null;
+                    }
+                    Customer[] updated = new Customer[customers.length - 1];
+                    System.arraycopy(customers, 0, updated, 0, i);
+                    System.arraycopy(customers, i + 1, updated, i, customers.length - i - 1);
+                    return updated;
+                }
+            }
+            return customers;
+        });
+    }
+
+    private static List<Customer> lookup(Map<String, Customer[]> index, String key) {
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        Customer[] customers = index.get(key);
+        return customers == null ? Collections.emptyList() : Arrays.asList(customers.clone());
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+}
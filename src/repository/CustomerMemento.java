@@ -0,0 +1,92 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.Customer;
+import customer.Interaction;
+import customer.InteractionHistory;
+import customer.InteractionSpillStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/*
+ * A customer that is no longer in any repository, kept so an undo entry can
+ * bring it back. Only the scalar fields are packed into bytes, with the
+ * encoding the snapshot uses. The interaction history is never copied into
+ * the memento: with a history spill store configured it is parked there as
+ * one chunk and the memento keeps the handle, and without one the memento
+ * keeps the deleted customer's own history, which nothing else refers to any
+ * more. Either way the memento's size depends only on the scalar fields.
+ */
+public final class CustomerMemento {
+    private final byte[] header;
+    // Exactly one of spillStore and history is set
+    private final InteractionSpillStore spillStore;
+    private final long historyHandle;
+    private final InteractionHistory history;
+
+    private CustomerMemento(byte[] header, InteractionSpillStore spillStore, long historyHandle,
+                            InteractionHistory history) {
+        this.header = header;
+        this.spillStore = spillStore;
+        this.historyHandle = historyHandle;
+        this.history = history;
+    }
+
+    public static CustomerMemento of(Customer customer) {
+        byte[] header;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            CustomerCodec.writeHeader(out, customer);
+            out.flush();
+            header = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode customer " + customer.getId(), e);
+        }
+
+        InteractionSpillStore store = Customer.getHistorySpillStore();
+        if (store == null) {
+            return new CustomerMemento(header, null, 0, customer.getInteractions());
+        }
+        InteractionHistory interactions = customer.getInteractions();
+        Interaction[] chunk = new Interaction[interactions.size()];
+        int i = 0;
+        for (Interaction interaction : interactions) {
+            chunk[i++] = interaction;
+        }
+        return new CustomerMemento(header, store, store.write(chunk), null);
+    }
+
+    // A new customer with the saved id, details and history
+    public Customer restore() {
+        Customer customer;
+        try {
+            customer = CustomerCodec.readHeader(new DataInputStream(new ByteArrayInputStream(header)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decode customer", e);
+        }
+        Iterable<Interaction> interactions = spillStore != null
+                ? Arrays.asList(spillStore.read(historyHandle))
+                : history;
+        for (Interaction interaction : interactions) {
+            customer.addInteraction(interaction);
+        }
+        return customer;
+    }
+
+    // Bytes held for the scalar fields; the history is held out of line and not counted
+    public int getSizeInBytes() {
+        return header.length;
+    }
+}
@@ -16,4 +16,29 @@ public interface CustomerRepository {
     void deleteCustomer(Customer customer);
     Customer getCustomerFromId(int customerId);
     List<Customer> getAllCustomers();
+    List<Customer> findByEmail(String email);
+    List<Customer> findByPhone(String phone);
+    List<Customer> findByNamePrefix(String namePrefix);
+    List<Customer> findByNamePrefix(String namePrefix, int limit);
+
+    // Adds many customers at once; a durable repository commits them together
+    default void createCustomers(List<Customer> customers) {
+        updateInBulk(() -> {
+            for (Customer customer : customers) {
+                createCustomer(customer);
+            }
+        });
+    }
+
+    // Runs a group of customer edits as one write section. What that buys depends on the repository: a
+    // concurrent one keeps other writers out until the group ends, a durable one commits the group together,
+    // and by default the edits just run
+    default void updateInBulk(Runnable edits) {
+        edits.run();
+    }
+
+    // True if any method may be called from several threads at once
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -0,0 +1,270 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.Customer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Binary snapshot of customer records. Layout:
+ *
+ *   header  magic, version, last log sequence, record count, index offset
+ *   records one CustomerCodec record per customer, back to back
+ *   index   (id, offset, length) per record, sorted by id
+ *
+ * An opened snapshot is memory-mapped and only the header is read up front;
+ * lookups binary-search the mapped index and decode a single record, so
+ * opening costs the same regardless of how many customers the file holds.
+ */
+final class CustomerSnapshot implements Closeable {
+    private static final int MAGIC = 0x43524D53;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8;
+    private static final int INDEX_ENTRY_BYTES = 4 + 8 + 4;
+
+    // Segments overlap so any record shorter than SEGMENT_OVERLAP fits inside one mapping
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final long SEGMENT_OVERLAP = 1L << 27;
+
+    private final FileChannel channel;
+    private final long lastSequence;
+    private final int count;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer[] segments;
+
+    private CustomerSnapshot(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a customer snapshot");
+        }
+        this.lastSequence = header.getLong();
+        this.count = header.getInt();
+        long indexOffset = header.getLong();
+
+        this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) count * INDEX_ENTRY_BYTES);
+        int segmentCount = (int) ((indexOffset + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = i * SEGMENT_BYTES;
+            long length = Math.min(SEGMENT_BYTES + SEGMENT_OVERLAP, indexOffset - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+    }
+
+    static CustomerSnapshot open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new CustomerSnapshot(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * Writes the given customers plus every slot of the previous snapshot that
+     * is not marked in skipSlots. Carried-over records are copied byte for byte
+     * without being decoded.
+     */
+    static void write(Path path, long lastSequence, Collection<Customer> customers,
+                      CustomerSnapshot previous, BitSet skipSlots) throws IOException {
+        int carried = previous == null ? 0 : previous.size() - skipSlots.cardinality();
+        int total = customers.size() + carried;
+        long[] entries = new long[total];
+        long[] offsets = new long[total];
+        int[] lengths = new int[total];
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            DataOutputStream out = new DataOutputStream(counter);
+            out.write(new byte[HEADER_BYTES]);
+
+            int n = 0;
+            for (Customer customer : customers) {
+                long start = counter.count;
+                CustomerCodec.writeCustomer(out, customer);
+                entries[n] = ((long) customer.getId() << 32) | n;
+                offsets[n] = start;
+                lengths[n] = (int) (counter.count - start);
+                n++;
+            }
+            if (previous != null) {
+                byte[] copy = new byte[0];
+                for (int slot = 0; slot < previous.size(); slot++) {
+                    if (skipSlots.get(slot)) {
+                        continue;
+                    }
+                    ByteBuffer raw = previous.record(slot);
+                    if (copy.length < raw.remaining()) {
+                        copy = new byte[raw.remaining()];
+                    }
+                    int length = raw.remaining();
+                    raw.get(copy, 0, length);
+                    entries[n] = ((long) previous.idAt(slot) << 32) | n;
+                    offsets[n] = counter.count;
+                    lengths[n] = length;
+                    out.write(copy, 0, length);
+                    n++;
+                }
+            }
+
+            // Sorting (id << 32 | position) orders entries by id while remembering where each record went
+            Arrays.sort(entries);
+            long indexOffset = counter.count;
+            for (long entry : entries) {
+                int position = (int) entry;
+                out.writeInt((int) (entry >> 32));
+                out.writeLong(offsets[position]);
+                out.writeInt(lengths[position]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(lastSequence).putInt(total).putLong(indexOffset).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_BYTES - header.remaining());
+            }
+            channel.force(true);
+        }
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int idAt(int slot) {
+        return index.getInt(slot * INDEX_ENTRY_BYTES);
+    }
+
+    int slotOf(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    int maxId() {
+        return count == 0 ? Integer.MIN_VALUE : idAt(count - 1);
+    }
+
+    Customer read(int slot) throws IOException {
+        return CustomerCodec.readCustomer(new DataInputStream(new ByteBufferInputStream(record(slot))));
+    }
+
+    List<Customer> readAll() throws IOException {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            customers.add(read(slot));
+        }
+        return customers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer record(int slot) throws IOException {
+        int entry = slot * INDEX_ENTRY_BYTES;
+        long offset = index.getLong(entry + 4);
+        int length = index.getInt(entry + 12);
+
+        if (length > SEGMENT_OVERLAP) {
+            ByteBuffer large = ByteBuffer.allocate(length);
+            while (large.hasRemaining()) {
+                if (channel.read(large, offset + large.position()) < 0) {
+                    throw new IOException("Truncated customer snapshot");
+                }
+            }
+            return large.flip();
+        }
+
+        ByteBuffer segment = segments[(int) (offset / SEGMENT_BYTES)].duplicate();
+        int start = (int) (offset % SEGMENT_BYTES);
+        segment.position(start).limit(start + length);
+        return segment.slice();
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import crm.observer.LogFileWriter;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.CRMEventCodec;
+import crm.observer.event.CustomerStatePayload;
+import crm.observer.event.EventPayload;
+import crm.observer.event.EventType;
+import crm.observer.event.FieldChangePayload;
+import crm.observer.event.InteractionPayload;
+import customer.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+ * Repository whose only durable record is a stream of CRMEvents. Every create,
+ * delete and in-place customer edit becomes one event with a structured
+ * payload (see CustomerEvents), appended to events.log as a CRMEventCodec
+ * frame before the call returns. The current state is the fold of that
+ * stream with apply.
+ *
+ * Each frame is wrapped in a record of int length, int CRC32 of the frame,
+ * then the frame, like the customer log and the command journal. Only a
+ * short final record, left by a crash mid-append, is cut off on open; a
+ * checksum mismatch anywhere else means the log is damaged, and opening
+ * fails rather than dropping every event after it.
+ *
+ * Every snapshotInterval events the folded state is written to
+ * events.snapshot along with the log offset it covers, so opening the
+ * repository only replays the tail. The log itself is never truncated, which
+ * keeps every earlier state reachable through stateAt.
+ */
+public class EventSourcedCustomerRepository implements CustomerRepository, Closeable {
+    static final String LOG_FILE = "events.log";
+    static final String SNAPSHOT_FILE = "events.snapshot";
+
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+    // Largest piece of the log mapped at once while folding
+    private static final long FOLD_WINDOW_BYTES = 64L << 20;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final CustomerRepository customers = new ConcurrentCustomerRepository();
+    private final EventRecorder recorder = new EventRecorder();
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final int snapshotInterval;
+    private final LogFileWriter log;
+    private final long replayedEvents;
+
+    private final Object appendLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer frame = ByteBuffer.allocate(512);
+    private long logLength;
+    private long eventsSinceSnapshot;
+
+    public EventSourcedCustomerRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL, LogFileWriter.Durability.EVERY_EVENT, 0);
+    }
+
+    public EventSourcedCustomerRepository(Path directory, int snapshotInterval, LogFileWriter.Durability durability,
+                                          long flushIntervalMillis) throws IOException {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        Files.createDirectories(directory);
+        this.logPath = directory.resolve(LOG_FILE);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.snapshotInterval = snapshotInterval;
+
+        long snapshotOffset = loadSnapshot(snapshotPath, customers);
+        long existingLength = Files.exists(logPath) ? Files.size(logPath) : 0;
+        if (existingLength < snapshotOffset) {
+            throw new IOException("Event log " + logPath + " is shorter than its snapshot");
+        }
+        long[] replayed = {0};
+        logLength = fold(logPath, snapshotOffset, existingLength, event -> {
+            apply(event, customers);
+            replayed[0]++;
+        });
+        replayedEvents = replayed[0];
+        eventsSinceSnapshot = replayed[0];
+
+        // A short final record is left over from a crash mid-append
+        if (logLength < existingLength) {
+            try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                channel.truncate(logLength);
+                channel.force(true);
+            }
+        }
+        this.log = new LogFileWriter(logPath.toString(), durability, flushIntervalMillis);
+
+        int maxId = Integer.MIN_VALUE;
+        for (Customer customer : customers.getAllCustomers()) {
+            customer.addChangeListener(recorder);
+            maxId = Math.max(maxId, customer.getId());
+        }
+        if (maxId != Integer.MIN_VALUE) {
+            Customer.getIdGenerator().advancePast(maxId);
+        }
+    }
+
+    // Folds one event into state. Events without a payload this repository understands are ignored,
+    // apart from CUSTOMER_DELETED, which needs none.
+    public static void apply(CRMEvent event, CustomerRepository state) {
+        Integer customerId = event.getCustomerId();
+        if (customerId == null) {
+            return;
+        }
+        EventPayload payload = event.getPayload();
+        Customer customer = state.getCustomerFromId(customerId);
+
+        if (event.getEventType() == EventType.CUSTOMER_DELETED) {
+            if (customer != null) {
+                state.deleteCustomer(customer);
+            }
+        } else if (payload instanceof CustomerStatePayload) {
+            CustomerStatePayload customerState = (CustomerStatePayload) payload;
+            if (customer == null || event.getEventType() == EventType.CUSTOMER_CREATED) {
+                state.createCustomer(CustomerEvents.toCustomer(customerId, customerState));
+            } else {
+                CustomerEvents.applyState(customer, customerState);
+            }
+        } else if (customer == null) {
+            return;
+        } else if (payload instanceof FieldChangePayload) {
+            FieldChangePayload change = (FieldChangePayload) payload;
+            customer.setField(CustomerField.valueOf(change.getField()), change.getNewValue());
+        } else if (payload instanceof InteractionPayload) {
+            customer.addInteraction(CustomerEvents.toInteraction((InteractionPayload) payload));
+        }
+    }
+
+    // Rebuilds the customers as they were at asOf from the repository's files, which may be in use.
+    // The snapshot is used when it is older than asOf; otherwise the log is folded from the start.
+    public static CustomerRepository stateAt(Path directory, Date asOf) throws IOException {
+        Path logPath = directory.resolve(LOG_FILE);
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        long cutoff = offsetAfter(logPath, asOf.getTime());
+
+        CustomerRepository state = new ConcurrentCustomerRepository();
+        long from = 0;
+        if (snapshotOffset(snapshotPath) <= cutoff) {
+            from = loadSnapshot(snapshotPath, state);
+        }
+        fold(logPath, from, cutoff, event -> apply(event, state));
+        return state;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void createCustomer(Customer customer) {
+        synchronized (appendLock) {
+            Customer previous = customers.getCustomerFromId(customer.getId());
+            if (previous != null) {
+                previous.removeChangeListener(recorder);
+            }
+            customers.createCustomer(customer);
+            record(CustomerEvents.created(customer));
+            for (Interaction interaction : customer.getInteractions()) {
+                record(CustomerEvents.interactionAdded(customer, interaction));
+            }
+            customer.addChangeListener(recorder);
+            snapshotIfDue();
+        }
+    }
+
+    // Edits to a customer already held here were recorded as they were made
+    @Override
+    public void updateCustomer(Customer customer) {
+        synchronized (appendLock) {
+            if (customers.getCustomerFromId(customer.getId()) != customer) {
+                createCustomer(customer);
+            }
+        }
+    }
+
+    @Override
+    public void deleteCustomer(Customer customer) {
+        synchronized (appendLock) {
+            Customer removed = customers.getCustomerFromId(customer.getId());
+            if (removed == null) {
+                return;
+            }
+            removed.removeChangeListener(recorder);
+            customers.deleteCustomer(removed);
+            record(CustomerEvents.deleted(customer.getId()));
+            snapshotIfDue();
+        }
+    }
+
+    @Override
+    public Customer getCustomerFromId(int customerId) {
+        return customers.getCustomerFromId(customerId);
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        return customers.getAllCustomers();
+    }
+
+    @Override
+    public List<Customer> findByEmail(String email) {
+        return customers.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findByPhone(String phone) {
+        return customers.findByPhone(phone);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix) {
+        return customers.findByNamePrefix(namePrefix);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix, int limit) {
+        return customers.findByNamePrefix(namePrefix, limit);
+    }
+
+    public void snapshot() {
+        synchronized (appendLock) {
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write snapshot: " + snapshotPath, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            for (Customer customer : customers.getAllCustomers()) {
+                customer.removeChangeListener(recorder);
+            }
+            log.close();
+        }
+    }
+
+    // Events folded when the repository was opened, i.e. those newer than the snapshot
+    long getReplayedEvents() {
+        return replayedEvents;
+    }
+
+    // Caller holds appendLock
+    private void record(CRMEvent event) {
+        int size = CRMEventCodec.encodedSize(event);
+        if (RECORD_HEADER_BYTES + size > frame.capacity()) {
+            frame = ByteBuffer.allocate(Math.max(RECORD_HEADER_BYTES + size, frame.capacity() * 2));
+        }
+        frame.clear();
+        frame.position(RECORD_HEADER_BYTES);
+        CRMEventCodec.encode(event, frame);
+        crc.reset();
+        crc.update(frame.array(), RECORD_HEADER_BYTES, size);
+        frame.putInt(0, size);
+        frame.putInt(4, (int) crc.getValue());
+        frame.flip();
+        try {
+            log.write(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to event log: " + logPath, e);
+        }
+        logLength += RECORD_HEADER_BYTES + size;
+        eventsSinceSnapshot++;
+    }
+
+    // Caller holds appendLock. Only called between operations, so a snapshot never splits one.
+    private void snapshotIfDue() {
+        if (eventsSinceSnapshot >= snapshotInterval) {
+            snapshot();
+        }
+    }
+
+    // Caller holds appendLock
+    private void writeSnapshot() throws IOException {
+        // The snapshot must never point past what the log has on disk
+        log.sync();
+        Path tempPath = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        CustomerSnapshot.write(tempPath, logLength, customers.getAllCustomers(), null, null);
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        eventsSinceSnapshot = 0;
+    }
+
+    // Returns the log offset the snapshot covers, or 0 if there is none
+    private static long loadSnapshot(Path snapshotPath, CustomerRepository state) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(snapshotPath)) {
+            for (Customer customer : snapshot.readAll()) {
+                state.createCustomer(customer);
+            }
+            return snapshot.getLastSequence();
+        }
+    }
+
+    private static long snapshotOffset(Path snapshotPath) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(snapshotPath)) {
+            return snapshot.getLastSequence();
+        }
+    }
+
+    // Applies every complete event between the two offsets and returns the offset just past the last one.
+    // Throws if a record before the last one, or a complete last one, fails its checksum.
+    private static long fold(Path logPath, long from, long to, Consumer<CRMEvent> apply) throws IOException {
+        if (!Files.exists(logPath)) {
+            return from;
+        }
+        CRC32 checksum = new CRC32();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            long end = Math.min(to, channel.size());
+            long position = from;
+            while (position < end) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(FOLD_WINDOW_BYTES, end - position));
+                int length;
+                while ((length = recordLength(window, logPath, position)) > 0) {
+                    int start = window.position();
+                    ByteBuffer body = window.duplicate();
+                    body.position(start + RECORD_HEADER_BYTES).limit(start + RECORD_HEADER_BYTES + length);
+                    checksum.reset();
+                    checksum.update(body.duplicate());
+                    CRMEvent event;
+                    try {
+                        if ((int) checksum.getValue() != window.getInt(start + 4)) {
+                            throw new IllegalArgumentException("checksum mismatch");
+                        }
+                        event = CRMEventCodec.decode(body);
+                        if (event == null || body.hasRemaining()) {
+                            throw new IllegalArgumentException("frame does not fill its record");
+                        }
+                    } catch (RuntimeException e) {
+                        throw new IOException("Corrupt event log " + logPath + " at offset " + (position + start)
+                                + ": " + e.getMessage(), e);
+                    }
+                    apply.accept(event);
+                    window.position(start + RECORD_HEADER_BYTES + length);
+                }
+                if (window.position() == 0) {
+                    break;
+                }
+                position += window.position();
+            }
+            return position;
+        }
+    }
+
+    // Length of the frame in the complete record at the window's position, or -1 if only part of it is there
+    private static int recordLength(ByteBuffer window, Path logPath, long windowOffset) throws IOException {
+        if (window.remaining() < RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        int length = window.getInt(window.position());
+        if (length <= 0 || length > MAX_RECORD_BYTES) {
+            throw new IOException("Corrupt event log " + logPath + " at offset "
+                    + (windowOffset + window.position()) + ": invalid record length " + length);
+        }
+        return window.remaining() < RECORD_HEADER_BYTES + length ? -1 : length;
+    }
+
+    // Offset of the first event recorded after asOfMillis, or the end of the log
+    private static long offsetAfter(Path logPath, long asOfMillis) throws IOException {
+        if (!Files.exists(logPath)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(FOLD_WINDOW_BYTES, size - position));
+                int length;
+                while ((length = recordLength(window, logPath, position)) > 0) {
+                    int start = window.position();
+                    window.position(start + RECORD_HEADER_BYTES);
+                    if (CRMEventCodec.timestampOf(window) > asOfMillis) {
+                        return position + start;
+                    }
+                    window.position(start + RECORD_HEADER_BYTES + length);
+                }
+                if (window.position() == 0) {
+                    break;
+                }
+                position += window.position();
+            }
+            return position;
+        }
+    }
+
+    private class EventRecorder implements CustomerChangeListener {
+        @Override
+        public void onCustomerChanged(Customer customer, CustomerField field, String oldValue, String newValue) {
+            synchronized (appendLock) {
+                record(CustomerEvents.fieldChanged(customer, field, oldValue, newValue));
+                snapshotIfDue();
+            }
+        }
+
+        @Override
+        public void onContactDetailsChanged(Customer customer) {
+            synchronized (appendLock) {
+                record(CustomerEvents.contactDetailsChanged(customer));
+                snapshotIfDue();
+            }
+        }
+
+        @Override
+        public void onInteractionAdded(Customer customer, Interaction interaction) {
+            synchronized (appendLock) {
+                record(CustomerEvents.interactionAdded(customer, interaction));
+                snapshotIfDue();
+            }
+        }
+    }
+}
@@ -0,0 +1,692 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/*
+ * Durable repository. Every create, update, delete and in-place customer edit
+ * is appended to customers.log as a CRC-framed binary record before the call
+ * returns. Concurrent callers share fsyncs (group commit): whichever caller
+ * reaches the disk first forces every record appended so far.
+ *
+ * Every snapshotInterval records the log is cut over: it is forced, renamed
+ * to customers.log.compacting and a fresh customers.log takes new records. A
+ * background thread then folds the compacting log into the previous snapshot
+ * file and replaces customers.snapshot, without touching live customers or
+ * holding the append lock, so writers never wait for a full-state dump. If
+ * the process stops first, the compacting log is replayed on open and
+ * compacted again. Recovery only replays the records after the cutover.
+ *
+ * The snapshot is memory-mapped rather than read up front. A customer is only
+ * decoded the first time it is looked up (or when a bulk query needs every
+ * customer), so opening the repository takes the same time for ten customers
+ * as for ten million. Customers nobody touched are copied into the next
+ * snapshot as raw bytes without ever being decoded.
+ */
+public class FileCustomerRepository implements CustomerRepository, Closeable {
+    static final String LOG_FILE = "customers.log";
+    static final String SNAPSHOT_FILE = "customers.snapshot";
+    static final String COMPACTING_LOG_FILE = "customers.log.compacting";
+
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte FIELD = 3;
+    private static final byte CONTACT = 4;
+    private static final byte INTERACTION = 5;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final CustomerRepository customers = new ConcurrentCustomerRepository();
+    private final ChangeLogger changeLogger = new ChangeLogger();
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final Path compactingLogPath;
+    private final int snapshotInterval;
+    private final SnapshotOverlay state;
+    private final ExecutorService compactor;
+
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final RecordBuffer record = new RecordBuffer();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final RecordBuffer pending = new RecordBuffer();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final CRC32 crc = new CRC32();
+    private final AtomicLong durableSeq = new AtomicLong();
+    // Highest record appended inside updateInBulk on this thread; null outside a bulk update
+    private final ThreadLocal<long[]> bulkSeq = new ThreadLocal<>();
+
+    // Guarded by appendLock
+    private FileChannel log;
+    private FileChannel compactingLog;
+    private Future<?> compaction;
+    private long appendedSeq;
+    private long recordsSinceSnapshot;
+
+    private volatile boolean fullyMaterialized;
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    public FileCustomerRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public FileCustomerRepository(Path directory, int snapshotInterval) throws IOException {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        Files.createDirectories(directory);
+        this.logPath = directory.resolve(LOG_FILE);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.compactingLogPath = directory.resolve(COMPACTING_LOG_FILE);
+        this.snapshotInterval = snapshotInterval;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "crm-snapshot-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CustomerSnapshot snapshot = Files.exists(snapshotPath) ? CustomerSnapshot.open(snapshotPath) : null;
+        state = new SnapshotOverlay(customers, snapshot);
+        fullyMaterialized = snapshot == null || snapshot.size() == 0;
+
+        // A cutover whose compaction did not finish is replayed first and compacted again below
+        long compactedSeq = 0;
+        if (Files.exists(compactingLogPath)) {
+            compactingLog = FileChannel.open(compactingLogPath, StandardOpenOption.READ);
+            state.replay(compactingLog);
+            compactedSeq = state.lastSequence;
+        }
+        this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validLength = state.replay(log);
+        // A torn or corrupt tail is left over from a crash mid-append
+        if (validLength < log.size()) {
+            log.truncate(validLength);
+            log.force(true);
+        }
+        log.position(log.size());
+        appendedSeq = state.lastSequence;
+        durableSeq.set(appendedSeq);
+        if (compactingLog != null) {
+            long cutoverSeq = compactedSeq;
+            compaction = compactor.submit(() -> compact(cutoverSeq));
+        }
+
+        int maxId = snapshot == null ? Integer.MIN_VALUE : snapshot.maxId();
+        for (Customer customer : customers.getAllCustomers()) {
+            customer.addChangeListener(changeLogger);
+            maxId = Math.max(maxId, customer.getId());
+        }
+        if (maxId != Integer.MIN_VALUE) {
+            Customer.getIdGenerator().advancePast(maxId);
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void createCustomer(Customer customer) {
+        long seq;
+        synchronized (appendLock) {
+            seq = put(customer);
+        }
+        commit(seq);
+    }
+
+    // Takes the append lock once for the whole list and waits on a single fsync
+    @Override
+    public void createCustomers(List<Customer> newCustomers) {
+        long seq = 0;
+        synchronized (appendLock) {
+            for (Customer customer : newCustomers) {
+                seq = put(customer);
+            }
+        }
+        commit(seq);
+    }
+
+    @Override
+    public void updateCustomer(Customer customer) {
+        createCustomer(customer);
+    }
+
+    @Override
+    public void deleteCustomer(Customer customer) {
+        long seq;
+        synchronized (appendLock) {
+            if (!removeCustomer(customer.getId())) {
+                return;
+            }
+            seq = append(DELETE, out -> out.writeInt(customer.getId()));
+        }
+        commit(seq);
+    }
+
+    @Override
+    public Customer getCustomerFromId(int customerId) {
+        Customer customer = customers.getCustomerFromId(customerId);
+        if (customer != null) {
+            return customer;
+        }
+        // Misses that are not in the snapshot either never need the lock
+        if (state.snapshot == null || state.snapshot.slotOf(customerId) < 0) {
+            return null;
+        }
+        synchronized (appendLock) {
+            return materialize(customerId);
+        }
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        materializeAll();
+        return customers.getAllCustomers();
+    }
+
+    @Override
+    public List<Customer> findByEmail(String email) {
+        materializeAll();
+        return customers.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findByPhone(String phone) {
+        materializeAll();
+        return customers.findByPhone(phone);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix) {
+        materializeAll();
+        return customers.findByNamePrefix(namePrefix);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix, int limit) {
+        materializeAll();
+        return customers.findByNamePrefix(namePrefix, limit);
+    }
+
+    // The edits are logged as usual, but only the last record is waited on, so the group shares one fsync
+    @Override
+    public void updateInBulk(Runnable edits) {
+        if (bulkSeq.get() != null) {
+            edits.run();
+            return;
+        }
+        long[] lastSeq = {0};
+        bulkSeq.set(lastSeq);
+        try {
+            edits.run();
+        } finally {
+            bulkSeq.remove();
+            awaitDurable(lastSeq[0]);
+        }
+    }
+
+    // Answers without decoding the snapshot, unlike getAllCustomers().isEmpty()
+    public boolean isEmpty() {
+        synchronized (appendLock) {
+            if (state.snapshot != null && state.consumed.nextClearBit(0) < state.snapshot.size()) {
+                return false;
+            }
+            return customers.getAllCustomers().isEmpty();
+        }
+    }
+
+    // Cuts the log over and waits until everything logged so far is in customers.snapshot
+    public void snapshot() {
+        try {
+            while (true) {
+                Future<?> running;
+                boolean started = false;
+                synchronized (appendLock) {
+                    if (compactingLog == null) {
+                        cutOver();
+                        started = true;
+                    }
+                    running = compaction;
+                }
+                awaitCompaction(running);
+                if (started) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write snapshot: " + snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long seq;
+        Future<?> running;
+        synchronized (appendLock) {
+            seq = appendedSeq;
+            running = compaction;
+        }
+        try {
+            awaitDurable(seq);
+            awaitCompaction(running);
+        } finally {
+            compactor.shutdownNow();
+            for (Customer customer : customers.getAllCustomers()) {
+                customer.removeChangeListener(changeLogger);
+            }
+            synchronized (appendLock) {
+                log.close();
+                if (compactingLog != null) {
+                    compactingLog.close();
+                }
+            }
+            if (state.snapshot != null) {
+                state.snapshot.close();
+            }
+        }
+    }
+
+    // Caller holds appendLock
+    private Customer materialize(int customerId) {
+        Customer customer = customers.getCustomerFromId(customerId);
+        if (customer != null) {
+            return customer;
+        }
+        try {
+            customer = state.load(customerId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read customer " + customerId + " from " + snapshotPath, e);
+        }
+        if (customer != null) {
+            customer.addChangeListener(changeLogger);
+        }
+        return customer;
+    }
+
+    private void materializeAll() {
+        if (fullyMaterialized) {
+            return;
+        }
+        synchronized (appendLock) {
+            CustomerSnapshot snapshot = state.snapshot;
+            if (snapshot != null) {
+                for (int slot = state.consumed.nextClearBit(0); slot < snapshot.size();
+                     slot = state.consumed.nextClearBit(slot + 1)) {
+                    materialize(snapshot.idAt(slot));
+                }
+            }
+            fullyMaterialized = true;
+        }
+    }
+
+    // Caller holds appendLock; returns true if the customer existed, live or still in the snapshot
+    private boolean removeCustomer(int customerId) {
+        Customer removed = customers.getCustomerFromId(customerId);
+        if (removed != null) {
+            removed.removeChangeListener(changeLogger);
+        }
+        return state.remove(customerId);
+    }
+
+    private long append(byte type, RecordBody body) {
+        try {
+            long seq = appendedSeq + 1;
+            record.reset();
+            recordOut.writeLong(seq);
+            recordOut.writeByte(type);
+            body.write(recordOut);
+
+            crc.reset();
+            crc.update(record.buffer(), 0, record.size());
+            pendingOut.writeInt(record.size());
+            pendingOut.writeInt((int) crc.getValue());
+            record.writeTo(pendingOut);
+
+            appendedSeq = seq;
+            // A cutover waits while the previous compaction is still running
+            if (++recordsSinceSnapshot >= snapshotInterval && compactingLog == null) {
+                cutOver();
+            }
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to customer log: " + logPath, e);
+        }
+    }
+
+    // Group commit: the first waiter forces everything appended so far; the rest find their record already durable
+    private void awaitDurable(long seq) {
+        if (durableSeq.get() >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSeq.get() >= seq) {
+                return;
+            }
+            try {
+                long target;
+                FileChannel channel;
+                synchronized (appendLock) {
+                    target = appendedSeq;
+                    writePending();
+                    channel = log;
+                }
+                // A cutover in the meantime forced this channel itself and keeps it open until compacted
+                channel.force(false);
+                durableSeq.accumulateAndGet(target, Math::max);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to sync customer log: " + logPath, e);
+            }
+        }
+    }
+
+    // Caller holds appendLock
+    private long put(Customer customer) {
+        Customer previous = customers.getCustomerFromId(customer.getId());
+        if (previous != null) {
+            previous.removeChangeListener(changeLogger);
+        }
+        state.consume(customer.getId());
+        customers.createCustomer(customer);
+        customer.addChangeListener(changeLogger);
+        return append(PUT, out -> CustomerCodec.writeCustomer(out, customer));
+    }
+
+    private void commit(long seq) {
+        long[] lastSeq = bulkSeq.get();
+        if (lastSeq != null) {
+            lastSeq[0] = Math.max(lastSeq[0], seq);
+        } else {
+            awaitDurable(seq);
+        }
+    }
+
+    private void writePending() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(pending.buffer(), 0, pending.size());
+        while (bytes.hasRemaining()) {
+            log.write(bytes);
+        }
+        pending.reset();
+    }
+
+    // Caller holds appendLock; makes the current log durable and hands it to the compactor
+    private void cutOver() throws IOException {
+        writePending();
+        log.force(false);
+        durableSeq.accumulateAndGet(appendedSeq, Math::max);
+
+        Files.move(logPath, compactingLogPath, StandardCopyOption.ATOMIC_MOVE);
+        compactingLog = log;
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recordsSinceSnapshot = 0;
+
+        long cutoverSeq = appendedSeq;
+        compaction = compactor.submit(() -> compact(cutoverSeq));
+    }
+
+    // Runs on the compactor thread: previous snapshot file + compacting log -> new snapshot file
+    private void compact(long cutoverSeq) {
+        try {
+            CustomerSnapshot base = Files.exists(snapshotPath) ? CustomerSnapshot.open(snapshotPath) : null;
+            try {
+                SnapshotOverlay merged = new SnapshotOverlay(new InMemoryCustomerRepository(), base);
+                FileChannel source;
+                synchronized (appendLock) {
+                    source = compactingLog;
+                }
+                merged.replay(source);
+
+                Path tempPath = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+                CustomerSnapshot.write(tempPath, cutoverSeq, merged.customers.getAllCustomers(), base, merged.consumed);
+                Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                if (base != null) {
+                    base.close();
+                }
+            }
+
+            // syncLock first, so no group commit is still forcing the channel being closed
+            synchronized (syncLock) {
+                synchronized (appendLock) {
+                    compactingLog.close();
+                    compactingLog = null;
+                    Files.delete(compactingLogPath);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write snapshot: " + snapshotPath, e);
+        }
+    }
+
+    private void awaitCompaction(Future<?> running) throws IOException {
+        if (running == null) {
+            return;
+        }
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for snapshot: " + snapshotPath, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Snapshot failed: " + snapshotPath, e.getCause());
+        }
+    }
+
+    private class ChangeLogger implements CustomerChangeListener {
+        @Override
+        public void onCustomerChanged(Customer customer, CustomerField field, String oldValue, String newValue) {
+            long seq;
+            synchronized (appendLock) {
+                seq = append(FIELD, out -> {
+                    out.writeInt(customer.getId());
+                    CustomerCodec.writeField(out, field, newValue);
+                });
+            }
+            commit(seq);
+        }
+
+        @Override
+        public void onContactDetailsChanged(Customer customer) {
+            long seq;
+            synchronized (appendLock) {
+                seq = append(CONTACT, out -> {
+                    out.writeInt(customer.getId());
+                    CustomerCodec.writeContactDetails(out, customer);
+                });
+            }
+            commit(seq);
+        }
+
+        @Override
+        public void onInteractionAdded(Customer customer, Interaction interaction) {
+            long seq;
+            synchronized (appendLock) {
+                seq = append(INTERACTION, out -> {
+                    out.writeInt(customer.getId());
+                    CustomerCodec.writeInteraction(out, interaction);
+                });
+            }
+            commit(seq);
+        }
+    }
+
+    /*
+     * Customers that have been loaded or written, layered over the snapshot
+     * slots they supersede. Recovery replays logs into the live overlay, and
+     * the compactor replays the compacting log into a private one.
+     */
+    private static final class SnapshotOverlay {
+        final CustomerRepository customers;
+        final CustomerSnapshot snapshot;
+        // Snapshot slots that are materialized, deleted or overwritten
+        final BitSet consumed = new BitSet();
+        final CRC32 crc = new CRC32();
+        long lastSequence;
+
+        SnapshotOverlay(CustomerRepository customers, CustomerSnapshot snapshot) {
+            this.customers = customers;
+            this.snapshot = snapshot;
+            this.lastSequence = snapshot == null ? 0 : snapshot.getLastSequence();
+        }
+
+        // Decodes a customer that is still only in the snapshot; null if it is not there
+        Customer load(int customerId) throws IOException {
+            if (snapshot == null) {
+                return null;
+            }
+            int slot = snapshot.slotOf(customerId);
+            if (slot < 0 || consumed.get(slot)) {
+                return null;
+            }
+            Customer customer = snapshot.read(slot);
+            consumed.set(slot);
+            customers.createCustomer(customer);
+            return customer;
+        }
+
+        // The snapshot copy of this customer is superseded from now on
+        boolean consume(int customerId) {
+            if (snapshot == null) {
+                return false;
+            }
+            int slot = snapshot.slotOf(customerId);
+            if (slot < 0 || consumed.get(slot)) {
+                return false;
+            }
+            consumed.set(slot);
+            return true;
+        }
+
+        // Returns true if the customer existed, live or still in the snapshot
+        boolean remove(int customerId) {
+            Customer removed = customers.getCustomerFromId(customerId);
+            if (removed == null) {
+                return consume(customerId);
+            }
+            customers.deleteCustomer(removed);
+            return true;
+        }
+
+        // Applies every valid record from the start of the channel; returns the length of the valid prefix
+        long replay(FileChannel channel) throws IOException {
+            long logSize = channel.size();
+            long validLength = 0;
+            channel.position(0);
+            // Not closed here: closing the stream would close the channel as well
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > logSize - validLength - 8) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                apply(new DataInputStream(new ByteArrayInputStream(payload)));
+                validLength += 8 + length;
+            }
+            return validLength;
+        }
+
+        private void apply(DataInputStream in) throws IOException {
+            long seq = in.readLong();
+            if (seq <= lastSequence) {
+                return;
+            }
+            lastSequence = seq;
+            byte type = in.readByte();
+
+            if (type == PUT) {
+                Customer customer = CustomerCodec.readCustomer(in);
+                consume(customer.getId());
+                customers.createCustomer(customer);
+                return;
+            }
+
+            int customerId = in.readInt();
+            if (type == DELETE) {
+                remove(customerId);
+                return;
+            }
+            Customer customer = customers.getCustomerFromId(customerId);
+            if (customer == null) {
+                customer = load(customerId);
+            }
+            if (customer == null) {
+                return;
+            }
+            switch (type) {
+                case FIELD:
+                    CustomerCodec.readField(in, customer);
+                    break;
+                case CONTACT:
+                    CustomerCodec.readContactDetails(in, customer);
+                    break;
+                case INTERACTION:
+                    customer.addInteraction(CustomerCodec.readInteraction(in));
+                    break;
+                default:
+                    throw new IOException("Unknown customer log record type: " + type);
+            }
+        }
+    }
+}
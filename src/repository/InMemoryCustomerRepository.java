@@ -8,41 +8,61 @@ package repository;
 
 import customer.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class InMemoryCustomerRepository implements CustomerRepository {
-    private final ArrayList<Customer> customers = new ArrayList<>();
+    private final IntCustomerMap customers = new IntCustomerMap();
+    private final CustomerIndexes indexes = new CustomerIndexes();
 
     @Override
     public void createCustomer(Customer customer) {
-        customers.add(customer);
+        Customer previous = customers.put(customer.getId(), customer);
+        if (previous != null) {
+            indexes.remove(previous);
+        }
+        indexes.add(customer);
     }
 
     @Override
     public void updateCustomer(Customer customer) {
-        Customer oldCustomer = getCustomerFromId(customer.getId());
-        deleteCustomer(oldCustomer);
         createCustomer(customer);
     }
 
     @Override
     public void deleteCustomer(Customer customer) {
-        customers.remove(customer);
+        Customer removed = customers.remove(customer.getId());
+        if (removed != null) {
+            indexes.remove(removed);
+        }
     }
 
     @Override
     public Customer getCustomerFromId(int customerId) {
-        for (Customer customer : customers) {
-            if (customer.getId() == customerId) {
-                return customer;
-            }
-        }
-        return null;
+        return customers.get(customerId);
     }
 
     @Override
     public List<Customer> getAllCustomers() {
-        return customers;
+        return customers.values();
+    }
+
+    @Override
+    public List<Customer> findByEmail(String email) {
+        return indexes.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findByPhone(String phone) {
+        return indexes.findByPhone(phone);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix) {
+        return findByNamePrefix(namePrefix, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String namePrefix, int limit) {
+        return indexes.findByNamePrefix(namePrefix, limit);
     }
 }
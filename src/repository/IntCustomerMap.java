@@ -0,0 +1,177 @@
+/*
+ * 	Author: Ryan Jackson & Ryan Buck
+ * 	Created: 12/10/2025
+ * 	Final Project - Console Customer Relationship Management Tool
+ */
+
+package repository;
+
+import customer.Customer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Open-addressing hash map from primitive int keys to customers. The hash table
+ * only stores positions into dense key/value arrays, so iteration stays in
+ * insertion order (until a removal swaps the last entry into the freed spot)
+ * and no Integer boxing happens on lookup.
+ */
+final class IntCustomerMap {
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] slots;
+    private int mask;
+
+    private int[] keys;
+    private Customer[] values;
+    private int size;
+
+    IntCustomerMap() {
+        this(MIN_CAPACITY);
+    }
+
+    IntCustomerMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(expectedSize, MIN_CAPACITY) * 2);
+        slots = new int[capacity];
+        mask = capacity - 1;
+        keys = new int[Math.max(expectedSize, MIN_CAPACITY)];
+        values = new Customer[keys.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Customer get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    Customer put(int key, Customer value) {
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (keys[entry - 1] == key) {
+                Customer previous = values[entry - 1];
+                values[entry - 1] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        slots[slot] = size;
+
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return null;
+    }
+
+    Customer remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        int index = slots[slot] - 1;
+        Customer removed = values[index];
+        deleteSlot(slot);
+
+        int last = size - 1;
+        if (index != last) {
+            keys[index] = keys[last];
+            values[index] = values[last];
+            slots[slotOf(keys[index])] = index + 1;
+        }
+        values[last] = null;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(slots, EMPTY);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    List<Customer> values() {
+        List<Customer> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(values[i]);
+        }
+        return result;
+    }
+
+    private int indexOf(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? -1 : slots[slot] - 1;
+    }
+
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (keys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones.
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        int entry;
+        while ((entry = slots[next]) != EMPTY) {
+            int home = hash(keys[entry - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = entry;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(n - 1) << 1;
+        return Math.max(capacity, MIN_CAPACITY);
+    }
+}
@@ -6,30 +6,63 @@
 
 package test;
 
+import campaign.CampaignRunner;
 import crm.controller.CRMController;
+import crm.controller.CommandJournal;
+import crm.observer.AsyncObserver;
 import crm.observer.FileLogger;
+import crm.observer.LogFileWriter;
+import crm.observer.RotationPolicy;
 import crm.observer.SalesLogger;
 import customer.*;
 import crm.controller.command.*;
+import notification.EmailNotification;
+import notification.NotificationDispatcher;
+import notification.NotificationOutbox;
+import notification.NotificationRateLimiter;
+import notification.SMSNotification;
+import notification.TokenBucket;
 import repository.CustomerRepository;
-import repository.InMemoryCustomerRepository;
+import repository.FileCustomerRepository;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 public class ConsoleCRM {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         clear();
         Scanner scanner = new Scanner(System.in);
 
-        CustomerRepository customerRepository = new InMemoryCustomerRepository();
-        customerRepository.createCustomer(new RegularCustomer("John Brown", "john.brown@tomato.mail", "123-123-1234"));
-        customerRepository.createCustomer(new RegularCustomer("Alice Sharp", "alice.sharp@olive.mail", "987-987-9876"));
-        customerRepository.createCustomer(new LeadCustomer("President Greeble", "greeble@whitehouse.gov", "111-222-3333"));
-        customerRepository.createCustomer(new VIPCustomer("Big Tim", "bigtim123@hotmail.com", "123-456-7890"));
-        customerRepository.createCustomer(new LostCustomer("Old Man Jenkins", "jenkins@aol.com", "321-654-0987"));
+        // Set up before any customer is loaded; each customer keeps 4 chunks of history in memory
+        Path dataDirectory = Files.createDirectories(Paths.get("crm_data"));
+        FileInteractionSpillStore historySpill = new FileInteractionSpillStore(dataDirectory.resolve("interactions.spill"));
+        Customer.setHistorySpillStore(historySpill, 4);
+
+        FileCustomerRepository customerRepository = new FileCustomerRepository(dataDirectory);
+        if (customerRepository.isEmpty()) {
+            customerRepository.createCustomer(new RegularCustomer("John Brown", "john.brown@tomato.mail", "123-123-1234"));
+            customerRepository.createCustomer(new RegularCustomer("Alice Sharp", "alice.sharp@olive.mail", "987-987-9876"));
+            customerRepository.createCustomer(new LeadCustomer("President Greeble", "greeble@whitehouse.gov", "111-222-3333"));
+            customerRepository.createCustomer(new VIPCustomer("Big Tim", "bigtim123@hotmail.com", "123-456-7890"));
+            customerRepository.createCustomer(new LostCustomer("Old Man Jenkins", "jenkins@aol.com", "321-654-0987"));
+        }
 
-        CRMController crm = getCrmController(customerRepository);
+        // Stay under provider throttles: bursts of 50 texts refilled at 10 per second, 200 emails at 50 per second
+        NotificationRateLimiter rateLimiter = new NotificationRateLimiter();
+        rateLimiter.setChannelLimit(SMSNotification.class, new TokenBucket(50, 10));
+        rateLimiter.setChannelLimit(EmailNotification.class, new TokenBucket(200, 50));
+        NotificationDispatcher notificationDispatcher = new NotificationDispatcher(rateLimiter);
+        // Single messages go through the outbox so they survive a crash; anything left over is sent on the next start
+        NotificationOutbox outbox = new NotificationOutbox(dataDirectory.resolve("outbox"),
+                customerRepository::getCustomerFromId, notificationDispatcher);
+        // Every change made at the console is journaled so the session can be replayed with CommandReplayer
+        CommandJournal journal = new CommandJournal(dataDirectory.resolve("commands.journal"));
+        CRMController crm = getCrmController(customerRepository, notificationDispatcher, outbox, journal);
 
         while (true) {
             System.out.println("========= CRM Commands ===========");
@@ -61,24 +94,38 @@ public class ConsoleCRM {
             clear();
         }
 
+        outbox.close();
+        notificationDispatcher.close();
+        crm.close();
+        journal.close();
+        customerRepository.close();
+        historySpill.close();
         scanner.close();
     }
 
-    private static CRMController getCrmController(CustomerRepository customerRepository) {
-        CRMController crm = new CRMController();
-
-        // Register loggers
-        FileLogger fileLogger = new FileLogger("crm_activity.log");
-        SalesLogger salesLogger = new SalesLogger("sales.log");
-        crm.addObserver(fileLogger);
-        crm.addObserver(salesLogger);
+    private static CRMController getCrmController(CustomerRepository customerRepository,
+                                                  NotificationDispatcher notificationDispatcher,
+                                                  NotificationOutbox outbox,
+                                                  CommandJournal journal) {
+        CRMController crm = new CRMController(UndoLog.DEFAULT_DEPTH, journal, customerRepository);
+
+        // Register loggers; file writes happen on their own threads instead of after every command
+        // Logs roll over at 10 MB or daily, old segments are gzipped and kept for 30 days
+        RotationPolicy rotation = new RotationPolicy(10L * 1024 * 1024, TimeUnit.DAYS.toMillis(1), 0,
+                TimeUnit.DAYS.toMillis(30), true);
+        FileLogger fileLogger = new FileLogger("crm_activity.log", LogFileWriter.Durability.PERIODIC, 1000, rotation);
+        SalesLogger salesLogger = new SalesLogger("sales.log", LogFileWriter.Durability.PERIODIC, 1000, rotation);
+        crm.addObserver(new AsyncObserver(fileLogger));
+        crm.addObserver(new AsyncObserver(salesLogger));
 
         CRMCommand createCustomerCommand = new CreateCustomerCommand(customerRepository);
         CRMCommand updateCustomerCommand = new UpdateCustomerCommand(customerRepository);
         CRMCommand deleteCustomerCommand = new DeleteCustomerCommand(customerRepository);
         CRMCommand makeSaleCommand = new MakeSaleCommand(customerRepository);
-        CRMCommand contactCustomerCommand = new ContactCustomerCommand(customerRepository);
+        CRMCommand contactCustomerCommand = new ContactCustomerCommand(customerRepository, outbox);
         CRMCommand viewCustomerHistoryCommand = new ViewCustomerHistoryCommand(customerRepository);
+        CRMCommand sendCampaignCommand = new SendCampaignCommand(new CampaignRunner(customerRepository,
+                notificationDispatcher, Runtime.getRuntime().availableProcessors(), CampaignRunner.DEFAULT_CHUNK_SIZE));
 
         crm.addCommand(createCustomerCommand);
         crm.addCommand(updateCustomerCommand);
@@ -86,6 +133,7 @@ public class ConsoleCRM {
         crm.addCommand(makeSaleCommand);
         crm.addCommand(contactCustomerCommand);
         crm.addCommand(viewCustomerHistoryCommand);
+        crm.addCommand(sendCampaignCommand);
         return crm;
     }
 
@@ -0,0 +1,151 @@
+package campaign;
+
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.Interaction;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import notification.Notification;
+import notification.NotificationDispatcher;
+import notification.SMSNotification;
+import notification.SimulatedLatencyProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CampaignRunnerTest {
+
+    private CustomerRepository repository;
+    private NotificationDispatcher dispatcher;
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentCustomerRepository();
+        dispatcher = new NotificationDispatcher();
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+        System.setOut(originalOut);
+    }
+
+    private void addCustomers(int count) {
+        for (int i = 0; i < count; i++) {
+            Customer customer = i % 4 == 0
+                    ? new VIPCustomer(70000 + i, "VIP " + i, "vip" + i + "@example.com", "555-" + i)
+                    : new RegularCustomer(70000 + i, "Regular " + i, "regular" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customer);
+        }
+    }
+
+    @Test
+    void testSendsOnlyToSegmentAndRecordsInteractions() {
+        // Arrange
+        addCustomers(100);
+        List<Notification> sent = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerChannel(SMSNotification.class, sent::addAll, 2, 10);
+        CampaignRunner runner = new CampaignRunner(repository, dispatcher, 3, 7);
+        Campaign campaign = new Campaign("VIP Preview", Segment.ofType(VIPCustomer.class),
+                new MessageTemplate("Hi {name}, early access is open"));
+
+        // Act
+        CampaignReport report = runner.run(campaign);
+
+        // Assert
+        assertEquals(100, report.getCustomersScanned());
+        assertEquals(25, report.getMatched());
+        assertEquals(25, report.getSent());
+        assertEquals(0, report.getFailed());
+        assertEquals(25, sent.size());
+        assertTrue(sent.stream().anyMatch(notification -> notification.getMessage().equals("Hi VIP 40, early access is open")));
+
+        Customer vip = repository.getCustomerFromId(70040);
+        List<Interaction> history = vip.getInteractionHistory();
+        assertEquals(1, history.size());
+        assertEquals(EventType.NOTIFICATION_SENT, history.get(0).getEventType());
+        assertEquals("Campaign 'VIP Preview' sent via SMS", history.get(0).getDetails());
+        assertNotNull(vip.getLastContact());
+        assertEquals(0, repository.getCustomerFromId(70001).getInteractionCount());
+    }
+
+    @Test
+    void testFailedSendsAreCountedAndNotRecorded() {
+        // Arrange
+        addCustomers(20);
+        dispatcher.registerChannel(SMSNotification.class, batch -> {
+            throw new IllegalStateException("Gateway unavailable");
+        }, 1, 100);
+        CampaignRunner runner = new CampaignRunner(repository, dispatcher, 2, 5);
+
+        // Act
+        CampaignReport report = runner.run(new Campaign("Outage", Segment.all(), new MessageTemplate("Hello")));
+
+        // Assert
+        assertEquals(20, report.getFailed());
+        assertEquals(0, report.getSent());
+        assertEquals(0, repository.getCustomerFromId(70000).getInteractionCount());
+        assertNull(repository.getCustomerFromId(70000).getLastContact());
+    }
+
+    @Test
+    void testWithoutDispatcherSendsThroughPreferredMethod() {
+        // Arrange
+        repository.createCustomer(new LeadCustomer(80000, "Lead", "lead@example.com", "555-9999"));
+        CampaignRunner runner = new CampaignRunner(repository, null, 1, 10);
+
+        // Act
+        CampaignReport report = runner.run(new Campaign("Welcome", Segment.all(), new MessageTemplate("Welcome {name}")));
+
+        // Assert
+        assertEquals(1, report.getSent());
+        assertTrue(outContent.toString().contains("Sent: 'Welcome Lead' to 555-9999"));
+    }
+
+    @Test
+    void testProgressIsReportedPerChunk() {
+        // Arrange
+        addCustomers(50);
+        dispatcher.registerChannel(SMSNotification.class, batch -> { }, 4, 100);
+        CampaignRunner runner = new CampaignRunner(repository, dispatcher, 4, 10);
+        List<Long> processed = new ArrayList<>();
+
+        // Act
+        runner.run(new Campaign("Everyone", Segment.all(), new MessageTemplate("Hello")),
+                (done, total, sent, failed) -> processed.add(done));
+
+        // Assert
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L), processed);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkMillionRecipientCampaign() {
+        int customers = Integer.getInteger("crm.benchmark.customers", 1_000_000);
+        addCustomers(customers);
+        // A gateway with a 20 ms round trip and 20 us per message, 16 requests in flight
+        SimulatedLatencyProvider provider = new SimulatedLatencyProvider(20, 20);
+        dispatcher.registerChannel(SMSNotification.class, provider, 16, 1000);
+        CampaignRunner runner = new CampaignRunner(repository, dispatcher, 8, CampaignRunner.DEFAULT_CHUNK_SIZE);
+
+        CampaignReport report = runner.run(new Campaign("Benchmark", Segment.all(), new MessageTemplate("Hi {name}")));
+
+        originalOut.println(report + " (" + provider.getBatchCount() + " gateway batches)");
+        assertEquals(customers, report.getSent());
+    }
+}
@@ -0,0 +1,36 @@
+package campaign;
+
+import customer.Customer;
+import customer.RegularCustomer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @Test
+    void testPlaceholdersAreFilledIn() {
+        // Arrange
+        Customer customer = new RegularCustomer(64001, "Alice Sharp", "alice@example.com", "555-1234");
+        MessageTemplate template = new MessageTemplate("Hi {name} ({id}), we will email {email} or text {phone}.");
+
+        // Act
+        String message = template.render(customer);
+
+        // Assert
+        assertEquals("Hi Alice Sharp (64001), we will email alice@example.com or text 555-1234.", message);
+    }
+
+    @Test
+    void testUnknownAndUnclosedBracesStayAsText() {
+        // Arrange
+        Customer customer = new RegularCustomer(64002, "Bob", "bob@example.com", "555-5678");
+        MessageTemplate template = new MessageTemplate("{discount} off for {name} {");
+
+        // Act
+        String message = template.render(customer);
+
+        // Assert
+        assertEquals("{discount} off for Bob {", message);
+    }
+}
@@ -0,0 +1,61 @@
+package campaign;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentTest {
+
+    @Test
+    void testOfTypeMatchesOnlyThatSubclass() {
+        // Arrange
+        Segment vips = Segment.ofType(VIPCustomer.class);
+
+        // Act & Assert
+        assertTrue(vips.matches(new VIPCustomer("Big Tim", "tim@example.com", "555-0001")));
+        assertFalse(vips.matches(new LeadCustomer("New Lead", "lead@example.com", "555-0002")));
+    }
+
+    @Test
+    void testNotContactedForMatchesStaleAndNeverContacted() {
+        // Arrange
+        Segment stale = Segment.notContactedFor(30);
+        Customer never = new RegularCustomer("Never", "never@example.com", "555-0003");
+        Customer old = new RegularCustomer("Old", "old@example.com", "555-0004");
+        old.setLastContact(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(45)));
+        Customer recent = new RegularCustomer("Recent", "recent@example.com", "555-0005");
+        recent.setLastContact(new Date());
+
+        // Act & Assert
+        assertTrue(stale.matches(never));
+        assertTrue(stale.matches(old));
+        assertFalse(stale.matches(recent));
+    }
+
+    @Test
+    void testSegmentsCombine() {
+        // Arrange
+        Customer vip = new VIPCustomer("Big Tim", "tim@example.com", "555-0001");
+        Customer lead = new LeadCustomer("New Lead", "lead@example.com", "555-0002");
+        vip.setLastContact(new Date());
+
+        // Act
+        Segment staleVips = Segment.ofType(VIPCustomer.class).and(Segment.notContactedFor(7));
+        Segment vipsOrLeads = Segment.ofType(VIPCustomer.class).or(Segment.ofType(LeadCustomer.class));
+        Segment notVips = Segment.ofType(VIPCustomer.class).negate();
+
+        // Assert
+        assertFalse(staleVips.matches(vip));
+        assertTrue(vipsOrLeads.matches(vip));
+        assertTrue(vipsOrLeads.matches(lead));
+        assertTrue(notVips.matches(lead));
+        assertTrue(Segment.all().matches(vip));
+    }
+}
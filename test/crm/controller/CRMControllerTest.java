@@ -1,19 +1,48 @@
 package crm.controller;
 
 import crm.controller.command.CRMCommand;
+import crm.controller.command.CommandResult;
+import crm.controller.command.CreateCustomerCommand;
+import crm.controller.command.MakeSaleCommand;
+import crm.controller.command.UndoLog;
+import crm.controller.command.UpdateCustomerCommand;
+import crm.controller.command.request.CreateCustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.controller.command.request.UpdateCustomerRequest;
+import crm.observer.AsyncObserver;
 import crm.observer.CRMObserver;
+import crm.observer.FileLogger;
+import crm.observer.LogFileWriter;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
+import customer.Customer;
+import customer.CustomerField;
+import customer.CustomerType;
+import customer.Interaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
 
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+import repository.FileCustomerRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CRMControllerTest {
 
+    @TempDir
+    Path tempDir;
+
     private CRMController controller;
 
     // Mock command for testing
@@ -349,6 +378,70 @@ class CRMControllerTest {
         assertEquals(1, observer2.getEventCount(), "Remaining observer should receive event");
     }
 
+    @Test
+    void testObserverOnlyReceivesEventTypesItRegisteredFor() {
+        // Arrange
+        MockObserver salesOnly = new MockObserver();
+        MockObserver everything = new MockObserver();
+        controller.addObserver(salesOnly, EnumSet.of(EventType.SALE_MADE));
+        controller.addObserver(everything);
+
+        // Act
+        controller.notifyObservers(new CRMEvent(EventType.CUSTOMER_CREATED, 1));
+        controller.notifyObservers(new CRMEvent(EventType.SALE_MADE, 1));
+        controller.notifyObservers(new CRMEvent(EventType.COMMAND_UNDONE));
+
+        // Assert
+        assertEquals(1, salesOnly.getEventCount());
+        assertEquals(EventType.SALE_MADE, salesOnly.getReceivedEvents().get(0).getEventType());
+        assertEquals(3, everything.getEventCount());
+    }
+
+    @Test
+    void testObserverDeclaredInterestsAreUsedOnRegistration() throws Exception {
+        // Arrange
+        List<EventType> logged = new ArrayList<>();
+        CRMObserver salesObserver = new CRMObserver() {
+            @Override
+            public void onEvent(EventType eventType) {
+            }
+
+            @Override
+            public void onEvent(CRMEvent crmEvent) {
+                logged.add(crmEvent.getEventType());
+            }
+
+            @Override
+            public Set<EventType> getInterests() {
+                return EnumSet.of(EventType.SALE_MADE, EventType.COMMAND_UNDONE);
+            }
+        };
+        controller.addObserver(new AsyncObserver(salesObserver));
+
+        // Act
+        for (EventType type : EventType.values()) {
+            controller.notifyObservers(new CRMEvent(type));
+        }
+        controller.flush();
+
+        // Assert
+        assertEquals(List.of(EventType.SALE_MADE, EventType.COMMAND_UNDONE), logged);
+    }
+
+    @Test
+    void testRemovingFilteredObserverStopsItsEvents() {
+        // Arrange
+        MockObserver observer = new MockObserver();
+        controller.addObserver(observer, EnumSet.of(EventType.CUSTOMER_DELETED));
+
+        // Act
+        controller.removeObserver(observer);
+        controller.notifyObservers(new CRMEvent(EventType.CUSTOMER_DELETED, 5));
+
+        // Assert
+        assertEquals(0, observer.getEventCount());
+    }
+
     @Test
     void testObserverReceivesMultipleEvents() {
         // Arrange
@@ -463,4 +556,381 @@ class CRMControllerTest {
         assertEquals(listingBefore.get(0), listingAfter.get(0));
         assertEquals(listingBefore.get(1), listingAfter.get(1));
     }
+
+    @Test
+    void testFlushAndCloseReachEveryObserver() {
+        // Arrange
+        List<String> calls = new ArrayList<>();
+        CRMObserver observer = new CRMObserver() {
+            @Override
+            public void onEvent(EventType eventType) {
+            }
+
+            @Override
+            public void onEvent(CRMEvent crmEvent) {
+            }
+
+            @Override
+            public void flush() {
+                calls.add("flush");
+            }
+
+            @Override
+            public void close() {
+                calls.add("close");
+            }
+        };
+        controller.addObserver(observer);
+
+        // Act
+        controller.flush();
+        controller.close();
+
+        // Assert
+        assertEquals(List.of("flush", "close"), calls);
+    }
+
+    // ==================== Headless Execution Tests ====================
+
+    @Test
+    void testExecuteRequestDispatchesToRegisteredCommand() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        MockObserver observer = new MockObserver();
+        controller.addObserver(observer);
+
+        // Act
+        CommandResult<Customer> result = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-0000"));
+
+        // Assert
+        assertSame(result.getValue(), repository.getCustomerFromId(result.getValue().getId()));
+        assertEquals(1, observer.getEventCount());
+        assertSame(result.getEvent(), observer.getReceivedEvents().get(0));
+    }
+
+    @Test
+    void testExecuteRequestCanBeUndone() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        CommandResult<Customer> result = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Regular", "regular@example.com", "555-0000"));
+
+        // Act
+        controller.undoCommand();
+
+        // Assert
+        assertNull(repository.getCustomerFromId(result.getValue().getId()));
+    }
+
+    @Test
+    void testUndoReversesEachExecutionInTurn() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new UpdateCustomerCommand(repository));
+        controller.addCommand(new MakeSaleCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Original", "original@example.com", "555-0000")).getValue();
+        int customerId = customer.getId();
+        controller.execute(new UpdateCustomerRequest(customerId, CustomerField.NAME, "First"));
+        controller.execute(new MakeSaleRequest(customerId));
+        controller.execute(new UpdateCustomerRequest(customerId, CustomerField.NAME, "Second"));
+
+        // Act & Assert
+        controller.undoCommand();
+        assertEquals("First", customer.getName());
+
+        controller.undoCommand();
+        assertEquals(EventType.COMMAND_UNDONE, customer.getInteractionHistory().get(customer.getInteractionCount() - 1).getEventType());
+
+        controller.undoCommand();
+        assertEquals("Original", customer.getName());
+
+        controller.undoCommand();
+        assertNull(repository.getCustomerFromId(customerId));
+    }
+
+    @Test
+    void testUndoSkipsRequestsThatChangedNothing() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new UpdateCustomerCommand(repository));
+        controller.addCommand(new CreateCustomerCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+        controller.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.EMAIL, "new@example.com"));
+        controller.execute(new UpdateCustomerRequest(-1, CustomerField.EMAIL, "missing@example.com"));
+
+        // Act
+        controller.undoCommand();
+
+        // Assert
+        assertEquals("vip@example.com", customer.getEmail());
+        assertNotNull(repository.getCustomerFromId(customer.getId()));
+    }
+
+    @Test
+    void testUndoDepthEvictsOldestExecutions() {
+        // Arrange
+        controller = new CRMController(2);
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new UpdateCustomerCommand(repository));
+        controller.addCommand(new CreateCustomerCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Name 0", "lead@example.com", "555-0000")).getValue();
+        for (int i = 1; i <= 4; i++) {
+            controller.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Name " + i));
+        }
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            controller.undoCommand();
+        }
+
+        // Assert - only the two newest renames were still in the log
+        assertEquals("Name 2", customer.getName());
+        assertNotNull(repository.getCustomerFromId(customer.getId()));
+    }
+
+    @Test
+    void testCommandsShareTheControllersUndoLog() {
+        // Arrange
+        controller = new CRMController(2);
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        UpdateCustomerCommand update = new UpdateCustomerCommand(repository);
+        controller.addCommand(update);
+        controller.addCommand(new CreateCustomerCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Name 0", "lead@example.com", "555-0000")).getValue();
+        for (int i = 1; i <= 4; i++) {
+            controller.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Name " + i));
+        }
+
+        // Act
+        update.undo();
+        controller.undoCommand();
+        for (int i = 0; i < 3; i++) {
+            update.undo();
+        }
+
+        // Assert - the command's own undo sees the same two entries the controller keeps
+        assertEquals("Name 2", customer.getName());
+        assertNotNull(repository.getCustomerFromId(customer.getId()));
+    }
+
+    @Test
+    void testExecuteRequestWithoutRegisteredCommandThrows() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.execute(new MakeSaleRequest(1)));
+    }
+
+    @Test
+    void testExecuteRequestsConcurrently() throws InterruptedException {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new MakeSaleCommand(repository));
+        int threadCount = 8;
+        int perThread = 500;
+        AtomicInteger sales = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    Customer customer = controller.execute(
+                            new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+                    CommandResult<Interaction> sale = controller.execute(new MakeSaleRequest(customer.getId()));
+                    if (sale.hasValue()) {
+                        sales.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(threadCount * perThread, repository.getAllCustomers().size());
+        assertEquals(threadCount * perThread, sales.get());
+    }
+
+    // ==================== Batch Execution Tests ====================
+
+    // Records how each event arrived, one call or one batch at a time
+    private static class BatchRecordingObserver implements CRMObserver {
+        private final List<List<CRMEvent>> batches = new ArrayList<>();
+        private int singleEvents;
+
+        @Override
+        public void onEvent(EventType eventType) {
+            singleEvents++;
+        }
+
+        @Override
+        public void onEvent(CRMEvent crmEvent) {
+            singleEvents++;
+        }
+
+        @Override
+        public void onEvents(List<CRMEvent> crmEvents) {
+            batches.add(new ArrayList<>(crmEvents));
+        }
+    }
+
+    @Test
+    void testExecuteBatchPublishesOneBatchPerObserver() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller = new CRMController(UndoLog.DEFAULT_DEPTH, null, repository);
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new MakeSaleCommand(repository));
+        BatchRecordingObserver everything = new BatchRecordingObserver();
+        BatchRecordingObserver salesOnly = new BatchRecordingObserver();
+        BatchRecordingObserver viewsOnly = new BatchRecordingObserver();
+        controller.addObserver(everything);
+        controller.addObserver(salesOnly, EnumSet.of(EventType.SALE_MADE));
+        controller.addObserver(viewsOnly, EnumSet.of(EventType.VIEW_HISTORY));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+
+        // Act
+        List<CommandResult<?>> results = controller.executeBatch(List.of(
+                new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-1111"),
+                new MakeSaleRequest(customer.getId()),
+                new MakeSaleRequest(-1),
+                new MakeSaleRequest(customer.getId())));
+
+        // Assert
+        assertEquals(4, results.size());
+        assertFalse(results.get(2).hasValue());
+        assertEquals(1, everything.singleEvents);
+        assertEquals(1, everything.batches.size());
+        assertEquals(4, everything.batches.get(0).size());
+        assertEquals(EventType.CUSTOMER_CREATED, everything.batches.get(0).get(0).getEventType());
+        assertEquals(1, salesOnly.batches.size());
+        assertEquals(3, salesOnly.batches.get(0).size());
+        assertTrue(viewsOnly.batches.isEmpty());
+    }
+
+    @Test
+    void testBatchNeedsTheRepositoryItsCommandsUse() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        List<CreateCustomerRequest> batch = List.of(
+                new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-1111"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> controller.executeBatch(batch));
+        assertThrows(NullPointerException.class, () -> controller.executeBatch(batch, null));
+        assertEquals(0, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testBatchExecutionsCanBeUndoneOneByOne() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new UpdateCustomerCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Name 0", "regular@example.com", "555-0000")).getValue();
+        controller.executeBatch(List.of(
+                new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Name 1"),
+                new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Name 2")), repository);
+
+        // Act
+        controller.undoCommand();
+
+        // Assert
+        assertEquals("Name 1", customer.getName());
+    }
+
+    @Test
+    void testFailedBatchStillPublishesCompletedCommands() {
+        // Arrange
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        controller.addCommand(new CreateCustomerCommand(repository));
+        BatchRecordingObserver observer = new BatchRecordingObserver();
+        controller.addObserver(observer);
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> controller.executeBatch(List.of(
+                new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-1111"),
+                new MakeSaleRequest(1)), repository));
+
+        // Assert
+        assertEquals(1, repository.getAllCustomers().size());
+        assertEquals(1, observer.batches.size());
+        assertEquals(1, observer.batches.get(0).size());
+    }
+
+    @Test
+    void testBatchOnDurableRepositorySurvivesReopen() throws IOException {
+        // Arrange
+        FileCustomerRepository repository = new FileCustomerRepository(tempDir.resolve("data"));
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new MakeSaleCommand(repository));
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+        List<MakeSaleRequest> sales = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sales.add(new MakeSaleRequest(customer.getId()));
+        }
+
+        // Act
+        controller.executeBatch(sales, repository);
+        repository.close();
+        FileCustomerRepository reopened = new FileCustomerRepository(tempDir.resolve("data"));
+
+        // Assert
+        assertEquals(customer.getInteractionCount(), reopened.getCustomerFromId(customer.getId()).getInteractionCount());
+        reopened.close();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkBatchAgainstOneAtATime() throws IOException {
+        int commands = Integer.getInteger("crm.benchmark.events", 20_000);
+        for (int batchSize : new int[]{1, 10, 100, 1000}) {
+            Path directory = tempDir.resolve("bench-" + batchSize);
+            FileCustomerRepository repository = new FileCustomerRepository(directory);
+            CommandJournal journal = new CommandJournal(directory.resolve("commands.journal"));
+            CRMController bench = new CRMController(100, journal);
+            bench.addCommand(new CreateCustomerCommand(repository));
+            bench.addCommand(new MakeSaleCommand(repository));
+            bench.addObserver(new FileLogger(directory.resolve("activity.log").toString()));
+            bench.addObserver(new AsyncObserver(new FileLogger(directory.resolve("async.log").toString())));
+            Customer customer = bench.execute(
+                    new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+
+            long start = System.nanoTime();
+            if (batchSize == 1) {
+                for (int i = 0; i < commands; i++) {
+                    bench.execute(new MakeSaleRequest(customer.getId()));
+                }
+            } else {
+                List<MakeSaleRequest> batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(new MakeSaleRequest(customer.getId()));
+                }
+                for (int i = 0; i < commands; i += batchSize) {
+                    bench.executeBatch(batch, repository);
+                }
+            }
+            bench.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-16s %,12.0f commands/s%n",
+                    batchSize == 1 ? "one at a time" : "batches of " + batchSize, commands / seconds);
+            bench.close();
+            journal.close();
+            repository.close();
+        }
+    }
 }
@@ -0,0 +1,246 @@
+package crm.controller;
+
+import crm.controller.command.CommandResult;
+import crm.controller.command.MakeSaleCommand;
+import crm.controller.command.ParameterizedCommand;
+import crm.controller.command.UndoLog;
+import crm.controller.command.request.CustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import customer.RegularCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+import repository.InMemoryCustomerRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandExecutorTest {
+
+    private CustomerRepository repository;
+    private CRMController controller;
+    private CommandExecutor executor;
+    private RecordingCommand recorder;
+
+    // Request that tags each command with its position in a customer's sequence
+    private static class RecordRequest implements CustomerRequest<Integer> {
+        private final int customerId;
+        private final int sequence;
+
+        RecordRequest(int customerId, int sequence) {
+            this.customerId = customerId;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int getCustomerId() {
+            return customerId;
+        }
+    }
+
+    // Records the order commands ran in per customer; can be held on a latch or made to fail
+    private static class RecordingCommand implements ParameterizedCommand<RecordRequest, Integer> {
+        private final Map<Integer, List<Integer>> sequences = new ConcurrentHashMap<>();
+        private final Map<Integer, CountDownLatch> gates = new ConcurrentHashMap<>();
+
+        @Override
+        public CommandResult<Integer> execute(RecordRequest request) {
+            CountDownLatch gate = gates.get(request.customerId);
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (request.sequence < 0) {
+                throw new IllegalStateException("Rejected request");
+            }
+            sequences.computeIfAbsent(request.customerId, id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(request.sequence);
+            return new CommandResult<>(request.sequence, new CRMEvent(EventType.CUSTOMER_UPDATED, request.customerId));
+        }
+
+        @Override
+        public Class<RecordRequest> getRequestType() {
+            return RecordRequest.class;
+        }
+
+        @Override
+        public RecordRequest readRequest(Scanner scanner) {
+            return null;
+        }
+
+        @Override
+        public void report(Scanner scanner, RecordRequest request, CommandResult<Integer> result) {
+        }
+
+        @Override
+        public void undo() {
+        }
+
+        @Override
+        public String getName() {
+            return "Record";
+        }
+
+        @Override
+        public EventType getEventType() {
+            return EventType.CUSTOMER_UPDATED;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentCustomerRepository();
+        controller = new CRMController(UndoLog.DEFAULT_DEPTH, null, repository);
+        recorder = new RecordingCommand();
+        controller.addCommand(recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void testCommandsForOneCustomerRunInSubmissionOrder() {
+        // Arrange
+        executor = new CommandExecutor(controller, 4);
+        int customers = 50;
+        int perCustomer = 200;
+
+        // Act - submissions for different customers are interleaved
+        for (int i = 0; i < perCustomer; i++) {
+            for (int customerId = 1; customerId <= customers; customerId++) {
+                executor.submit(new RecordRequest(customerId, i));
+            }
+        }
+        executor.flush();
+
+        // Assert
+        for (int customerId = 1; customerId <= customers; customerId++) {
+            List<Integer> sequence = recorder.sequences.get(customerId);
+            assertEquals(perCustomer, sequence.size());
+            for (int i = 0; i < perCustomer; i++) {
+                assertEquals(i, sequence.get(i), "Customer " + customerId + " ran out of order");
+            }
+        }
+    }
+
+    @Test
+    void testStalledCustomerDoesNotHoldUpOtherLanes() throws Exception {
+        // Arrange
+        executor = new CommandExecutor(controller, 2);
+        int stalled = 1;
+        int other = 2;
+        while (executor.laneOf(other) == executor.laneOf(stalled)) {
+            other++;
+        }
+        CountDownLatch gate = new CountDownLatch(1);
+        recorder.gates.put(stalled, gate);
+
+        // Act
+        CompletableFuture<CommandResult<Integer>> first = executor.submit(new RecordRequest(stalled, 0));
+        CompletableFuture<CommandResult<Integer>> second = executor.submit(new RecordRequest(other, 0));
+        CommandResult<Integer> secondResult = second.get(5, TimeUnit.SECONDS);
+        boolean firstDoneWhileStalled = first.isDone();
+        gate.countDown();
+
+        // Assert
+        assertEquals(0, secondResult.getValue());
+        assertFalse(firstDoneWhileStalled);
+        assertEquals(0, first.get(5, TimeUnit.SECONDS).getValue());
+    }
+
+    @Test
+    void testSeveralLanesNeedAThreadSafeRepository() {
+        // Arrange
+        CRMController unsafe = new CRMController(UndoLog.DEFAULT_DEPTH, null, new InMemoryCustomerRepository());
+        CRMController unknown = new CRMController();
+
+        // Act
+        executor = new CommandExecutor(unsafe);
+        CommandExecutor singleLane = new CommandExecutor(unknown, 1);
+        singleLane.close();
+
+        // Assert
+        assertEquals(1, executor.getLaneCount());
+        assertEquals(1, singleLane.getLaneCount());
+        assertThrows(IllegalArgumentException.class, () -> new CommandExecutor(unsafe, 2));
+        assertThrows(IllegalArgumentException.class, () -> new CommandExecutor(unknown, 4));
+    }
+
+    @Test
+    void testFailedCommandDoesNotStopItsLane() throws Exception {
+        // Arrange
+        executor = new CommandExecutor(controller, 1);
+
+        // Act
+        CompletableFuture<CommandResult<Integer>> failed = executor.submit(new RecordRequest(7, -1));
+        CompletableFuture<CommandResult<Integer>> next = executor.submit(new RecordRequest(7, 1));
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals("Rejected request", e.getCause().getMessage());
+        assertEquals(1, next.get(5, TimeUnit.SECONDS).getValue());
+    }
+
+    @Test
+    void testCloseFinishesSubmittedCommandsAndRejectsNewOnes() {
+        // Arrange
+        executor = new CommandExecutor(controller, 2);
+        for (int i = 0; i < 100; i++) {
+            executor.submit(new RecordRequest(3, i));
+        }
+
+        // Act
+        executor.close();
+
+        // Assert
+        assertEquals(100, recorder.sequences.get(3).size());
+        assertThrows(IllegalStateException.class, () -> executor.submit(new RecordRequest(3, 100)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkScalingWithLaneCount() {
+        int commands = Integer.getInteger("crm.benchmark.events", 400_000);
+        int customers = 10_000;
+        for (int i = 1; i <= customers; i++) {
+            repository.createCustomer(new RegularCustomer(i, "Customer " + i, "c" + i + "@example.com", "555-" + i));
+        }
+        controller.addCommand(new MakeSaleCommand(repository));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int lanes = 1; lanes <= Math.max(cores, 8); lanes *= 2) {
+            executor = new CommandExecutor(controller, lanes);
+            long start = System.nanoTime();
+            for (int i = 0; i < commands; i++) {
+                executor.submit(new MakeSaleRequest(i % customers + 1));
+            }
+            executor.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            executor.close();
+            System.out.printf("%2d lanes %,12.0f commands/s%n", lanes, commands / seconds);
+        }
+        executor = null;
+    }
+}
@@ -0,0 +1,346 @@
+package crm.controller;
+
+import campaign.Campaign;
+import campaign.CampaignRunner;
+import campaign.MessageTemplate;
+import campaign.Segment;
+import crm.controller.command.ContactCustomerCommand;
+import crm.controller.command.CreateCustomerCommand;
+import crm.controller.command.DeleteCustomerCommand;
+import crm.controller.command.MakeSaleCommand;
+import crm.controller.command.SendCampaignCommand;
+import crm.controller.command.UpdateCustomerCommand;
+import crm.controller.command.request.ContactCustomerRequest;
+import crm.controller.command.request.CreateCustomerRequest;
+import crm.controller.command.request.DeleteCustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.controller.command.request.SendCampaignRequest;
+import crm.controller.command.request.UpdateCustomerRequest;
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.CustomerField;
+import customer.CustomerType;
+import customer.LeadCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import repository.ConcurrentCustomerRepository;
+import repository.CustomerRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final PrintStream originalOut = System.out;
+    private final InputStream originalIn = System.in;
+    private CommandJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.setOut(originalOut);
+        System.setIn(originalIn);
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static CRMController controllerFor(CustomerRepository repository, CommandJournal journal) {
+        CRMController controller = new CRMController(100, journal);
+        controller.addCommand(new CreateCustomerCommand(repository));
+        controller.addCommand(new UpdateCustomerCommand(repository));
+        controller.addCommand(new DeleteCustomerCommand(repository));
+        controller.addCommand(new MakeSaleCommand(repository));
+        controller.addCommand(new ContactCustomerCommand(repository));
+        controller.addCommand(new SendCampaignCommand(new CampaignRunner(repository, null, 1, 10)));
+        return controller;
+    }
+
+    private static List<JournalEntry> readAll(Path path) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        CommandJournal.read(path, entries::add);
+        return entries;
+    }
+
+    @Test
+    void testControllerJournalsCommandsThatChangedSomething() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+
+        // Act
+        Customer customer = controller.execute(
+                new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", null)).getValue();
+        controller.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Renamed"));
+        controller.execute(new UpdateCustomerRequest(-1, CustomerField.NAME, "Nobody"));
+        controller.execute(new MakeSaleRequest(customer.getId()));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        controller.execute(new ContactCustomerRequest(customer.getId(), "Hello", "key-1"));
+        controller.execute(new DeleteCustomerRequest(customer.getId()));
+        List<JournalEntry> entries = readAll(path);
+
+        // Assert
+        assertEquals(5, entries.size());
+        assertEquals(5, journal.getRecordCount());
+        CreateCustomerRequest create = (CreateCustomerRequest) entries.get(0).getRequest();
+        assertEquals(customer.getId(), entries.get(0).getCustomerId());
+        assertEquals(customer.getId(), create.getCustomerId());
+        assertEquals(CustomerType.VIP, create.getCustomerType());
+        assertNull(create.getPhone());
+        UpdateCustomerRequest update = (UpdateCustomerRequest) entries.get(1).getRequest();
+        assertEquals(CustomerField.NAME, update.getField());
+        assertEquals("Renamed", update.getValue());
+        assertInstanceOf(MakeSaleRequest.class, entries.get(2).getRequest());
+        assertEquals("key-1", ((ContactCustomerRequest) entries.get(3).getRequest()).getIdempotencyKey());
+        assertEquals(customer.getId(), ((DeleteCustomerRequest) entries.get(4).getRequest()).getCustomerId());
+    }
+
+    @Test
+    void testTornTailIsCutOffAndAppendingContinues() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+        controller.execute(new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-0000"));
+        journal.close();
+        Files.write(path, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        // Act
+        journal = new CommandJournal(path);
+        controllerFor(new ConcurrentCustomerRepository(), journal)
+                .execute(new CreateCustomerRequest(CustomerType.REGULAR, "Regular", "regular@example.com", "555-1111"));
+        journal.close();
+
+        // Assert
+        List<JournalEntry> entries = readAll(path);
+        assertEquals(2, entries.size());
+        assertEquals("Regular", ((CreateCustomerRequest) entries.get(1).getRequest()).getName());
+    }
+
+    @Test
+    void testConsoleCommandsAreJournaled() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        System.setIn(new ByteArrayInputStream("3\nVip\nvip@example.com\n555-0000\n".getBytes()));
+
+        // Act
+        controller.executeCommand(0);
+        List<JournalEntry> entries = readAll(path);
+
+        // Assert
+        assertEquals(1, entries.size());
+        CreateCustomerRequest create = (CreateCustomerRequest) entries.get(0).getRequest();
+        assertEquals(CustomerType.VIP, create.getCustomerType());
+        assertEquals("Vip", create.getName());
+    }
+
+    @Test
+    void testCampaignIsJournaledWithItsRecipientsAndReplayed() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CustomerRepository original = new ConcurrentCustomerRepository();
+        Customer lead = new LeadCustomer("Lead", "lead@example.com", "555-0000");
+        Customer vip = new VIPCustomer("Vip", "vip@example.com", "555-1111");
+        original.createCustomer(lead);
+        original.createCustomer(vip);
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        controllerFor(original, journal).execute(new SendCampaignRequest(new Campaign("Leads",
+                Segment.ofType(LeadCustomer.class), new MessageTemplate("Hi {name}"))));
+        journal.close();
+
+        CustomerRepository restored = new ConcurrentCustomerRepository();
+        Customer restoredLead = CustomerType.LEAD.create(lead.getId(), "Lead", "lead@example.com", "555-0000");
+        Customer restoredVip = CustomerType.VIP.create(vip.getId(), "Vip", "vip@example.com", "555-1111");
+        restored.createCustomer(restoredLead);
+        restored.createCustomer(restoredVip);
+
+        // Act
+        List<JournalEntry> entries = readAll(path);
+        ReplayReport report = new CommandReplayer(controllerFor(restored, null)).replay(path);
+
+        // Assert
+        assertEquals(1, entries.size());
+        assertArrayEquals(new int[]{lead.getId()}, entries.get(0).getRecipientIds());
+        assertEquals(1, report.getReplayed());
+        assertEquals(1, restoredLead.getInteractionCount());
+        assertNotNull(restoredLead.getLastContact());
+        assertEquals(0, restoredVip.getInteractionCount());
+    }
+
+    @Test
+    void testReplayRecreatesCustomersUnderJournaledIds() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+        Customer kept = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Kept", "kept@example.com", "555-1111")).getValue();
+        controller.execute(new UpdateCustomerRequest(kept.getId(), CustomerField.EMAIL, "kept@new.example.com"));
+        journal.close();
+        CustomerRepository restored = new ConcurrentCustomerRepository();
+
+        // Act
+        ReplayReport first = new CommandReplayer(controllerFor(restored, null)).replay(path);
+        ReplayReport second = new CommandReplayer(controllerFor(restored, null)).replay(path);
+
+        // Assert
+        assertEquals(2, first.getReplayed());
+        Customer replayed = restored.getCustomerFromId(kept.getId());
+        assertEquals("Kept", replayed.getName());
+        assertEquals("kept@new.example.com", replayed.getEmail());
+        // The id is taken the second time, so only the update runs
+        assertEquals(1, second.getReplayed());
+        assertEquals(1, second.getMissed());
+        assertEquals(1, restored.getAllCustomers().size());
+    }
+
+    @Test
+    void testUndoneCommandsAreJournaledAndLeftOutOfReplay() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+        Customer kept = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Kept", "kept@example.com", "555-1111")).getValue();
+        Customer undone = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Undone", "undone@example.com", "555-2222")).getValue();
+        controller.execute(new UpdateCustomerRequest(kept.getId(), CustomerField.NAME, "Renamed"));
+
+        // Act
+        controller.undoCommand();
+        controller.undoCommand();
+        journal.close();
+        List<JournalEntry> entries = readAll(path);
+        CustomerRepository restored = new ConcurrentCustomerRepository();
+        ReplayReport report = new CommandReplayer(controllerFor(restored, null)).replay(path);
+
+        // Assert
+        assertEquals(5, entries.size());
+        assertTrue(entries.get(3).isUndo());
+        assertNull(entries.get(3).getRequest());
+        assertEquals(3, entries.get(3).getUndoneSeq());
+        assertEquals(2, entries.get(4).getUndoneSeq());
+        assertEquals(1, report.getReplayed());
+        assertEquals(0, report.getMissed());
+        assertEquals("Kept", restored.getCustomerFromId(kept.getId()).getName());
+        assertNull(restored.getCustomerFromId(undone.getId()));
+        assertEquals(1, restored.getAllCustomers().size());
+    }
+
+    @Test
+    void testReplayWithRemappedIdsGivesCreatesNewIds() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CustomerRepository original = new ConcurrentCustomerRepository();
+        Customer existing = new VIPCustomer("Existing", "existing@example.com", "555-0000");
+        original.createCustomer(existing);
+        CRMController controller = controllerFor(original, journal);
+        Customer kept = controller.execute(
+                new CreateCustomerRequest(CustomerType.REGULAR, "Kept", "kept@example.com", "555-1111")).getValue();
+        Customer removed = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Removed", "removed@example.com", "555-2222")).getValue();
+        controller.execute(new UpdateCustomerRequest(kept.getId(), CustomerField.EMAIL, "kept@new.example.com"));
+        controller.execute(new MakeSaleRequest(kept.getId()));
+        controller.execute(new MakeSaleRequest(existing.getId()));
+        controller.execute(new DeleteCustomerRequest(removed.getId()));
+        journal.close();
+
+        CustomerRepository restored = new ConcurrentCustomerRepository();
+        restored.createCustomer(existing);
+        int existingSales = existing.getInteractionCount();
+
+        // Act
+        ReplayReport report = new CommandReplayer(controllerFor(restored, null), true).replay(path);
+
+        // Assert
+        assertEquals(6, report.getReplayed());
+        assertEquals(0, report.getMissed());
+        assertEquals(2, restored.getAllCustomers().size());
+        Customer replayed = restored.getAllCustomers().stream()
+                .filter(customer -> customer.getName().equals("Kept"))
+                .findFirst()
+                .orElseThrow();
+        assertNotEquals(kept.getId(), replayed.getId());
+        assertEquals("kept@new.example.com", replayed.getEmail());
+        assertEquals(EventType.SALE_MADE,
+                replayed.getInteractionHistory().get(replayed.getInteractionCount() - 1).getEventType());
+        assertEquals(existingSales + 1, existing.getInteractionCount());
+    }
+
+    @Test
+    void testReplayWindowSelectsCommandsByTime() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("commands.journal");
+        journal = new CommandJournal(path);
+        CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+        controller.execute(new CreateCustomerRequest(CustomerType.LEAD, "Before", "before@example.com", "555-0000"));
+        Thread.sleep(5);
+        Date from = new Date();
+        controller.execute(new CreateCustomerRequest(CustomerType.LEAD, "During", "during@example.com", "555-1111"));
+        journal.close();
+        CustomerRepository target = new ConcurrentCustomerRepository();
+
+        // Act
+        ReplayReport report = new CommandReplayer(controllerFor(target, null)).replay(path, from, null);
+
+        // Assert
+        assertEquals(1, report.getReplayed());
+        assertEquals("During", target.getAllCustomers().iterator().next().getName());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkSharedFsyncs() throws Exception {
+        int commands = Integer.getInteger("crm.benchmark.events", 4_000);
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            Path path = tempDir.resolve("bench-" + threads + ".journal");
+            journal = new CommandJournal(path);
+            CRMController controller = controllerFor(new ConcurrentCustomerRepository(), journal);
+            Customer customer = controller.execute(
+                    new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-0000")).getValue();
+            int perThread = commands / threads;
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        controller.execute(new MakeSaleRequest(customer.getId()));
+                    }
+                }));
+            }
+            long start = System.nanoTime();
+            workers.forEach(Thread::start);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%3d threads %,10.0f commands/s%n", threads, perThread * threads / seconds);
+            journal.close();
+
+            CustomerRepository target = new ConcurrentCustomerRepository();
+            System.out.println("  " + new CommandReplayer(controllerFor(target, null)).replay(path));
+        }
+        journal = null;
+    }
+}
@@ -1,23 +1,32 @@
 package crm.controller.command;
 
+import crm.controller.command.request.ContactCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
 import customer.Interaction;
 import customer.RegularCustomer;
 import notification.EmailNotification;
+import notification.Notification;
+import notification.NotificationDispatcher;
+import notification.NotificationOutbox;
 import notification.SMSNotification;
 import repository.CustomerRepository;
 import repository.InMemoryCustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -292,4 +301,110 @@ class ContactCustomerCommandTest {
         assertTrue(eventString.contains("Contact Method:"));
         assertTrue(eventString.contains("EmailNotification") || eventString.contains("SMSNotification"));
     }
+
+    @Test
+    void testExecuteWithRequestRecordsContactInteraction() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<Interaction> result = command.execute(new ContactCustomerRequest(customer.getId(), "Hello"));
+
+        // Assert
+        assertEquals(EventType.NOTIFICATION_SENT, result.getValue().getEventType());
+        assertTrue(result.getValue().getDetails().contains("Hello"));
+        assertEquals(customer.getId(), result.getEvent().getCustomerId());
+    }
+
+    @Test
+    void testExecuteWithDispatcherQueuesTheMessage() throws Exception {
+        // Arrange
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Notification> sent = new ArrayList<>();
+        dispatcher.registerChannel(SMSNotification.class, batch -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.addAll(batch);
+        }, 1, 10);
+        ContactCustomerCommand asyncCommand = new ContactCustomerCommand(repository, dispatcher);
+        Customer customer = new RegularCustomer("Queued Customer", "queued@example.com", "555-7777");
+        repository.createCustomer(customer);
+
+        // Act - the gateway is stalled, so the command must not wait for it
+        CommandResult<Interaction> result = asyncCommand.execute(new ContactCustomerRequest(customer.getId(), "Hello"));
+        boolean sentBeforeGateOpened = !sent.isEmpty();
+        gate.countDown();
+        dispatcher.close();
+
+        // Assert
+        assertTrue(result.hasValue());
+        assertFalse(sentBeforeGateOpened);
+        assertEquals(1, sent.size());
+        assertEquals("Hello", sent.get(0).getMessage());
+    }
+
+    @Test
+    void testExecuteWithOutboxDeliversUnderTheRequestKey(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        List<Notification> sent = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerChannel(SMSNotification.class, sent::addAll, 1, 10);
+        NotificationOutbox outbox = new NotificationOutbox(tempDir, repository::getCustomerFromId, dispatcher);
+        ContactCustomerCommand outboxCommand = new ContactCustomerCommand(repository, outbox);
+        Customer customer = new RegularCustomer("Outbox Customer", "outbox@example.com", "555-8888");
+        repository.createCustomer(customer);
+
+        // Act - retrying the same request must not send the message twice
+        outboxCommand.execute(new ContactCustomerRequest(customer.getId(), "Hello", "contact-1"));
+        outboxCommand.execute(new ContactCustomerRequest(customer.getId(), "Hello", "contact-1"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outbox.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        outbox.close();
+        dispatcher.close();
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals("contact-1", sent.get(0).getIdempotencyKey());
+    }
+
+    @Test
+    void testRetriedKeyReturnsTheFirstResultWithoutRecordingAgain(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        NotificationDispatcher dispatcher = new NotificationDispatcher();
+        dispatcher.registerChannel(SMSNotification.class, batch -> { }, 1, 10);
+        NotificationOutbox outbox = new NotificationOutbox(tempDir, repository::getCustomerFromId, dispatcher);
+        ContactCustomerCommand outboxCommand = new ContactCustomerCommand(repository, outbox);
+        UndoLog undoLog = new UndoLog();
+        outboxCommand.setUndoLog(undoLog);
+        Customer customer = new RegularCustomer("Retried Customer", "retried@example.com", "555-9999");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<Interaction> first =
+                outboxCommand.execute(new ContactCustomerRequest(customer.getId(), "Hello", "retry-1"));
+        CommandResult<Interaction> retry =
+                outboxCommand.execute(new ContactCustomerRequest(customer.getId(), "Hello", "retry-1"));
+        ContactCustomerCommand afterRestart = new ContactCustomerCommand(repository, outbox);
+        CommandResult<Interaction> retryAfterRestart =
+                afterRestart.execute(new ContactCustomerRequest(customer.getId(), "Hello", "retry-1"));
+        outbox.close();
+        dispatcher.close();
+
+        // Assert
+        assertFalse(first.isRepeat());
+        assertTrue(retry.isRepeat());
+        assertSame(first.getValue(), retry.getValue());
+        assertSame(first.getEvent(), retry.getEvent());
+        assertTrue(retryAfterRestart.isRepeat());
+        assertSame(first.getValue(), retryAfterRestart.getValue());
+        assertEquals(1, customer.getInteractionCount());
+        assertEquals(1, undoLog.size());
+    }
 }
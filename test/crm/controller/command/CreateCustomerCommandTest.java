@@ -1,8 +1,11 @@
 package crm.controller.command;
 
+import crm.controller.command.request.CreateCustomerRequest;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.CustomerType;
 import customer.Interaction;
+import customer.VIPCustomer;
 import repository.CustomerRepository;
 import repository.InMemoryCustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -110,4 +113,21 @@ class CreateCustomerCommandTest {
                     customer.getInteractionHistory().get(0).getEventType());
         }
     }
+
+    @Test
+    void testExecuteWithRequestCreatesCustomerWithoutConsole() {
+        // Arrange
+        CreateCustomerRequest request = new CreateCustomerRequest(CustomerType.VIP, "Jane Smith", "jane@example.com", "555-2222");
+
+        // Act
+        CommandResult<Customer> result = command.execute(request);
+
+        // Assert
+        Customer created = result.getValue();
+        assertInstanceOf(VIPCustomer.class, created);
+        assertSame(created, repository.getCustomerFromId(created.getId()));
+        assertEquals(EventType.CUSTOMER_CREATED, result.getEvent().getEventType());
+        assertEquals(created.getId(), result.getEvent().getCustomerId());
+        assertEquals(CreateCustomerRequest.class, command.getRequestType());
+    }
 }
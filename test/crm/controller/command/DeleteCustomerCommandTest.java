@@ -1,5 +1,6 @@
 package crm.controller.command;
 
+import crm.controller.command.request.DeleteCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
@@ -97,6 +98,26 @@ class DeleteCustomerCommandTest {
         assertEquals(customerName, restoredCustomer.getName());
     }
 
+    @Test
+    void testUndoRestoresHistoryFromPackedState() {
+        // Arrange
+        Customer customer = new RegularCustomer("Bob Jones", "bob@example.com", "555-3333");
+        customer.addInteraction(EventType.SALE_MADE, "Sale completed");
+        customer.addInteraction(EventType.NOTIFICATION_SENT, "Hello");
+        repository.createCustomer(customer);
+
+        // Act
+        command.execute(new DeleteCustomerRequest(customer.getId()));
+        command.undo();
+
+        // Assert - the entry held the state, not the instance
+        Customer restored = repository.getCustomerFromId(customer.getId());
+        assertNotSame(customer, restored);
+        assertEquals(2, restored.getInteractionCount());
+        assertEquals("Hello", restored.getInteractionHistory().get(1).getDetails());
+        assertEquals("bob@example.com", restored.getEmail());
+    }
+
     @Test
     void testUndoPrintsCorrectMessage() {
         // Arrange
@@ -204,4 +225,28 @@ class DeleteCustomerCommandTest {
         // Verify customer was restored
         assertNotNull(repository.getCustomerFromId(customerId), "Customer should be restored after undo");
     }
+
+    @Test
+    void testExecuteWithRequestDeletesCustomer() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<Customer> result = command.execute(new DeleteCustomerRequest(customer.getId()));
+
+        // Assert
+        assertSame(customer, result.getValue());
+        assertNull(repository.getCustomerFromId(customer.getId()));
+    }
+
+    @Test
+    void testExecuteWithRequestForUnknownCustomerDeletesNothing() {
+        // Act
+        CommandResult<Customer> result = command.execute(new DeleteCustomerRequest(-1));
+
+        // Assert
+        assertFalse(result.hasValue());
+        assertEquals(EventType.CUSTOMER_DELETED, result.getEvent().getEventType());
+    }
 }
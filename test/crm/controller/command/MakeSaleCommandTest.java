@@ -1,5 +1,6 @@
 package crm.controller.command;
 
+import crm.controller.command.request.MakeSaleRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
@@ -297,4 +298,30 @@ class MakeSaleCommandTest {
         assertDoesNotThrow(() -> command.undo());
         assertDoesNotThrow(() -> command.undo());
     }
+
+    @Test
+    void testExecuteWithRequestReturnsSaleInteraction() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<Interaction> result = command.execute(new MakeSaleRequest(customer.getId()));
+
+        // Assert
+        assertEquals(EventType.SALE_MADE, result.getValue().getEventType());
+        assertEquals(1, customer.getInteractionHistory().size());
+        assertEquals(customer.getId(), result.getEvent().getCustomerId());
+        assertEquals("", outContent.toString(), "The headless path should not print");
+    }
+
+    @Test
+    void testExecuteWithRequestForUnknownCustomerHasNoValue() {
+        // Act
+        CommandResult<Interaction> result = command.execute(new MakeSaleRequest(-1));
+
+        // Assert
+        assertFalse(result.hasValue());
+        assertNull(result.getEvent().getCustomerId());
+    }
 }
@@ -0,0 +1,92 @@
+package crm.controller.command;
+
+import campaign.Campaign;
+import campaign.CampaignReport;
+import campaign.CampaignRunner;
+import campaign.MessageTemplate;
+import campaign.Segment;
+import crm.controller.command.request.SendCampaignRequest;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import repository.CustomerRepository;
+import repository.InMemoryCustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendCampaignCommandTest {
+
+    private CustomerRepository repository;
+    private SendCampaignCommand command;
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryCustomerRepository();
+        command = new SendCampaignCommand(new CampaignRunner(repository, null, 2, 10));
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void testExecuteSendsToChosenSegment() {
+        // Arrange
+        Customer lead = new LeadCustomer("New Lead", "lead@example.com", "555-1111");
+        Customer regular = new RegularCustomer("John Doe", "john@example.com", "555-2222");
+        repository.createCustomer(lead);
+        repository.createCustomer(regular);
+
+        // Leads only, any last contact, then the message
+        String input = "Lead Outreach\n1\n\nHello {name}\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        // Act
+        CRMEvent event = command.execute();
+
+        // Assert
+        String output = outContent.toString();
+        assertTrue(output.contains("Sent: 'Hello New Lead' to 555-1111"));
+        assertFalse(output.contains("Hello John Doe"));
+        assertTrue(output.contains("Progress: 2 / 2 customers, 1 sent, 0 failed"));
+        assertTrue(output.contains("Campaign 'Lead Outreach': 1 of 2 customers matched, 1 sent, 0 failed"));
+        assertEquals(EventType.NOTIFICATION_SENT, event.getEventType());
+        assertEquals(1, lead.getInteractionCount());
+        assertEquals(0, regular.getInteractionCount());
+    }
+
+    @Test
+    void testExecuteWithRequestReturnsReport() {
+        // Arrange
+        repository.createCustomer(new RegularCustomer("John Doe", "john@example.com", "555-2222"));
+        Campaign campaign = new Campaign("Everyone", Segment.all(), new MessageTemplate("Hi"));
+
+        // Act
+        CommandResult<CampaignReport> result = command.execute(new SendCampaignRequest(campaign));
+
+        // Assert
+        assertEquals(1, result.getValue().getSent());
+        assertTrue(result.getEvent().toString().contains("Campaign: Everyone, Sent: 1"));
+    }
+
+    @Test
+    void testCommandMetadata() {
+        // Assert
+        assertEquals("Send Campaign", command.getName());
+        assertEquals(EventType.NOTIFICATION_SENT, command.getEventType());
+        assertEquals(SendCampaignRequest.class, command.getRequestType());
+    }
+}
@@ -0,0 +1,176 @@
+package crm.controller.command;
+
+import crm.controller.command.request.DeleteCustomerRequest;
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.FileInteractionSpillStore;
+import customer.InteractionSpillStore;
+import customer.RegularCustomer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.CustomerRepository;
+import repository.InMemoryCustomerRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoLogTest {
+
+    private static UndoEntry recording(List<Integer> undone, int id) {
+        return UndoEntry.of(() -> undone.add(id));
+    }
+
+    @Test
+    void testPopReturnsNewestFirst() {
+        // Arrange
+        List<Integer> undone = new ArrayList<>();
+        UndoLog log = new UndoLog(10);
+        for (int i = 0; i < 3; i++) {
+            log.push(recording(undone, i));
+        }
+
+        // Act
+        UndoEntry entry;
+        while ((entry = log.pop()) != null) {
+            entry.undo();
+        }
+
+        // Assert
+        assertEquals(List.of(2, 1, 0), undone);
+        assertEquals(0, log.size());
+    }
+
+    @Test
+    void testFullLogEvictsOldestEntries() {
+        // Arrange
+        List<Integer> undone = new ArrayList<>();
+        UndoLog log = new UndoLog(3);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            log.push(recording(undone, i));
+        }
+        UndoEntry entry;
+        while ((entry = log.pop()) != null) {
+            entry.undo();
+        }
+
+        // Assert
+        assertEquals(List.of(4, 3, 2), undone);
+        assertEquals(2, log.getEvictedCount());
+        assertEquals(3, log.getDepth());
+    }
+
+    @Test
+    void testEntryIsUndoneOnlyOnce() {
+        // Arrange
+        List<Integer> undone = new ArrayList<>();
+        UndoEntry shared = recording(undone, 1);
+        UndoLog first = new UndoLog(4);
+        UndoLog second = new UndoLog(4);
+        second.push(recording(undone, 0));
+        first.push(shared);
+        second.push(shared);
+
+        // Act
+        boolean firstUndo = first.pop().undo();
+        UndoEntry next = second.pop();
+
+        // Assert - the second log skips the entry already undone through the first
+        assertTrue(firstUndo);
+        assertFalse(shared.undo());
+        next.undo();
+        assertEquals(List.of(1, 0), undone);
+        assertNull(second.pop());
+    }
+
+    @Test
+    void testNewestFindsEachOwnersLatestEntry() {
+        // Arrange
+        List<Integer> undone = new ArrayList<>();
+        Object sales = new Object();
+        Object updates = new Object();
+        UndoLog log = new UndoLog(10);
+        log.push(sales, recording(undone, 0));
+        log.push(updates, recording(undone, 1));
+        log.push(sales, recording(undone, 2));
+        log.push(updates, recording(undone, 3));
+
+        // Act
+        log.newest(sales).undo();
+        log.newest(sales).undo();
+        UndoEntry entry;
+        while ((entry = log.pop()) != null) {
+            entry.undo();
+        }
+
+        // Assert - the log's own pop skips the entries already undone through their owner
+        assertEquals(List.of(2, 0, 3, 1), undone);
+        assertNull(log.newest(sales));
+    }
+
+    @Test
+    void testPeekDoesNotRemove() {
+        // Arrange
+        UndoLog log = new UndoLog(2);
+        UndoEntry entry = UndoEntry.of(() -> { });
+
+        // Act
+        log.push(entry);
+
+        // Assert
+        assertSame(entry, log.peek());
+        assertEquals(1, log.size());
+        assertNull(new UndoLog(2).peek());
+    }
+
+    @Test
+    void testDepthMustBePositive() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new UndoLog(0));
+    }
+
+    @Test
+    void testDeleteEntrySizeDoesNotDependOnHistoryLength(@TempDir Path tempDir) throws IOException {
+        try (FileInteractionSpillStore spillStore = new FileInteractionSpillStore(tempDir.resolve("spill.dat"))) {
+            for (InteractionSpillStore store : new InteractionSpillStore[]{null, spillStore}) {
+                assertDeleteEntrySizeIsFixed(store);
+            }
+        } finally {
+            Customer.setHistorySpillStore(null, 0);
+        }
+    }
+
+    private static void assertDeleteEntrySizeIsFixed(InteractionSpillStore store) {
+        // Arrange
+        Customer.setHistorySpillStore(store, 1);
+        CustomerRepository repository = new InMemoryCustomerRepository();
+        DeleteCustomerCommand command = new DeleteCustomerCommand(repository);
+        UndoLog log = new UndoLog(10);
+        command.setUndoLog(log);
+        Customer quiet = new RegularCustomer("Same Name", "same@example.com", "555-0000");
+        Customer busy = new RegularCustomer("Same Name", "same@example.com", "555-0000");
+        quiet.addInteraction(EventType.SALE_MADE, "Sale");
+        for (int i = 0; i < 5_000; i++) {
+            busy.addInteraction(EventType.NOTIFICATION_SENT, "Message " + i);
+        }
+        repository.createCustomer(quiet);
+        repository.createCustomer(busy);
+
+        // Act
+        UndoEntry quietEntry = command.execute(new DeleteCustomerRequest(quiet.getId())).getUndo();
+        UndoEntry busyEntry = command.execute(new DeleteCustomerRequest(busy.getId())).getUndo();
+        busyEntry.undo();
+
+        // Assert
+        assertTrue(quietEntry.getSizeInBytes() > 0);
+        assertEquals(quietEntry.getSizeInBytes(), busyEntry.getSizeInBytes());
+        Customer restored = repository.getCustomerFromId(busy.getId());
+        assertEquals(5_000, restored.getInteractionCount());
+        assertEquals("Message 4999", restored.getInteractions().get(4_999).getDetails());
+    }
+}
@@ -1,8 +1,10 @@
 package crm.controller.command;
 
+import crm.controller.command.request.UpdateCustomerRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.CustomerField;
 import customer.Interaction;
 import customer.RegularCustomer;
 import repository.CustomerRepository;
@@ -273,7 +275,6 @@ class UpdateCustomerCommandTest {
 
     @Test
     void testUndoDoesNotThrowException() {
-        // Note: undo() is not fully implemented (has TODO), but should not crash
         // Arrange
         Customer customer = new RegularCustomer("Undo Test", "undo@example.com", "555-0003");
         repository.createCustomer(customer);
@@ -285,7 +286,54 @@ class UpdateCustomerCommandTest {
         // Act
         command.execute();
 
-        // Assert - Should not throw exception even though undo is incomplete
+        // Assert
         assertDoesNotThrow(() -> command.undo(), "Undo should not throw exception");
     }
+
+    @Test
+    void testUndoRestoresPreviousValues() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+        command.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.PHONE, "555-2222"));
+        command.execute(new UpdateCustomerRequest(customer.getId(), CustomerField.NAME, "Jane Doe"));
+
+        // Act & Assert
+        command.undo();
+        assertEquals("John Doe", customer.getName());
+        assertEquals("555-2222", customer.getPhone());
+
+        command.undo();
+        assertEquals("555-1111", customer.getPhone());
+    }
+
+    @Test
+    void testExecuteWithRequestUpdatesField() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<Customer> result = command.execute(
+                new UpdateCustomerRequest(customer.getId(), CustomerField.PHONE, "555-9999"));
+
+        // Assert
+        assertSame(customer, result.getValue());
+        assertEquals("555-9999", customer.getPhone());
+        assertTrue(result.getEvent().toString().contains("Phone updated"));
+        assertEquals("", outContent.toString(), "The headless path should not print");
+    }
+
+    @Test
+    void testExecuteWithUnknownCustomerIdReportsNotFound() {
+        // Arrange
+        System.setIn(new ByteArrayInputStream("-1\n".getBytes()));
+
+        // Act
+        CRMEvent event = command.execute();
+
+        // Assert
+        assertTrue(outContent.toString().contains("Customer not found!"));
+        assertEquals(EventType.CUSTOMER_UPDATED, event.getEventType());
+    }
 }
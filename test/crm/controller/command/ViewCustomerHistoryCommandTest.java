@@ -1,8 +1,10 @@
 package crm.controller.command;
 
+import crm.controller.command.request.ViewCustomerHistoryRequest;
 import crm.observer.event.CRMEvent;
 import crm.observer.event.EventType;
 import customer.Customer;
+import customer.InteractionHistory;
 import customer.RegularCustomer;
 import repository.CustomerRepository;
 import repository.InMemoryCustomerRepository;
@@ -280,4 +282,46 @@ class ViewCustomerHistoryCommandTest {
         assertTrue(output.contains("Notification Sent"));
         assertTrue(output.contains("Sale Made"));
     }
+
+    @Test
+    void testExecuteWithRequestReturnsHistory() {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        customer.addInteraction(EventType.SALE_MADE, "Sale completed");
+        repository.createCustomer(customer);
+
+        // Act
+        CommandResult<InteractionHistory> result = command.execute(new ViewCustomerHistoryRequest(customer.getId()));
+
+        // Assert
+        assertEquals(1, result.getValue().size());
+        assertEquals("Sale completed", result.getValue().get(0).getDetails());
+        assertEquals("", outContent.toString(), "The headless path should not print");
+    }
+
+    @Test
+    void testLongHistoryIsPagedAndFiltered() {
+        // Arrange
+        Customer customer = new RegularCustomer("Busy Buyer", "busy@example.com", "555-6666");
+        for (int i = 0; i < 100; i++) {
+            customer.addInteraction(i % 2 == 0 ? EventType.SALE_MADE : EventType.NOTIFICATION_SENT, "Entry " + i);
+        }
+        repository.createCustomer(customer);
+
+        // Sales only, any dates, newest first, stop after the first page, then enter to continue
+        String input = customer.getId() + "\nSALE_MADE\n\n\ny\nq\n\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        // Act
+        command.execute();
+
+        // Assert
+        String output = outContent.toString();
+        assertTrue(output.contains("This customer has 100 interactions."));
+        assertTrue(output.indexOf("Entry 98") < output.indexOf("Entry 60"));
+        assertFalse(output.contains("Entry 58"), "Only the first page should be shown");
+        assertFalse(output.contains("Entry 99"), "Notifications should be filtered out");
+        assertTrue(output.contains("Matching interactions shown: 20"));
+        assertTrue(output.contains("Total interactions: 100"));
+    }
 }
@@ -0,0 +1,347 @@
+package crm.observer;
+
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import crm.observer.event.FieldChangePayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncObserverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AsyncObserver asyncObserver;
+
+    // Records events and can be held on a latch to simulate a stalled disk
+    private static class RecordingObserver implements CRMObserver {
+        private final List<Object> received = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private final long delayMillis;
+        private boolean closed;
+
+        RecordingObserver() {
+            this(new CountDownLatch(0), 0);
+        }
+
+        RecordingObserver(CountDownLatch gate, long delayMillis) {
+            this.gate = gate;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void onEvent(EventType eventType) {
+            handle(eventType);
+        }
+
+        @Override
+        public void onEvent(CRMEvent crmEvent) {
+            handle(crmEvent);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void handle(Object event) {
+            entered.countDown();
+            try {
+                gate.await();
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (asyncObserver != null) {
+            asyncObserver.close();
+        }
+    }
+
+    @Test
+    void testEventsAreDeliveredInOrderAfterFlush() {
+        // Arrange
+        RecordingObserver recorder = new RecordingObserver();
+        asyncObserver = new AsyncObserver(recorder);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, i));
+        }
+        asyncObserver.onEvent(EventType.SALE_MADE);
+        asyncObserver.flush();
+
+        // Assert
+        assertEquals(101, recorder.received.size());
+        assertEquals(42, ((CRMEvent) recorder.received.get(42)).getCustomerId());
+        assertEquals(EventType.SALE_MADE, recorder.received.get(100));
+    }
+
+    @Test
+    void testBacklogReachesDelegateInBatches() throws InterruptedException {
+        // Arrange
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        RecordingObserver recorder = new RecordingObserver(gate, 0) {
+            @Override
+            public void onEvents(List<CRMEvent> crmEvents) {
+                batchSizes.add(crmEvents.size());
+                crmEvents.forEach(this::onEvent);
+            }
+        };
+        asyncObserver = new AsyncObserver(recorder);
+
+        // Act - the consumer is held on the first event while the rest queue up behind it
+        asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, 0));
+        recorder.entered.await();
+        List<CRMEvent> batch = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            batch.add(new CRMEvent(EventType.CUSTOMER_UPDATED, i));
+        }
+        asyncObserver.onEvents(batch);
+        asyncObserver.onEvent(EventType.SALE_MADE);
+        gate.countDown();
+        asyncObserver.flush();
+
+        // Assert
+        assertEquals(List.of(10), batchSizes);
+        assertEquals(12, recorder.received.size());
+        assertEquals(10, ((CRMEvent) recorder.received.get(10)).getCustomerId());
+        assertEquals(EventType.SALE_MADE, recorder.received.get(11));
+    }
+
+    @Test
+    void testPublishingDoesNotWaitForSlowObserver() {
+        // Arrange
+        RecordingObserver recorder = new RecordingObserver(new CountDownLatch(0), 20);
+        asyncObserver = new AsyncObserver(recorder);
+
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_CREATED, i));
+        }
+        long publishMillis = (System.nanoTime() - start) / 1_000_000;
+        asyncObserver.flush();
+
+        // Assert
+        assertTrue(publishMillis < 100, "Publishing took " + publishMillis + " ms");
+        assertEquals(10, recorder.received.size());
+    }
+
+    @Test
+    void testDropOldestKeepsNewestEvents() throws InterruptedException {
+        // Arrange
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(gate, 0);
+        asyncObserver = new AsyncObserver(recorder, 4, BackpressurePolicy.DROP_OLDEST);
+
+        // Act - the consumer is stuck on event 0, so events 1..10 compete for 4 slots
+        asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, 0));
+        recorder.entered.await();
+        for (int i = 1; i <= 10; i++) {
+            asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, i));
+        }
+        gate.countDown();
+        asyncObserver.flush();
+
+        // Assert
+        assertEquals(5, recorder.received.size());
+        assertEquals(0, ((CRMEvent) recorder.received.get(0)).getCustomerId());
+        assertEquals(7, ((CRMEvent) recorder.received.get(1)).getCustomerId());
+        assertEquals(10, ((CRMEvent) recorder.received.get(4)).getCustomerId());
+        assertEquals(6, asyncObserver.getDroppedCount());
+    }
+
+    @Test
+    void testSpillToDiskDeliversEverythingInOrder() {
+        // Arrange
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(gate, 0);
+        Path spillPath = tempDir.resolve("events.spill");
+        asyncObserver = new AsyncObserver(recorder, 4, BackpressurePolicy.SPILL_TO_DISK, spillPath);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, i, i % 2 == 0 ? "even" : null,
+                    new FieldChangePayload("NAME", null, "Name " + i)));
+        }
+        asyncObserver.onEvent(EventType.COMMAND_UNDONE);
+        boolean spilled = asyncObserver.getSpilledCount() > 0;
+        gate.countDown();
+        asyncObserver.flush();
+
+        // Assert
+        assertTrue(spilled);
+        assertTrue(Files.exists(spillPath));
+        assertEquals(51, recorder.received.size());
+        for (int i = 0; i < 50; i++) {
+            CRMEvent event = (CRMEvent) recorder.received.get(i);
+            assertEquals(i, event.getCustomerId());
+            assertEquals(i % 2 == 0 ? "even" : null, event.getAdditionalInfo());
+            assertEquals("Name " + i, ((FieldChangePayload) event.getPayload()).getNewValue());
+        }
+        assertEquals(EventType.COMMAND_UNDONE, recorder.received.get(50));
+        assertEquals(0, asyncObserver.getSpilledCount());
+    }
+
+    @Test
+    void testUnreadableSpillIsCountedAsDroppedAndFlushReturns() throws Exception {
+        // Arrange - large events go straight past the write buffer, so the file can be damaged under the reader
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(gate, 0);
+        Path spillPath = tempDir.resolve("events.spill");
+        asyncObserver = new AsyncObserver(recorder, 1, BackpressurePolicy.SPILL_TO_DISK, spillPath);
+        String large = String.join("", Collections.nCopies(10_000, "x"));
+        asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, 0));
+        recorder.entered.await();
+        for (int i = 1; i <= 5; i++) {
+            asyncObserver.onEvent(new CRMEvent(EventType.CUSTOMER_UPDATED, i, large));
+        }
+        long spilled = asyncObserver.getSpilledCount();
+        try (FileChannel channel = FileChannel.open(spillPath, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 0, 16, 0, 0}), 0);
+        }
+
+        // Act
+        gate.countDown();
+        asyncObserver.flush();
+
+        // Assert
+        assertEquals(4, spilled);
+        assertEquals(2, recorder.received.size(), "Only the events that never reached the disk are delivered");
+        assertEquals(4, asyncObserver.getDroppedCount());
+        assertEquals(0, asyncObserver.getSpilledCount());
+        assertEquals(1, asyncObserver.getFailedCount());
+        assertInstanceOf(UncheckedIOException.class, asyncObserver.getLastFailure());
+
+        // Spilling starts over once the damaged file is given up
+        asyncObserver.onEvent(EventType.CUSTOMER_DELETED);
+        asyncObserver.flush();
+        assertEquals(EventType.CUSTOMER_DELETED, recorder.received.get(2));
+    }
+
+    @Test
+    void testFailingDelegateIsCountedAndLaterEventsStillArrive() {
+        // Arrange
+        List<EventType> received = Collections.synchronizedList(new ArrayList<>());
+        asyncObserver = new AsyncObserver(new CRMObserver() {
+            @Override
+            public void onEvent(EventType eventType) {
+                if (eventType == EventType.CUSTOMER_DELETED) {
+                    throw new IllegalStateException("disk full");
+                }
+                received.add(eventType);
+            }
+
+            @Override
+            public void onEvent(CRMEvent crmEvent) {
+            }
+        });
+
+        // Act
+        asyncObserver.onEvent(EventType.CUSTOMER_DELETED);
+        asyncObserver.onEvent(EventType.CUSTOMER_CREATED);
+        asyncObserver.flush();
+
+        // Assert
+        assertEquals(List.of(EventType.CUSTOMER_CREATED), received);
+        assertEquals(1, asyncObserver.getFailedCount());
+        assertEquals("disk full", asyncObserver.getLastFailure().getMessage());
+    }
+
+    @Test
+    void testErrorFromDelegateIsRecordedAndFlushStillReturns() {
+        // Arrange
+        List<EventType> received = Collections.synchronizedList(new ArrayList<>());
+        asyncObserver = new AsyncObserver(new CRMObserver() {
+            @Override
+            public void onEvent(EventType eventType) {
+                if (eventType == EventType.CUSTOMER_DELETED) {
+                    throw new AssertionError("observer bug");
+                }
+                received.add(eventType);
+            }
+
+            @Override
+            public void onEvent(CRMEvent crmEvent) {
+            }
+        });
+
+        // Act
+        asyncObserver.onEvent(EventType.CUSTOMER_DELETED);
+        asyncObserver.onEvent(EventType.CUSTOMER_CREATED);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), asyncObserver::flush);
+
+        // Assert
+        assertEquals(List.of(EventType.CUSTOMER_CREATED), received);
+        assertEquals(1, asyncObserver.getFailedCount());
+        assertInstanceOf(AssertionError.class, asyncObserver.getLastFailure().getCause());
+    }
+
+    @Test
+    void testBlockWaitsForFreeSlot() throws Exception {
+        // Arrange
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingObserver recorder = new RecordingObserver(gate, 0);
+        asyncObserver = new AsyncObserver(recorder, 2, BackpressurePolicy.BLOCK);
+        CountDownLatch published = new CountDownLatch(1);
+
+        // Act
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                asyncObserver.onEvent(EventType.CUSTOMER_CREATED);
+            }
+            published.countDown();
+        });
+        publisher.start();
+        boolean finishedWhileStalled = published.await(200, TimeUnit.MILLISECONDS);
+        gate.countDown();
+        publisher.join();
+        asyncObserver.flush();
+
+        // Assert
+        assertFalse(finishedWhileStalled, "Publisher should block while the buffer is full");
+        assertEquals(5, recorder.received.size());
+    }
+
+    @Test
+    void testCloseDrainsAndRejectsLaterEvents() {
+        // Arrange
+        RecordingObserver recorder = new RecordingObserver(new CountDownLatch(0), 1);
+        asyncObserver = new AsyncObserver(recorder);
+        for (int i = 0; i < 20; i++) {
+            asyncObserver.onEvent(EventType.CUSTOMER_DELETED);
+        }
+
+        // Act
+        asyncObserver.close();
+
+        // Assert
+        assertEquals(20, recorder.received.size());
+        assertTrue(recorder.closed);
+        assertThrows(IllegalStateException.class, () -> asyncObserver.onEvent(EventType.CUSTOMER_DELETED));
+    }
+}
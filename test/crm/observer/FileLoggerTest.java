@@ -1,6 +1,7 @@
 package crm.observer;
 
 import crm.observer.event.CRMEvent;
+import crm.observer.event.CRMEventCodec;
 import crm.observer.event.EventType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -286,4 +288,27 @@ class FileLoggerTest {
         assertEquals("Customer Updated", lines.get(2));
         assertTrue(lines.get(3).contains("Notification Sent"));
     }
+
+    @Test
+    void testBinaryFormatWritesDecodableFrames() throws IOException {
+        // Arrange
+        Path binaryPath = tempDir.resolve("events.bin");
+        FileLogger binaryLogger = new FileLogger(binaryPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0,
+                RotationPolicy.NONE, LogFormat.BINARY);
+        CRMEvent sale = new CRMEvent(EventType.SALE_MADE, 100, "Sale info");
+
+        // Act
+        binaryLogger.onEvent(sale);
+        binaryLogger.onEvent(EventType.COMMAND_UNDONE);
+        binaryLogger.onEvent(new CRMEvent(EventType.NOTIFICATION_SENT, 200, "x".repeat(1000)));
+        binaryLogger.close();
+
+        // Assert
+        List<CRMEvent> events = CRMEventCodec.decodeAll(ByteBuffer.wrap(Files.readAllBytes(binaryPath)));
+        assertEquals(3, events.size());
+        assertEquals(sale.toString(), events.get(0).toString());
+        assertEquals(EventType.COMMAND_UNDONE, events.get(1).getEventType());
+        assertNull(events.get(1).getCustomerId());
+        assertEquals(1000, events.get(2).getAdditionalInfo().length());
+    }
 }
@@ -0,0 +1,305 @@
+package crm.observer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDefaultWriterWritesEachLineThrough() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString());
+
+        // Act
+        writer.writeLine("First");
+        writer.writeLine("Second");
+
+        // Assert
+        assertEquals(List.of("First", "Second"), Files.readAllLines(logPath));
+        writer.close();
+    }
+
+    @Test
+    void testBufferedLinesAppearOnFlush() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 60_000);
+
+        // Act
+        writer.writeLine("Buffered");
+        long sizeBeforeFlush = Files.size(logPath);
+        writer.flush();
+
+        // Assert
+        assertEquals(0, sizeBeforeFlush, "Lines should stay in the buffer until flushed");
+        assertEquals(List.of("Buffered"), Files.readAllLines(logPath));
+        writer.close();
+    }
+
+    @Test
+    void testPeriodicWriterFlushesOnItsOwn() throws Exception {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.PERIODIC, 10);
+
+        // Act
+        writer.writeLine("Eventually durable");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.size(logPath) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals(List.of("Eventually durable"), Files.readAllLines(logPath));
+        writer.close();
+    }
+
+    @Test
+    void testEveryEventWriterIsNeverBuffered() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.EVERY_EVENT, 60_000);
+
+        // Act
+        writer.writeLine("Durable");
+
+        // Assert
+        assertEquals(List.of("Durable"), Files.readAllLines(logPath));
+        writer.close();
+    }
+
+    @Test
+    void testLinesLargerThanBufferAreWrittenInOrder() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 60_000);
+        String large = "x".repeat(200_000);
+
+        // Act
+        writer.writeLine("Before");
+        writer.writeLine(large);
+        writer.writeLine("After");
+        writer.close();
+
+        // Assert
+        assertEquals(List.of("Before", large, "After"), Files.readAllLines(logPath));
+    }
+
+    @Test
+    void testWriteLinesAppendsTheWholeGroup() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.EVERY_EVENT, 0);
+
+        // Act
+        writer.writeLines(List.of("First", "Second", "Third"));
+        writer.writeLines(List.of());
+
+        // Assert
+        assertEquals(List.of("First", "Second", "Third"), Files.readAllLines(logPath));
+        writer.close();
+    }
+
+    @Test
+    void testWriterReopensAfterClose() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("log.txt");
+        LogFileWriter writer = new LogFileWriter(logPath.toString());
+        writer.writeLine("Before close");
+        writer.close();
+
+        // Act
+        writer.writeLine("After close");
+        writer.close();
+
+        // Assert
+        assertEquals(List.of("Before close", "After close"), Files.readAllLines(logPath));
+    }
+
+    @Test
+    void testSizeRotationCompressesSegmentsAndKeepsEveryLine() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("activity.log");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0,
+                new RotationPolicy(100, 0, 0, 0, true));
+
+        // Act - each line is 10 bytes, so every tenth line starts a new segment
+        for (int i = 0; i < 25; i++) {
+            writer.writeLine(String.format("line %04d", i));
+        }
+        writer.close();
+
+        // Assert
+        List<Path> segments = segments(logPath);
+        assertEquals(2, segments.size());
+        assertTrue(segments.stream().allMatch(segment -> segment.toString().endsWith(".gz")));
+        List<String> lines = new ArrayList<>();
+        for (Path segment : segments) {
+            lines.addAll(readGzip(segment));
+        }
+        lines.addAll(Files.readAllLines(logPath));
+        assertEquals(25, lines.size());
+        assertEquals("line 0000", lines.get(0));
+        assertEquals("line 0024", lines.get(24));
+    }
+
+    @Test
+    void testTimeRotationStartsNewSegment() throws Exception {
+        // Arrange
+        Path logPath = tempDir.resolve("sales.log");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0,
+                new RotationPolicy(0, 20, 0, 0, false));
+
+        // Act
+        writer.writeLine("Opens the segment");
+        Thread.sleep(30);
+        writer.writeLine("Past the segment age");
+        writer.close();
+
+        // Assert
+        List<Path> segments = segments(logPath);
+        assertEquals(1, segments.size());
+        assertEquals(List.of("Opens the segment", "Past the segment age"), Files.readAllLines(segments.get(0)));
+        assertEquals(0, Files.size(logPath));
+    }
+
+    @Test
+    void testSegmentAgeSurvivesReopen() throws IOException {
+        // Arrange - the segment was started a minute ago by an earlier process
+        Path logPath = tempDir.resolve("sales.log");
+        RotationPolicy policy = new RotationPolicy(0, 30_000, 0, 0, false);
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0, policy);
+        writer.writeLine("Before restart");
+        writer.close();
+        Files.write(tempDir.resolve("sales.log.start"),
+                Long.toString(System.currentTimeMillis() - 60_000).getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        LogFileWriter reopened = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0, policy);
+        reopened.writeLine("After restart");
+        reopened.close();
+
+        // Assert
+        List<Path> segments = segments(logPath);
+        assertEquals(1, segments.size(), "The reopened segment is already past its age");
+        assertEquals(List.of("Before restart", "After restart"), Files.readAllLines(segments.get(0)));
+        assertEquals(0, Files.size(logPath));
+    }
+
+    @Test
+    void testRetentionKeepsNewestSegments() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("activity.log");
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0,
+                new RotationPolicy(10, 0, 3, 0, false));
+
+        // Act - every line fills a segment
+        for (int i = 0; i < 8; i++) {
+            writer.writeLine(String.format("line %04d", i));
+        }
+        writer.close();
+
+        // Assert
+        List<Path> segments = segments(logPath);
+        assertEquals(3, segments.size());
+        assertEquals(List.of("line 0007"), Files.readAllLines(segments.get(2)));
+    }
+
+    @Test
+    void testRetentionDeletesSegmentsPastMaximumAge() throws IOException {
+        // Arrange
+        Path logPath = tempDir.resolve("activity.log");
+        Path stale = tempDir.resolve("activity.log.20200101-000000-000.gz");
+        Files.write(stale, new byte[]{1});
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        LogFileWriter writer = new LogFileWriter(logPath.toString(), LogFileWriter.Durability.OS_MANAGED, 0,
+                new RotationPolicy(0, 0, 0, 30_000, false));
+
+        // Act
+        writer.writeLine("Current");
+        writer.rotate();
+        writer.close();
+
+        // Assert
+        assertFalse(Files.exists(stale));
+        assertEquals(1, segments(logPath).size());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkAgainstFileWriterPerEvent() throws IOException {
+        int events = Integer.getInteger("crm.benchmark.events", 200_000);
+        String line = "Type: Sale Made, Time: Mon Dec 15 10:00:00 UTC 2025, ID: 64001, Info: Sale completed";
+
+        Path legacyPath = tempDir.resolve("legacy.log");
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            FileWriter logFileWriter = new FileWriter(legacyPath.toString(), true);
+            logFileWriter.write(line + "\n");
+            logFileWriter.close();
+        }
+        report("FileWriter per event", events, start);
+
+        benchmark("write-through", new LogFileWriter(tempDir.resolve("through.log").toString()), events, line);
+        benchmark("OS_MANAGED 100 ms",
+                new LogFileWriter(tempDir.resolve("os.log").toString(), LogFileWriter.Durability.OS_MANAGED, 100),
+                events, line);
+        benchmark("PERIODIC 100 ms",
+                new LogFileWriter(tempDir.resolve("periodic.log").toString(), LogFileWriter.Durability.PERIODIC, 100),
+                events, line);
+        benchmark("EVERY_EVENT",
+                new LogFileWriter(tempDir.resolve("every.log").toString(), LogFileWriter.Durability.EVERY_EVENT, 0),
+                Math.min(events, 5_000), line);
+    }
+
+    private static void benchmark(String name, LogFileWriter writer, int events, String line) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            writer.writeLine(line);
+        }
+        writer.close();
+        report(name, events, start);
+    }
+
+    private static void report(String name, int events, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-22s %,12.0f events/s%n", name, events / seconds);
+    }
+
+    private static List<Path> segments(Path logPath) throws IOException {
+        try (Stream<Path> files = Files.list(logPath.getParent())) {
+            return files.filter(file -> file.getFileName().toString().startsWith(logPath.getFileName() + "."))
+                    .filter(file -> !file.getFileName().toString().endsWith(".start"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> readGzip(Path segment) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
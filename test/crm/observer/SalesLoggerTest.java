@@ -10,6 +10,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -226,6 +227,12 @@ class SalesLoggerTest {
         assertTrue(output.contains("Unable to write to log file"));
     }
 
+    @Test
+    void testSalesLoggerIsOnlyInterestedInSales() {
+        // Assert
+        assertEquals(EnumSet.of(EventType.SALE_MADE), salesLogger.getInterests());
+    }
+
     @Test
     void testSalesLoggerImplementsCRMObserver() {
         // Assert
@@ -0,0 +1,200 @@
+package crm.observer.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CRMEventCodecTest {
+
+    private static CRMEvent roundTrip(CRMEvent event) {
+        ByteBuffer buffer = ByteBuffer.allocate(CRMEventCodec.encodedSize(event));
+        CRMEventCodec.encode(event, buffer);
+        assertFalse(buffer.hasRemaining(), "encodedSize should match the bytes written");
+        buffer.flip();
+        return CRMEventCodec.decode(buffer);
+    }
+
+    @Test
+    void testRoundTripKeepsEveryField() {
+        // Arrange
+        CRMEvent event = new CRMEvent(EventType.SALE_MADE, new Date(1702634400123L), 64001, "Sale completed");
+
+        // Act
+        CRMEvent decoded = roundTrip(event);
+
+        // Assert
+        assertEquals(EventType.SALE_MADE, decoded.getEventType());
+        assertEquals(1702634400123L, decoded.getTimestampMillis());
+        assertEquals(64001, decoded.getCustomerId());
+        assertEquals("Sale completed", decoded.getAdditionalInfo());
+    }
+
+    @Test
+    void testRoundTripWithoutOptionalFields() {
+        // Arrange
+        CRMEvent event = new CRMEvent(EventType.COMMAND_UNDONE);
+
+        // Act
+        CRMEvent decoded = roundTrip(event);
+
+        // Assert
+        assertEquals(EventType.COMMAND_UNDONE, decoded.getEventType());
+        assertNull(decoded.getCustomerId());
+        assertNull(decoded.getAdditionalInfo());
+        assertEquals(event.getTimestampMillis(), decoded.getTimestampMillis());
+    }
+
+    @Test
+    void testPayloadsRoundTrip() {
+        // Arrange
+        CRMEvent created = new CRMEvent(EventType.CUSTOMER_CREATED, new Date(1702634400123L), 5, "New customer",
+                new CustomerStatePayload("VIP", "Jane", "jane@example.com", null, "EMAIL", 1702634400000L));
+        CRMEvent updated = new CRMEvent(EventType.CUSTOMER_UPDATED, 5, null,
+                new FieldChangePayload("PHONE", null, "555-0000"));
+        CRMEvent sale = new CRMEvent(EventType.SALE_MADE, 5, "Sale completed",
+                new InteractionPayload(EventType.SALE_MADE, 1702634400L, 123_456_789, "Sale completed"));
+
+        // Act
+        CustomerStatePayload state = (CustomerStatePayload) roundTrip(created).getPayload();
+        FieldChangePayload change = (FieldChangePayload) roundTrip(updated).getPayload();
+        CRMEvent decodedSale = roundTrip(sale);
+        InteractionPayload interaction = (InteractionPayload) decodedSale.getPayload();
+
+        // Assert
+        assertEquals("VIP", state.getCustomerType());
+        assertEquals("Jane", state.getName());
+        assertNull(state.getPhone());
+        assertEquals("EMAIL", state.getContactMethod());
+        assertEquals(1702634400000L, state.getLastContactMillis());
+        assertEquals("PHONE", change.getField());
+        assertNull(change.getOldValue());
+        assertEquals("555-0000", change.getNewValue());
+        assertEquals(EventType.SALE_MADE, interaction.getInteractionType());
+        assertEquals(1702634400L, interaction.getEpochSecond());
+        assertEquals(123_456_789, interaction.getNano());
+        assertEquals("Sale completed", decodedSale.getAdditionalInfo());
+        assertNull(roundTrip(new CRMEvent(EventType.SALE_MADE, 5)).getPayload());
+    }
+
+    @Test
+    void testNonAsciiInfoMatchesStandardUtf8() {
+        // Arrange
+        String info = "Café – 日本 😀 and an empty string next";
+        CRMEvent event = new CRMEvent(EventType.NOTIFICATION_SENT, 7, info);
+
+        // Act
+        CRMEvent decoded = roundTrip(event);
+        CRMEvent empty = roundTrip(new CRMEvent(EventType.NOTIFICATION_SENT, 7, ""));
+
+        // Assert
+        assertEquals(info, decoded.getAdditionalInfo());
+        assertEquals("", empty.getAdditionalInfo());
+        int expectedBody = 2 + 8 + 4 + 1 + info.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(1 + expectedBody, CRMEventCodec.encodedSize(event));
+    }
+
+    @Test
+    void testUnpairedSurrogateIsReplaced() {
+        // Act
+        CRMEvent decoded = roundTrip(new CRMEvent(EventType.CUSTOMER_UPDATED, 1, "a\uD800b"));
+
+        // Assert
+        assertEquals("a�b", decoded.getAdditionalInfo());
+    }
+
+    @Test
+    void testDecodeAllStopsAtPartialFrame() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 0; i < 10; i++) {
+            CRMEventCodec.encode(new CRMEvent(EventType.CUSTOMER_CREATED, i, "Customer " + i), buffer);
+        }
+        int complete = buffer.position();
+        CRMEventCodec.encode(new CRMEvent(EventType.CUSTOMER_DELETED, 10, "Torn"), buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 3);
+
+        // Act
+        List<CRMEvent> events = CRMEventCodec.decodeAll(buffer);
+
+        // Assert
+        assertEquals(10, events.size());
+        assertEquals(9, events.get(9).getCustomerId());
+        assertEquals(complete, buffer.position(), "The torn frame should be left unread");
+    }
+
+    @Test
+    void testEncodeIntoFullBufferLeavesItUntouched() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+
+        // Act & Assert
+        assertThrows(BufferOverflowException.class,
+                () -> CRMEventCodec.encode(new CRMEvent(EventType.SALE_MADE, 1, "Too long to fit"), buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testInvalidTypeCodeIsRejected() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{10, 99, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CRMEventCodec.decode(buffer));
+    }
+
+    @Test
+    void testBinaryFrameIsMuchSmallerThanLogLine() {
+        // Arrange
+        CRMEvent event = new CRMEvent(EventType.SALE_MADE, 64001, "Sale completed");
+
+        // Act
+        int binary = CRMEventCodec.encodedSize(event);
+        int text = (event + "\n").getBytes(StandardCharsets.UTF_8).length;
+
+        // Assert
+        assertTrue(binary * 2 < text, binary + " bytes against " + text);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkAgainstToString() {
+        int events = Integer.getInteger("crm.benchmark.events", 2_000_000);
+        CRMEvent event = new CRMEvent(EventType.SALE_MADE, 64001, "Sale completed");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long bytes = 0;
+            for (int i = 0; i < events; i++) {
+                bytes += (event + "\n").getBytes(StandardCharsets.UTF_8).length;
+            }
+            report("toString + getBytes", events, start, bytes);
+
+            start = System.nanoTime();
+            bytes = 0;
+            for (int i = 0; i < events; i++) {
+                if (buffer.remaining() < 64) {
+                    bytes += buffer.position();
+                    buffer.clear();
+                }
+                CRMEventCodec.encode(event, buffer);
+            }
+            bytes += buffer.position();
+            buffer.clear();
+            report("CRMEventCodec.encode", events, start, bytes);
+        }
+    }
+
+    private static void report(String name, int events, long start, long bytes) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-22s %,12.0f events/s %6.1f bytes/event%n", name, events / seconds, (double) bytes / events);
+    }
+}
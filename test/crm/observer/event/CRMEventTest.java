@@ -2,6 +2,8 @@ package crm.observer.event;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Date;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CRMEventTest {
@@ -256,4 +258,19 @@ class CRMEventTest {
         // Assert
         assertTrue(result.contains(specialInfo));
     }
+
+    @Test
+    void testConstructorWithTimestampKeepsOriginalTime() {
+        // Arrange
+        Date recorded = new Date(1_700_000_000_000L);
+
+        // Act
+        CRMEvent event = new CRMEvent(EventType.SALE_MADE, recorded, 7, "Replayed");
+        recorded.setTime(0);
+
+        // Assert
+        assertEquals(new Date(1_700_000_000_000L), event.getTimestamp());
+        assertEquals(7, event.getCustomerId());
+        assertEquals("Replayed", event.getAdditionalInfo());
+    }
 }
@@ -0,0 +1,45 @@
+package customer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicIdGeneratorTest {
+
+    @Test
+    void testIdsAreSequential() {
+        // Arrange
+        AtomicIdGenerator generator = new AtomicIdGenerator(100);
+
+        // Act & Assert
+        assertEquals(100, generator.nextId());
+        assertEquals(101, generator.nextId());
+        assertEquals(102, generator.nextId());
+    }
+
+    @Test
+    void testAdvancePastSkipsRecoveredIds() {
+        // Arrange
+        AtomicIdGenerator generator = new AtomicIdGenerator(100);
+
+        // Act
+        generator.advancePast(500);
+        generator.advancePast(200);
+
+        // Assert
+        assertEquals(501, generator.nextId(), "Advancing should never move the generator backwards");
+    }
+
+    @Test
+    void testExhaustedIdSpaceThrows() {
+        // Arrange
+        AtomicIdGenerator generator = new AtomicIdGenerator(Integer.MAX_VALUE);
+
+        // Act
+        int last = generator.nextId();
+
+        // Assert
+        assertEquals(Integer.MAX_VALUE, last);
+        assertThrows(IllegalStateException.class, generator::nextId, "IDs must not wrap around");
+    }
+}
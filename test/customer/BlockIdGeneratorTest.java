@@ -0,0 +1,130 @@
+package customer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIdGeneratorTest {
+
+    @Test
+    void testIdsAreSequentialWithinThread() {
+        // Arrange
+        BlockIdGenerator generator = new BlockIdGenerator(1000, 4);
+
+        // Act & Assert - crossing a block boundary stays contiguous for a single thread
+        for (int expected = 1000; expected < 1010; expected++) {
+            assertEquals(expected, generator.nextId());
+        }
+        assertEquals(1012, generator.getHighWaterMark());
+    }
+
+    @Test
+    void testConcurrentThreadsNeverShareIds() throws Exception {
+        // Arrange
+        BlockIdGenerator generator = new BlockIdGenerator(1, 64);
+        int threadCount = 16;
+        int idsPerThread = 10_000;
+        int[][] generated = new int[threadCount][idsPerThread];
+
+        // Act
+        runConcurrently(threadCount, thread -> {
+            for (int i = 0; i < idsPerThread; i++) {
+                generated[thread][i] = generator.nextId();
+            }
+        });
+
+        // Assert
+        Set<Integer> unique = new HashSet<>();
+        for (int[] ids : generated) {
+            for (int id : ids) {
+                assertTrue(unique.add(id), "Duplicate ID handed out: " + id);
+            }
+        }
+        assertEquals(threadCount * idsPerThread, unique.size());
+    }
+
+    @Test
+    void testAdvancePastInvalidatesLeasedBlocks() {
+        // Arrange
+        BlockIdGenerator generator = new BlockIdGenerator(1, 1000);
+        generator.nextId();
+
+        // Act - IDs up to 5000 were recovered from disk
+        generator.advancePast(5000);
+
+        // Assert
+        assertEquals(5001, generator.nextId(), "The block leased before recovery must be abandoned");
+    }
+
+    @Test
+    void testExhaustedIdSpaceThrows() {
+        // Arrange
+        BlockIdGenerator generator = new BlockIdGenerator(Integer.MAX_VALUE - 1, 8);
+
+        // Act
+        assertEquals(Integer.MAX_VALUE - 1, generator.nextId());
+        assertEquals(Integer.MAX_VALUE, generator.nextId());
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextId, "IDs must not wrap around");
+    }
+
+    @Test
+    void testInvalidBlockSizeThrows() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new BlockIdGenerator(1, 0));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkBulkCreationThroughput() throws Exception {
+        int idsPerThread = 2_000_000;
+        for (int threads = 1; threads <= 16; threads *= 2) {
+            double atomic = measure(new AtomicIdGenerator(1), threads, idsPerThread);
+            double blocks = measure(new BlockIdGenerator(1, 4096), threads, idsPerThread);
+            System.out.printf("%2d threads: atomic %,.0f ids/s, block-leased %,.0f ids/s%n", threads, atomic, blocks);
+        }
+    }
+
+    private static double measure(IdGenerator generator, int threadCount, int idsPerThread) throws Exception {
+        long start = System.nanoTime();
+        runConcurrently(threadCount, thread -> {
+            for (int i = 0; i < idsPerThread; i++) {
+                generator.nextId();
+            }
+        });
+        return threadCount * (double) idsPerThread / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+
+    private static void runConcurrently(int threadCount, ThreadBody body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(thread);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -331,4 +331,28 @@ class CustomerTest {
         assertEquals("Customer 1 created", customer1.getInteractionHistory().get(0).getDetails());
         assertEquals("Customer 2 created", customer2.getInteractionHistory().get(0).getDetails());
     }
+
+    // ==================== Change Listener Tests ====================
+
+    @Test
+    void testChangeListenerReceivesFieldChanges() {
+        // Arrange
+        java.util.List<String> changes = new java.util.ArrayList<>();
+        CustomerChangeListener listener = (customer, field, oldValue, newValue) ->
+                changes.add(field + ":" + oldValue + "->" + newValue);
+        testCustomer.addChangeListener(listener);
+
+        // Act
+        testCustomer.setName("Jane Smith");
+        testCustomer.setEmail("jane@example.com");
+        testCustomer.setPhone("555-0000");
+        testCustomer.removeChangeListener(listener);
+        testCustomer.setName("Ignored");
+
+        // Assert
+        assertEquals(3, changes.size(), "Removed listener should not be notified");
+        assertEquals("Name:John Smith->Jane Smith", changes.get(0));
+        assertEquals("Email:customer@example.com->jane@example.com", changes.get(1));
+        assertEquals("Phone:555-9999->555-0000", changes.get(2));
+    }
 }
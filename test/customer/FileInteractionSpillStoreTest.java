@@ -0,0 +1,86 @@
+package customer;
+
+import crm.observer.event.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileInteractionSpillStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        Customer.setHistorySpillStore(null, 0);
+    }
+
+    @Test
+    void testChunksRoundTrip() throws IOException {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.of(2025, 12, 15, 10, 30, 15, 123_456_789);
+        Interaction[] first = {
+                new Interaction(timestamp, EventType.SALE_MADE, "Sale completed"),
+                new Interaction(timestamp.plusDays(1), EventType.NOTIFICATION_SENT, null)
+        };
+        Interaction[] second = {new Interaction(timestamp, EventType.CUSTOMER_UPDATED, "Name changed to Zoë")};
+
+        try (FileInteractionSpillStore store = new FileInteractionSpillStore(tempDir.resolve("history.spill"))) {
+            // Act
+            long firstHandle = store.write(first);
+            long secondHandle = store.write(second);
+            Interaction[] secondRead = store.read(secondHandle);
+            Interaction[] firstRead = store.read(firstHandle);
+
+            // Assert
+            assertEquals(2, firstRead.length);
+            assertEquals(timestamp, firstRead[0].getTimestamp());
+            assertEquals(EventType.SALE_MADE, firstRead[0].getEventType());
+            assertEquals("Sale completed", firstRead[0].getDetails());
+            assertNull(firstRead[1].getDetails());
+            assertEquals("Name changed to Zoë", secondRead[0].getDetails());
+        }
+    }
+
+    @Test
+    void testOpeningTruncatesPreviousContents() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("history.spill");
+        Files.write(path, new byte[1000]);
+
+        // Act
+        try (FileInteractionSpillStore store = new FileInteractionSpillStore(path)) {
+            // Assert
+            assertEquals(0, store.size());
+            assertEquals(0, Files.size(path));
+        }
+    }
+
+    @Test
+    void testCustomerHistorySpillsAndReadsBack() throws IOException {
+        // Arrange
+        try (FileInteractionSpillStore store = new FileInteractionSpillStore(tempDir.resolve("history.spill"))) {
+            Customer.setHistorySpillStore(store, 1);
+            Customer customer = new RegularCustomer(1, "Busy Customer", "busy@example.com", "555-0000");
+
+            // Act
+            for (int i = 0; i < 5000; i++) {
+                customer.addInteraction(EventType.SALE_MADE, "Sale " + i);
+            }
+
+            // Assert
+            assertTrue(store.size() > 0);
+            assertEquals(5000, customer.getInteractionCount());
+            assertEquals("Sale 0", customer.getInteractions().get(0).getDetails());
+            assertEquals(5000, customer.getInteractionHistory().size());
+            assertEquals("Sale 4999", customer.getInteractionHistory().get(4999).getDetails());
+        }
+    }
+}
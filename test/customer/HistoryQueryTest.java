@@ -0,0 +1,79 @@
+package customer;
+
+import crm.observer.event.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryQueryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 9, 0);
+
+    // One interaction per day, alternating sales and notifications
+    private static InteractionHistory history(int days) {
+        InteractionHistory history = new InteractionHistory();
+        for (int i = 0; i < days; i++) {
+            EventType type = i % 2 == 0 ? EventType.SALE_MADE : EventType.NOTIFICATION_SENT;
+            history.add(new Interaction(START.plusDays(i), type, "Day " + i));
+        }
+        return history;
+    }
+
+    private static List<String> details(Stream<Interaction> interactions) {
+        return interactions.map(Interaction::getDetails).collect(Collectors.toList());
+    }
+
+    @Test
+    void testAllReturnsEverythingInOrder() {
+        // Arrange
+        InteractionHistory history = history(3);
+
+        // Act
+        List<String> result = details(HistoryQuery.ALL.apply(history));
+
+        // Assert
+        assertFalse(HistoryQuery.ALL.isFiltered());
+        assertEquals(List.of("Day 0", "Day 1", "Day 2"), result);
+    }
+
+    @Test
+    void testFiltersByEventTypeAndTimeRange() {
+        // Arrange
+        InteractionHistory history = history(10);
+        HistoryQuery query = new HistoryQuery(EnumSet.of(EventType.SALE_MADE), START.plusDays(2), START.plusDays(7), false);
+
+        // Act
+        List<String> result = details(query.apply(history));
+
+        // Assert
+        assertEquals(List.of("Day 2", "Day 4", "Day 6"), result);
+    }
+
+    @Test
+    void testNewestFirstPages() {
+        // Arrange
+        InteractionHistory history = history(3000);
+        HistoryQuery query = new HistoryQuery(Collections.emptySet(), null, null, true);
+
+        // Act
+        List<String> firstPage = details(query.page(history, 0, 3));
+        List<String> secondPage = details(query.page(history, 1, 3));
+
+        // Assert
+        assertEquals(List.of("Day 2999", "Day 2998", "Day 2997"), firstPage);
+        assertEquals(List.of("Day 2996", "Day 2995", "Day 2994"), secondPage);
+    }
+
+    @Test
+    void testRejectsBackwardsRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new HistoryQuery(Collections.emptySet(), START, START.minusDays(1), false));
+    }
+}
@@ -0,0 +1,150 @@
+package customer;
+
+import crm.observer.event.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InteractionHistoryTest {
+
+    // Keeps spilled chunks in a map so tests can see what left memory
+    private static class MapSpillStore implements InteractionSpillStore {
+        private final Map<Long, Interaction[]> chunks = new HashMap<>();
+        private int reads;
+
+        @Override
+        public long write(Interaction[] chunk) {
+            long handle = chunks.size();
+            chunks.put(handle, chunk.clone());
+            return handle;
+        }
+
+        @Override
+        public Interaction[] read(long handle) {
+            reads++;
+            return chunks.get(handle);
+        }
+    }
+
+    private static void fill(InteractionHistory history, int count) {
+        for (int i = 0; i < count; i++) {
+            history.add(new Interaction(EventType.SALE_MADE, "Sale " + i));
+        }
+    }
+
+    @Test
+    void testGetReturnsEntriesInAppendOrder() {
+        // Arrange
+        InteractionHistory history = new InteractionHistory();
+
+        // Act
+        fill(history, 3000);
+
+        // Assert
+        assertEquals(3000, history.size());
+        assertEquals("Sale 0", history.get(0).getDetails());
+        assertEquals("Sale 1024", history.get(1024).getDetails());
+        assertEquals("Sale 2999", history.get(2999).getDetails());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(3000));
+    }
+
+    @Test
+    void testChunksOutsideWindowAreSpilled() {
+        // Arrange
+        MapSpillStore store = new MapSpillStore();
+        InteractionHistory history = new InteractionHistory(store, 2);
+
+        // Act
+        fill(history, InteractionHistory.CHUNK_SIZE * 5 + 10);
+
+        // Assert
+        assertEquals(3, store.chunks.size());
+        assertEquals(2, history.getResidentChunkCount());
+        assertEquals("Sale 5", history.get(5).getDetails());
+        assertEquals("Sale 5129", history.get(5129).getDetails());
+    }
+
+    @Test
+    void testIteratorReadsEachSpilledChunkOnce() {
+        // Arrange
+        MapSpillStore store = new MapSpillStore();
+        InteractionHistory history = new InteractionHistory(store, 0);
+        fill(history, InteractionHistory.CHUNK_SIZE * 3);
+
+        // Act
+        List<String> details = new ArrayList<>();
+        for (Interaction interaction : history) {
+            details.add(interaction.getDetails());
+        }
+
+        // Assert
+        assertEquals(InteractionHistory.CHUNK_SIZE * 3, details.size());
+        assertEquals("Sale 3071", details.get(3071));
+        assertEquals(3, store.reads);
+    }
+
+    @Test
+    void testIteratorIgnoresLaterAppends() {
+        // Arrange
+        InteractionHistory history = new InteractionHistory();
+        fill(history, 5);
+        Iterator<Interaction> iterator = history.iterator();
+
+        // Act
+        fill(history, 20);
+        int seen = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            seen++;
+        }
+
+        // Assert
+        assertEquals(5, seen);
+        assertEquals(25, history.size());
+    }
+
+    @Test
+    void testStreamCoversWholeHistory() {
+        // Arrange
+        InteractionHistory history = new InteractionHistory(new MapSpillStore(), 1);
+        fill(history, 4000);
+        history.add(new Interaction(EventType.NOTIFICATION_SENT, "Contacted"));
+
+        // Act
+        List<Interaction> notifications = history.stream()
+                .filter(interaction -> interaction.getEventType() == EventType.NOTIFICATION_SENT)
+                .collect(Collectors.toList());
+
+        // Assert
+        assertEquals(4001, history.stream().count());
+        assertEquals(1, notifications.size());
+        assertEquals("Contacted", notifications.get(0).getDetails());
+    }
+
+    @Test
+    void testDescendingIteratorStartsAtNewest() {
+        // Arrange
+        MapSpillStore store = new MapSpillStore();
+        InteractionHistory history = new InteractionHistory(store, 1);
+        fill(history, InteractionHistory.CHUNK_SIZE * 3 + 1);
+
+        // Act
+        Iterator<Interaction> iterator = history.descendingIterator();
+        Interaction newest = iterator.next();
+        int readsForFirstEntry = store.reads;
+        long total = 1 + history.descendingStream().skip(1).count();
+
+        // Assert
+        assertEquals("Sale 3072", newest.getDetails());
+        assertEquals(0, readsForFirstEntry, "The newest page should not touch spilled chunks");
+        assertEquals(history.size(), total);
+        assertEquals("Sale 0", history.descendingStream().reduce((first, second) -> second).get().getDetails());
+    }
+}
@@ -0,0 +1,244 @@
+package importer;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.LostCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import repository.ConcurrentCustomerRepository;
+import repository.FileCustomerRepository;
+import repository.InMemoryCustomerRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCsvImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTypeColumnPicksCustomerClass() throws IOException {
+        // Arrange
+        Path csv = write("LEAD,Ann,ann@example.com,111\n"
+                + "regular,Bob,bob@example.com,222\n"
+                + "Vip,Cat,cat@example.com,333\n"
+                + "LOST,Dan,dan@example.com,444\n");
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+
+        // Act
+        ImportReport report = new CustomerCsvImporter(repository).importFile(csv);
+
+        // Assert
+        assertEquals(4, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertInstanceOf(LeadCustomer.class, repository.findByNamePrefix("Ann").get(0));
+        assertInstanceOf(RegularCustomer.class, repository.findByNamePrefix("Bob").get(0));
+        assertInstanceOf(VIPCustomer.class, repository.findByNamePrefix("Cat").get(0));
+        assertInstanceOf(LostCustomer.class, repository.findByNamePrefix("Dan").get(0));
+        assertEquals("dan@example.com", repository.findByNamePrefix("Dan").get(0).getEmail());
+    }
+
+    @Test
+    void testHeaderAndQuotedFields() throws IOException {
+        // Arrange
+        Path csv = write("type,name,email,phone\r\n"
+                + "VIP,\"Smith, \"\"Jo\"\"\",jo@example.com,555\r\n"
+                + "LEAD,\"\",empty@example.com,\"\"\r\n");
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+
+        // Act
+        ImportReport report = new CustomerCsvImporter(repository).importFile(csv);
+
+        // Assert
+        assertEquals(2, report.getImported());
+        Customer jo = repository.findByNamePrefix("Smith").get(0);
+        assertEquals("Smith, \"Jo\"", jo.getName());
+        assertEquals("555", jo.getPhone());
+    }
+
+    @Test
+    void testBadRowsAreRejectedAndSampled() throws IOException {
+        // Arrange
+        Path csv = write("LEAD,Ann,ann@example.com,111\n"
+                + "PARTNER,Bob,bob@example.com,222\n"
+                + "VIP,Cat,cat@example.com\n"
+                + "VIP,Dan,dan@example.com,444,extra\n"
+                + "\n"
+                + "LOST,Eve,eve@example.com,555\n");
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+
+        // Act
+        ImportReport report = new CustomerCsvImporter(repository).importFile(csv);
+
+        // Assert
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertTrue(report.getRejectedSamples().contains("PARTNER,Bob,bob@example.com,222"));
+        assertEquals(2, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testSmallChunksGiveSameCustomersAsOneChunk() throws IOException {
+        // Arrange
+        Path csv = generate(tempDir.resolve("many.csv"), 5_000);
+        ConcurrentCustomerRepository single = new ConcurrentCustomerRepository();
+        ConcurrentCustomerRepository chunked = new ConcurrentCustomerRepository();
+
+        // Act
+        ImportReport whole = new CustomerCsvImporter(single, 1, Integer.MAX_VALUE / 2, 1_000).importFile(csv);
+        ImportReport split = new CustomerCsvImporter(chunked, 4, 997, 37).importFile(csv);
+
+        // Assert
+        assertEquals(5_000, whole.getImported());
+        assertEquals(5_000, split.getImported());
+        assertEquals(0, split.getRejected());
+        assertEquals(describe(single.getAllCustomers()), describe(chunked.getAllCustomers()));
+    }
+
+    @Test
+    void testImportIntoFileRepositorySurvivesReopen() throws IOException {
+        // Arrange
+        Path csv = generate(tempDir.resolve("durable.csv"), 2_000);
+        Path dataDir = tempDir.resolve("data");
+
+        // Act
+        try (FileCustomerRepository repository = new FileCustomerRepository(dataDir)) {
+            new CustomerCsvImporter(repository, 2, 4096, 250).importFile(csv);
+        }
+
+        // Assert
+        try (FileCustomerRepository reopened = new FileCustomerRepository(dataDir)) {
+            assertEquals(2_000, reopened.getAllCustomers().size());
+            assertInstanceOf(VIPCustomer.class, reopened.findByNamePrefix("Customer 2-").get(0));
+        }
+    }
+
+    @Test
+    void testThreadSafeRepositoryTakesBatchesConcurrently() throws IOException {
+        // Arrange - the first two batches only get past the barrier if they are inserted at the same time
+        Path csv = generate(tempDir.resolve("concurrent.csv"), 2_000);
+        CyclicBarrier bothInserting = new CyclicBarrier(2);
+        AtomicInteger barrierTimeouts = new AtomicInteger();
+        ConcurrentCustomerRepository repository = new ConcurrentCustomerRepository() {
+            private final AtomicInteger batches = new AtomicInteger();
+
+            @Override
+            public void createCustomers(List<Customer> customers) {
+                if (batches.incrementAndGet() <= 2) {
+                    try {
+                        bothInserting.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        barrierTimeouts.incrementAndGet();
+                    }
+                }
+                super.createCustomers(customers);
+            }
+        };
+
+        // Act
+        ImportReport report = new CustomerCsvImporter(repository, 2, 4096, 50).importFile(csv);
+
+        // Assert
+        assertEquals(2_000, report.getImported());
+        assertEquals(0, barrierTimeouts.get());
+    }
+
+    @Test
+    void testRepositoryThatIsNotThreadSafeGetsOneBatchAtATime() throws IOException {
+        // Arrange
+        Path csv = generate(tempDir.resolve("serial.csv"), 2_000);
+        AtomicInteger inserting = new AtomicInteger();
+        AtomicInteger mostInserting = new AtomicInteger();
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository() {
+            @Override
+            public void createCustomers(List<Customer> customers) {
+                mostInserting.accumulateAndGet(inserting.incrementAndGet(), Math::max);
+                Thread.yield();
+                super.createCustomers(customers);
+                inserting.decrementAndGet();
+            }
+        };
+
+        // Act
+        ImportReport report = new CustomerCsvImporter(repository, 4, 1024, 10).importFile(csv);
+
+        // Assert
+        assertEquals(2_000, report.getImported());
+        assertEquals(2_000, repository.getAllCustomers().size());
+        assertEquals(1, mostInserting.get());
+    }
+
+    @Test
+    void testRejectsNonPositiveSettings() {
+        // Arrange
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCsvImporter(repository, 0, 1024, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCsvImporter(repository, 1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CustomerCsvImporter(repository, 1, 1024, 0));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkImport() throws IOException {
+        // Arrange
+        int rows = Integer.getInteger("crm.benchmark.events", 1_000_000);
+        Path csv = generate(tempDir.resolve("bench.csv"), rows);
+
+        // Act
+        ImportReport memory = new CustomerCsvImporter(new ConcurrentCustomerRepository()).importFile(csv);
+        ImportReport durable;
+        try (FileCustomerRepository repository = new FileCustomerRepository(tempDir.resolve("bench-data"))) {
+            durable = new CustomerCsvImporter(repository).importFile(csv);
+        }
+
+        // Assert
+        System.out.printf("In memory: %s%n", memory);
+        System.out.printf("File repository: %s%n", durable);
+        assertEquals(rows, memory.getImported());
+        assertEquals(rows, durable.getImported());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(tempDir.resolve("customers.csv"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path generate(Path csv, int rows) throws IOException {
+        String[] types = {"LEAD", "REGULAR", "VIP", "LOST"};
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("type,name,email,phone\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(types[i % types.length] + ",Customer " + i % types.length + "-" + i
+                        + ",customer" + i + "@example.com," + (5550000 + i) + "\n");
+            }
+        }
+        return csv;
+    }
+
+    // Customer ids depend on insertion order, so compare everything else
+    private static List<String> describe(List<Customer> customers) {
+        List<String> rows = new ArrayList<>();
+        for (Customer customer : customers) {
+            rows.add(customer.getClass().getSimpleName() + "," + customer.getName() + ","
+                    + customer.getEmail() + "," + customer.getPhone());
+        }
+        rows.sort(Comparator.naturalOrder());
+        return rows;
+    }
+}
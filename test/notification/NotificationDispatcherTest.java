@@ -0,0 +1,271 @@
+package notification;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+
+    private NotificationDispatcher dispatcher;
+    private Customer customer;
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    // Records batch sizes and can be held on a gate to simulate a stalled gateway
+    private static class RecordingProvider implements NotificationProvider {
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        RecordingProvider(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void sendBatch(List<Notification> batch) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            entered.countDown();
+            try {
+                gate.await();
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add(batch.size());
+            active.decrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher();
+        customer = new RegularCustomer("John Smith", "john@example.com", "555-1234");
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void testMessagesQueuedBehindBusySenderGoOutAsOneBatch() throws Exception {
+        // Arrange
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingProvider provider = new RecordingProvider(gate);
+        dispatcher.registerChannel(SMSNotification.class, provider, 1, 50);
+
+        // Act - the first message holds the only sender while 30 more queue up
+        CompletableFuture<Void> first = dispatcher.dispatch(customer, "First");
+        provider.entered.await();
+        List<CompletableFuture<Void>> rest = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            rest.add(dispatcher.dispatch(customer, "Message " + i));
+        }
+        int pending = dispatcher.getPendingCount(SMSNotification.class);
+        gate.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(rest.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(30, pending);
+        assertEquals(List.of(1, 30), provider.batchSizes);
+    }
+
+    @Test
+    void testConcurrencyLimitIsRespected() {
+        // Arrange
+        RecordingProvider provider = new RecordingProvider(new CountDownLatch(0));
+        dispatcher.registerChannel(EmailNotification.class, provider, 3, 1);
+        customer.setPreferredContactMethod(new EmailNotification());
+
+        // Act
+        for (int i = 0; i < 40; i++) {
+            dispatcher.dispatch(customer, "Message " + i);
+        }
+        dispatcher.flush();
+
+        // Assert
+        assertEquals(40, provider.batchSizes.size());
+        assertTrue(provider.maxActive.get() <= 3, "At most 3 batches should be in flight");
+    }
+
+    @Test
+    void testFailedBatchCompletesExceptionally() {
+        // Arrange
+        dispatcher.registerChannel(PushNotification.class, batch -> {
+            throw new IllegalStateException("Gateway unavailable");
+        }, 1, 10);
+        customer.setPreferredContactMethod(new PushNotification());
+
+        // Act
+        CompletableFuture<Void> result = dispatcher.dispatch(customer, "Hello");
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("Gateway unavailable", e.getCause().getMessage());
+    }
+
+    @Test
+    void testErrorInProviderFailsBatchAndLaterMessagesStillSend() throws Exception {
+        // Arrange - the first batch dies with an Error while the second message waits behind it
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerChannel(SMSNotification.class, batch -> {
+            if (batch.get(0).getMessage().equals("First")) {
+                entered.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new LinkageError("Provider crashed");
+            }
+            for (Notification notification : batch) {
+                sent.add(notification.getMessage());
+            }
+        }, 1, 10);
+
+        // Act
+        CompletableFuture<Void> first = dispatcher.dispatch(customer, "First");
+        entered.await();
+        CompletableFuture<Void> second = dispatcher.dispatch(customer, "Second");
+        gate.countDown();
+        CompletableFuture<Void> flushed = CompletableFuture.runAsync(dispatcher::flush);
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LinkageError.class, e.getCause());
+        second.get(5, TimeUnit.SECONDS);
+        flushed.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("Second"), sent);
+        assertEquals(0, dispatcher.getPendingCount(SMSNotification.class));
+    }
+
+    @Test
+    void testUnregisteredChannelSendsThroughStrategy() throws Exception {
+        // Act
+        dispatcher.dispatch(customer, "Fallback").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(outContent.toString().contains("Sent: 'Fallback' to 555-1234"));
+    }
+
+    @Test
+    void testCloseSendsQueuedMessagesAndRejectsNewOnes() {
+        // Arrange
+        SimulatedLatencyProvider provider = new SimulatedLatencyProvider(2, 0);
+        dispatcher.registerChannel(SMSNotification.class, provider, 2, 5);
+        for (int i = 0; i < 25; i++) {
+            dispatcher.dispatch(customer, "Message " + i);
+        }
+
+        // Act
+        dispatcher.close();
+
+        // Assert
+        assertEquals(25, provider.getSentCount());
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(customer, "Too late"));
+    }
+
+    @Test
+    void testVipMessagesJumpTheQueueWhenThrottled() throws Exception {
+        // Arrange - the channel allows one message at a time at 50 per second
+        NotificationRateLimiter limiter = new NotificationRateLimiter();
+        limiter.setChannelLimit(SMSNotification.class, new TokenBucket(1, 50));
+        NotificationDispatcher throttled = new NotificationDispatcher(limiter);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        throttled.registerChannel(SMSNotification.class,
+                batch -> batch.forEach(notification -> order.add(notification.getMessage())), 1, 10);
+        Customer lead = new LeadCustomer("Lead", "lead@example.com", "555-0001");
+        Customer vip = new VIPCustomer("VIP", "vip@example.com", "555-0002");
+
+        // Act - leads are queued first, but the VIP message should go out right after the first lead
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sends.add(throttled.dispatch(lead, "Lead " + i));
+        }
+        sends.add(throttled.dispatch(vip, "VIP"));
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        throttled.close();
+
+        // Assert
+        assertEquals(5, order.size());
+        assertTrue(order.indexOf("VIP") <= 1, "VIP was sent at position " + order.indexOf("VIP"));
+        assertEquals(5, limiter.getChannelBucket(SMSNotification.class).getGrantedCount());
+    }
+
+    @Test
+    void testTierLimitDoesNotHoldUpOtherTiers() throws Exception {
+        // Arrange - prospects get one message every 10 seconds, everyone else is unlimited
+        NotificationRateLimiter limiter = new NotificationRateLimiter();
+        limiter.setTierLimit(TrafficTier.PROSPECT, new TokenBucket(1, 0.1));
+        NotificationDispatcher throttled = new NotificationDispatcher(limiter);
+        throttled.registerChannel(SMSNotification.class, batch -> { }, 1, 10);
+        Customer lead = new LeadCustomer("Lead", "lead@example.com", "555-0001");
+
+        // Act
+        CompletableFuture<Void> firstLead = throttled.dispatch(lead, "First");
+        CompletableFuture<Void> secondLead = throttled.dispatch(lead, "Second");
+        CompletableFuture<Void> regular = throttled.dispatch(customer, "Regular");
+        firstLead.get(5, TimeUnit.SECONDS);
+        regular.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(secondLead.isDone(), "The second lead message should wait for a prospect token");
+        assertEquals(1, throttled.getPendingCount(SMSNotification.class));
+        assertTrue(limiter.getBuckets().containsKey("tier:PROSPECT"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkAgainstSynchronousSends() throws Exception {
+        int messages = Integer.getInteger("crm.benchmark.events", 2_000);
+        // A gateway with a 20 ms round trip and 50 us per message
+        SimulatedLatencyProvider direct = new SimulatedLatencyProvider(20, 50);
+        long start = System.nanoTime();
+        for (int i = 0; i < Math.min(messages, 200); i++) {
+            direct.sendBatch(List.of(new Notification(customer, customer.getPreferredContactMethod(), "Hi")));
+        }
+        report("synchronous", Math.min(messages, 200), start);
+
+        for (int concurrency : new int[]{1, 4, 16}) {
+            NotificationDispatcher benchDispatcher = new NotificationDispatcher();
+            SimulatedLatencyProvider provider = new SimulatedLatencyProvider(20, 50);
+            benchDispatcher.registerChannel(SMSNotification.class, provider, concurrency, NotificationDispatcher.DEFAULT_BATCH_SIZE);
+            start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                benchDispatcher.dispatch(customer, "Hi");
+            }
+            benchDispatcher.close();
+            report("dispatcher x" + concurrency + " (" + provider.getBatchCount() + " batches)", messages, start);
+        }
+    }
+
+    private void report(String name, int messages, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        originalOut.printf("%-32s %,12.0f messages/s%n", name, messages / seconds);
+    }
+}
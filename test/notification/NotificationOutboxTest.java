@@ -0,0 +1,313 @@
+package notification;
+
+import customer.Customer;
+import customer.RegularCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationOutboxTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<Integer, Customer> customers = new ConcurrentHashMap<>();
+    private final List<Notification> sent = Collections.synchronizedList(new ArrayList<>());
+    private final RetryPolicy fastRetries = new RetryPolicy(3, 1, 5);
+    private NotificationDispatcher dispatcher;
+    private NotificationOutbox outbox;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher();
+        customer = new RegularCustomer(64001, "John Smith", "john@example.com", "555-1234");
+        customers.put(customer.getId(), customer);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (outbox != null) {
+            outbox.close();
+        }
+        dispatcher.close();
+    }
+
+    private NotificationOutbox open(NotificationProvider provider) throws IOException {
+        dispatcher.registerChannel(SMSNotification.class, provider, 2, 50);
+        return new NotificationOutbox(tempDir, customers::get, dispatcher, fastRetries, 2);
+    }
+
+    @Test
+    void testEnqueuedNotificationIsDelivered() throws Exception {
+        // Arrange
+        outbox = open(sent::addAll);
+
+        // Act
+        outbox.enqueue(customer, "Hello", "key-1").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals("key-1", sent.get(0).getIdempotencyKey());
+        assertEquals(1, outbox.getDeliveredCount());
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    @Test
+    void testCompactionsRacingConcurrentEnqueuesLoseNothing() throws Exception {
+        // Arrange - a compaction after every few deliveries, while eight threads keep forcing new entries
+        dispatcher.registerChannel(SMSNotification.class, sent::addAll, 2, 50);
+        outbox = new NotificationOutbox(tempDir, customers::get, dispatcher, fastRetries, 2, 5);
+        int threads = 8;
+        int perThread = 200;
+        List<CompletableFuture<Void>> completions = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        completions.add(outbox.enqueue(customer, "Message", "key-" + thread + "-" + i));
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+
+        // Act
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        CompletableFuture.allOf(completions.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        outbox.close();
+        outbox = new NotificationOutbox(tempDir, customers::get, dispatcher, fastRetries, 2);
+
+        // Assert
+        assertEquals(List.of(), errors);
+        assertEquals(threads * perThread, completions.size());
+        assertEquals(threads * perThread, sent.size());
+        assertEquals(0, outbox.getPendingCount());
+        assertTrue(outbox.isEnqueued("key-7-199"));
+    }
+
+    @Test
+    void testFailedDeliveriesAreRetried() throws Exception {
+        // Arrange - the provider fails twice before it accepts the message
+        AtomicInteger calls = new AtomicInteger();
+        outbox = open(batch -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new IllegalStateException("Provider timeout");
+            }
+            sent.addAll(batch);
+        });
+
+        // Act
+        outbox.enqueue(customer, "Retry me").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals(2, outbox.getRetryCount());
+        assertEquals(1, outbox.getDeliveredCount());
+    }
+
+    @Test
+    void testExhaustedRetriesGoToDeadLetters() throws Exception {
+        // Arrange
+        outbox = open(batch -> {
+            throw new IllegalStateException("Number blocked");
+        });
+
+        // Act
+        CompletableFuture<Void> result = outbox.enqueue(customer, "Never arrives", "key-dead");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(e.getCause().getMessage().contains("Number blocked"));
+        List<OutboxEntry> deadLetters = outbox.getDeadLetters();
+        assertEquals(1, deadLetters.size());
+        assertEquals("key-dead", deadLetters.get(0).getIdempotencyKey());
+        assertEquals(3, deadLetters.get(0).getFailedAttempts());
+        assertEquals("Number blocked", deadLetters.get(0).getLastError());
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    @Test
+    void testSameIdempotencyKeyIsSentOnce() throws Exception {
+        // Arrange
+        outbox = open(sent::addAll);
+
+        // Act
+        CompletableFuture<Void> first = outbox.enqueue(customer, "Hello", "key-dup");
+        CompletableFuture<Void> second = outbox.enqueue(customer, "Hello", "key-dup");
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        outbox.enqueue(customer, "Hello", "key-dup").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void testPendingEntriesAreDeliveredAfterRestart() throws Exception {
+        // Arrange - nothing can be delivered before the restart
+        dispatcher.registerChannel(SMSNotification.class, batch -> {
+            throw new IllegalStateException("Offline");
+        }, 1, 50);
+        outbox = new NotificationOutbox(tempDir, customers::get, dispatcher, new RetryPolicy(10, 60_000, 60_000), 1);
+        outbox.enqueue(customer, "Survives restart", "key-restart");
+        outbox.close();
+        // A record torn off by a crash mid-write
+        Files.write(tempDir.resolve("outbox.log"), new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        // Act
+        dispatcher.registerChannel(SMSNotification.class, sent::addAll, 1, 50);
+        outbox = new NotificationOutbox(tempDir, customers::get, dispatcher, fastRetries, 1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outbox.getDeliveredCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals("Survives restart", sent.get(0).getMessage());
+        assertEquals("key-restart", sent.get(0).getIdempotencyKey());
+    }
+
+    @Test
+    void testEnqueueRacingCloseKeepsAcceptedEntriesPending() throws Exception {
+        // Arrange - nothing is delivered, so every accepted entry must still be pending after reopening
+        dispatcher.registerChannel(SMSNotification.class, batch -> {
+            throw new IllegalStateException("Offline");
+        }, 1, 50);
+        RetryPolicy slowRetries = new RetryPolicy(10, 60_000, 60_000);
+        for (int round = 0; round < 20; round++) {
+            Path directory = tempDir.resolve("round-" + round);
+            NotificationOutbox racing = new NotificationOutbox(directory, customers::get, dispatcher, slowRetries, 1);
+            AtomicInteger accepted = new AtomicInteger();
+            List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+            Thread producer = new Thread(() -> {
+                for (int i = 0; ; i++) {
+                    try {
+                        racing.enqueue(customer, "Message " + i, "key-" + i);
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        return;
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                        return;
+                    }
+                }
+            });
+
+            // Act
+            producer.start();
+            Thread.sleep(round % 5);
+            racing.close();
+            producer.join();
+
+            // Assert
+            assertEquals(List.of(), unexpected);
+            NotificationOutbox reopened = new NotificationOutbox(directory, customers::get, dispatcher,
+                    slowRetries, 1);
+            assertEquals(accepted.get(), reopened.getPendingCount());
+            reopened.close();
+        }
+    }
+
+    @Test
+    void testUnknownCustomerIsDeadLettered() throws Exception {
+        // Arrange
+        outbox = open(sent::addAll);
+        Customer deleted = new RegularCustomer(64999, "Gone", "gone@example.com", "555-0000");
+
+        // Act
+        CompletableFuture<Void> result = outbox.enqueue(deleted, "Hello");
+
+        // Assert
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, outbox.getDeadLetterCount());
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void testRetryBackoffGrowsWithJitter() {
+        // Arrange
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+
+        // Act & Assert
+        for (int i = 0; i < 50; i++) {
+            long first = policy.backoffMillis(1);
+            long third = policy.backoffMillis(3);
+            long capped = policy.backoffMillis(9);
+            assertTrue(first >= 50 && first <= 100, "First backoff was " + first);
+            assertTrue(third >= 200 && third <= 400, "Third backoff was " + third);
+            assertTrue(capped >= 500 && capped <= 1000, "Capped backoff was " + capped);
+        }
+        assertTrue(policy.shouldRetry(9));
+        assertFalse(policy.shouldRetry(10));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkWithFlakyProvider() throws Exception {
+        int messages = Integer.getInteger("crm.benchmark.events", 20_000);
+        int producers = 8;
+        // A local provider with 2 ms per batch that fails one batch in five
+        outbox = open(batch -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (ThreadLocalRandom.current().nextInt(5) == 0) {
+                throw new IllegalStateException("Flaky provider");
+            }
+        });
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < messages / producers; i++) {
+                    outbox.enqueue(customer, "Benchmark");
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double enqueueSeconds = (System.nanoTime() - start) / 1e9;
+        while (outbox.getPendingCount() > 0) {
+            Thread.sleep(1);
+        }
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("durable enqueue   %,10.0f messages/s%n", messages / enqueueSeconds);
+        System.out.printf("end-to-end        %,10.0f messages/s (%d retries, %d dead letters)%n",
+                messages / totalSeconds, outbox.getRetryCount(), outbox.getDeadLetterCount());
+    }
+}
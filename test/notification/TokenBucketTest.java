@@ -0,0 +1,138 @@
+package notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private TokenBucket bucket(long capacity, double tokensPerSecond) {
+        return new TokenBucket(capacity, tokensPerSecond, now::get);
+    }
+
+    @Test
+    void testStartsFullAndRejectsOnceEmpty() {
+        // Arrange
+        TokenBucket bucket = bucket(5, 10);
+
+        // Act
+        int granted = 0;
+        for (int i = 0; i < 8; i++) {
+            if (bucket.tryAcquire()) {
+                granted++;
+            }
+        }
+
+        // Assert
+        assertEquals(5, granted);
+        assertEquals(5, bucket.getGrantedCount());
+        assertEquals(3, bucket.getRejectedCount());
+        assertEquals(1.0, bucket.getUtilization(), 1e-9);
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        // Arrange
+        TokenBucket bucket = bucket(5, 10);
+        while (bucket.tryAcquire()) {
+            // Empty the bucket
+        }
+
+        // Act - 10 tokens per second is one every 100 ms
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+
+        // Assert
+        assertEquals(2.5, bucket.getAvailableTokens(), 1e-9);
+        assertTrue(bucket.tryAcquire(2));
+        assertFalse(bucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), bucket.nanosUntilAvailable(1));
+    }
+
+    @Test
+    void testNeverHoldsMoreThanCapacity() {
+        // Arrange
+        TokenBucket bucket = bucket(3, 100);
+
+        // Act
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        // Assert
+        assertEquals(3.0, bucket.getAvailableTokens(), 1e-9);
+        assertEquals(0.0, bucket.getUtilization(), 1e-9);
+        assertFalse(bucket.tryAcquire(4));
+    }
+
+    @Test
+    void testRefundReturnsTokens() {
+        // Arrange
+        TokenBucket bucket = bucket(2, 1);
+        bucket.tryAcquire(2);
+
+        // Act
+        bucket.refund(1);
+
+        // Assert
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void testAcquireSpacesBurstAtRefillRate() {
+        // Arrange - a real clock, one token every 10 ms after the first two
+        TokenBucket bucket = new TokenBucket(2, 100);
+
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < 7; i++) {
+            bucket.acquire(1);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsedMillis >= 45, "Five queued tokens should take about 50 ms, took " + elapsedMillis);
+    }
+
+    @Test
+    void testConcurrentCallersNeverOverdraw() throws InterruptedException {
+        // Arrange - the fake clock stands still, so exactly the capacity can be granted
+        TokenBucket bucket = bucket(1000, 1);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(1000, granted.get());
+        assertEquals(3000, bucket.getRejectedCount());
+    }
+}
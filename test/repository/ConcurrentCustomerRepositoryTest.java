@@ -0,0 +1,303 @@
+package repository;
+
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCustomerRepositoryTest {
+
+    private ConcurrentCustomerRepository repository;
+    private Customer testCustomer1;
+    private Customer testCustomer2;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ConcurrentCustomerRepository();
+        testCustomer1 = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        testCustomer2 = new VIPCustomer("Jane Smith", "jane@example.com", "555-2222");
+    }
+
+    @Test
+    void testCreateGetAndDelete() {
+        // Act
+        repository.createCustomer(testCustomer1);
+        repository.createCustomer(testCustomer2);
+        repository.deleteCustomer(testCustomer1);
+
+        // Assert
+        assertNull(repository.getCustomerFromId(testCustomer1.getId()));
+        assertSame(testCustomer2, repository.getCustomerFromId(testCustomer2.getId()));
+        assertEquals(1, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testGetAllCustomersReturnsSnapshot() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        List<Customer> snapshot = repository.getAllCustomers();
+
+        // Act
+        repository.createCustomer(testCustomer2);
+
+        // Assert
+        assertEquals(1, snapshot.size(), "Snapshot should not see later writes");
+        assertEquals(2, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testFindersUseIndexes() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        repository.createCustomer(testCustomer2);
+
+        // Act
+        testCustomer2.setPhone("555-9999");
+
+        // Assert
+        assertSame(testCustomer1, repository.findByEmail("john@example.com").get(0));
+        assertSame(testCustomer2, repository.findByPhone("555-9999").get(0));
+        assertTrue(repository.findByPhone("555-2222").isEmpty());
+        assertEquals(1, repository.findByNamePrefix("jan").size());
+    }
+
+    @Test
+    void testBulkUpdateKeepsOtherWritersOutUntilItEnds() throws Exception {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        CountDownLatch inBulk = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread bulk = new Thread(() -> repository.updateInBulk(() -> {
+            testCustomer1.setName("Renamed In Bulk");
+            inBulk.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        AtomicBoolean created = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            repository.createCustomer(testCustomer2);
+            created.set(true);
+        });
+
+        // Act
+        bulk.start();
+        inBulk.await();
+        writer.start();
+        writer.join(200);
+        boolean createdDuringBulk = created.get();
+        release.countDown();
+        bulk.join();
+        writer.join();
+
+        // Assert
+        assertFalse(createdDuringBulk);
+        assertTrue(created.get());
+        assertEquals(testCustomer1, repository.findByNamePrefix("Renamed In Bulk").get(0));
+        assertEquals(2, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testSingleStripeRepositoryWorks() {
+        // Arrange
+        ConcurrentCustomerRepository singleStripe = new ConcurrentCustomerRepository(1);
+
+        // Act
+        singleStripe.createCustomer(testCustomer1);
+
+        // Assert
+        assertSame(testCustomer1, singleStripe.getCustomerFromId(testCustomer1.getId()));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCustomerRepository(0));
+    }
+
+    @Test
+    void testRenameRacingDeleteLeavesNoIndexEntry() throws Exception {
+        // Arrange
+        int rounds = 2_000;
+        Customer[] customers = new Customer[rounds];
+        for (int i = 0; i < rounds; i++) {
+            customers[i] = new RegularCustomer("Before " + i, "race" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customers[i]);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread renamer = new Thread(() -> {
+            awaitQuietly(start);
+            for (Customer customer : customers) {
+                customer.setName("After " + customer.getId());
+            }
+        });
+        Thread deleter = new Thread(() -> {
+            awaitQuietly(start);
+            for (Customer customer : customers) {
+                repository.deleteCustomer(customer);
+            }
+        });
+
+        // Act
+        renamer.start();
+        deleter.start();
+        start.countDown();
+        renamer.join();
+        deleter.join();
+
+        // Assert
+        assertTrue(repository.getAllCustomers().isEmpty());
+        assertTrue(repository.findByNamePrefix("After").isEmpty(), "Deleted customers should not be re-indexed");
+        assertTrue(repository.findByNamePrefix("Before").isEmpty(), "Old names should be unlinked");
+    }
+
+    @Test
+    void testSnapshotsKeepUpWithDeletesWhileCopying() {
+        // Arrange
+        List<Customer> created = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Customer customer = new LeadCustomer("Lead " + i, "lead" + i + "@example.com", "555-" + i);
+            created.add(customer);
+            repository.createCustomer(customer);
+        }
+
+        // Act
+        for (int i = 0; i < created.size(); i += 2) {
+            repository.deleteCustomer(created.get(i));
+            repository.getAllCustomers();
+        }
+
+        // Assert
+        assertEquals(500, repository.getAllCustomers().size());
+        assertNull(repository.getCustomerFromId(created.get(0).getId()));
+        assertSame(created.get(1), repository.getCustomerFromId(created.get(1).getId()));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Each writer thread walks a chain of its own customers: create c[k], then
+     * delete c[k-1]. Any linearizable snapshot therefore holds exactly c[k] or
+     * the adjacent pair c[k-1], c[k] from every thread that has started, and
+     * never anything older than the last create that completed before the
+     * snapshot was requested.
+     */
+    @Test
+    void testConcurrentWritesProduceLinearizableSnapshots() throws Exception {
+        // Arrange
+        int writers = 8;
+        int chainLength = 5_000;
+        Map<Customer, int[]> positions = new HashMap<>();
+        Customer[][] chains = new Customer[writers][chainLength];
+        for (int t = 0; t < writers; t++) {
+            for (int k = 0; k < chainLength; k++) {
+                chains[t][k] = new LeadCustomer("Writer " + t, "w" + t + "-" + k + "@example.com", "555-" + k);
+                positions.put(chains[t][k], new int[]{t, k});
+            }
+        }
+
+        AtomicIntegerArray lastCreated = new AtomicIntegerArray(writers);
+        for (int t = 0; t < writers; t++) {
+            lastCreated.set(t, -1);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < writers; t++) {
+            int writer = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int k = 0; k < chainLength; k++) {
+                        repository.createCustomer(chains[writer][k]);
+                        lastCreated.set(writer, k);
+                        assertSame(chains[writer][k], repository.getCustomerFromId(chains[writer][k].getId()),
+                                "Writer should read its own write");
+                        if (k > 0) {
+                            repository.deleteCustomer(chains[writer][k - 1]);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        List<String> violations = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            int snapshots = 0;
+            while ((writing.get() || snapshots < 10) && violations.size() < 10) {
+                int[] lowerBound = new int[writers];
+                for (int t = 0; t < writers; t++) {
+                    lowerBound[t] = lastCreated.get(t);
+                }
+
+                List<Customer> snapshot = repository.getAllCustomers();
+                snapshots++;
+
+                List<TreeSet<Integer>> seen = new ArrayList<>();
+                for (int t = 0; t < writers; t++) {
+                    seen.add(new TreeSet<>());
+                }
+                for (Customer customer : snapshot) {
+                    int[] position = positions.get(customer);
+                    seen.get(position[0]).add(position[1]);
+                }
+
+                for (int t = 0; t < writers; t++) {
+                    String problem = checkChain(seen.get(t), lowerBound[t]);
+                    if (problem != null) {
+                        violations.add("writer " + t + ": " + problem);
+                    }
+                }
+            }
+        });
+
+        // Act
+        threads.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        // Assert
+        assertNull(failure.get(), () -> "Writer failed: " + failure.get());
+        assertTrue(violations.isEmpty(), () -> "Non-linearizable snapshots: " + violations);
+        assertEquals(writers, repository.getAllCustomers().size(), "Only the last customer of each chain should remain");
+    }
+
+    private static String checkChain(TreeSet<Integer> seen, int lowerBound) {
+        if (seen.isEmpty()) {
+            return lowerBound < 0 ? null : "empty although c[" + lowerBound + "] was created";
+        }
+        if (seen.size() > 2 || seen.last() - seen.first() > 1) {
+            return "non-adjacent customers " + seen;
+        }
+        if (seen.last() < lowerBound) {
+            return "stale snapshot " + seen + " after c[" + lowerBound + "] was created";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,95 @@
+package repository;
+
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrittenCustomersCanBeLookedUpById() throws IOException {
+        // Arrange
+        Customer lead = new LeadCustomer(30, "Lead", "lead@example.com", "555-0030");
+        Customer vip = new VIPCustomer(10, "Vip", "vip@example.com", "555-0010");
+        vip.addInteraction(EventType.SALE_MADE, "Big sale");
+        Path path = tempDir.resolve("customers.snapshot");
+
+        // Act
+        CustomerSnapshot.write(path, 42, List.of(lead, vip), null, new BitSet());
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(path)) {
+            Customer read = snapshot.read(snapshot.slotOf(10));
+
+            // Assert
+            assertEquals(42, snapshot.getLastSequence());
+            assertEquals(2, snapshot.size());
+            assertEquals(10, snapshot.idAt(0), "Index should be sorted by id");
+            assertEquals(30, snapshot.maxId());
+            assertEquals(-1, snapshot.slotOf(20));
+            assertInstanceOf(VIPCustomer.class, read);
+            assertEquals("vip@example.com", read.getEmail());
+            assertEquals("Big sale", read.getInteractionHistory().get(0).getDetails());
+        }
+    }
+
+    @Test
+    void testUnskippedRecordsAreCarriedIntoNextSnapshot() throws IOException {
+        // Arrange
+        List<Customer> customers = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            customers.add(new RegularCustomer(id, "Customer " + id, "c" + id + "@example.com", "555-" + id));
+        }
+        Path first = tempDir.resolve("first.snapshot");
+        Path second = tempDir.resolve("second.snapshot");
+        CustomerSnapshot.write(first, 1, customers, null, new BitSet());
+        Customer edited = new RegularCustomer(2, "Edited", "edited@example.com", "555-2");
+
+        // Act
+        try (CustomerSnapshot previous = CustomerSnapshot.open(first)) {
+            BitSet skip = new BitSet();
+            skip.set(previous.slotOf(2));
+            skip.set(previous.slotOf(4));
+            CustomerSnapshot.write(second, 2, Collections.singletonList(edited), previous, skip);
+        }
+
+        // Assert
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(second)) {
+            assertEquals(4, snapshot.size());
+            assertEquals("Edited", snapshot.read(snapshot.slotOf(2)).getName());
+            assertEquals("Customer 5", snapshot.read(snapshot.slotOf(5)).getName());
+            assertEquals(-1, snapshot.slotOf(4));
+            assertEquals(4, snapshot.readAll().size());
+        }
+    }
+
+    @Test
+    void testEmptySnapshot() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("empty.snapshot");
+
+        // Act
+        CustomerSnapshot.write(path, 0, Collections.emptyList(), null, new BitSet());
+
+        // Assert
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(path)) {
+            assertEquals(0, snapshot.size());
+            assertEquals(-1, snapshot.slotOf(1));
+            assertEquals(Integer.MIN_VALUE, snapshot.maxId());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package repository;
+
+import crm.controller.CRMController;
+import crm.controller.command.CreateCustomerCommand;
+import crm.controller.command.DeleteCustomerCommand;
+import crm.controller.command.MakeSaleCommand;
+import crm.controller.command.UpdateCustomerCommand;
+import crm.controller.command.request.CreateCustomerRequest;
+import crm.controller.command.request.DeleteCustomerRequest;
+import crm.controller.command.request.MakeSaleRequest;
+import crm.controller.command.request.UpdateCustomerRequest;
+import crm.observer.LogFileWriter;
+import crm.observer.event.CRMEvent;
+import crm.observer.event.EventType;
+import customer.Customer;
+import customer.CustomerField;
+import customer.CustomerType;
+import customer.Interaction;
+import customer.LeadCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import notification.EmailNotification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSourcedCustomerRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EventSourcedCustomerRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = new EventSourcedCustomerRepository(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    private EventSourcedCustomerRepository reopen() throws IOException {
+        repository.close();
+        repository = new EventSourcedCustomerRepository(tempDir);
+        return repository;
+    }
+
+    @Test
+    void testStateIsRebuiltFromTheEventLog() throws IOException {
+        // Arrange
+        Customer john = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        LocalDateTime saleTime = LocalDateTime.of(2025, 12, 15, 10, 0, 0, 123_456_789);
+        john.addInteraction(EventType.CUSTOMER_CREATED, "Customer record created");
+        repository.createCustomer(john);
+        Customer lead = new LeadCustomer("Lead", "lead@example.com", "555-2222");
+        repository.createCustomer(lead);
+
+        // Act
+        john.setEmail("john.doe@example.com");
+        john.addInteraction(new Interaction(saleTime, EventType.SALE_MADE, "Sale completed"));
+        john.setPreferredContactMethod(new EmailNotification());
+        john.setLastContact(new Date(1_700_000_000_000L));
+        repository.deleteCustomer(lead);
+        Customer recovered = reopen().getCustomerFromId(john.getId());
+
+        // Assert
+        assertEquals(1, repository.getAllCustomers().size());
+        assertNull(repository.getCustomerFromId(lead.getId()));
+        assertInstanceOf(RegularCustomer.class, recovered);
+        assertEquals("john.doe@example.com", recovered.getEmail());
+        assertInstanceOf(EmailNotification.class, recovered.getPreferredContactMethod());
+        assertEquals(new Date(1_700_000_000_000L), recovered.getLastContact());
+        List<Interaction> history = recovered.getInteractionHistory();
+        assertEquals(2, history.size());
+        assertEquals(saleTime, history.get(1).getTimestamp());
+        assertEquals(EventType.SALE_MADE, history.get(1).getEventType());
+    }
+
+    @Test
+    void testEditsAfterRestartAreStillRecorded() throws IOException {
+        // Arrange
+        Customer customer = new VIPCustomer("Vip", "vip@example.com", "555-3333");
+        repository.createCustomer(customer);
+
+        // Act
+        reopen().getCustomerFromId(customer.getId()).setName("Renamed");
+        Customer recovered = reopen().getCustomerFromId(customer.getId());
+
+        // Assert
+        assertEquals("Renamed", recovered.getName());
+        assertInstanceOf(VIPCustomer.class, recovered);
+    }
+
+    @Test
+    void testSnapshotLimitsReplayToTheTail() throws IOException {
+        // Arrange
+        repository.close();
+        repository = new EventSourcedCustomerRepository(tempDir, 50, LogFileWriter.Durability.OS_MANAGED, 0);
+        List<Customer> created = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Customer customer = new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customer);
+            created.add(customer);
+        }
+
+        // Act
+        repository.close();
+        repository = new EventSourcedCustomerRepository(tempDir, 50, LogFileWriter.Durability.OS_MANAGED, 0);
+
+        // Assert - snapshots were taken at 50 and 100 events, so only 20 are replayed
+        assertEquals(20, repository.getReplayedEvents());
+        assertEquals(120, repository.getAllCustomers().size());
+        assertEquals("Customer 119", repository.getCustomerFromId(created.get(119).getId()).getName());
+    }
+
+    @Test
+    void testTornTailIsTruncated() throws IOException {
+        // Arrange
+        Customer customer = new RegularCustomer("Kept", "kept@example.com", "555-4444");
+        repository.createCustomer(customer);
+        repository.close();
+        Path logPath = tempDir.resolve(EventSourcedCustomerRepository.LOG_FILE);
+        long validLength = Files.size(logPath);
+        Files.write(logPath, new byte[]{40, 3, 0}, StandardOpenOption.APPEND);
+
+        // Act
+        repository = new EventSourcedCustomerRepository(tempDir);
+        repository.createCustomer(new RegularCustomer("After", "after@example.com", "555-5555"));
+        Customer kept = reopen().getCustomerFromId(customer.getId());
+
+        // Assert
+        assertNotNull(kept);
+        assertEquals(2, repository.getAllCustomers().size());
+        assertTrue(Files.size(logPath) > validLength);
+    }
+
+    @Test
+    void testCorruptRecordBeforeTheTailRefusesToOpen() throws IOException {
+        // Arrange
+        repository.createCustomer(new RegularCustomer("First", "first@example.com", "555-4444"));
+        long firstLength = Files.size(tempDir.resolve(EventSourcedCustomerRepository.LOG_FILE));
+        repository.createCustomer(new RegularCustomer("Second", "second@example.com", "555-5555"));
+        repository.close();
+        Path logPath = tempDir.resolve(EventSourcedCustomerRepository.LOG_FILE);
+        byte[] log = Files.readAllBytes(logPath);
+        log[(int) firstLength / 2] ^= 0x40;
+        Files.write(logPath, log);
+
+        // Act
+        IOException error = assertThrows(IOException.class, () -> new EventSourcedCustomerRepository(tempDir));
+        repository = new EventSourcedCustomerRepository(tempDir.resolve("fresh"));
+
+        // Assert
+        assertTrue(error.getMessage().contains("Corrupt event log"));
+        assertEquals(log.length, Files.size(logPath));
+    }
+
+    @Test
+    void testStateAtRebuildsEarlierState() throws Exception {
+        // Arrange
+        Customer customer = new RegularCustomer("Before", "before@example.com", "555-6666");
+        repository.createCustomer(customer);
+        Thread.sleep(5);
+        Date between = new Date();
+        Thread.sleep(5);
+        customer.setName("After");
+        repository.snapshot();
+        customer.addInteraction(EventType.SALE_MADE, "Sale completed");
+
+        // Act
+        CustomerRepository earlier = EventSourcedCustomerRepository.stateAt(tempDir, between);
+        CustomerRepository now = EventSourcedCustomerRepository.stateAt(tempDir, new Date());
+
+        // Assert
+        assertEquals("Before", earlier.getCustomerFromId(customer.getId()).getName());
+        assertEquals(0, earlier.getCustomerFromId(customer.getId()).getInteractionCount());
+        assertEquals("After", now.getCustomerFromId(customer.getId()).getName());
+        assertEquals(1, now.getCustomerFromId(customer.getId()).getInteractionCount());
+    }
+
+    @Test
+    void testCommandEventsFoldIntoTheSameState() {
+        // Arrange
+        CustomerRepository source = new InMemoryCustomerRepository();
+        CustomerRepository folded = new InMemoryCustomerRepository();
+        CRMController controller = new CRMController();
+        controller.addCommand(new CreateCustomerCommand(source));
+        controller.addCommand(new UpdateCustomerCommand(source));
+        controller.addCommand(new MakeSaleCommand(source));
+        controller.addCommand(new DeleteCustomerCommand(source));
+        List<CRMEvent> events = new ArrayList<>();
+
+        // Act
+        Customer kept = controller.execute(
+                new CreateCustomerRequest(CustomerType.VIP, "Vip", "vip@example.com", "555-7777")).getValue();
+        Customer gone = controller.execute(
+                new CreateCustomerRequest(CustomerType.LEAD, "Lead", "lead@example.com", "555-8888")).getValue();
+        events.add(controller.execute(new UpdateCustomerRequest(kept.getId(), CustomerField.PHONE, "555-0000")).getEvent());
+        events.add(controller.execute(new MakeSaleRequest(kept.getId())).getEvent());
+        events.add(controller.execute(new DeleteCustomerRequest(gone.getId())).getEvent());
+        events.add(0, new CRMEvent(EventType.CUSTOMER_CREATED, gone.getId(), null, customer.CustomerEvents.stateOf(gone)));
+        events.add(0, new CRMEvent(EventType.CUSTOMER_CREATED, kept.getId(), null, customer.CustomerEvents.stateOf(kept)));
+        for (CRMEvent event : events) {
+            EventSourcedCustomerRepository.apply(event, folded);
+        }
+
+        // Assert
+        Customer rebuilt = folded.getCustomerFromId(kept.getId());
+        assertInstanceOf(VIPCustomer.class, rebuilt);
+        assertEquals("555-0000", rebuilt.getPhone());
+        assertEquals(EventType.SALE_MADE, rebuilt.getInteractionHistory().get(0).getEventType());
+        assertNull(folded.getCustomerFromId(gone.getId()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkReplayWithAndWithoutSnapshot() throws IOException {
+        int customers = Integer.getInteger("crm.benchmark.events", 100_000);
+        repository.close();
+        repository = new EventSourcedCustomerRepository(tempDir, Integer.MAX_VALUE, LogFileWriter.Durability.OS_MANAGED, 0);
+        long start = System.nanoTime();
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customer);
+            customer.addInteraction(EventType.SALE_MADE, "Sale completed");
+        }
+        report("append", customers * 2, start);
+        repository.close();
+
+        start = System.nanoTime();
+        repository = new EventSourcedCustomerRepository(tempDir, Integer.MAX_VALUE, LogFileWriter.Durability.OS_MANAGED, 0);
+        report("full replay", customers * 2, start);
+        repository.snapshot();
+        repository.close();
+
+        start = System.nanoTime();
+        repository = new EventSourcedCustomerRepository(tempDir, Integer.MAX_VALUE, LogFileWriter.Durability.OS_MANAGED, 0);
+        report("snapshot + empty tail", customers * 2, start);
+    }
+
+    private static void report(String name, int events, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-22s %,12.0f events/s (%.2f s)%n", name, events / seconds, seconds);
+    }
+}
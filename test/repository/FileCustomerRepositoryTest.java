@@ -0,0 +1,386 @@
+package repository;
+
+import crm.observer.event.EventType;
+import customer.AtomicIdGenerator;
+import customer.Customer;
+import customer.IdGenerator;
+import customer.Interaction;
+import customer.LeadCustomer;
+import customer.LostCustomer;
+import customer.RegularCustomer;
+import customer.VIPCustomer;
+import notification.EmailNotification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileCustomerRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileCustomerRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = new FileCustomerRepository(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    void testCreatedCustomersSurviveRestart() throws IOException {
+        // Arrange
+        Customer john = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        john.addInteraction(EventType.CUSTOMER_CREATED, "Customer record created");
+        repository.createCustomer(john);
+        repository.createCustomer(new VIPCustomer("Jane Smith", "jane@example.com", "555-2222"));
+
+        // Act
+        Customer recovered = reopen().getCustomerFromId(john.getId());
+
+        // Assert
+        assertEquals(2, repository.getAllCustomers().size());
+        assertNotNull(recovered);
+        assertInstanceOf(RegularCustomer.class, recovered);
+        assertEquals("John Doe", recovered.getName());
+        assertEquals("john@example.com", recovered.getEmail());
+        assertEquals("555-1111", recovered.getPhone());
+        assertEquals(1, recovered.getInteractionHistory().size());
+        assertEquals("Customer record created", recovered.getInteractionHistory().get(0).getDetails());
+    }
+
+    @Test
+    void testInPlaceEditsSurviveRestart() throws IOException {
+        // Arrange
+        Customer customer = new LeadCustomer("Old Name", "old@example.com", "555-0000");
+        repository.createCustomer(customer);
+        Date contacted = new Date(1_700_000_000_000L);
+
+        // Act
+        customer.setName("New Name");
+        customer.setEmail("new@example.com");
+        customer.setPhone("555-9999");
+        customer.setLastContact(contacted);
+        customer.setPreferredContactMethod(new EmailNotification());
+        customer.addInteraction(EventType.SALE_MADE, "Sale completed");
+        Customer recovered = reopen().getCustomerFromId(customer.getId());
+
+        // Assert
+        assertEquals("New Name", recovered.getName());
+        assertEquals("new@example.com", recovered.getEmail());
+        assertEquals("555-9999", recovered.getPhone());
+        assertEquals(contacted, recovered.getLastContact());
+        assertInstanceOf(EmailNotification.class, recovered.getPreferredContactMethod());
+        Interaction sale = recovered.getInteractionHistory().get(0);
+        assertEquals(EventType.SALE_MADE, sale.getEventType());
+        assertEquals(customer.getInteractionHistory().get(0).getTimestamp(), sale.getTimestamp());
+        assertEquals(1, repository.findByEmail("new@example.com").size(), "Recovered customers should be indexed");
+    }
+
+    @Test
+    void testDeletesSurviveRestart() throws IOException {
+        // Arrange
+        Customer customer = new LostCustomer("Old Man Jenkins", "jenkins@aol.com", "321-654-0987");
+        repository.createCustomer(customer);
+
+        // Act
+        repository.deleteCustomer(customer);
+        customer.setName("Edited after delete");
+        reopen();
+
+        // Assert
+        assertNull(repository.getCustomerFromId(customer.getId()));
+        assertTrue(repository.getAllCustomers().isEmpty());
+    }
+
+    @Test
+    void testSnapshotTruncatesLogAndRecoveryReplaysTail() throws IOException {
+        // Arrange
+        repository.close();
+        repository = new FileCustomerRepository(tempDir, 10);
+        List<Customer> created = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Customer customer = new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customer);
+            created.add(customer);
+        }
+
+        // Act
+        created.get(3).setEmail("tail@example.com");
+        reopenWithInterval(10);
+
+        // Assert
+        assertTrue(Files.exists(tempDir.resolve(FileCustomerRepository.SNAPSHOT_FILE)));
+        assertEquals(25, repository.getAllCustomers().size());
+        assertEquals("tail@example.com", repository.getCustomerFromId(created.get(3).getId()).getEmail());
+        assertFalse(Files.exists(tempDir.resolve(FileCustomerRepository.COMPACTING_LOG_FILE)));
+        try (CustomerSnapshot snapshot = CustomerSnapshot.open(tempDir.resolve(FileCustomerRepository.SNAPSHOT_FILE))) {
+            // Cutovers wait for a running compaction, so only the first one is certain to have happened
+            assertTrue(snapshot.size() >= 10, "Records before the cutover should have moved into the snapshot");
+        }
+    }
+
+    @Test
+    void testUnfinishedCompactionIsReplayedAndCompactedOnOpen() throws IOException {
+        // Arrange - a cutover whose compaction never ran, followed by newer records
+        Customer before = new RegularCustomer("Before", "before@example.com", "555-0001");
+        repository.createCustomer(before);
+        repository.close();
+        Files.move(tempDir.resolve(FileCustomerRepository.LOG_FILE),
+                tempDir.resolve(FileCustomerRepository.COMPACTING_LOG_FILE));
+        repository = new FileCustomerRepository(tempDir);
+        Customer after = new RegularCustomer("After", "after@example.com", "555-0002");
+        repository.createCustomer(after);
+        repository.getCustomerFromId(before.getId()).setName("Renamed");
+
+        // Act
+        reopen();
+
+        // Assert
+        assertFalse(Files.exists(tempDir.resolve(FileCustomerRepository.COMPACTING_LOG_FILE)));
+        assertTrue(Files.exists(tempDir.resolve(FileCustomerRepository.SNAPSHOT_FILE)));
+        assertEquals("Renamed", repository.getCustomerFromId(before.getId()).getName());
+        assertNotNull(repository.getCustomerFromId(after.getId()));
+        assertEquals(2, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testTornTailIsDiscarded() throws IOException {
+        // Arrange
+        Customer customer = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        repository.createCustomer(customer);
+        repository.close();
+        Files.write(tempDir.resolve(FileCustomerRepository.LOG_FILE), new byte[]{0, 0, 0, 40, 1, 2, 3},
+                StandardOpenOption.APPEND);
+
+        // Act
+        repository = new FileCustomerRepository(tempDir);
+        Customer another = new RegularCustomer("Jane Smith", "jane@example.com", "555-2222");
+        repository.createCustomer(another);
+        reopen();
+
+        // Assert
+        assertNotNull(repository.getCustomerFromId(customer.getId()));
+        assertNotNull(repository.getCustomerFromId(another.getId()), "Records after a repaired tail should be readable");
+    }
+
+    @Test
+    void testIdGeneratorAdvancesPastRecoveredIds() throws IOException {
+        IdGenerator original = Customer.getIdGenerator();
+        try {
+            // Arrange - simulate a fresh process whose generator starts below the persisted IDs
+            Customer.setIdGenerator(new AtomicIdGenerator(1));
+            Customer recovered = new RegularCustomer(5000, "High Id", "high@example.com", "555-0000");
+            repository.createCustomer(recovered);
+
+            // Act
+            reopen();
+            Customer created = new RegularCustomer("Next", "next@example.com", "555-0001");
+
+            // Assert
+            assertTrue(created.getId() > recovered.getId(), "New IDs must not collide with recovered ones");
+        } finally {
+            Customer.setIdGenerator(original);
+        }
+    }
+
+    @Test
+    void testConcurrentWritersShareGroupCommits() throws Exception {
+        // Arrange
+        int threadCount = 8;
+        int perThread = 100;
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        Customer customer = new RegularCustomer("Writer", "w@example.com", "555-0000");
+                        repository.createCustomer(customer);
+                        customer.setPhone("555-" + i);
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        reopen();
+
+        // Assert
+        assertEquals(0, failures.get());
+        assertEquals(threadCount * perThread, repository.getAllCustomers().size());
+        assertEquals(threadCount, repository.findByPhone("555-" + (perThread - 1)).size());
+    }
+
+    @Test
+    void testSnapshotCustomersAreLoadedOnFirstLookup() throws IOException {
+        // Arrange
+        repository.close();
+        List<Customer> customers = new ArrayList<>();
+        for (int id = 1; id <= 200_000; id++) {
+            customers.add(new RegularCustomer(id, "Customer " + id, "c" + id + "@example.com", "555-" + id));
+        }
+        CustomerSnapshot.write(tempDir.resolve(FileCustomerRepository.SNAPSHOT_FILE), 0, customers, null, new BitSet());
+
+        // Act
+        long start = System.nanoTime();
+        repository = new FileCustomerRepository(tempDir);
+        boolean empty = repository.isEmpty();
+        Customer found = repository.getCustomerFromId(123_456);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertFalse(empty);
+        assertEquals("c123456@example.com", found.getEmail());
+        assertSame(found, repository.getCustomerFromId(123_456));
+        assertNull(repository.getCustomerFromId(200_001));
+        assertTrue(elapsedMillis < 1000, "Opening should not decode every customer, took " + elapsedMillis + " ms");
+        assertEquals(200_000, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testUntouchedSnapshotCustomersSurviveLaterSnapshots() throws IOException {
+        // Arrange
+        Customer kept = new RegularCustomer("Kept", "kept@example.com", "555-0001");
+        Customer edited = new RegularCustomer("Edited", "edited@example.com", "555-0002");
+        Customer deleted = new RegularCustomer("Deleted", "deleted@example.com", "555-0003");
+        repository.createCustomer(kept);
+        repository.createCustomer(edited);
+        repository.createCustomer(deleted);
+        repository.snapshot();
+        reopen();
+
+        // Act - touch two customers, delete one without ever loading it, then snapshot again
+        repository.getCustomerFromId(edited.getId()).setName("Edited Again");
+        repository.deleteCustomer(deleted);
+        repository.snapshot();
+        reopen();
+
+        // Assert
+        assertEquals("Kept", repository.getCustomerFromId(kept.getId()).getName());
+        assertEquals("Edited Again", repository.getCustomerFromId(edited.getId()).getName());
+        assertNull(repository.getCustomerFromId(deleted.getId()));
+        assertEquals(2, repository.getAllCustomers().size());
+    }
+
+    @Test
+    void testDeletingUnloadedSnapshotCustomerIsLogged() throws IOException {
+        // Arrange
+        Customer customer = new LeadCustomer("Lead", "lead@example.com", "555-0000");
+        repository.createCustomer(customer);
+        repository.snapshot();
+        reopen();
+
+        // Act
+        repository.deleteCustomer(customer);
+        reopen();
+
+        // Assert
+        assertNull(repository.getCustomerFromId(customer.getId()));
+        assertTrue(repository.isEmpty());
+    }
+
+    @Test
+    void testBulkUpdateIsDurableWhenItReturns() throws IOException {
+        // Arrange
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Customer customer = new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i);
+            repository.createCustomer(customer);
+            customers.add(customer);
+        }
+        Date contacted = new Date(1_765_000_000_000L);
+
+        // Act
+        repository.updateInBulk(() -> {
+            for (Customer customer : customers) {
+                customer.addInteraction(EventType.NOTIFICATION_SENT, "Campaign sent");
+                customer.setLastContact(contacted);
+            }
+        });
+        Customer recovered = reopen().getCustomerFromId(customers.get(49).getId());
+
+        // Assert
+        assertEquals(1, recovered.getInteractionCount());
+        assertEquals("Campaign sent", recovered.getInteractions().get(0).getDetails());
+        assertEquals(contacted, recovered.getLastContact());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkWriteThroughputAndRecovery() throws Exception {
+        int mutations = Integer.getInteger("crm.benchmark.mutations", 10_000_000);
+        int threadCount = 32;
+        int customerCount = mutations / 10;
+        int snapshotInterval = Math.max(mutations / 4, 1);
+        repository.close();
+        repository = new FileCustomerRepository(tempDir, snapshotInterval);
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                List<Customer> mine = new ArrayList<>();
+                for (int i = thread; i < customerCount; i += threadCount) {
+                    Customer customer = new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i);
+                    repository.createCustomer(customer);
+                    mine.add(customer);
+                }
+                for (int i = thread; i < mutations - customerCount; i += threadCount) {
+                    mine.get(i % mine.size()).setPhone("555-" + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+        repository.close();
+
+        start = System.nanoTime();
+        repository = new FileCustomerRepository(tempDir, snapshotInterval);
+        double recoverySeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%,d mutations: %,.0f mutations/s, recovery %.2f s (log tail %,d bytes)%n",
+                mutations, mutations / writeSeconds, recoverySeconds,
+                Files.size(tempDir.resolve(FileCustomerRepository.LOG_FILE)));
+        assertEquals(customerCount, repository.getAllCustomers().size());
+    }
+
+    private FileCustomerRepository reopen() throws IOException {
+        repository.close();
+        repository = new FileCustomerRepository(tempDir);
+        return repository;
+    }
+
+    private void reopenWithInterval(int snapshotInterval) throws IOException {
+        repository.close();
+        repository = new FileCustomerRepository(tempDir, snapshotInterval);
+    }
+}
@@ -212,4 +212,135 @@ class InMemoryCustomerRepositoryTest {
         assertTrue(customers.stream().anyMatch(c -> c instanceof RegularCustomer));
         assertTrue(customers.stream().anyMatch(c -> c instanceof VIPCustomer));
     }
+
+    // ==================== Secondary Index Tests ====================
+
+    @Test
+    void testFindByEmailReturnsMatchingCustomer() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        repository.createCustomer(testCustomer2);
+
+        // Act
+        List<Customer> found = repository.findByEmail("jane@example.com");
+
+        // Assert
+        assertEquals(1, found.size());
+        assertSame(testCustomer2, found.get(0));
+        assertTrue(repository.findByEmail("nobody@example.com").isEmpty());
+    }
+
+    @Test
+    void testFindByPhoneReturnsMatchingCustomer() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        repository.createCustomer(testCustomer2);
+
+        // Act
+        List<Customer> found = repository.findByPhone("555-1111");
+
+        // Assert
+        assertEquals(1, found.size());
+        assertSame(testCustomer1, found.get(0));
+    }
+
+    @Test
+    void testFindByNamePrefixIsCaseInsensitive() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        repository.createCustomer(testCustomer2);
+        Customer testCustomer3 = new LeadCustomer("Johanna Jones", "johanna@example.com", "555-3333");
+        repository.createCustomer(testCustomer3);
+
+        // Act
+        List<Customer> found = repository.findByNamePrefix("joh");
+
+        // Assert
+        assertEquals(2, found.size());
+        assertTrue(found.contains(testCustomer1));
+        assertTrue(found.contains(testCustomer3));
+        assertEquals(1, repository.findByNamePrefix("JANE").size());
+    }
+
+    @Test
+    void testFindByNamePrefixRespectsLimit() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            repository.createCustomer(new RegularCustomer("Sam " + i, "sam" + i + "@example.com", "555-00" + i));
+        }
+
+        // Act
+        List<Customer> found = repository.findByNamePrefix("Sam", 5);
+
+        // Assert
+        assertEquals(5, found.size());
+    }
+
+    @Test
+    void testIndexesFollowCustomerMutators() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+
+        // Act
+        testCustomer1.setEmail("john.new@example.com");
+        testCustomer1.setPhone("555-9999");
+        testCustomer1.setName("Jonathan Doe");
+
+        // Assert
+        assertTrue(repository.findByEmail("john@example.com").isEmpty(), "Old email should be unindexed");
+        assertSame(testCustomer1, repository.findByEmail("john.new@example.com").get(0));
+        assertTrue(repository.findByPhone("555-1111").isEmpty(), "Old phone should be unindexed");
+        assertSame(testCustomer1, repository.findByPhone("555-9999").get(0));
+        assertTrue(repository.findByNamePrefix("John ").isEmpty(), "Old name should be unindexed");
+        assertSame(testCustomer1, repository.findByNamePrefix("Jonathan").get(0));
+    }
+
+    @Test
+    void testDeletedCustomerIsRemovedFromIndexes() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+
+        // Act
+        repository.deleteCustomer(testCustomer1);
+        testCustomer1.setEmail("after.delete@example.com");
+
+        // Assert
+        assertTrue(repository.findByEmail("john@example.com").isEmpty());
+        assertTrue(repository.findByEmail("after.delete@example.com").isEmpty(),
+                "Mutating a deleted customer should not re-index it");
+        assertTrue(repository.findByNamePrefix("John").isEmpty());
+    }
+
+    @Test
+    void testUpdateCustomerKeepsIndexesConsistent() {
+        // Arrange
+        repository.createCustomer(testCustomer1);
+        testCustomer1.setEmail("updated@example.com");
+
+        // Act
+        repository.updateCustomer(testCustomer1);
+
+        // Assert
+        assertEquals(1, repository.findByEmail("updated@example.com").size());
+        assertTrue(repository.findByEmail("john@example.com").isEmpty());
+    }
+
+    @Test
+    void testNamePrefixLookupStaysFastOnLargeRepository() {
+        // Arrange
+        for (int i = 0; i < 200_000; i++) {
+            repository.createCustomer(new RegularCustomer("Customer " + i, "c" + i + "@example.com", "555-" + i));
+        }
+
+        // Act
+        int lookups = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            assertFalse(repository.findByNamePrefix("Customer " + (i * 17 % 200_000), 10).isEmpty());
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / lookups;
+
+        // Assert
+        assertTrue(micros < 1000, "Type-ahead lookup should be sub-millisecond, was " + micros + " us");
+    }
 }
@@ -0,0 +1,178 @@
+package repository;
+
+import customer.Customer;
+import customer.RegularCustomer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCustomerMapTest {
+
+    private IntCustomerMap map;
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    void setUp() {
+        map = new IntCustomerMap();
+        customer1 = new RegularCustomer("John Doe", "john@example.com", "555-1111");
+        customer2 = new RegularCustomer("Jane Smith", "jane@example.com", "555-2222");
+    }
+
+    @Test
+    void testPutAndGet() {
+        // Act
+        map.put(customer1.getId(), customer1);
+        map.put(customer2.getId(), customer2);
+
+        // Assert
+        assertEquals(2, map.size());
+        assertSame(customer1, map.get(customer1.getId()));
+        assertSame(customer2, map.get(customer2.getId()));
+        assertNull(map.get(-1), "Missing key should return null");
+    }
+
+    @Test
+    void testPutReplacesExistingValue() {
+        // Arrange
+        map.put(7, customer1);
+
+        // Act
+        Customer previous = map.put(7, customer2);
+
+        // Assert
+        assertSame(customer1, previous);
+        assertSame(customer2, map.get(7));
+        assertEquals(1, map.size(), "Replacing a value should not add an entry");
+    }
+
+    @Test
+    void testRemoveReturnsValueAndForgetsKey() {
+        // Arrange
+        map.put(1, customer1);
+        map.put(2, customer2);
+
+        // Act
+        Customer removed = map.remove(1);
+
+        // Assert
+        assertSame(customer1, removed);
+        assertNull(map.get(1));
+        assertSame(customer2, map.get(2), "Remaining key should still be reachable");
+        assertEquals(1, map.size());
+        assertNull(map.remove(1), "Removing twice should return null");
+    }
+
+    @Test
+    void testValuesKeepInsertionOrder() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i % 2 == 0 ? customer1 : customer2);
+        }
+
+        // Act
+        List<Customer> values = map.values();
+
+        // Assert
+        assertEquals(100, values.size());
+        for (int i = 0; i < 100; i++) {
+            assertSame(i % 2 == 0 ? customer1 : customer2, values.get(i));
+        }
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        // Arrange
+        Map<Integer, Customer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act - colliding keys (multiples of the table size) stress the probe chains
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(4096) * 1024;
+            Customer value = random.nextBoolean() ? customer1 : customer2;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Customer> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int key = 0; key < 4096 * 1024; key += 1024) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    void testClearEmptiesMap() {
+        // Arrange
+        map.put(1, customer1);
+        map.put(2, customer2);
+
+        // Act
+        map.clear();
+
+        // Assert
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertTrue(map.values().isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "crm.benchmarks", matches = "true")
+    void benchmarkLookupLatencyStaysFlatFrom1KTo5M() {
+        // Arrange
+        int[] sizes = {1_000, 10_000, 100_000, 1_000_000, 5_000_000};
+        double[] nanosPerLookup = new double[sizes.length];
+
+        // Act
+        for (int i = 0; i < sizes.length; i++) {
+            IntCustomerMap sized = new IntCustomerMap();
+            for (int key = 0; key < sizes[i]; key++) {
+                sized.put(64_001 + key, customer1);
+            }
+            nanosPerLookup[i] = measureLookups(sized, sizes[i]);
+            System.out.printf("IntCustomerMap lookup at %,d customers: %.1f ns%n", sizes[i], nanosPerLookup[i]);
+        }
+
+        // Assert - a linear scan would grow 5000x between the smallest and largest size
+        double smallest = Math.max(nanosPerLookup[0], 5.0);
+        double largest = nanosPerLookup[sizes.length - 1];
+        assertTrue(largest < smallest * 50,
+                String.format("Lookup latency should stay flat (%.1f ns vs %.1f ns)", largest, smallest));
+    }
+
+    private static double measureLookups(IntCustomerMap map, int size) {
+        int lookups = 2_000_000;
+        double best = Double.MAX_VALUE;
+        int found = 0;
+
+        for (int run = 0; run < 5; run++) {
+            int seed = 12345 + run;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                seed ^= seed << 13;
+                seed ^= seed >>> 17;
+                seed ^= seed << 5;
+                if (map.get(64_001 + Math.floorMod(seed, size)) != null) {
+                    found++;
+                }
+            }
+            best = Math.min(best, (System.nanoTime() - start) / (double) lookups);
+        }
+
+        assertEquals(5 * lookups, found, "Every key should be found");
+        return best;
+    }
+}